@@ -0,0 +1,76 @@
+package org.apereo.cas.configuration.model.core.audit;
+
+import org.apereo.cas.configuration.support.DurationCapable;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link AuditQueueProperties}.
+ * Controls how audit records are queued and saved in batches
+ * by audit trail managers that operate asynchronously.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiresModule(name = "cas-server-core-audit", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+@JsonFilter("AuditQueueProperties")
+public class AuditQueueProperties implements Serializable {
+
+    private static final long serialVersionUID = -3179430251429863517L;
+
+    /**
+     * Maximum number of audit records that may wait
+     * in the queue before the overflow policy is applied.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Maximum number of audit records that are saved together in a single batch.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Maximum amount of time an audit record may wait in the queue
+     * before the current batch is saved, regardless of its size.
+     */
+    @DurationCapable
+    private String flushInterval = "PT1S";
+
+    /**
+     * Determine how audit records are handled once the queue is full.
+     */
+    private OverflowPolicyTypes overflowPolicy = OverflowPolicyTypes.BLOCK;
+
+    /**
+     * When the overflow policy is set to sample records,
+     * one out of this many records is accepted once the queue is full.
+     */
+    private int sampleRate = 10;
+
+    /**
+     * The overflow policy types.
+     */
+    public enum OverflowPolicyTypes {
+        /**
+         * Block the caller until space becomes available in the queue.
+         */
+        BLOCK,
+        /**
+         * Discard the oldest queued record to make room for the new record.
+         */
+        DROP_OLDEST,
+        /**
+         * Accept only a sample of new records and discard all others.
+         */
+        SAMPLE
+    }
+}
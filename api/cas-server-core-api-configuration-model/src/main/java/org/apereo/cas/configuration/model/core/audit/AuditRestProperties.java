@@ -27,4 +27,11 @@ public class AuditRestProperties extends RestEndpointProperties {
      * Make storage requests asynchronously.
      */
     private boolean asynchronous = true;
+
+    /**
+     * Post queued audit records in batches, as a single JSON array per request,
+     * when records are saved asynchronously. The endpoint must then accept
+     * arrays of audit records. Otherwise, each record is posted as a single JSON object.
+     */
+    private boolean batched;
 }
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.io.Serializable;
 import java.util.HashSet;
@@ -76,6 +77,12 @@ public class PrincipalAttributesCoreProperties implements Serializable {
      */
     private Set<String> defaultAttributesToRelease = new HashSet<>(0);
 
+    /**
+     * Settings that apply when attribute repositories are queried in parallel.
+     */
+    @NestedConfigurationProperty
+    private PrincipalAttributesParallelAggregationProperties parallel = new PrincipalAttributesParallelAggregationProperties();
+
     /**
      * The aggregation strategy types.
      */
@@ -91,7 +98,12 @@ public class PrincipalAttributesCoreProperties implements Serializable {
          *  the attributes from the first query in the result set are
          *  used as the query for the next repository.
          */
-        CASCADE
+        CASCADE,
+        /**
+         * Query multiple repositories concurrently, each bounded by a timeout,
+         * and merge the results into a single result set in the order of repositories.
+         */
+        PARALLEL
     }
 
     /**
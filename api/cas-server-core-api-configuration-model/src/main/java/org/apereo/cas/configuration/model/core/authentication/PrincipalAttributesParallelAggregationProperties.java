@@ -0,0 +1,65 @@
+package org.apereo.cas.configuration.model.core.authentication;
+
+import org.apereo.cas.configuration.support.DurationCapable;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link PrincipalAttributesParallelAggregationProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiresModule(name = "cas-server-support-person-directory", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+@JsonFilter("PrincipalAttributesParallelAggregationProperties")
+public class PrincipalAttributesParallelAggregationProperties implements Serializable {
+    private static final long serialVersionUID = 2417032840617296342L;
+
+    /**
+     * Maximum number of attribute repository queries that may run concurrently.
+     */
+    private int poolSize = 16;
+
+    /**
+     * Maximum number of attribute repository queries that may wait for a thread
+     * to become available. Once the queue is full, further queries are not run,
+     * and their attribute repositories are skipped for that query.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Maximum amount of time to wait for each attribute repository to produce results.
+     * Repositories that do not respond in time are ignored for the current query.
+     */
+    @DurationCapable
+    private String timeout = "PT5S";
+
+    /**
+     * Whether results should be merged from the attribute repositories that did respond,
+     * when one or more repositories fail, time out or are skipped. If {@code false},
+     * attribute resolution fails altogether once any repository is unable to produce results.
+     */
+    private boolean returnPartialResults = true;
+
+    /**
+     * Number of consecutive failures or timeouts after which an attribute repository
+     * is skipped for subsequent queries. A zero or negative value disables skipping repositories.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * Amount of time an attribute repository is skipped for once it has reached the failure threshold,
+     * after which it is queried again.
+     */
+    @DurationCapable
+    private String skipDuration = "PT30S";
+}
@@ -2,6 +2,7 @@ package org.apereo.cas.configuration.model.core.authentication;
 
 import org.apereo.cas.configuration.model.support.email.EmailProperties;
 import org.apereo.cas.configuration.model.support.sms.SmsProperties;
+import org.apereo.cas.configuration.support.DurationCapable;
 import org.apereo.cas.configuration.support.RequiresModule;
 
 import lombok.Getter;
@@ -63,6 +64,16 @@ public class RiskBasedAuthenticationProperties implements Serializable {
      */
     private long daysInRecentHistory = 30;
 
+    /**
+     * Keep a risk profile for each principal, built from the authentication history.
+     */
+    private Profile profile = new Profile();
+
+    /**
+     * Control how risk calculators are run to evaluate an authentication request.
+     */
+    private Evaluation evaluation = new Evaluation();
+
     @Getter
     @Setter
     @Accessors(chain = true)
@@ -129,6 +140,60 @@ public class RiskBasedAuthenticationProperties implements Serializable {
         private int windowInHours = 2;
     }
 
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    @RequiresModule(name = "cas-server-support-electrofence")
+    public static class Profile implements Serializable {
+
+        private static final long serialVersionUID = -2213866393781253416L;
+
+        /**
+         * Keep risk profiles in memory and update them as single sign-on sessions are created,
+         * rather than examining the authentication history for every authentication request.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of risk profiles to keep in memory.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Duration after which a risk profile is built again from the authentication history,
+         * so that authentication events recorded by other nodes are picked up.
+         */
+        @DurationCapable
+        private String expireAfterWrite = "PT1H";
+    }
+
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    @RequiresModule(name = "cas-server-support-electrofence")
+    public static class Evaluation implements Serializable {
+
+        private static final long serialVersionUID = 6127311905281374522L;
+
+        /**
+         * Maximum number of risk calculators that may run concurrently, across all authentication requests.
+         */
+        private int poolSize = 16;
+
+        /**
+         * Maximum number of risk calculators that may wait for a thread to become available.
+         * Once the queue is full, calculators run on the thread that handles the authentication request.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * Maximum amount of time to wait for the risk calculators to score an authentication request.
+         * Calculators that do not respond in time are treated as having found the highest risk.
+         */
+        @DurationCapable
+        private String timeout = "PT5S";
+    }
+
     @Getter
     @Setter
     @Accessors(chain = true)
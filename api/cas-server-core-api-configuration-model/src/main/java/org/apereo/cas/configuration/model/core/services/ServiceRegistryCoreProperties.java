@@ -43,6 +43,16 @@ public class ServiceRegistryCoreProperties implements Serializable {
      */
     private ServiceManagementTypes managementType = ServiceManagementTypes.DEFAULT;
 
+    /**
+     * Whether the background task that reloads services should only apply
+     * the changes made to service definitions since services were last loaded,
+     * rather than reloading every definition. Service registries that do not record
+     * when definitions are modified always reload every definition.
+     * Note that enabling this option with a relational database requires the service
+     * definitions table to carry the last-modified column.
+     */
+    private boolean incrementalReload;
+
     /**
      * Types of service managers that one can control.
      */
@@ -0,0 +1,84 @@
+package org.apereo.cas.configuration.model.core.slo;
+
+import org.apereo.cas.configuration.support.DurationCapable;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link SingleLogOutDispatcherProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiresModule(name = "cas-server-core-logout", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+@JsonFilter("SingleLogOutDispatcherProperties")
+public class SingleLogOutDispatcherProperties implements Serializable {
+
+    private static final long serialVersionUID = 6172394010457823112L;
+
+    /**
+     * Whether asynchronous back-channel logout messages should be handed off to a dispatcher
+     * that delivers them in the background with bounded concurrency, retries and an outbox for failures.
+     * When false, asynchronous messages are sent without waiting for, or tracking, the outcome.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of logout messages that may be delivered at the same time.
+     */
+    private int maxInFlight = 20;
+
+    /**
+     * Maximum number of logout messages that may be delivered at the same time to the same host,
+     * so that a slow service cannot hold up delivery to all other services.
+     */
+    private int maxInFlightPerDestination = 4;
+
+    /**
+     * Maximum number of logout messages waiting to be delivered.
+     * Messages that do not fit are put in the outbox right away.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Number of attempts made to deliver a logout message before it is put in the outbox.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Delay before the first retry of a logout message that failed to be delivered.
+     * The delay is doubled for every following attempt.
+     */
+    @DurationCapable
+    private String retryDelay = "PT2S";
+
+    /**
+     * Directory where logout messages that could not be delivered are kept,
+     * so that delivery may be attempted again later and after restarts. The directory, if created by CAS,
+     * and the messages in it are only accessible to the owner of the server process.
+     * When undefined, such messages are logged and dropped.
+     */
+    private String outboxLocation;
+
+    /**
+     * Interval at which delivery of logout messages in the outbox is attempted again.
+     */
+    @DurationCapable
+    private String outboxRedeliveryInterval = "PT5M";
+
+    /**
+     * Maximum age of a logout message, measured from the time it was first dispatched,
+     * after which it is no longer delivered from the outbox and is dropped instead.
+     */
+    @DurationCapable
+    private String outboxMaxAge = "PT24H";
+}
@@ -0,0 +1,48 @@
+package org.apereo.cas.configuration.model.core.ticket;
+
+import org.apereo.cas.configuration.support.DurationCapable;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link AttributeReleaseCacheProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiresModule(name = "cas-server-core", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+@JsonFilter("AttributeReleaseCacheProperties")
+public class AttributeReleaseCacheProperties implements Serializable {
+    private static final long serialVersionUID = 4021837154976630871L;
+
+    /**
+     * Whether attributes calculated by the attribute release policy of a registered service
+     * during service ticket validation should be remembered and reused for subsequent validations
+     * of service tickets issued by the same ticket-granting ticket to the same service.
+     * Cached results are discarded once the registered service definition changes
+     * or the ticket-granting ticket is destroyed.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of released attribute sets that may be cached.
+     */
+    private long maximumSize = 10_000L;
+
+    /**
+     * Fixed duration after which cached attributes are removed from the cache after their creation.
+     * This bounds how long changes to principal attributes in attribute repositories
+     * may go unnoticed by services that are validating tickets repeatedly.
+     */
+    @DurationCapable
+    private String expireAfterWrite = "PT5M";
+}
@@ -5,6 +5,7 @@ import org.apereo.cas.configuration.support.RequiresModule;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.io.Serializable;
 
@@ -38,4 +39,10 @@ public class ServiceTicketProperties implements Serializable {
      * Maximum length of generated service tickets.
      */
     private int maxLength = 20;
+
+    /**
+     * Control caching of attributes released to services during service ticket validation.
+     */
+    @NestedConfigurationProperty
+    private AttributeReleaseCacheProperties attributeReleaseCache = new AttributeReleaseCacheProperties();
 }
@@ -0,0 +1,56 @@
+package org.apereo.cas.configuration.model.core.ticket.registry;
+
+import org.apereo.cas.configuration.model.support.quartz.ScheduledJobProperties;
+import org.apereo.cas.configuration.support.DurationCapable;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+/**
+ * This is {@link TicketRegistryCleanerProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiresModule(name = "cas-server-core-tickets", automated = true)
+@Getter
+@Setter
+@NoArgsConstructor
+@Accessors(chain = true)
+@JsonFilter("TicketRegistryCleanerProperties")
+public class TicketRegistryCleanerProperties extends ScheduledJobProperties {
+
+    private static final long serialVersionUID = 2470569211745398718L;
+
+    /**
+     * Maximum number of expired tickets that are collected and cleaned
+     * together in a single batch. The cleaner keeps processing batches
+     * until no expired tickets remain or until the time budget is exhausted.
+     * A zero or negative value processes all expired tickets in a single batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Maximum amount of time the cleaner may spend in a single run.
+     * Once the budget is exhausted, remaining expired tickets are left
+     * for the next run. A zero value indicates that the cleaner runs
+     * until all expired tickets are removed.
+     */
+    @DurationCapable
+    private String maxRunDuration = "PT30S";
+
+    /**
+     * Settings that control how cleanup work is split across nodes.
+     */
+    @NestedConfigurationProperty
+    private TicketRegistryCleanerShardingProperties sharding = new TicketRegistryCleanerShardingProperties();
+
+    public TicketRegistryCleanerProperties(final String startDelay, final String repeatInterval) {
+        super(startDelay, repeatInterval);
+    }
+}
@@ -0,0 +1,68 @@
+package org.apereo.cas.configuration.model.core.ticket.registry;
+
+import org.apereo.cas.configuration.support.DurationCapable;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link TicketRegistryCleanerShardingProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiresModule(name = "cas-server-core-tickets", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+@JsonFilter("TicketRegistryCleanerShardingProperties")
+public class TicketRegistryCleanerShardingProperties implements Serializable {
+
+    private static final long serialVersionUID = -1270946113529375614L;
+
+    /**
+     * Whether the ticket keyspace should be split into shards that are leased
+     * to CAS nodes for cleanup, instead of having a single node clean all expired tickets.
+     * Leases are kept in a store shared by all nodes, where supported by the ticket registry.
+     */
+    private boolean enabled;
+
+    /**
+     * Number of shards the ticket keyspace is split into. All nodes must use the same value.
+     */
+    private int shardCount = 16;
+
+    /**
+     * Number of CAS nodes that are expected to take part in the cleanup,
+     * which determines the number of shards a node may lease in a single run
+     * unless that is explicitly defined.
+     */
+    private int expectedNodeCount = 4;
+
+    /**
+     * Maximum number of shards a single node may lease in a single run.
+     * A zero or negative value limits a node to its share of shards, based on the expected number of nodes.
+     * Nodes continue with the next shards on the following run, so that a single node
+     * still cleans all shards over a number of runs.
+     */
+    private int maxLeasedShards;
+
+    /**
+     * Identifier of this node, as recorded by the shard leases.
+     * Every JVM must use a distinct identifier. If undefined,
+     * a unique identifier is generated for each JVM when CAS starts.
+     */
+    private String nodeId;
+
+    /**
+     * Amount of time a shard lease is held before it expires, unless renewed.
+     * Leases are renewed by their owner between batches of cleaned tickets.
+     */
+    @DurationCapable
+    private String leaseDuration = "PT2M";
+}
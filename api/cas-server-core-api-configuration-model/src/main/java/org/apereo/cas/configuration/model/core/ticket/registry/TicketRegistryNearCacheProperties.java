@@ -0,0 +1,46 @@
+package org.apereo.cas.configuration.model.core.ticket.registry;
+
+import org.apereo.cas.configuration.support.DurationCapable;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link TicketRegistryNearCacheProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiresModule(name = "cas-server-core-tickets", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+@JsonFilter("TicketRegistryNearCacheProperties")
+public class TicketRegistryNearCacheProperties implements Serializable {
+
+    private static final long serialVersionUID = 5297402175617234781L;
+
+    /**
+     * Whether ticket-granting tickets read from a distributed ticket registry
+     * should be cached locally on each node. Changes to cached tickets are
+     * broadcast to other nodes, where supported by the ticket registry.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of tickets cached locally.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Maximum amount of time a ticket is cached locally,
+     * which also bounds how long a node may observe a stale ticket.
+     */
+    @DurationCapable
+    private String timeToLive = "PT10S";
+}
@@ -0,0 +1,64 @@
+package org.apereo.cas.configuration.model.core.ticket.registry;
+
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link TicketRegistrySerializationProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiresModule(name = "cas-server-core-tickets", automated = true)
+@Getter
+@Setter
+@Accessors(chain = true)
+@JsonFilter("TicketRegistrySerializationProperties")
+public class TicketRegistrySerializationProperties implements Serializable {
+
+    private static final long serialVersionUID = -3214528317652911274L;
+
+    /**
+     * Format used to serialize tickets, for ticket registries
+     * that store tickets in serialized form such as MongoDb or Cassandra.
+     * Tickets that were previously stored as JSON can still be read
+     * once the binary format is activated.
+     */
+    private TicketSerializationFormats format = TicketSerializationFormats.JSON;
+
+    /**
+     * Whether larger tickets should be compressed when
+     * serialized using the binary format.
+     */
+    private boolean compressionEnabled = true;
+
+    /**
+     * Whether ticket-granting tickets, when ticket encryption is enabled, should be encoded with
+     * the authentication encrypted separately from the rest of the ticket, so that updates to the ticket
+     * do not encrypt the authentication again. Ticket registries that are able to, such as Redis, also store
+     * the authentication separately and only write it again when it changes.
+     * Tickets encoded this way are always read. Roll this out in two phases: upgrade all nodes first,
+     * and only turn this on once every node is able to read such tickets.
+     */
+    private boolean separateTicketGrantingTicketAuthentication;
+
+    /**
+     * Ticket serialization formats.
+     */
+    public enum TicketSerializationFormats {
+        /**
+         * Serialize tickets as JSON.
+         */
+        JSON,
+        /**
+         * Serialize tickets using a compact, versioned binary encoding.
+         */
+        BINARY
+    }
+}
@@ -48,4 +48,12 @@ public class EncryptionRandomizedSigningJwtCryptographyProperties implements Ser
      * The signing/encryption algorithm to use.
      */
     private String alg = "AES";
+
+    /**
+     * Whether values should be encrypted using authenticated encryption (AES-GCM)
+     * with a random IV for every value, in which case values are not separately signed.
+     * Values produced in the legacy format, encrypted and then signed, can always be decoded.
+     * This may be turned off while upgrading a cluster, until all nodes are able to read the new format.
+     */
+    private boolean authenticatedEncryption = true;
 }
@@ -58,6 +58,22 @@ public class WebflowSessionManagementProperties implements Serializable {
      */
     private boolean storage;
 
+    /**
+     * Maximum size, in bytes, of the encoded flow state that is sent to the client when state is managed on the client side.
+     * Flow state is compacted and compressed before encryption; state that is still larger is stored
+     * in the ticket registry as a transient session ticket, and the client only receives a short reference to it.
+     * Zero or negative values always send the full state to the client.
+     */
+    private long maxClientStateSize;
+
+    /**
+     * Maximum amount of time flow state that is stored in the ticket registry, once it exceeds
+     * the maximum client state size, is kept for a flow that does not end.
+     * Stored state is removed as soon as its flow ends.
+     */
+    @DurationCapable
+    private String storedClientStateTimeToLive = "PT30M";
+
     /**
      * If sessions are to be replicated via Hazelcast, defines the location of a {@code hazelcast.xml}
      * file that defines how state should be replicated.
@@ -46,6 +46,20 @@ public class JpaTicketRegistryProperties extends AbstractJpaProperties {
     @DurationCapable
     private String jpaLockingTimeout = DEFAULT_LOCK_TIMEOUT;
 
+    /**
+     * Whether expired tickets should be purged from the database in bulk, rather than being
+     * handed over to the ticket registry cleaner one by one. Tickets are located by their expiration
+     * time, verified to be expired, and removed with a single statement per batch.
+     * Ticket-granting tickets and tickets whose removal cascades to other tickets
+     * are still handed over to the cleaner, so that single logout and cascading removals can take place.
+     */
+    private boolean purgeExpiredTickets;
+
+    /**
+     * Maximum number of expired tickets examined and removed in a single purge batch.
+     */
+    private int purgeBatchSize = 1_000;
+
     /**
      * Crypto settings for the registry.
      */
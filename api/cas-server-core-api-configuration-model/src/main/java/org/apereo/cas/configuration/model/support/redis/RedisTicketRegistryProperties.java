@@ -30,6 +30,18 @@ public class RedisTicketRegistryProperties extends BaseRedisProperties {
     @NestedConfigurationProperty
     private EncryptionRandomizedSigningJwtCryptographyProperties crypto = new EncryptionRandomizedSigningJwtCryptographyProperties();
 
+    /**
+     * Number of keys that redis is asked to return in each iteration
+     * of a {@code SCAN} operation when tickets are listed, counted or removed in bulk.
+     */
+    private long scanCount = 500;
+
+    /**
+     * Maximum number of tickets that are fetched or removed
+     * from redis in a single round trip when operating in bulk.
+     */
+    private int batchSize = 500;
+
     public RedisTicketRegistryProperties() {
         this.crypto.setEnabled(false);
     }
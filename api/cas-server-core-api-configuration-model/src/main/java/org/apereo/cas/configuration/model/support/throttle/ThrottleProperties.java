@@ -69,6 +69,14 @@ public class ThrottleProperties implements Serializable {
      */
     private String appCode = DEFAULT_APPLICATION_CODE;
 
+    /**
+     * Maximum number of throttling records kept in memory when failed attempts
+     * are tracked locally. Once the limit is reached, records that no longer
+     * carry any failures are evicted first, followed by records that are closest
+     * to being relieved of their failures.
+     */
+    private int inMemoryCapacity = 1_000_000;
+
     /**
      * Scheduler settings to clean up throttled attempts.
      */
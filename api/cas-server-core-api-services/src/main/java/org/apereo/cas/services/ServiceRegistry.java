@@ -46,6 +46,20 @@ public interface ServiceRegistry {
      */
     Collection<RegisteredService> load();
 
+    /**
+     * Retrieve the service definitions that have changed since the given marker.
+     * Registries that record when definitions are modified should override this operation
+     * to only load definitions saved since the marker, along with the identifiers of
+     * the definitions that remain in the data store. The default implementation loads
+     * every definition from the data store and reports the changes as complete.
+     *
+     * @param marker the marker returned with the previous set of changes, or zero to load all changes
+     * @return the changes
+     */
+    default ServiceRegistryChanges loadChangedSince(final long marker) {
+        return ServiceRegistryChanges.complete(load());
+    }
+
     /**
      * Gets services stream.
      * <p>
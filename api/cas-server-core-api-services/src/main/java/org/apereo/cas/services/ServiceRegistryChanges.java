@@ -0,0 +1,58 @@
+package org.apereo.cas.services;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.val;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link ServiceRegistryChanges}.
+ * Describes the service definitions that have changed in a service registry since a given marker.
+ * Changes are either complete, carrying every service definition in the registry, or incremental,
+ * carrying only the definitions that were saved since the marker along with the identifiers
+ * of all definitions that remain in the registry, so that deleted definitions can be detected.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Getter
+@ToString(exclude = "changedServices")
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ServiceRegistryChanges {
+    private final Collection<RegisteredService> changedServices;
+
+    private final Set<Long> serviceIds;
+
+    private final long marker;
+
+    private final boolean complete;
+
+    /**
+     * Changes that carry every service definition in the registry.
+     *
+     * @param services the services
+     * @return the changes
+     */
+    public static ServiceRegistryChanges complete(final Collection<RegisteredService> services) {
+        val serviceIds = services.stream().map(RegisteredService::getId).collect(Collectors.toSet());
+        return new ServiceRegistryChanges(services, serviceIds, 0, true);
+    }
+
+    /**
+     * Changes that carry the service definitions that were saved since the marker.
+     *
+     * @param changedServices the changed services
+     * @param serviceIds      the identifiers of all services in the registry
+     * @param marker          the marker to request the next set of changes with
+     * @return the changes
+     */
+    public static ServiceRegistryChanges incremental(final Collection<RegisteredService> changedServices,
+                                                     final Set<Long> serviceIds, final long marker) {
+        return new ServiceRegistryChanges(changedServices, serviceIds, marker, false);
+    }
+}
@@ -171,6 +171,17 @@ public interface ServicesManager extends Ordered {
      */
     Collection<RegisteredService> load();
 
+    /**
+     * Inform the ServicesManager to apply the changes made to service definitions
+     * since services were last loaded, rather than reloading every definition.
+     * Managers whose registries cannot track changes fall back to a complete reload.
+     *
+     * @return the collection
+     */
+    default Collection<RegisteredService> loadChanges() {
+        return load();
+    }
+
     /**
      * Return a count of loaded services by this manager.
      *
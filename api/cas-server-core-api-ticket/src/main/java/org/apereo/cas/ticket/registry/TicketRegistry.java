@@ -1,7 +1,10 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -106,6 +109,41 @@ public interface TicketRegistry {
      */
     Ticket updateTicket(Ticket ticket);
 
+    /**
+     * Add and update a number of related tickets together, typically a ticket
+     * that is granted along with the updated state of its parent ticket.
+     * Tickets to update are written before tickets to add.
+     * Registries that are backed by a remote store may override this operation
+     * to write all tickets in a single round trip, and atomically where the store allows it.
+     *
+     * @param ticketsToAdd    the tickets to add
+     * @param ticketsToUpdate the tickets to update
+     */
+    default void addAndUpdate(final Collection<? extends Ticket> ticketsToAdd, final Collection<? extends Ticket> ticketsToUpdate) {
+        ticketsToUpdate.forEach(this::updateTicket);
+        ticketsToAdd.forEach(this::addTicket);
+    }
+
+    /**
+     * Consume a single use of the ticket, typically a service ticket that is being validated.
+     * The usage of the ticket is updated, and the ticket is removed from the registry
+     * once it has no remaining uses. Only one caller may consume the last use of a ticket;
+     * callers that race to consume it as well are refused, without the need for locking.
+     *
+     * @param ticket the ticket
+     * @return true if the use was consumed by the caller, or false if the ticket was already consumed
+     */
+    default boolean consumeTicket(final Ticket ticket) {
+        if (ticket instanceof TicketState) {
+            ((TicketState) ticket).update();
+        }
+        if (ticket.isExpired()) {
+            return deleteTicket(ticket.getId()) > 0;
+        }
+        updateTicket(ticket);
+        return true;
+    }
+
     /**
      * Computes the number of SSO sessions stored in the ticket registry.
      *
@@ -132,6 +170,20 @@ public interface TicketRegistry {
         return getTickets().stream();
     }
 
+    /**
+     * Gets the tickets whose prefix is one of the given ticket prefixes, as a stream.
+     * Implementations that can narrow down tickets by their prefix before decoding them should override this.
+     * <p>
+     * The returning stream may be bound to an IO channel (such as database connection),
+     * so it should be properly closed after usage.
+     *
+     * @param ticketPrefixes the ticket prefixes
+     * @return the tickets stream
+     */
+    default Stream<? extends Ticket> getTicketsStream(final Collection<String> ticketPrefixes) {
+        return getTicketsStream().filter(ticket -> ticketPrefixes.contains(ticket.getPrefix()));
+    }
+
     /**
      * Count the number of single sign-on sessions
      * that are recorded in the ticket registry for
@@ -141,4 +193,113 @@ public interface TicketRegistry {
      * @return the count
      */
     long countSessionsFor(String principalId);
+
+    /**
+     * Gets the single sign-on sessions (ticket-granting tickets)
+     * that are recorded in the ticket registry for the given user name.
+     * Implementations that maintain a principal index should override this
+     * to avoid scanning the entire registry.
+     * <p>
+     * The returning stream may be bound to an IO channel (such as database connection),
+     * so it should be properly closed after usage.
+     *
+     * @param principalId the principal id
+     * @return the sessions
+     */
+    default Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        return getTickets(ticket -> ticket instanceof TicketGrantingTicket
+            && ((TicketGrantingTicket) ticket).getAuthentication().getPrincipal().getId().equalsIgnoreCase(principalId));
+    }
+
+    /**
+     * Gets the tickets that are expired and are due to be cleaned up.
+     * Implementations that maintain an expiration index should override this
+     * to only visit tickets whose expiration deadline has passed, in order of their deadline,
+     * rather than scanning the entire registry.
+     * <p>
+     * The returning stream may be bound to an IO channel (such as database connection),
+     * so it should be properly closed after usage.
+     *
+     * @return the expired tickets
+     */
+    default Stream<? extends Ticket> getExpiredTickets() {
+        return getTickets(Ticket::isExpired);
+    }
+
+    /**
+     * Gets the tickets that are expired and belong to the given shards, when the ticket keyspace
+     * is split into a number of shards by {@link #getShard(String, int)}.
+     * Implementations that are able to should evaluate the shard of a ticket before
+     * fetching and decoding it, so that tickets in other shards are not read at all.
+     *
+     * @param shardCount the shard count
+     * @param shards     the shards
+     * @return the expired tickets
+     */
+    default Stream<? extends Ticket> getExpiredTickets(final int shardCount, final Collection<Integer> shards) {
+        return getExpiredTickets().filter(ticket -> shards.contains(getShard(ticket.getId(), shardCount)));
+    }
+
+    /**
+     * Determine the shard to which the ticket belongs, when the ticket keyspace is split into a number of shards.
+     * Implementations may base the shard on the key under which the ticket is stored,
+     * as long as every node computes the same shard for the same ticket.
+     *
+     * @param ticketId   the ticket id
+     * @param shardCount the shard count
+     * @return the shard
+     */
+    default int getShard(final String ticketId, final int shardCount) {
+        return Math.floorMod(ticketId.hashCode(), shardCount);
+    }
+
+    /**
+     * Remove expired tickets that can be removed in bulk, because they require
+     * neither single logout nor cascading removals, ahead of the cleaner examining
+     * the remaining expired tickets one at a time.
+     *
+     * @return number of tickets removed
+     */
+    default long purgeExpiredTickets() {
+        return 0;
+    }
+
+    /**
+     * Computes the number of tickets whose expiration deadline has passed
+     * and are still waiting to be cleaned up.
+     *
+     * @return number of expired tickets pending removal or {@link Integer#MIN_VALUE} if unknown.
+     */
+    default long getExpiredTicketsBacklog() {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Computes how far behind the cleanup process is, as the time elapsed since
+     * the oldest pending expiration deadline has passed.
+     *
+     * @return the lag, or {@link Duration#ZERO} if there is no backlog or if unknown.
+     */
+    default Duration getExpiredTicketsLag() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Computes the number of ticket reads that were served from a local cache.
+     *
+     * @return number of cache hits or {@link Integer#MIN_VALUE} if the registry does not cache tickets locally.
+     */
+    default long getCacheHitCount() {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Computes the number of ticket reads that were not found in a local cache
+     * and were read from the underlying storage.
+     *
+     * @return number of cache misses or {@link Integer#MIN_VALUE} if the registry does not cache tickets locally.
+     */
+    default long getCacheMissCount() {
+        return Integer.MIN_VALUE;
+    }
 }
@@ -0,0 +1,34 @@
+package org.apereo.cas.ticket.registry.support;
+
+import java.time.Duration;
+
+/**
+ * Stores time-bound leases on partitions (shards) of the ticket keyspace,
+ * so that the work of cleaning expired tickets can be split across nodes.
+ * A lease is held by a single owner until it is released or until it expires,
+ * and must be renewed by its owner periodically to be kept.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+public interface TicketRegistryCleanerLeaseStore {
+
+    /**
+     * Acquire the lease on the shard, or renew it if it's already held by the owner.
+     * Leases held by other owners can only be acquired once expired.
+     *
+     * @param shard         the shard
+     * @param owner         the owner
+     * @param leaseDuration the lease duration
+     * @return true if the lease is held by the owner
+     */
+    boolean acquire(int shard, String owner, Duration leaseDuration);
+
+    /**
+     * Release the lease on the shard, if held by the owner.
+     *
+     * @param shard the shard
+     * @param owner the owner
+     */
+    void release(int shard, String owner);
+}
@@ -1,27 +1,48 @@
 package org.apereo.cas.audit.spi;
 
+import org.apereo.cas.util.LoggingUtils;
+
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.apereo.inspektr.audit.AuditActionContext;
 import org.apereo.inspektr.audit.AuditTrailManager;
 import org.springframework.beans.factory.DisposableBean;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is {@link AbstractAuditTrailManager}.
+ * When operating asynchronously, audit records are placed into a bounded queue
+ * and are written to the underlying storage in batches by a single background worker,
+ * once either the batch size is reached or the flush interval has passed.
+ * The {@link OverflowPolicy} controls how records are handled when the queue is full.
+ * Once the manager is destroyed or the background worker has stopped, records are saved
+ * immediately rather than waiting for space in a queue that is no longer processed.
+ * Batches that fail to save are retried according to the {@link OverflowPolicy}: with {@link OverflowPolicy#BLOCK}
+ * the batch is saved again after the flush interval until it succeeds, while with other policies the records
+ * are put back on the queue as far as room allows. Records that cannot be retried are discarded and counted.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
+@Slf4j
 @Setter
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@AllArgsConstructor(access = AccessLevel.PROTECTED)
 public abstract class AbstractAuditTrailManager implements AuditTrailManager, DisposableBean {
 
     /**
@@ -29,13 +50,71 @@ public abstract class AbstractAuditTrailManager implements AuditTrailManager, Di
      */
     protected boolean asynchronous;
 
+    /**
+     * Maximum number of audit records waiting to be saved asynchronously.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum number of audit records saved together in a single batch.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Maximum amount of time an audit record may wait in the queue before the batch is flushed.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * How records are handled once the queue is full.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * When sampling, one out of this many records is accepted once the queue is full.
+     */
+    private int sampleRate = 10;
+
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong droppedRecords = new AtomicLong();
+
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong savedRecords = new AtomicLong();
+
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong savedBatches = new AtomicLong();
+
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong failedRecords = new AtomicLong();
+
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong overflowCounter = new AtomicLong();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private final ExecutorService executorService = Executors.newSingleThreadExecutor(
         r -> new Thread(r, "AuditTrailManagerThread"));
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile BlockingQueue<AuditActionContext> queue;
+
+    protected AbstractAuditTrailManager(final boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
     @Override
     public void record(final AuditActionContext audit) {
         if (this.asynchronous) {
-            this.executorService.execute(() -> saveAuditRecord(audit));
+            enqueue(audit);
         } else {
             saveAuditRecord(audit);
         }
@@ -43,12 +122,224 @@ public abstract class AbstractAuditTrailManager implements AuditTrailManager, Di
 
     @Override
     public void destroy() {
+        this.running.set(false);
         this.executorService.shutdown();
+        try {
+            if (!this.executorService.awaitTermination(flushInterval.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+                this.executorService.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.queue != null && !this.queue.isEmpty()) {
+            val remaining = new ArrayList<AuditActionContext>(this.queue.size());
+            this.queue.drainTo(remaining);
+            LOGGER.debug("Saving [{}] remaining audit record(s) before shutdown", remaining.size());
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Number of audit records waiting in the queue to be saved.
+     *
+     * @return the pending records count
+     */
+    public int getPendingRecords() {
+        return this.queue == null ? 0 : this.queue.size();
     }
 
     /**
      * Actual audit record save method.
+     *
      * @param audit Audit record to be saved.
      */
     protected abstract void saveAuditRecord(AuditActionContext audit);
+
+    /**
+     * Save a batch of audit records. Implementations should override
+     * this to take advantage of bulk operations supported by the underlying storage.
+     * The default implementation saves each record individually.
+     *
+     * @param audits the audit records
+     */
+    protected void saveAuditRecords(final Collection<AuditActionContext> audits) {
+        audits.forEach(this::saveAuditRecord);
+    }
+
+    private void enqueue(final AuditActionContext audit) {
+        val auditQueue = getOrCreateQueue();
+        if (auditQueue == null) {
+            LOGGER.trace("Audit queue is no longer processed; saving record immediately");
+            saveAuditRecord(audit);
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                while (!auditQueue.offer(audit)) {
+                    if (auditQueue.poll() != null) {
+                        droppedRecords.incrementAndGet();
+                    }
+                }
+                break;
+            case SAMPLE:
+                if (!auditQueue.offer(audit)) {
+                    if (overflowCounter.incrementAndGet() % Math.max(1, sampleRate) == 0 && auditQueue.poll() != null) {
+                        auditQueue.offer(audit);
+                    }
+                    droppedRecords.incrementAndGet();
+                }
+                break;
+            case BLOCK:
+            default:
+                try {
+                    while (!auditQueue.offer(audit, flushInterval.toMillis(), TimeUnit.MILLISECONDS)) {
+                        if (!running.get()) {
+                            LOGGER.warn("Audit queue is full and is no longer processed; saving record immediately");
+                            saveAuditRecord(audit);
+                            break;
+                        }
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    LOGGER.warn("Interrupted while waiting to queue audit record; saving record immediately");
+                    saveAuditRecord(audit);
+                }
+                break;
+        }
+    }
+
+    private BlockingQueue<AuditActionContext> getOrCreateQueue() {
+        var auditQueue = this.queue;
+        if (auditQueue == null) {
+            synchronized (this.running) {
+                auditQueue = this.queue;
+                if (auditQueue == null) {
+                    if (this.executorService.isShutdown()) {
+                        return null;
+                    }
+                    auditQueue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+                    this.queue = auditQueue;
+                    this.running.set(true);
+                    this.executorService.execute(this::processQueue);
+                }
+            }
+        }
+        return this.running.get() ? auditQueue : null;
+    }
+
+    private void processQueue() {
+        try {
+            processQueueRecords();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void processQueueRecords() {
+        val maxBatchSize = Math.max(1, batchSize);
+        val batch = new ArrayList<AuditActionContext>(maxBatchSize);
+        while (running.get()) {
+            try {
+                val first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    val deadline = System.nanoTime() + flushInterval.toNanos();
+                    while (batch.size() < maxBatchSize) {
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                        val remaining = deadline - System.nanoTime();
+                        if (batch.size() >= maxBatchSize || remaining <= 0) {
+                            break;
+                        }
+                        val next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    flush(batch);
+                    batch.clear();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(final List<AuditActionContext> batch) {
+        if (!batch.isEmpty()) {
+            var saved = saveBatch(batch);
+            while (!saved && overflowPolicy == OverflowPolicy.BLOCK && running.get() && pause()) {
+                LOGGER.debug("Retrying batch of [{}] audit record(s)", batch.size());
+                saved = saveBatch(batch);
+            }
+            if (!saved) {
+                requeue(batch);
+            }
+        }
+    }
+
+    private boolean saveBatch(final List<AuditActionContext> batch) {
+        try {
+            LOGGER.trace("Saving batch of [{}] audit record(s)", batch.size());
+            saveAuditRecords(new ArrayList<>(batch));
+            savedRecords.addAndGet(batch.size());
+            savedBatches.incrementAndGet();
+            return true;
+        } catch (final Exception e) {
+            failedBatches.incrementAndGet();
+            LoggingUtils.error(LOGGER, e);
+            return false;
+        }
+    }
+
+    private void requeue(final List<AuditActionContext> batch) {
+        val auditQueue = this.queue;
+        var requeued = 0;
+        if (overflowPolicy != OverflowPolicy.BLOCK && auditQueue != null && running.get()) {
+            while (requeued < batch.size() && auditQueue.offer(batch.get(requeued))) {
+                requeued++;
+            }
+            LOGGER.debug("Queued [{}] audit record(s) again after failing to save them", requeued);
+            pause();
+        }
+        val discarded = batch.size() - requeued;
+        if (discarded > 0) {
+            LOGGER.warn("Discarding [{}] audit record(s) that could not be saved", discarded);
+            failedRecords.addAndGet(discarded);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(flushInterval.toMillis());
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Policies that determine how audit records are handled
+     * once the asynchronous queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Block the caller until space becomes available in the queue,
+         * or save the record immediately if the queue is no longer processed.
+         */
+        BLOCK,
+        /**
+         * Discard the oldest queued record to make room for the new record.
+         */
+        DROP_OLDEST,
+        /**
+         * Accept only a sample of new records, discarding the oldest queued record
+         * for each sampled record, and discard all others.
+         */
+        SAMPLE
+    }
 }
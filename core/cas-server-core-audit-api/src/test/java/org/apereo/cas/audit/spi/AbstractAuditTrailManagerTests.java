@@ -0,0 +1,238 @@
+package org.apereo.cas.audit.spi;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link AbstractAuditTrailManagerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Audits")
+@SuppressWarnings("JavaUtilDate")
+public class AbstractAuditTrailManagerTests {
+
+    private static AuditActionContext getAuditActionContext(final int index) {
+        return new AuditActionContext("casuser" + index, "TEST", "TEST",
+            "CAS", new Date(), "1.2.3.4", "1.2.3.4");
+    }
+
+    @Test
+    public void verifySynchronous() {
+        val manager = new BatchingAuditTrailManager(false);
+        manager.record(getAuditActionContext(1));
+        assertEquals(1, manager.getRecords().size());
+        assertTrue(manager.getBatches().isEmpty());
+        manager.destroy();
+    }
+
+    @Test
+    public void verifyBatchesBySize() throws Exception {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setBatchSize(10);
+        manager.setFlushInterval(Duration.ofSeconds(30));
+        manager.setLatch(new CountDownLatch(2));
+        IntStream.range(0, 20).forEach(i -> manager.record(getAuditActionContext(i)));
+        assertTrue(manager.getLatch().await(10, TimeUnit.SECONDS));
+        assertEquals(20, manager.getRecords().size());
+        assertTrue(manager.getBatches().stream().allMatch(size -> size <= 10));
+        assertEquals(20, manager.getSavedRecords().get());
+        manager.destroy();
+    }
+
+    @Test
+    public void verifyBatchesByTime() throws Exception {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setBatchSize(100);
+        manager.setFlushInterval(Duration.ofMillis(100));
+        manager.setLatch(new CountDownLatch(1));
+        IntStream.range(0, 5).forEach(i -> manager.record(getAuditActionContext(i)));
+        assertTrue(manager.getLatch().await(10, TimeUnit.SECONDS));
+        assertEquals(5, manager.getRecords().size());
+        manager.destroy();
+    }
+
+    @Test
+    public void verifyDropOldest() {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setQueueCapacity(5);
+        manager.setBatchSize(1);
+        manager.setOverflowPolicy(AbstractAuditTrailManager.OverflowPolicy.DROP_OLDEST);
+        manager.setBlocked(true);
+        IntStream.range(0, 50).forEach(i -> manager.record(getAuditActionContext(i)));
+        assertTrue(manager.getPendingRecords() <= 5);
+        assertTrue(manager.getDroppedRecords().get() > 0);
+        manager.setBlocked(false);
+        manager.destroy();
+        assertTrue(manager.getRecords().stream().anyMatch(audit -> "casuser49".equals(audit.getPrincipal())));
+    }
+
+    @Test
+    public void verifySample() {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setQueueCapacity(5);
+        manager.setSampleRate(5);
+        manager.setBatchSize(1);
+        manager.setOverflowPolicy(AbstractAuditTrailManager.OverflowPolicy.SAMPLE);
+        manager.setBlocked(true);
+        IntStream.range(0, 50).forEach(i -> manager.record(getAuditActionContext(i)));
+        assertTrue(manager.getPendingRecords() <= 5);
+        assertTrue(manager.getDroppedRecords().get() > 0);
+        manager.setBlocked(false);
+        manager.destroy();
+    }
+
+    @Test
+    public void verifyBlockAfterDestroy() {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setQueueCapacity(1);
+        manager.setFlushInterval(Duration.ofMillis(100));
+        manager.record(getAuditActionContext(0));
+        manager.destroy();
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> IntStream.range(1, 10).forEach(i -> manager.record(getAuditActionContext(i))));
+        assertEquals(10, manager.getRecords().size());
+    }
+
+    @Test
+    public void verifyBlockAfterWorkerFailure() {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setQueueCapacity(1);
+        manager.setBatchSize(1);
+        manager.setFlushInterval(Duration.ofMillis(100));
+        manager.setFailing(true);
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> IntStream.range(0, 10).forEach(i -> manager.record(getAuditActionContext(i))));
+        assertTrue(manager.getRecords().size() >= 8);
+        manager.destroy();
+        assertEquals(9, manager.getRecords().size());
+    }
+
+    @Test
+    public void verifyFailedBatchRetriedWhenBlocking() throws Exception {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setFlushInterval(Duration.ofMillis(50));
+        manager.setLatch(new CountDownLatch(1));
+        manager.getFailures().set(2);
+        IntStream.range(0, 3).forEach(i -> manager.record(getAuditActionContext(i)));
+        assertTrue(manager.getLatch().await(10, TimeUnit.SECONDS));
+        assertEquals(2, manager.getFailedBatches().get());
+        manager.destroy();
+        assertEquals(3, manager.getRecords().size());
+        assertEquals(0, manager.getFailedRecords().get());
+    }
+
+    @Test
+    public void verifyFailedBatchQueuedAgain() throws Exception {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setFlushInterval(Duration.ofMillis(50));
+        manager.setOverflowPolicy(AbstractAuditTrailManager.OverflowPolicy.DROP_OLDEST);
+        manager.setLatch(new CountDownLatch(1));
+        manager.getFailures().set(1);
+        IntStream.range(0, 3).forEach(i -> manager.record(getAuditActionContext(i)));
+        assertTrue(manager.getLatch().await(10, TimeUnit.SECONDS));
+        assertEquals(1, manager.getFailedBatches().get());
+        manager.destroy();
+        assertEquals(3, manager.getRecords().size());
+        assertEquals(0, manager.getFailedRecords().get());
+    }
+
+    @Test
+    public void verifyFailedRecordsCounted() {
+        val manager = new BatchingAuditTrailManager(true);
+        manager.setFlushInterval(Duration.ofMillis(50));
+        manager.setOverflowPolicy(AbstractAuditTrailManager.OverflowPolicy.DROP_OLDEST);
+        manager.getFailures().set(Integer.MAX_VALUE);
+        IntStream.range(0, 3).forEach(i -> manager.record(getAuditActionContext(i)));
+        manager.destroy();
+        assertTrue(manager.getRecords().isEmpty());
+        assertEquals(3, manager.getFailedRecords().get());
+        assertTrue(manager.getFailedBatches().get() > 0);
+    }
+
+    @Getter
+    private static class BatchingAuditTrailManager extends AbstractAuditTrailManager {
+        private final List<AuditActionContext> records = new CopyOnWriteArrayList<>();
+
+        private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        private volatile boolean failing;
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        BatchingAuditTrailManager(final boolean asynchronous) {
+            super(asynchronous);
+        }
+
+        public void setLatch(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        public void setBlocked(final boolean blocked) {
+            if (blocked) {
+                this.release = new CountDownLatch(1);
+            } else {
+                this.release.countDown();
+            }
+        }
+
+        public void setFailing(final boolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        protected void saveAuditRecord(final AuditActionContext audit) {
+            records.add(audit);
+        }
+
+        @Override
+        @SneakyThrows
+        protected void saveAuditRecords(final Collection<AuditActionContext> audits) {
+            release.await();
+            if (failing) {
+                failing = false;
+                throw new AssertionError("Audit worker failed");
+            }
+            if (failures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                throw new IllegalStateException("Audit records cannot be saved");
+            }
+            batches.add(audits.size());
+            records.addAll(new ArrayList<>(audits));
+            latch.countDown();
+        }
+
+        @Override
+        public Set<? extends AuditActionContext> getAuditRecordsSince(final LocalDate localDate) {
+            return Set.copyOf(records);
+        }
+
+        @Override
+        public void removeAll() {
+            records.clear();
+        }
+    }
+}
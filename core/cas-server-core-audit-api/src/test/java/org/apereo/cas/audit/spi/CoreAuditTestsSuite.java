@@ -18,6 +18,7 @@ import org.junit.runner.RunWith;
  * @since 6.0.0
  */
 @SelectClasses({
+    AbstractAuditTrailManagerTests.class,
     AuditActionContextJsonSerializerTests.class,
     ServiceAuditResourceResolverTests.class,
     DefaultAuditTrailRecordResolutionPlanTests.class,
@@ -8,6 +8,7 @@ import org.apereo.cas.audit.AuditTrailExecutionPlan;
 import org.apereo.cas.audit.AuditTrailExecutionPlanConfigurer;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlan;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlanConfigurer;
+import org.apereo.cas.audit.spi.AbstractAuditTrailManager;
 import org.apereo.cas.audit.spi.plan.DefaultAuditTrailExecutionPlan;
 import org.apereo.cas.audit.spi.plan.DefaultAuditTrailRecordResolutionPlan;
 import org.apereo.cas.audit.spi.principal.ChainingAuditPrincipalIdProvider;
@@ -18,6 +19,7 @@ import org.apereo.cas.audit.spi.resource.ServiceAuditResourceResolver;
 import org.apereo.cas.audit.spi.resource.TicketAsFirstParameterResourceResolver;
 import org.apereo.cas.audit.spi.resource.TicketValidationResourceResolver;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.util.CollectionUtils;
 
 import lombok.extern.slf4j.Slf4j;
@@ -126,6 +128,18 @@ public class CasCoreAuditConfiguration {
             LOGGER.trace("Configuring audit trail execution plan via [{}]", c.getName());
             c.configureAuditTrailExecutionPlan(plan);
         });
+        val queue = casProperties.getAudit().getEngine().getQueue();
+        plan.getAuditTrailManagers()
+            .stream()
+            .filter(AbstractAuditTrailManager.class::isInstance)
+            .map(AbstractAuditTrailManager.class::cast)
+            .forEach(manager -> {
+                manager.setQueueCapacity(queue.getCapacity());
+                manager.setBatchSize(queue.getBatchSize());
+                manager.setFlushInterval(Beans.newDuration(queue.getFlushInterval()));
+                manager.setOverflowPolicy(AbstractAuditTrailManager.OverflowPolicy.valueOf(queue.getOverflowPolicy().name()));
+                manager.setSampleRate(queue.getSampleRate());
+            });
         return plan;
     }
 
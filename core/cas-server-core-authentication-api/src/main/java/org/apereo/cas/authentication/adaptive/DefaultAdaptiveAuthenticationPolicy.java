@@ -5,6 +5,7 @@ import org.apereo.cas.authentication.adaptive.geo.GeoLocationResponse;
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationService;
 import org.apereo.cas.authentication.adaptive.intel.IPAddressIntelligenceService;
 import org.apereo.cas.configuration.model.core.authentication.AdaptiveAuthenticationProperties;
+import org.apereo.cas.util.RegexUtils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,8 +14,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apereo.inspektr.common.web.ClientInfoHolder;
 import org.springframework.webflow.execution.RequestContext;
 
-import java.util.regex.Pattern;
-
 /**
  * This is {@link DefaultAdaptiveAuthenticationPolicy}.
  *
@@ -67,13 +66,13 @@ public class DefaultAdaptiveAuthenticationPolicy implements AdaptiveAuthenticati
     private boolean isGeoLocationCountryRejected(final GeoLocationResponse finalLoc) {
         val rejectCountries = this.adaptiveAuthenticationProperties.getPolicy().getRejectCountries();
         return StringUtils.isNotBlank(rejectCountries)
-            && Pattern.compile(rejectCountries).matcher(finalLoc.build()).find();
+            && RegexUtils.createPattern(rejectCountries, 0).matcher(finalLoc.build()).find();
     }
 
     private boolean isUserAgentRejected(final String userAgent) {
         val rejectBrowsers = this.adaptiveAuthenticationProperties.getPolicy().getRejectBrowsers();
         return StringUtils.isNotBlank(rejectBrowsers)
-            && Pattern.compile(rejectBrowsers).matcher(userAgent).find();
+            && RegexUtils.createPattern(rejectBrowsers, 0).matcher(userAgent).find();
     }
 
     private boolean isIpAddressRejected(final RequestContext requestContext, final String clientIp) {
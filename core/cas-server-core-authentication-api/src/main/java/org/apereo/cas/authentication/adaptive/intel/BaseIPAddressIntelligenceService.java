@@ -1,6 +1,7 @@
 package org.apereo.cas.authentication.adaptive.intel;
 
 import org.apereo.cas.configuration.model.core.authentication.AdaptiveAuthenticationProperties;
+import org.apereo.cas.util.RegexUtils;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -8,8 +9,6 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.webflow.execution.RequestContext;
 
-import java.util.regex.Pattern;
-
 /**
  * This is {@link BaseIPAddressIntelligenceService}.
  *
@@ -30,7 +29,7 @@ public abstract class BaseIPAddressIntelligenceService implements IPAddressIntel
     private boolean isClientIpAddressRejected(final String clientIp) {
         val rejectIpAddresses = this.adaptiveAuthenticationProperties.getPolicy().getRejectIpAddresses();
         return StringUtils.isNotBlank(rejectIpAddresses)
-            && Pattern.compile(rejectIpAddresses).matcher(clientIp).find();
+            && RegexUtils.createPattern(rejectIpAddresses, 0).matcher(clientIp).find();
     }
 
     @Override
@@ -9,6 +9,7 @@ import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.services.RegisteredService;
 import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.RegexUtils;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -74,7 +75,7 @@ public class AuthenticationAttributeMultifactorAuthenticationTrigger implements
             LOGGER.debug("Found a single multifactor provider [{}] in the application context", provider);
             val result = multifactorAuthenticationProviderResolver.resolveEventViaAuthenticationAttribute(
                 authentication, attributeNames, registeredService, Optional.empty(), providers,
-                (attributeValue, mfaProvider) -> attributeValue != null && attributeValue.matches(globalAuthenticationAttributeValueRegex));
+                (attributeValue, mfaProvider) -> attributeValue != null && RegexUtils.matches(globalAuthenticationAttributeValueRegex, attributeValue));
             if (result != null && !result.isEmpty()) {
                 return Optional.of(provider);
             }
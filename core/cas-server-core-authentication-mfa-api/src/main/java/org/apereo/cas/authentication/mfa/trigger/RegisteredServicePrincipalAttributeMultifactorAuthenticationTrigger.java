@@ -23,7 +23,6 @@ import org.springframework.core.Ordered;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 /**
  * This is {@link RegisteredServicePrincipalAttributeMultifactorAuthenticationTrigger}.
@@ -80,7 +79,7 @@ public class RegisteredServicePrincipalAttributeMultifactorAuthenticationTrigger
             org.springframework.util.StringUtils.commaDelimitedListToSet(policy.getPrincipalAttributeNameTrigger()),
             registeredService, Optional.empty(), providers,
             (attributeValue, mfaProvider) ->
-                attributeValue != null && RegexUtils.matches(Pattern.compile(policy.getPrincipalAttributeValueToMatch()), attributeValue));
+                attributeValue != null && RegexUtils.matches(policy.getPrincipalAttributeValueToMatch(), attributeValue));
 
         if (result != null && !result.isEmpty()) {
             val id = CollectionUtils.firstElement(result);
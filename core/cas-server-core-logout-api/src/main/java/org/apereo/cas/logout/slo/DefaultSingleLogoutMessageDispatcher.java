@@ -0,0 +1,346 @@
+package org.apereo.cas.logout.slo;
+
+import org.apereo.cas.configuration.model.core.slo.SingleLogOutDispatcherProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.util.LoggingUtils;
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link DefaultSingleLogoutMessageDispatcher}.
+ * Delivers logout messages on a fixed number of threads, which bounds the number of messages in flight.
+ * The number of messages in flight to the same host is bounded as well, so that a slow service does not
+ * hold up delivery to others; messages to a busy host are queued per host, without occupying a thread,
+ * and are handed the slot of the message that completes before them.
+ * Messages that fail are retried with exponential backoff, and are put in the {@link SingleLogoutMessageOutbox}
+ * once all attempts fail, if too many messages are waiting, or if the dispatcher is shut down before
+ * they could be delivered. Messages in the outbox are dispatched again periodically, until they
+ * are older than the configured maximum age, after which they are dropped.
+ * Connections are pooled per host by the underlying {@link HttpClient}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+@Getter
+public class DefaultSingleLogoutMessageDispatcher implements SingleLogoutMessageDispatcher, DisposableBean {
+    private static final long TERMINATION_TIMEOUT_SECONDS = 5;
+
+    @Getter(AccessLevel.NONE)
+    private final HttpClient httpClient;
+
+    @Getter(AccessLevel.NONE)
+    private final SingleLogoutMessageOutbox outbox;
+
+    private final SingleLogOutDispatcherProperties properties;
+
+    private final SingleLogoutDispatchStatistics statistics = new SingleLogoutDispatchStatistics();
+
+    @Getter(AccessLevel.NONE)
+    private final ScheduledExecutorService executorService;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    private final Set<DispatchTask> pending = ConcurrentHashMap.newKeySet();
+
+    private final Duration retryDelay;
+
+    private final Duration outboxMaxAge;
+
+    public DefaultSingleLogoutMessageDispatcher(final HttpClient httpClient,
+                                                final SingleLogoutMessageOutbox outbox,
+                                                final SingleLogOutDispatcherProperties properties) {
+        this.httpClient = httpClient;
+        this.outbox = outbox;
+        this.properties = properties;
+        this.retryDelay = Beans.newDuration(properties.getRetryDelay());
+        this.outboxMaxAge = Beans.newDuration(properties.getOutboxMaxAge());
+        this.executorService = Executors.newScheduledThreadPool(properties.getMaxInFlight());
+        val redeliveryInterval = Beans.newDuration(properties.getOutboxRedeliveryInterval()).toMillis();
+        if (redeliveryInterval > 0) {
+            executorService.scheduleWithFixedDelay(this::redeliver, redeliveryInterval, redeliveryInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public boolean dispatch(final HttpMessage message) {
+        statistics.dispatched.increment();
+        if (pending.size() >= properties.getQueueCapacity()) {
+            LOGGER.warn("Too many logout messages are waiting to be delivered; logout message to [{}] is put in the outbox",
+                message.getUrl());
+            statistics.rejected.increment();
+            outbox.store(message);
+            return true;
+        }
+        val task = new DispatchTask(new DispatchedHttpMessage(message), message.getUrl().getAuthority());
+        pending.add(task);
+        return schedule(task, 0);
+    }
+
+    /**
+     * Dispatch all messages in the outbox again.
+     * Messages that were first dispatched longer ago than the maximum age are dropped.
+     * A message leaves the outbox once it is handed to the dispatcher, which puts it back
+     * in the outbox if it cannot be delivered.
+     */
+    public void redeliver() {
+        try {
+            val oldest = Instant.now().minus(outboxMaxAge);
+            outbox.retrieve(message -> {
+                if (message instanceof DispatchedHttpMessage
+                    && ((DispatchedHttpMessage) message).getCreationTime().isBefore(oldest)) {
+                    LOGGER.warn("Logout message to [{}] is older than [{}] and is dropped", message.getUrl(), outboxMaxAge);
+                    statistics.expired.increment();
+                } else {
+                    LOGGER.debug("Dispatching logout message to [{}] from the outbox again", message.getUrl());
+                    dispatch(message);
+                }
+            });
+        } catch (final Exception e) {
+            LoggingUtils.error(LOGGER, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+        try {
+            executorService.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pending.forEach(task -> outbox.store(task.message));
+        pending.clear();
+    }
+
+    private boolean schedule(final DispatchTask task, final long delayMillis) {
+        try {
+            executorService.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Logout message to [{}] cannot be scheduled and is put in the outbox", task.message.getUrl());
+            pending.remove(task);
+            outbox.store(task.message);
+            return false;
+        }
+    }
+
+    private void deliver(final DispatchTask task) {
+        val destination = destinations.computeIfAbsent(task.destination, k -> new Destination());
+        if (!task.permitted && !destination.acquire(task)) {
+            LOGGER.trace("Destination [{}] is busy; logout message is queued until a message to it completes", task.destination);
+            return;
+        }
+        task.permitted = false;
+        var delivered = false;
+        val start = System.nanoTime();
+        try {
+            task.attempts++;
+            delivered = httpClient.sendMessageToEndPoint(task.message);
+        } catch (final Exception e) {
+            LOGGER.debug(e.getMessage(), e);
+        } finally {
+            statistics.record(System.nanoTime() - start);
+            val next = destination.release();
+            if (next != null) {
+                next.permitted = true;
+                schedule(next, 0);
+            }
+        }
+
+        if (delivered) {
+            LOGGER.debug("Delivered logout message to [{}] after [{}] attempt(s)", task.message.getUrl(), task.attempts);
+            statistics.delivered.increment();
+            pending.remove(task);
+        } else if (task.attempts < properties.getMaxAttempts()) {
+            val delay = retryDelay.toMillis() << (task.attempts - 1);
+            LOGGER.debug("Unable to deliver logout message to [{}]; Retrying in [{}] ms", task.message.getUrl(), delay);
+            statistics.retried.increment();
+            schedule(task, delay);
+        } else {
+            LOGGER.warn("Unable to deliver logout message to [{}] after [{}] attempt(s); Message is put in the outbox",
+                task.message.getUrl(), task.attempts);
+            statistics.failed.increment();
+            pending.remove(task);
+            outbox.store(task.message);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private class DispatchTask implements Runnable {
+        private final HttpMessage message;
+
+        private final String destination;
+
+        private int attempts;
+
+        private volatile boolean permitted;
+
+        @Override
+        public void run() {
+            deliver(this);
+        }
+    }
+
+    /**
+     * Tracks the messages in flight to a host, and the messages queued
+     * until a slot to that host becomes available.
+     */
+    private class Destination {
+        private final Queue<DispatchTask> waiting = new ArrayDeque<>();
+
+        private int inFlight;
+
+        synchronized boolean acquire(final DispatchTask task) {
+            if (inFlight < properties.getMaxInFlightPerDestination()) {
+                inFlight++;
+                return true;
+            }
+            waiting.add(task);
+            return false;
+        }
+
+        synchronized DispatchTask release() {
+            val next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Delivery statistics of the dispatcher.
+     * The latency of each delivery attempt is handed to the registered observers,
+     * such as a timer that is published by the metrics module.
+     */
+    public class SingleLogoutDispatchStatistics {
+        private final LongAdder dispatched = new LongAdder();
+
+        private final LongAdder delivered = new LongAdder();
+
+        private final LongAdder retried = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final LongAdder expired = new LongAdder();
+
+        private final LongAdder attempts = new LongAdder();
+
+        private final List<Consumer<Duration>> latencyObservers = new CopyOnWriteArrayList<>();
+
+        /**
+         * Number of messages dispatched for delivery.
+         *
+         * @return the count
+         */
+        public long getDispatched() {
+            return dispatched.sum();
+        }
+
+        /**
+         * Number of messages delivered.
+         *
+         * @return the count
+         */
+        public long getDelivered() {
+            return delivered.sum();
+        }
+
+        /**
+         * Number of delivery attempts that failed and were retried.
+         *
+         * @return the count
+         */
+        public long getRetried() {
+            return retried.sum();
+        }
+
+        /**
+         * Number of messages that failed all delivery attempts.
+         *
+         * @return the count
+         */
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        /**
+         * Number of messages put in the outbox because too many messages were waiting.
+         *
+         * @return the count
+         */
+        public long getRejected() {
+            return rejected.sum();
+        }
+
+        /**
+         * Number of messages in the outbox that were dropped because they were too old.
+         *
+         * @return the count
+         */
+        public long getExpired() {
+            return expired.sum();
+        }
+
+        /**
+         * Number of messages waiting to be delivered.
+         *
+         * @return the count
+         */
+        public long getPending() {
+            return pending.size();
+        }
+
+        /**
+         * Number of delivery attempts.
+         *
+         * @return the count
+         */
+        public long getAttempts() {
+            return attempts.sum();
+        }
+
+        /**
+         * Register an observer that receives the latency of each delivery attempt.
+         *
+         * @param observer the observer
+         */
+        public void addLatencyObserver(final Consumer<Duration> observer) {
+            latencyObservers.add(observer);
+        }
+
+        void record(final long latencyNanos) {
+            attempts.increment();
+            val latency = Duration.ofNanos(latencyNanos);
+            latencyObservers.forEach(observer -> observer.accept(latency));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.apereo.cas.logout.slo;
+
+import org.apereo.cas.util.http.HttpMessage;
+
+import lombok.Getter;
+
+import java.net.URL;
+import java.time.Instant;
+
+/**
+ * Logout message whose payload is already formatted, and that is to be sent synchronously
+ * by the thread that delivers it on behalf of the {@link SingleLogoutMessageDispatcher}.
+ * Keeps the time at which the message was first dispatched, across redeliveries from the outbox.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+class DispatchedHttpMessage extends HttpMessage {
+    private static final long serialVersionUID = -2290356172925874180L;
+
+    @Getter
+    private final Instant creationTime;
+
+    DispatchedHttpMessage(final URL url, final String message, final String contentType, final Instant creationTime) {
+        super(url, message, false);
+        setContentType(contentType);
+        this.creationTime = creationTime;
+    }
+
+    DispatchedHttpMessage(final HttpMessage message) {
+        this(message.getUrl(), message.getMessage(), message.getContentType(),
+            message instanceof DispatchedHttpMessage ? ((DispatchedHttpMessage) message).getCreationTime() : Instant.now());
+    }
+
+    @Override
+    protected String formatOutputMessageInternal(final String message) {
+        return message;
+    }
+}
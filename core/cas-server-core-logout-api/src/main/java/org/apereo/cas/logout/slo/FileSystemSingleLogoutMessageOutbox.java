@@ -0,0 +1,114 @@
+package org.apereo.cas.logout.slo;
+
+import org.apereo.cas.util.LoggingUtils;
+import org.apereo.cas.util.http.HttpMessage;
+import org.apereo.cas.util.serialization.JacksonObjectMapperFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link FileSystemSingleLogoutMessageOutbox}.
+ * Keeps each logout message as a JSON document in a directory, so that messages
+ * survive restarts and can be inspected or removed by operators. Messages carry the content
+ * sent to services, so the directory and documents are only accessible to the owner, where
+ * the file system supports it. Documents are written under a temporary name and then renamed,
+ * and are only deleted once they are taken over, so that messages are not lost if the server stops.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class FileSystemSingleLogoutMessageOutbox implements SingleLogoutMessageOutbox {
+    private static final ObjectMapper MAPPER = JacksonObjectMapperFactory.builder()
+        .defaultTypingEnabled(false).build().toObjectMapper();
+
+    private static final String FILE_EXTENSION = ".json";
+
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private final File directory;
+
+    public FileSystemSingleLogoutMessageOutbox(final File directory) {
+        this.directory = directory;
+        try {
+            if (!directory.exists()) {
+                Files.createDirectories(directory.toPath(), ownerOnly("rwx------"));
+            }
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to create single logout outbox directory [{}]", directory);
+            LoggingUtils.warn(LOGGER, e);
+        }
+    }
+
+    private static FileAttribute<?>[] ownerOnly(final String permissions) {
+        return POSIX
+            ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))}
+            : new FileAttribute<?>[0];
+    }
+
+    @Override
+    public void store(final HttpMessage message) {
+        val entry = new LinkedHashMap<String, String>();
+        entry.put("url", message.getUrl().toExternalForm());
+        entry.put("contentType", message.getContentType());
+        entry.put("message", message.getMessage());
+        if (message instanceof DispatchedHttpMessage) {
+            entry.put("creationTime", ((DispatchedHttpMessage) message).getCreationTime().toString());
+        }
+        val name = UUID.randomUUID().toString();
+        val file = directory.toPath().resolve(name + FILE_EXTENSION);
+        try {
+            val temporary = Files.createFile(directory.toPath().resolve(name + TEMPORARY_FILE_EXTENSION), ownerOnly("rw-------"));
+            try (val output = Files.newOutputStream(temporary)) {
+                MAPPER.writeValue(output, entry);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Stored logout message to [{}] in [{}]", message.getUrl(), file);
+        } catch (final Exception e) {
+            LOGGER.error("Unable to store logout message to [{}]", message.getUrl());
+            LoggingUtils.error(LOGGER, e);
+        }
+    }
+
+    @Override
+    public synchronized void retrieve(final Consumer<HttpMessage> consumer) {
+        val files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+        if (files != null) {
+            for (val file : files) {
+                try {
+                    consumer.accept(read(file.toPath()));
+                    Files.delete(file.toPath());
+                } catch (final Exception e) {
+                    LOGGER.error("Unable to retrieve logout message from [{}]", file);
+                    LoggingUtils.error(LOGGER, e);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpMessage read(final Path file) throws IOException {
+        val entry = (Map<String, String>) MAPPER.readValue(file.toFile(), Map.class);
+        val creationTime = entry.containsKey("creationTime") ? Instant.parse(entry.get("creationTime")) : Instant.now();
+        return new DispatchedHttpMessage(new URL(entry.get("url")), entry.get("message"), entry.get("contentType"), creationTime);
+    }
+}
@@ -0,0 +1,23 @@
+package org.apereo.cas.logout.slo;
+
+import org.apereo.cas.util.http.HttpMessage;
+
+/**
+ * This is {@link SingleLogoutMessageDispatcher}.
+ * Delivers back-channel logout messages in the background, so that callers
+ * such as the logout flow or the ticket registry cleaner do not wait on services.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@FunctionalInterface
+public interface SingleLogoutMessageDispatcher {
+
+    /**
+     * Dispatch the logout message for delivery.
+     *
+     * @param message the message
+     * @return true if the message is accepted for delivery
+     */
+    boolean dispatch(HttpMessage message);
+}
@@ -0,0 +1,48 @@
+package org.apereo.cas.logout.slo;
+
+import org.apereo.cas.util.http.HttpMessage;
+
+import java.util.function.Consumer;
+
+/**
+ * This is {@link SingleLogoutMessageOutbox}.
+ * Keeps logout messages that could not be delivered, so that delivery may be attempted again later.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+public interface SingleLogoutMessageOutbox {
+
+    /**
+     * Outbox that does not keep any messages.
+     *
+     * @return the outbox
+     */
+    static SingleLogoutMessageOutbox noOp() {
+        return new SingleLogoutMessageOutbox() {
+            @Override
+            public void store(final HttpMessage message) {
+            }
+
+            @Override
+            public void retrieve(final Consumer<HttpMessage> consumer) {
+            }
+        };
+    }
+
+    /**
+     * Store the message.
+     *
+     * @param message the message
+     */
+    void store(HttpMessage message);
+
+    /**
+     * Hand each message in the outbox to the consumer.
+     * A message is removed from the outbox only once the consumer has taken it over,
+     * and is kept if the consumer fails.
+     *
+     * @param consumer the consumer
+     */
+    void retrieve(Consumer<HttpMessage> consumer);
+}
@@ -4,6 +4,7 @@ import org.apereo.cas.logout.ChainingSingleLogoutServiceLogoutUrlBuilderTests;
 import org.apereo.cas.logout.DefaultLogoutManagerTests;
 import org.apereo.cas.logout.DefaultLogoutRedirectionStrategyTests;
 import org.apereo.cas.logout.DefaultSingleLogoutMessageCreatorTests;
+import org.apereo.cas.logout.DefaultSingleLogoutMessageDispatcherTests;
 import org.apereo.cas.logout.DefaultSingleLogoutServiceLogoutUrlBuilderTests;
 import org.apereo.cas.logout.DefaultSingleLogoutServiceMessageHandlerTests;
 import org.apereo.cas.logout.LogoutHttpMessageTests;
@@ -27,7 +28,8 @@ import org.junit.runner.RunWith;
     LogoutHttpMessageTests.class,
     DefaultSingleLogoutServiceMessageHandlerTests.class,
     DefaultSingleLogoutMessageCreatorTests.class,
-    SamlCompliantLogoutMessageCreatorTests.class
+    SamlCompliantLogoutMessageCreatorTests.class,
+    DefaultSingleLogoutMessageDispatcherTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class CasLogoutTestsSuite {
@@ -0,0 +1,225 @@
+package org.apereo.cas.logout;
+
+import org.apereo.cas.configuration.model.core.slo.SingleLogOutDispatcherProperties;
+import org.apereo.cas.logout.slo.DefaultSingleLogoutMessageDispatcher;
+import org.apereo.cas.logout.slo.FileSystemSingleLogoutMessageOutbox;
+import org.apereo.cas.logout.slo.SingleLogoutMessageOutbox;
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.apereo.cas.util.serialization.JacksonObjectMapperFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link DefaultSingleLogoutMessageDispatcherTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Logout")
+public class DefaultSingleLogoutMessageDispatcherTests {
+    private static final ObjectMapper MAPPER = JacksonObjectMapperFactory.builder()
+        .defaultTypingEnabled(false).build().toObjectMapper();
+
+    @Test
+    public void verifyMessageDelivered() throws Exception {
+        val httpClient = mock(HttpClient.class);
+        when(httpClient.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(true);
+        val dispatcher = new DefaultSingleLogoutMessageDispatcher(httpClient,
+            SingleLogoutMessageOutbox.noOp(), new SingleLogOutDispatcherProperties());
+        val latencies = new CopyOnWriteArrayList<Duration>();
+        dispatcher.getStatistics().addLatencyObserver(latencies::add);
+        try {
+            val message = getLogoutMessage();
+            assertTrue(dispatcher.dispatch(message));
+            verify(httpClient, timeout(5000)).sendMessageToEndPoint(argThat(msg -> !msg.isAsynchronous()
+                && msg.getMessage().equals(message.getMessage())
+                && msg.getContentType().equals(message.getContentType())));
+            val statistics = dispatcher.getStatistics();
+            waitFor(() -> statistics.getDelivered() == 1);
+            assertEquals(1, statistics.getDispatched());
+            assertEquals(0, statistics.getPending());
+            assertEquals(1, statistics.getAttempts());
+            assertEquals(1, latencies.size());
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void verifyMessageRetriedAndStoredInOutbox() throws Exception {
+        val httpClient = mock(HttpClient.class);
+        when(httpClient.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false);
+        val outbox = new RecordingOutbox(1);
+        val properties = new SingleLogOutDispatcherProperties().setMaxAttempts(3).setRetryDelay("PT0.01S");
+        val dispatcher = new DefaultSingleLogoutMessageDispatcher(httpClient, outbox, properties);
+        try {
+            dispatcher.dispatch(getLogoutMessage());
+            assertTrue(outbox.latch.await(5, TimeUnit.SECONDS));
+            verify(httpClient, times(3)).sendMessageToEndPoint(any(HttpMessage.class));
+            assertEquals(2, dispatcher.getStatistics().getRetried());
+            assertEquals(1, dispatcher.getStatistics().getFailed());
+            assertEquals(0, dispatcher.getStatistics().getPending());
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void verifyMessagesOverCapacityStoredInOutbox() throws Exception {
+        val httpClient = mock(HttpClient.class);
+        val outbox = new RecordingOutbox(1);
+        val properties = new SingleLogOutDispatcherProperties().setQueueCapacity(0);
+        val dispatcher = new DefaultSingleLogoutMessageDispatcher(httpClient, outbox, properties);
+        try {
+            assertTrue(dispatcher.dispatch(getLogoutMessage()));
+            assertEquals(1, outbox.messages.size());
+            assertEquals(1, dispatcher.getStatistics().getRejected());
+            verifyNoInteractions(httpClient);
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void verifyOutboxRedelivered(@TempDir final File directory) throws Exception {
+        val outbox = new FileSystemSingleLogoutMessageOutbox(directory);
+        val message = getLogoutMessage();
+        outbox.store(message);
+        assertEquals(1, directory.listFiles().length);
+
+        val httpClient = mock(HttpClient.class);
+        when(httpClient.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(true);
+        val dispatcher = new DefaultSingleLogoutMessageDispatcher(httpClient, outbox, new SingleLogOutDispatcherProperties());
+        try {
+            dispatcher.redeliver();
+            assertEquals(0, directory.listFiles().length);
+            verify(httpClient, timeout(5000)).sendMessageToEndPoint(argThat(msg ->
+                msg.getUrl().equals(message.getUrl()) && msg.getMessage().equals(message.getMessage())));
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void verifyMessagesQueuedPerDestination() throws Exception {
+        val release = new CountDownLatch(1);
+        val httpClient = mock(HttpClient.class);
+        when(httpClient.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+        val properties = new SingleLogOutDispatcherProperties().setMaxInFlightPerDestination(1);
+        val dispatcher = new DefaultSingleLogoutMessageDispatcher(httpClient, SingleLogoutMessageOutbox.noOp(), properties);
+        try {
+            IntStream.range(0, 3).forEach(i -> dispatcher.dispatch(getLogoutMessage()));
+            verify(httpClient, timeout(5000)).sendMessageToEndPoint(any(HttpMessage.class));
+            verify(httpClient, after(200).times(1)).sendMessageToEndPoint(any(HttpMessage.class));
+            assertEquals(3, dispatcher.getStatistics().getPending());
+            release.countDown();
+            verify(httpClient, timeout(5000).times(3)).sendMessageToEndPoint(any(HttpMessage.class));
+            waitFor(() -> dispatcher.getStatistics().getDelivered() == 3);
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void verifyExpiredOutboxMessagesDropped(@TempDir final File directory) throws Exception {
+        val message = getLogoutMessage();
+        val entry = Map.of("url", message.getUrl().toExternalForm(), "contentType", message.getContentType(),
+            "message", message.getMessage(), "creationTime", "2020-01-01T00:00:00Z");
+        MAPPER.writeValue(new File(directory, "expired.json"), entry);
+
+        val httpClient = mock(HttpClient.class);
+        val properties = new SingleLogOutDispatcherProperties().setOutboxMaxAge("PT1H");
+        val dispatcher = new DefaultSingleLogoutMessageDispatcher(httpClient,
+            new FileSystemSingleLogoutMessageOutbox(directory), properties);
+        try {
+            dispatcher.redeliver();
+            assertEquals(0, directory.listFiles().length);
+            assertEquals(1, dispatcher.getStatistics().getExpired());
+            assertEquals(0, dispatcher.getStatistics().getDispatched());
+            verifyNoInteractions(httpClient);
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void verifyOutboxKeepsMessagesUntilTakenOver(@TempDir final File directory) throws Exception {
+        val outbox = new FileSystemSingleLogoutMessageOutbox(new File(directory, "outbox"));
+        val message = getLogoutMessage();
+        outbox.store(message);
+        val files = new File(directory, "outbox").listFiles();
+        assertEquals(1, files.length);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(files[0].toPath())));
+        }
+
+        outbox.retrieve(msg -> {
+            throw new IllegalStateException("Message cannot be taken over");
+        });
+        assertTrue(files[0].exists());
+
+        val messages = new ArrayList<HttpMessage>();
+        outbox.retrieve(messages::add);
+        assertEquals(1, messages.size());
+        assertEquals(message.getMessage(), messages.get(0).getMessage());
+        assertFalse(files[0].exists());
+    }
+
+    @SneakyThrows
+    private static LogoutHttpMessage getLogoutMessage() {
+        return new LogoutHttpMessage(new URL("https://app.example.org/logout"), "<samlp:LogoutRequest/>", true);
+    }
+
+    private static void waitFor(final BooleanSupplier condition) throws Exception {
+        val deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static class RecordingOutbox implements SingleLogoutMessageOutbox {
+        private final List<HttpMessage> messages = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch latch;
+
+        RecordingOutbox(final int count) {
+            this.latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void store(final HttpMessage message) {
+            messages.add(message);
+            latch.countDown();
+        }
+
+        @Override
+        public void retrieve(final Consumer<HttpMessage> consumer) {
+        }
+    }
+}
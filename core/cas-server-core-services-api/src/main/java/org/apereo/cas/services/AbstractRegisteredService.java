@@ -1,5 +1,6 @@
 package org.apereo.cas.services;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.EqualsAndHashCode;
@@ -50,10 +51,10 @@ import java.util.Set;
     columnDefinition = "VARCHAR(50) DEFAULT 'regex'")
 @Table(name = "RegexRegisteredService")
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
-@ToString
+@ToString(exclude = "lastModified")
 @Getter
 @Setter
-@EqualsAndHashCode(exclude = "id")
+@EqualsAndHashCode(exclude = {"id", "lastModified"})
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
 @Slf4j
 public abstract class AbstractRegisteredService implements RegisteredService {
@@ -179,6 +180,15 @@ public abstract class AbstractRegisteredService implements RegisteredService {
     @OrderColumn
     private List<DefaultRegisteredServiceContact> contacts = new ArrayList<>(0);
 
+    /**
+     * Time at which the definition was last saved, in milliseconds since the epoch.
+     * It is recorded by service registries that track changes to definitions,
+     * and is not considered part of the definition itself.
+     */
+    @JsonIgnore
+    @Column(name = "last_modified")
+    private Long lastModified;
+
     /**
      * Sets the service identifier. Extensions are to define the format.
      *
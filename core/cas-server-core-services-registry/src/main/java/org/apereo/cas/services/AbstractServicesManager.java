@@ -17,11 +17,15 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationEvent;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -35,12 +39,16 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 public abstract class AbstractServicesManager implements ServicesManager {
+    private static final Duration CHANGE_MARKER_TOLERANCE = Duration.ofMinutes(1);
 
     /**
      * The Configuration context.
      */
     protected final ServicesManagerConfigurationContext configurationContext;
 
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong changeMarker = new AtomicLong();
+
     @Override
     public RegisteredService save(final RegisteredService registeredService) {
         return save(registeredService, true);
@@ -91,9 +99,10 @@ public abstract class AbstractServicesManager implements ServicesManager {
             return null;
         }
 
+        val candidates = getCandidateServicesToMatch(service.getId());
         var foundService = configurationContext.getRegisteredServiceLocators()
             .stream()
-            .map(locator -> locator.locate(getCandidateServicesToMatch(service.getId()), service,
+            .map(locator -> locator.locate(candidates, service,
                 entry -> entry.matches(service.getId())))
             .filter(Objects::nonNull)
             .findFirst()
@@ -104,7 +113,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
             LOGGER.trace("Service [{}] is not cached; Searching [{}]", service.getId(), serviceRegistry.getName());
             foundService = serviceRegistry.findServiceBy(service.getId());
             if (foundService != null) {
-                configurationContext.getServicesCache().put(foundService.getId(), foundService);
+                cacheService(foundService);
                 LOGGER.trace("Service [{}] is found in [{}] and cached", service, serviceRegistry.getName());
             }
         }
@@ -126,6 +135,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
             peek(RegisteredService::initialize).
             collect(Collectors.toMap(RegisteredService::getId, Function.identity(), (r, s) -> s));
         configurationContext.getServicesCache().putAll(results);
+        cacheInternal(results.values());
         return results.values();
     }
 
@@ -143,7 +153,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
 
     @Override
     public RegisteredService findServiceBy(final long id) {
-        val result = configurationContext.getServicesCache().get(id, k -> configurationContext.getServiceRegistry().findServiceById(id));
+        val result = getCachedService(id, () -> configurationContext.getServiceRegistry().findServiceById(id));
         return validateRegisteredService(result);
     }
 
@@ -155,7 +165,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
         }
         LOGGER.trace("The service with id [{}] and type [{}] is not found in the cache; trying to find it from [{}]",
             id, clazz, configurationContext.getServiceRegistry().getName());
-        service = configurationContext.getServicesCache().get(id, k -> configurationContext.getServiceRegistry().findServiceById(id, clazz));
+        service = getCachedService(id, () -> configurationContext.getServiceRegistry().findServiceById(id, clazz));
         return (T) validateRegisteredService(service);
     }
     
@@ -171,7 +181,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
             LOGGER.trace("The service with name [{}] is not found in the cache; trying to find it from [{}]", name, registry.getName());
             service = registry.findServiceByExactServiceName(name);
             if (service != null) {
-                configurationContext.getServicesCache().put(service.getId(), service);
+                cacheService(service);
                 LOGGER.trace("The service is found in [{}] and populated to the cache [{}]", registry.getName(), service);
             }
         }
@@ -195,7 +205,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
             name, clazz, configurationContext.getServiceRegistry().getName());
         service = configurationContext.getServiceRegistry().findServiceByExactServiceName(name, clazz);
         if (service != null) {
-            configurationContext.getServicesCache().put(service.getId(), service);
+            cacheService(service);
             LOGGER.trace("The service is found in [{}] and populated to the cache [{}]", configurationContext.getServiceRegistry().getName(),
                 service);
         }
@@ -221,14 +231,8 @@ public abstract class AbstractServicesManager implements ServicesManager {
     @Override
     public Collection<RegisteredService> load() {
         LOGGER.trace("Loading services from [{}]", configurationContext.getServiceRegistry().getName());
-        configurationContext.getServicesCache().invalidateAll();
-        configurationContext.getServicesCache().putAll(configurationContext.getServiceRegistry().load()
-            .stream()
-            .collect(Collectors.toMap(r -> {
-                LOGGER.trace("Adding registered service [{}] with name [{}] and internal identifier [{}]",
-                    r.getServiceId(), r.getName(), r.getId());
-                return r.getId();
-            }, Function.identity(), (r, s) -> s)));
+        applyChanges(ServiceRegistryChanges.complete(configurationContext.getServiceRegistry().load()));
+        changeMarker.set(0);
         loadInternal();
         publishEvent(new CasRegisteredServicesLoadedEvent(this, getAllServices()));
         evaluateExpiredServiceDefinitions();
@@ -237,6 +241,34 @@ public abstract class AbstractServicesManager implements ServicesManager {
         return configurationContext.getServicesCache().asMap().values();
     }
 
+    /**
+     * Apply the changes made to service definitions since the last time changes were loaded.
+     * Changes are requested from a point slightly before the previous marker, so that definitions
+     * that were saved on nodes with skewed clocks or committed late are not missed.
+     * Cached services are updated in place and the result is swapped in once changes are applied,
+     * so services remain available throughout.
+     *
+     * @return the services
+     */
+    @Override
+    public Collection<RegisteredService> loadChanges() {
+        val registry = configurationContext.getServiceRegistry();
+        val marker = changeMarker.get();
+        val since = marker > 0 ? Math.max(1, marker - CHANGE_MARKER_TOLERANCE.toMillis()) : 0;
+        LOGGER.trace("Loading services changed since [{}] from [{}]", since, registry.getName());
+        val changes = registry.loadChangedSince(since);
+        val updated = applyChanges(changes);
+        changeMarker.set(changes.isComplete() ? 0 : Math.max(marker, changes.getMarker()));
+        if (updated) {
+            loadInternal();
+            publishEvent(new CasRegisteredServicesLoadedEvent(this, getAllServices()));
+        }
+        evaluateExpiredServiceDefinitions();
+        LOGGER.debug("Applied [{}] changed service(s) from [{}]; [{}] service(s) are loaded", changes.getChangedServices().size(),
+            registry.getName(), configurationContext.getServicesCache().asMap().size());
+        return configurationContext.getServicesCache().asMap().values();
+    }
+
     @Override
     public long count() {
         return configurationContext.getServiceRegistry().size();
@@ -272,6 +304,52 @@ public abstract class AbstractServicesManager implements ServicesManager {
     protected void loadInternal() {
     }
 
+    /**
+     * Cache internal, invoked once services found in the registry
+     * are added to or replaced in the cache outside of save and load operations.
+     *
+     * @param services the services
+     */
+    protected void cacheInternal(final Collection<RegisteredService> services) {
+    }
+
+    private void cacheService(final RegisteredService service) {
+        configurationContext.getServicesCache().put(service.getId(), service);
+        cacheInternal(List.of(service));
+    }
+
+    private RegisteredService getCachedService(final long id, final Supplier<RegisteredService> loader) {
+        val service = configurationContext.getServicesCache().getIfPresent(id);
+        if (service != null) {
+            return service;
+        }
+        val result = loader.get();
+        if (result != null) {
+            cacheService(result);
+        }
+        return result;
+    }
+
+    private boolean applyChanges(final ServiceRegistryChanges changes) {
+        val cache = configurationContext.getServicesCache();
+        val changedServices = changes.getChangedServices()
+            .stream()
+            .collect(Collectors.toMap(r -> {
+                LOGGER.trace("Adding registered service [{}] with name [{}] and internal identifier [{}]",
+                    r.getServiceId(), r.getName(), r.getId());
+                return r.getId();
+            }, Function.identity(), (r, s) -> s));
+        cache.putAll(changedServices);
+        val retainedServiceIds = changes.isComplete() ? changedServices.keySet() : changes.getServiceIds();
+        val removedServiceIds = cache.asMap().keySet()
+            .stream()
+            .filter(id -> !retainedServiceIds.contains(id))
+            .collect(Collectors.toList());
+        LOGGER.trace("Removing registered services [{}] that are no longer found", removedServiceIds);
+        cache.invalidateAll(removedServiceIds);
+        return changes.isComplete() || !changedServices.isEmpty() || !removedServiceIds.isEmpty();
+    }
+
     private void evaluateExpiredServiceDefinitions() {
         configurationContext.getServicesCache().asMap().values()
             .stream()
@@ -147,6 +147,13 @@ public class ChainingServicesManager implements ServicesManager, DomainAwareServ
             .collect(Collectors.toList());
     }
 
+    @Override
+    public Collection<RegisteredService> loadChanges() {
+        return serviceManagers.stream()
+            .flatMap(s -> s.loadChanges().stream())
+            .collect(Collectors.toList());
+    }
+
     @Override
     public long count() {
         return serviceManagers.stream()
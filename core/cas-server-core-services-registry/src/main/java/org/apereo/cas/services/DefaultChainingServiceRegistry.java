@@ -67,6 +67,21 @@ public class DefaultChainingServiceRegistry extends AbstractServiceRegistry impl
             .collect(Collectors.toList());
     }
 
+    /**
+     * Changes are only tracked when a single registry is chained, since markers
+     * of different registries cannot be combined. Otherwise, all registries are loaded.
+     *
+     * @param marker the marker
+     * @return the changes
+     */
+    @Override
+    public ServiceRegistryChanges loadChangedSince(final long marker) {
+        if (serviceRegistries.size() == 1) {
+            return serviceRegistries.get(0).loadChangedSince(marker);
+        }
+        return ServiceRegistryChanges.complete(load());
+    }
+
     @Override
     public RegisteredService findServiceById(final long id) {
         return serviceRegistries.stream()
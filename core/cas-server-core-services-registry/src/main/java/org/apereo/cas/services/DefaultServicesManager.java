@@ -1,29 +1,68 @@
 package org.apereo.cas.services;
 
+import lombok.val;
+
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.stream.Collectors;
 
 /**
  * Default implementation of the {@link ServicesManager} interface.
+ * Candidate services are located via a {@link RegisteredServiceMatchingIndex}
+ * that is rebuilt when services are loaded, and is lazily rebuilt once services are saved,
+ * deleted or otherwise added to the cache. Candidates that have since been evicted from
+ * or replaced in the cache also trigger a rebuild.
  *
  * @author Scott Battaglia
  * @since 3.1
  */
 public class DefaultServicesManager extends AbstractServicesManager {
 
+    private volatile RegisteredServiceMatchingIndex matchingIndex;
+
     public DefaultServicesManager(final ServicesManagerConfigurationContext context) {
         super(context);
     }
 
     @Override
     protected Collection<RegisteredService> getCandidateServicesToMatch(final String serviceId) {
-        return getConfigurationContext().getServicesCache()
-            .asMap()
-            .values()
-            .stream()
-            .sorted(Comparator.naturalOrder())
-            .collect(Collectors.toList());
+        var index = this.matchingIndex;
+        if (index == null) {
+            index = rebuildMatchingIndex();
+        }
+        val candidates = index.getCandidates(serviceId);
+        if (areCached(candidates)) {
+            return candidates;
+        }
+        return rebuildMatchingIndex().getCandidates(serviceId);
+    }
+
+    @Override
+    protected void saveInternal(final RegisteredService service) {
+        this.matchingIndex = null;
     }
 
+    @Override
+    protected void deleteInternal(final RegisteredService service) {
+        this.matchingIndex = null;
+    }
+
+    @Override
+    protected void cacheInternal(final Collection<RegisteredService> services) {
+        this.matchingIndex = null;
+    }
+
+    @Override
+    protected void loadInternal() {
+        rebuildMatchingIndex();
+    }
+
+    private boolean areCached(final Collection<RegisteredService> candidates) {
+        val cachedServices = getConfigurationContext().getServicesCache().asMap();
+        return candidates.stream().allMatch(service -> cachedServices.get(service.getId()) == service);
+    }
+
+    private RegisteredServiceMatchingIndex rebuildMatchingIndex() {
+        val index = new RegisteredServiceMatchingIndex(getConfigurationContext().getServicesCache().asMap().values());
+        this.matchingIndex = index;
+        return index;
+    }
 }
@@ -0,0 +1,177 @@
+package org.apereo.cas.services;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link RegisteredServiceMatchingIndex}.
+ * An immutable, precompiled index of registered services that narrows down
+ * the set of definitions that could possibly match a given service identifier.
+ * Each definition is keyed by the literal prefix of its service id (i.e. the scheme,
+ * host and path characters that precede the first regex construct) inside
+ * a case-folded character trie. Definitions whose prefix cannot be
+ * determined safely (partial regex matching, top-level alternations, custom
+ * matching strategies, etc) are kept at the root of the trie and are always considered.
+ * Candidates are always returned in the natural (evaluation) order of the registered services.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class RegisteredServiceMatchingIndex {
+    private static final String REGEX_META_CHARACTERS = ".[]()*+?{}|$^";
+
+    private final Node root = new Node();
+
+    private final RegisteredService[] services;
+
+    @Getter
+    private final int size;
+
+    public RegisteredServiceMatchingIndex(final Collection<RegisteredService> registeredServices) {
+        this.services = registeredServices
+            .stream()
+            .sorted(Comparator.naturalOrder())
+            .toArray(RegisteredService[]::new);
+        this.size = services.length;
+        for (var rank = 0; rank < services.length; rank++) {
+            val prefix = getLiteralPrefix(services[rank]);
+            var node = root;
+            for (var i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(fold(prefix.charAt(i)), k -> new Node());
+            }
+            node.ranks.add(rank);
+        }
+        LOGGER.trace("Indexed [{}] registered service(s) for matching", size);
+    }
+
+    /**
+     * Gets the registered services that are candidates to match the given service id,
+     * sorted by their natural order.
+     *
+     * @param serviceId the service id
+     * @return the candidates
+     */
+    public List<RegisteredService> getCandidates(final String serviceId) {
+        val ranks = new ArrayList<Integer>(root.ranks);
+        if (StringUtils.isNotBlank(serviceId)) {
+            var node = root;
+            for (var i = 0; i < serviceId.length(); i++) {
+                node = node.children.get(fold(serviceId.charAt(i)));
+                if (node == null) {
+                    break;
+                }
+                ranks.addAll(node.ranks);
+            }
+        }
+        ranks.sort(Comparator.naturalOrder());
+        return ranks.stream().map(rank -> services[rank]).collect(Collectors.toList());
+    }
+
+    /**
+     * Determine the literal prefix that any service id must begin with
+     * in order to be matched by the registered service.
+     * An empty prefix indicates that the service cannot be indexed and must always be evaluated.
+     *
+     * @param registeredService the registered service
+     * @return the literal prefix
+     */
+    protected static String getLiteralPrefix(final RegisteredService registeredService) {
+        if (!(registeredService instanceof RegexRegisteredService) || StringUtils.isBlank(registeredService.getServiceId())) {
+            return StringUtils.EMPTY;
+        }
+        val strategy = registeredService.getMatchingStrategy();
+        if (strategy == null || strategy.getClass().equals(FullRegexRegisteredServiceMatchingStrategy.class)) {
+            return getRegexLiteralPrefix(registeredService.getServiceId());
+        }
+        if (strategy.getClass().equals(LiteralRegisteredServiceMatchingStrategy.class)) {
+            return registeredService.getServiceId().trim();
+        }
+        return StringUtils.EMPTY;
+    }
+
+    /**
+     * Extract the literal prefix of a regular expression that is matched against the entire input.
+     *
+     * @param pattern the pattern
+     * @return the literal prefix, or empty
+     */
+    protected static String getRegexLiteralPrefix(final String pattern) {
+        if (hasTopLevelAlternation(pattern)) {
+            return StringUtils.EMPTY;
+        }
+        val prefix = new StringBuilder();
+        var i = pattern.startsWith("^") ? 1 : 0;
+        while (i < pattern.length()) {
+            var c = pattern.charAt(i);
+            if (REGEX_META_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            }
+            if (c == '\\') {
+                if (i + 1 >= pattern.length() || Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                    break;
+                }
+                i++;
+                c = pattern.charAt(i);
+            }
+            i++;
+            if (i < pattern.length()) {
+                val next = pattern.charAt(i);
+                if (next == '?' || next == '*' || next == '{') {
+                    break;
+                }
+                if (next == '+') {
+                    prefix.append(c);
+                    break;
+                }
+            }
+            prefix.append(c);
+        }
+        return prefix.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(final String pattern) {
+        var depth = 0;
+        var inCharacterClass = false;
+        var escaped = false;
+        for (var i = 0; i < pattern.length(); i++) {
+            val c = pattern.charAt(i);
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (inCharacterClass) {
+                inCharacterClass = c != ']';
+            } else if (c == '[') {
+                inCharacterClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Character fold(final char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+
+        private final List<Integer> ranks = new ArrayList<>(0);
+    }
+}
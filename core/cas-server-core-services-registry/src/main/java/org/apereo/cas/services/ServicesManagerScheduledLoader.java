@@ -5,6 +5,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 
 /**
  * This is {@link ServicesManagerScheduledLoader}.
+ * Periodically reloads services, or only applies the changes made to
+ * service definitions since they were last loaded if incremental reloads are enabled.
  *
  * @author Misagh Moayyed
  * @since 6.0.0
@@ -13,6 +15,12 @@ import org.springframework.scheduling.annotation.Scheduled;
 public class ServicesManagerScheduledLoader implements Runnable {
     private final ServicesManager servicesManager;
 
+    private final boolean incrementalReload;
+
+    public ServicesManagerScheduledLoader(final ServicesManager servicesManager) {
+        this(servicesManager, false);
+    }
+
     /**
      * No op runnable.
      *
@@ -29,6 +37,10 @@ public class ServicesManagerScheduledLoader implements Runnable {
     )
     @Override
     public void run() {
-        servicesManager.load();
+        if (incrementalReload) {
+            servicesManager.loadChanges();
+        } else {
+            servicesManager.load();
+        }
     }
 }
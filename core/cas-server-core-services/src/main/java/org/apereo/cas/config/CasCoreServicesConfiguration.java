@@ -180,7 +180,8 @@ public class CasCoreServicesConfiguration {
         if (!plan.find(filter).isEmpty()) {
             LOGGER.trace("Background task to load services is enabled to run every [{}]",
                 casProperties.getServiceRegistry().getSchedule().getRepeatInterval());
-            return new ServicesManagerScheduledLoader(servicesManager());
+            return new ServicesManagerScheduledLoader(servicesManager(),
+                casProperties.getServiceRegistry().getCore().isIncrementalReload());
         }
         LOGGER.trace("Background task to load services is disabled");
         return ServicesManagerScheduledLoader.noOp();
@@ -36,6 +36,7 @@ import org.apereo.cas.services.RegexRegisteredServiceTests;
 import org.apereo.cas.services.RegisteredServiceAccessStrategyUtilsTests;
 import org.apereo.cas.services.RegisteredServiceAuthenticationHandlerResolverTests;
 import org.apereo.cas.services.RegisteredServiceAuthenticationPolicyResolverTests;
+import org.apereo.cas.services.RegisteredServiceMatchingIndexTests;
 import org.apereo.cas.services.RegisteredServicePublicKeyImplTests;
 import org.apereo.cas.services.RegisteredServiceTests;
 import org.apereo.cas.services.RegisteredServicesEventListenerTests;
@@ -124,7 +125,8 @@ import org.junit.runner.RunWith;
     RegisteredServiceScriptedAttributeFilterTests.class,
     GroovyRegisteredServiceAccessStrategyTests.class,
     ChainingServicesManagerTests.class,
-    RegisteredServiceJsonSerializerTests.class
+    RegisteredServiceJsonSerializerTests.class,
+    RegisteredServiceMatchingIndexTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllServicesTestsSuite {
@@ -137,6 +137,27 @@ public abstract class AbstractServicesManagerTests<T extends ServicesManager> {
         assertNull(servicesManager.findServiceBy(serviceFactory.createService(r.getServiceId())));
     }
 
+    @Test
+    public void verifyLoadChanges() {
+        val added = new RegexRegisteredService();
+        added.setId(4100);
+        added.setName(TEST);
+        added.setServiceId(TEST);
+        val removed = new RegexRegisteredService();
+        removed.setId(4200);
+        removed.setName(TEST);
+        removed.setServiceId(TEST);
+        servicesManager.save(removed);
+        assertTrue(isServiceInCache(null, 4200));
+
+        serviceRegistry.save(added);
+        serviceRegistry.delete(removed);
+        servicesManager.loadChanges();
+        assertTrue(isServiceInCache(null, 4100));
+        assertFalse(isServiceInCache(null, 4200));
+        assertTrue(isServiceInCache(null, 2500));
+    }
+
     protected ServicesManager getServicesManagerInstance() {
         val applicationContext = new StaticApplicationContext();
         applicationContext.refresh();
@@ -56,6 +56,24 @@ public class DefaultServicesManagerTests extends AbstractServicesManagerTests<De
         assertFalse(isServiceInCache(null, service.getId()));
     }
 
+    @Test
+    public void verifyServicesCachedFromRegistryAreMatched() {
+        val service = new RegexRegisteredService();
+        service.setId(7000);
+        service.setName(TEST);
+        service.setServiceId("^https://cached\\.example\\.org/.*");
+        val request = serviceFactory.createService("https://cached.example.org/app");
+        assertNull(servicesManager.findServiceBy(request));
+
+        serviceRegistry.save(service);
+        assertNotNull(servicesManager.findServiceBy(service.getId()));
+        assertTrue(isServiceInCache(null, service.getId()));
+        assertEquals(service.getId(), servicesManager.findServiceBy(request).getId());
+
+        servicesManager.delete(service);
+        assertNull(servicesManager.findServiceBy(request));
+    }
+
     @Test
     public void verifyEmptyCacheFirst() {
         val service = new RegexRegisteredService();
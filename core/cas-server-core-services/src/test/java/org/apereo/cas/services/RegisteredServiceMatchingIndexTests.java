@@ -0,0 +1,102 @@
+package org.apereo.cas.services;
+
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link RegisteredServiceMatchingIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("RegisteredService")
+public class RegisteredServiceMatchingIndexTests {
+
+    private static RegexRegisteredService newService(final long id, final String serviceId, final int order) {
+        val service = new RegexRegisteredService();
+        service.setId(id);
+        service.setName("Service" + id);
+        service.setServiceId(serviceId);
+        service.setEvaluationOrder(order);
+        return service;
+    }
+
+    private static RegisteredService findFirstMatch(final List<RegisteredService> candidates, final String serviceId) {
+        return candidates.stream()
+            .sorted()
+            .filter(r -> r.matches(serviceId))
+            .findFirst()
+            .orElse(null);
+    }
+
+    @Test
+    public void verifyLiteralPrefix() {
+        assertEquals("https://app.example.org/",
+            RegisteredServiceMatchingIndex.getRegexLiteralPrefix("^https://app\\.example\\.org/.*"));
+        assertEquals("http", RegisteredServiceMatchingIndex.getRegexLiteralPrefix("https?://.*"));
+        assertEquals("https://a", RegisteredServiceMatchingIndex.getRegexLiteralPrefix("https://a+b.org"));
+        assertEquals("https://", RegisteredServiceMatchingIndex.getRegexLiteralPrefix("https://\\w+.org"));
+        assertEquals(StringUtils.EMPTY, RegisteredServiceMatchingIndex.getRegexLiteralPrefix("https://a.org|https://b.org"));
+        assertEquals("https://", RegisteredServiceMatchingIndex.getRegexLiteralPrefix("https://(a|b)\\.org"));
+        assertEquals(StringUtils.EMPTY, RegisteredServiceMatchingIndex.getRegexLiteralPrefix("(?i)https://.*"));
+    }
+
+    @Test
+    public void verifyCandidatesAndOrder() {
+        val services = new ArrayList<RegisteredService>();
+        services.add(newService(1, "^https://app\\.example\\.org/.*", 10));
+        services.add(newService(2, "^HTTPS://APP\\.example\\.org/admin.*", 5));
+        services.add(newService(3, "https://other\\.example\\.org/.*", 1));
+        services.add(newService(4, ".*", 100));
+        val partial = newService(5, "example", 50);
+        partial.setMatchingStrategy(new PartialRegexRegisteredServiceMatchingStrategy());
+        services.add(partial);
+        val literal = newService(6, "https://literal.example.org", 2);
+        literal.setMatchingStrategy(new LiteralRegisteredServiceMatchingStrategy());
+        services.add(literal);
+
+        val index = new RegisteredServiceMatchingIndex(services);
+        assertEquals(services.size(), index.getSize());
+
+        val candidates = index.getCandidates("https://app.example.org/admin/page");
+        assertEquals(List.of(2L, 1L, 5L, 4L), candidates.stream().map(RegisteredService::getId).collect(Collectors.toList()));
+        assertEquals(2, findFirstMatch(candidates, "https://app.example.org/admin/page").getId());
+
+        val literalCandidates = index.getCandidates("https://literal.example.org");
+        assertEquals(6, literalCandidates.get(0).getId());
+        assertEquals(2, index.getCandidates(null).size());
+    }
+
+    @Test
+    public void verifyLargeIndexMatchesLinearScan() {
+        val services = new ArrayList<RegisteredService>();
+        for (var i = 0; i < 10_000; i++) {
+            var serviceId = "^https://host" + (i % 2_000) + "\\.example\\.org/app" + i + "/.*";
+            if (i % 1_000 == 0) {
+                serviceId = "https?://host" + i + "\\.example\\.org/.*";
+            } else if (i % 10 == 0) {
+                serviceId = "^https://host" + i + "\\.example\\.(org|com)/.*";
+            }
+            services.add(newService(i, serviceId, i % 7));
+        }
+        services.add(newService(20_000, "^https://.+", 1_000));
+        val index = new RegisteredServiceMatchingIndex(services);
+
+        for (var i = 0; i < 10_000; i += 97) {
+            val serviceId = "https://host" + (i % 2_000) + ".example.org/app" + i + "/login";
+            val candidates = index.getCandidates(serviceId);
+            assertTrue(candidates.size() < 100);
+            assertEquals(findFirstMatch(services, serviceId), findFirstMatch(candidates, serviceId));
+        }
+        assertEquals(20_000, findFirstMatch(index.getCandidates("https://unknown.org"), "https://unknown.org").getId());
+        assertNull(findFirstMatch(index.getCandidates("ftp://unknown.org"), "ftp://unknown.org"));
+    }
+}
@@ -98,6 +98,16 @@ public abstract class AbstractTicket implements Ticket, TicketState {
     @Column(name = "EXPIRED", nullable = false)
     private Boolean expired = Boolean.FALSE;
 
+    /**
+     * The earliest instant at which this ticket may expire, as last computed
+     * by a ticket registry that stores tickets in a database, so that expired tickets
+     * can be found without loading every ticket.
+     */
+    @Column(name = "EXPIRES_AT")
+    @JsonIgnore
+    @Getter
+    private ZonedDateTime expiresAt;
+
 
     protected AbstractTicket(final String id, final ExpirationPolicy expirationPolicy) {
         this.id = id;
@@ -18,13 +18,16 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Concrete implementation of a TicketGrantingTicket. A TicketGrantingTicket is
@@ -37,7 +40,10 @@ import java.util.List;
  * @since 3.0.0
  */
 @Entity
-@Table(name = "TICKETGRANTINGTICKET")
+@Table(name = "TICKETGRANTINGTICKET", indexes = {
+    @Index(name = "IDX_TGT_PRINCIPAL_ID", columnList = "PRINCIPAL_ID"),
+    @Index(name = "IDX_TGT_EXPIRES_AT", columnList = "EXPIRES_AT")
+})
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(TicketGrantingTicket.PREFIX)
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -58,6 +64,13 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
     @Column(name = "AUTHENTICATION", nullable = false, length = Integer.MAX_VALUE)
     private Authentication authentication;
 
+    /**
+     * The principal id of the authentication, normalized for indexed lookups.
+     */
+    @JsonIgnore
+    @Column(name = "PRINCIPAL_ID")
+    private String principalId;
+
     /**
      * Service that produced a proxy-granting ticket.
      */
@@ -114,6 +127,7 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
         this.ticketGrantingTicket = parentTicketGrantingTicket;
         this.authentication = authentication;
         this.proxiedBy = proxiedBy;
+        recordPrincipalId();
     }
 
     /**
@@ -220,4 +234,15 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
         return TicketGrantingTicket.PREFIX;
     }
 
+    /**
+     * Record the normalized principal id of the authentication.
+     * Tickets persisted before the principal id was tracked carry no principal id,
+     * which is then recorded once such tickets are updated.
+     */
+    @PreUpdate
+    private void recordPrincipalId() {
+        if (this.principalId == null && this.authentication != null && this.authentication.getPrincipal() != null) {
+            this.principalId = StringUtils.lowerCase(this.authentication.getPrincipal().getId(), Locale.ENGLISH);
+        }
+    }
 }
@@ -10,9 +10,16 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * This is {@link AbstractMapBasedTicketRegistry}.
@@ -24,6 +31,21 @@ import java.util.function.Predicate;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegistry {
 
+    /**
+     * Index of ticket-granting ticket ids, keyed by the normalized principal id.
+     */
+    private final Map<String, Set<String>> principalTicketsIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Reverse index of normalized principal ids, keyed by the ticket-granting ticket id.
+     */
+    private final Map<String, String> ticketPrincipalIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Index of ticket ids, ordered by their expiration deadline.
+     */
+    private final TicketExpirationIndex expirationIndex = new TicketExpirationIndex();
+
     /**
      * Creates a new, empty registry with the cipher.
      *
@@ -38,6 +60,8 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         val encTicket = encodeTicket(ticket);
         LOGGER.debug("Added ticket [{}] to registry.", ticket.getId());
         getMapInstance().put(encTicket.getId(), encTicket);
+        indexTicketByPrincipal(ticket);
+        expirationIndex.index(ticket, Instant.now());
     }
 
     @Override
@@ -64,16 +88,84 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         val encTicketId = encodeTicketId(ticketId);
-        return !StringUtils.isBlank(encTicketId) && getMapInstance().remove(encTicketId) != null;
+        if (StringUtils.isBlank(encTicketId)) {
+            return false;
+        }
+        removeTicketFromPrincipalIndex(ticketId);
+        expirationIndex.remove(ticketId);
+        return getMapInstance().remove(encTicketId) != null;
     }
 
     @Override
     public long deleteAll() {
         val size = getMapInstance().size();
         getMapInstance().clear();
+        principalTicketsIndex.clear();
+        ticketPrincipalIndex.clear();
+        expirationIndex.clear();
         return size;
     }
 
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        val ticketIds = principalTicketsIndex.get(normalizePrincipalId(principalId));
+        if (ticketIds == null) {
+            return Stream.empty();
+        }
+        return new ArrayList<>(ticketIds)
+            .stream()
+            .map(ticketId -> {
+                val ticket = getTicket(ticketId);
+                if (ticket == null) {
+                    LOGGER.trace("Removing ticket [{}] from the principal index", ticketId);
+                    removeTicketFromPrincipalIndex(ticketId);
+                }
+                return ticket;
+            })
+            .filter(Objects::nonNull);
+    }
+
+    @Override
+    public Stream<? extends Ticket> getExpiredTickets() {
+        return getExpiredTickets(ticketId -> true);
+    }
+
+    @Override
+    public Stream<? extends Ticket> getExpiredTickets(final int shardCount, final Collection<Integer> shards) {
+        return getExpiredTickets(ticketId -> shards.contains(getShard(ticketId, shardCount)));
+    }
+
+    private Stream<? extends Ticket> getExpiredTickets(final Predicate<String> ticketIdFilter) {
+        val now = Instant.now();
+        return expirationIndex.getDueTicketIds(now)
+            .filter(ticketIdFilter)
+            .map(ticketId -> {
+                val ticket = getTicket(ticketId, t -> true);
+                if (ticket == null) {
+                    LOGGER.trace("Removing ticket [{}] from the expiration index", ticketId);
+                    expirationIndex.remove(ticketId);
+                    return null;
+                }
+                if (!ticket.isExpired()) {
+                    LOGGER.trace("Ticket [{}] is not yet expired and shall be checked again later", ticketId);
+                    expirationIndex.index(ticket, now);
+                    return null;
+                }
+                return ticket;
+            })
+            .filter(Objects::nonNull);
+    }
+
+    @Override
+    public long getExpiredTicketsBacklog() {
+        return expirationIndex.getBacklog(Instant.now());
+    }
+
+    @Override
+    public Duration getExpiredTicketsLag() {
+        return expirationIndex.getLag(Instant.now());
+    }
+
     @Override
     public Collection<? extends Ticket> getTickets() {
         return decodeTickets(getMapInstance().values());
@@ -85,6 +177,42 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         return ticket;
     }
 
+    /**
+     * Remove the ticket from the principal and expiration indexes, once it is evicted
+     * from the map instance by the underlying store rather than removed by this registry.
+     *
+     * @param ticket the ticket, as stored in the map instance
+     */
+    protected void removeTicketFromIndexes(final Ticket ticket) {
+        val decoded = decodeTicket(ticket);
+        val ticketId = decoded == null ? ticket.getId() : decoded.getId();
+        LOGGER.trace("Removing evicted ticket [{}] from the registry indexes", ticketId);
+        removeTicketFromPrincipalIndex(ticketId);
+        expirationIndex.remove(ticketId);
+    }
+
+    private void indexTicketByPrincipal(final Ticket ticket) {
+        val principalId = getPrincipalIdFrom(ticket);
+        if (StringUtils.isNotBlank(principalId)) {
+            ticketPrincipalIndex.put(ticket.getId(), principalId);
+            principalTicketsIndex.compute(principalId, (k, ticketIds) -> {
+                val results = ticketIds == null ? ConcurrentHashMap.<String>newKeySet() : ticketIds;
+                results.add(ticket.getId());
+                return results;
+            });
+        }
+    }
+
+    private void removeTicketFromPrincipalIndex(final String ticketId) {
+        val principalId = ticketPrincipalIndex.remove(ticketId);
+        if (principalId != null) {
+            principalTicketsIndex.computeIfPresent(principalId, (k, ticketIds) -> {
+                ticketIds.remove(ticketId);
+                return ticketIds.isEmpty() ? null : ticketIds;
+            });
+        }
+    }
+
     /**
      * Create map instance, which must ben created during initialization phases
      * and always be the same instance.
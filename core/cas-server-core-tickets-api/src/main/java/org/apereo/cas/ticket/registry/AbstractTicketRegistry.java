@@ -4,6 +4,7 @@ import org.apereo.cas.ticket.EncodedTicket;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.util.DigestUtils;
 import org.apereo.cas.util.crypto.CipherExecutor;
@@ -21,9 +22,10 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,12 +47,26 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      */
     protected CipherExecutor cipherExecutor;
 
+    /**
+     * Encodes the authentication and the mutable state of ticket-granting tickets
+     * separately, so that updates do not re-encrypt the authentication.
+     * Tickets in this format are always decoded, whether or not the format is used to encode tickets.
+     */
+    protected TicketGrantingTicketStateEncoder ticketGrantingTicketStateEncoder = new TicketGrantingTicketStateEncoder();
+
+    /**
+     * Whether ticket-granting tickets should be encoded with the authentication separate from the mutable state.
+     * Since nodes that are not upgraded cannot decode this format, it should only be turned on once all nodes
+     * are able to decode it. Ticket-granting tickets are encoded as a whole if false.
+     */
+    protected boolean ticketGrantingTicketStateEncodingEnabled;
+
     @Override
     public Ticket getTicket(final String ticketId) {
         return getTicket(ticketId, ticket -> {
             if (ticket != null && ticket.isExpired()) {
                 LOGGER.debug("Ticket [{}] has expired and is now removed from the ticket registry", ticket.getId());
-                deleteSingleTicket(ticketId);
+                deleteSingleTicket(ticket);
                 return false;
             }
             return true;
@@ -82,14 +98,9 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long countSessionsFor(final String principalId) {
-        val ticketPredicate = (Predicate<Ticket>) t -> {
-            if (t instanceof TicketGrantingTicket) {
-                val ticket = TicketGrantingTicket.class.cast(t);
-                return ticket.getAuthentication().getPrincipal().getId().equalsIgnoreCase(principalId);
-            }
-            return false;
-        };
-        return getTickets(ticketPredicate).count();
+        try (val sessions = getSessionsFor(principalId)) {
+            return sessions.count();
+        }
     }
 
     @Override
@@ -131,7 +142,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
             }
         }
         LOGGER.debug("Removing ticket [{}] from the registry.", ticket);
-        if (deleteSingleTicket(ticket.getId())) {
+        if (deleteSingleTicket(ticket)) {
             count.incrementAndGet();
         }
         return count.intValue();
@@ -145,6 +156,45 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      */
     public abstract boolean deleteSingleTicket(String ticketId);
 
+    /**
+     * Delete a single ticket instance from the store, given the ticket itself.
+     * Registries that index tickets by their content may override this to clean up
+     * such indexes along the way. The default implementation relies on {@link #deleteSingleTicket(String)}.
+     *
+     * @param ticket the ticket
+     * @return true/false
+     */
+    protected boolean deleteSingleTicket(final Ticket ticket) {
+        return deleteSingleTicket(ticket.getId());
+    }
+
+    @Override
+    public boolean consumeTicket(final Ticket ticket) {
+        if (ticket instanceof TicketState) {
+            ((TicketState) ticket).update();
+        }
+        if (ticket.isExpired()) {
+            val consumed = deleteConsumedTicket(ticket.getId());
+            LOGGER.debug("Ticket [{}] has no remaining uses and [{}] consumed", ticket.getId(), consumed ? "is" : "was already");
+            return consumed;
+        }
+        updateTicket(ticket);
+        return true;
+    }
+
+    /**
+     * Remove a ticket whose last use is consumed, as a compare-and-delete operation.
+     * Registries must only report the ticket as removed if it was present in the store
+     * before this operation, so that concurrent consumers of the same ticket can be refused.
+     * The default implementation relies on {@link #deleteSingleTicket(String)}.
+     *
+     * @param ticketId the ticket id
+     * @return true if the ticket was removed by this operation
+     */
+    protected boolean deleteConsumedTicket(final String ticketId) {
+        return deleteSingleTicket(ticketId);
+    }
+
     private void deleteLinkedProxyGrantingTickets(final AtomicInteger count, final TicketGrantingTicket tgt) {
         val pgts = new LinkedHashSet<>(tgt.getProxyGrantingTickets().keySet());
         val hasPgts = !pgts.isEmpty();
@@ -239,7 +289,10 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
             return null;
         }
         LOGGER.debug("Encoding ticket [{}]", ticket);
-        val encodedTicketObject = SerializationUtils.serializeAndEncodeObject(this.cipherExecutor, ticket);
+        val encodedTicketObject = ticket instanceof TicketGrantingTicket
+            && ticketGrantingTicketStateEncodingEnabled && ticketGrantingTicketStateEncoder != null
+            ? ticketGrantingTicketStateEncoder.encode((TicketGrantingTicket) ticket, this.cipherExecutor)
+            : SerializationUtils.serializeAndEncodeObject(this.cipherExecutor, ticket);
         val encodedTicketId = encodeTicketId(ticket.getId());
         val encodedTicket = new DefaultEncodedTicket(encodedTicketId,
             ByteSource.wrap(encodedTicketObject).read(), ticket.getPrefix());
@@ -275,7 +328,9 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         }
         LOGGER.debug("Attempting to decode [{}]", ticketToProcess);
         val encodedTicket = (DefaultEncodedTicket) ticketToProcess;
-        val ticket = SerializationUtils.decodeAndDeserializeObject(encodedTicket.getEncodedTicket(), this.cipherExecutor, Ticket.class);
+        val ticket = TicketGrantingTicketStateEncoder.isEncodedState(encodedTicket.getEncodedTicket())
+            ? Objects.requireNonNullElseGet(ticketGrantingTicketStateEncoder, TicketGrantingTicketStateEncoder::new).decode(encodedTicket.getEncodedTicket(), this.cipherExecutor)
+            : SerializationUtils.decodeAndDeserializeObject(encodedTicket.getEncodedTicket(), this.cipherExecutor, Ticket.class);
         LOGGER.debug("Decoded ticket to [{}]", ticket);
         return ticket;
     }
@@ -304,6 +359,49 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         return items.map(this::decodeTicket);
     }
 
+    /**
+     * Gets the principal id linked to the ticket, if the ticket
+     * is a ticket-granting ticket. The principal id is normalized
+     * to allow for case-insensitive lookups.
+     *
+     * @param ticket the ticket
+     * @return the principal id, or null
+     */
+    protected String getPrincipalIdFrom(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket) {
+            val authentication = ((TicketGrantingTicket) ticket).getAuthentication();
+            if (authentication != null && authentication.getPrincipal() != null) {
+                return normalizePrincipalId(authentication.getPrincipal().getId());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Normalize the principal id for case-insensitive lookups.
+     *
+     * @param principalId the principal id
+     * @return the normalized principal id
+     */
+    protected String normalizePrincipalId(final String principalId) {
+        return StringUtils.lowerCase(principalId, Locale.ENGLISH);
+    }
+
+    /**
+     * Encode the principal id into a SHA-512 once normalized,
+     * if ticket encryption is enabled.
+     *
+     * @param principalId the principal id
+     * @return the encoded principal id
+     */
+    protected String encodePrincipalId(final String principalId) {
+        val normalized = normalizePrincipalId(principalId);
+        if (!isCipherExecutorEnabled() || StringUtils.isBlank(normalized)) {
+            return normalized;
+        }
+        return DigestUtils.sha512(normalized);
+    }
+
     protected boolean isCipherExecutorEnabled() {
         return this.cipherExecutor != null && this.cipherExecutor.isEnabled();
     }
@@ -18,6 +18,8 @@ import java.util.Map;
 
 /**
  * This is {@link CachingTicketRegistry}.
+ * Tickets that are evicted by the cache, once expired or when the cache is full,
+ * are also removed from the principal and expiration indexes kept by the registry.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -90,6 +92,9 @@ public class CachingTicketRegistry extends AbstractMapBasedTicketRegistry {
 
         @Override
         public void onRemoval(final String key, final Ticket value, final RemovalCause cause) {
+            if (cause.wasEvicted() && value != null) {
+                removeTicketFromIndexes(value);
+            }
             if (cause == RemovalCause.EXPIRED) {
                 LOGGER.warn("Received removal notification for ticket [{}] with cause [{}]. Cleaning...", key, cause);
                 if (value instanceof TicketGrantingTicket) {
@@ -9,10 +9,10 @@ import org.apereo.cas.util.EncodingUtils;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.Table;
 import java.time.ZonedDateTime;
@@ -36,9 +37,8 @@ import java.time.ZonedDateTime;
 @Getter
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
-@AllArgsConstructor
 @Entity
-@Table(name = "ENCODEDTICKET")
+@Table(name = "ENCODEDTICKET", indexes = @Index(name = "IDX_ENCODED_EXPIRES_AT", columnList = "EXPIRES_AT"))
 public class DefaultEncodedTicket implements EncodedTicket {
 
     private static final long serialVersionUID = -7078771807487764116L;
@@ -54,6 +54,20 @@ public class DefaultEncodedTicket implements EncodedTicket {
     @Column(name = "PREFIX", nullable = false)
     private String prefix;
 
+    /**
+     * The earliest instant at which the source ticket may expire.
+     */
+    @Column(name = "EXPIRES_AT")
+    @JsonIgnore
+    @Setter
+    private ZonedDateTime expiresAt;
+
+    public DefaultEncodedTicket(final String id, final byte[] encodedTicket, final String prefix) {
+        this.id = id;
+        this.encodedTicket = encodedTicket;
+        this.prefix = prefix;
+    }
+
     /**
      * Instantiates a new Encoded ticket.
      *
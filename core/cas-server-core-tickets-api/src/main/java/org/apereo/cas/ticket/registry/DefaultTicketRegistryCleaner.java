@@ -7,15 +7,27 @@ import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
 import org.apereo.cas.util.LoggingUtils;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * This is {@link DefaultTicketRegistryCleaner}.
+ * Expired tickets that the registry can remove in bulk are purged first via {@link TicketRegistry#purgeExpiredTickets()}.
+ * Remaining expired tickets are obtained from the registry via {@link TicketRegistry#getExpiredTickets()}
+ * and are cleaned in bounded batches, until either no expired tickets remain
+ * or the time budget allotted to each run is exhausted. Remaining tickets are
+ * left for the next run, and are reported as the cleaner backlog.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -23,6 +35,7 @@ import java.io.Serializable;
 @Transactional(transactionManager = "ticketTransactionManager")
 @Slf4j
 @RequiredArgsConstructor
+@Getter
 public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Serializable {
     private static final long serialVersionUID = -8581398063126547772L;
 
@@ -32,6 +45,36 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Seri
 
     private final transient TicketRegistry ticketRegistry;
 
+    /**
+     * Maximum number of expired tickets cleaned in a single batch.
+     * A zero or negative value cleans all expired tickets in a single batch.
+     */
+    @Setter
+    private int batchSize = 500;
+
+    /**
+     * Maximum amount of time spent cleaning tickets in a single run.
+     * A zero or negative duration removes the limit.
+     */
+    @Setter
+    private Duration maxRunDuration = Duration.ZERO;
+
+    /**
+     * Number of tickets removed by the last run.
+     */
+    private volatile int lastRunTicketsRemoved;
+
+    /**
+     * Number of expired tickets pending removal after the last run,
+     * or {@link Integer#MIN_VALUE} if the registry cannot compute it.
+     */
+    private volatile long lastRunBacklog = Integer.MIN_VALUE;
+
+    /**
+     * Time elapsed since the oldest pending expiration deadline, as of the end of the last run.
+     */
+    private volatile Duration lastRunLag = Duration.ZERO;
+
     @Override
     public int clean() {
         try {
@@ -75,13 +118,70 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Seri
      * @return the int
      */
     protected int cleanInternal() {
-        try (val expiredTickets = ticketRegistry.getTicketsStream().filter(Ticket::isExpired)) {
-            val ticketsDeleted = expiredTickets
-                .mapToInt(this::cleanTicket)
-                .sum();
-            LOGGER.info("[{}] expired tickets removed.", ticketsDeleted);
-            return ticketsDeleted;
+        val startTime = Instant.now();
+        val ticketsPurged = (int) ticketRegistry.purgeExpiredTickets();
+        LOGGER.debug("Purged [{}] expired ticket(s) in bulk", ticketsPurged);
+        var ticketsDeleted = ticketsPurged;
+        var batches = 0;
+        try (val expiredTickets = getExpiredTickets()) {
+            val iterator = expiredTickets.iterator();
+            val batch = new ArrayList<Ticket>();
+            var proceed = true;
+            while (proceed && iterator.hasNext() && !isTimeBudgetExhausted(startTime)) {
+                batch.clear();
+                while (iterator.hasNext() && (batchSize <= 0 || batch.size() < batchSize)) {
+                    batch.add(iterator.next());
+                }
+                ticketsDeleted += batch.stream().mapToInt(this::cleanTicket).sum();
+                batches++;
+                LOGGER.debug("Cleaned batch [{}] with [{}] expired ticket(s)", batches, batch.size());
+                proceed = afterBatchCleaned(batch);
+            }
         }
+        recordStatistics(ticketsDeleted, startTime);
+        LOGGER.info("[{}] expired tickets removed in [{}] batch(es) and [{}] ms. Backlog: [{}], lag: [{}]",
+            ticketsDeleted, batches, Duration.between(startTime, Instant.now()).toMillis(), lastRunBacklog, lastRunLag);
+        return ticketsDeleted;
+    }
+
+    /**
+     * Gets the expired tickets that should be cleaned by this cleaner.
+     *
+     * @return the expired tickets
+     */
+    protected Stream<? extends Ticket> getExpiredTickets() {
+        return ticketRegistry.getExpiredTickets();
+    }
+
+    /**
+     * Invoked once a batch of expired tickets is cleaned.
+     *
+     * @param batch the tickets in the batch
+     * @return true if the cleaner should proceed with the next batch
+     */
+    protected boolean afterBatchCleaned(final List<Ticket> batch) {
+        return true;
+    }
+
+    /**
+     * Record statistics about the last cleaner run.
+     *
+     * @param ticketsDeleted the tickets deleted
+     * @param startTime      the start time
+     */
+    protected void recordStatistics(final int ticketsDeleted, final Instant startTime) {
+        this.lastRunTicketsRemoved = ticketsDeleted;
+        this.lastRunBacklog = ticketRegistry.getExpiredTicketsBacklog();
+        this.lastRunLag = ticketRegistry.getExpiredTicketsLag();
+        if (lastRunBacklog > 0 && isTimeBudgetExhausted(startTime)) {
+            LOGGER.warn("Ticket registry cleaner exhausted its time budget of [{}]; [{}] expired tickets are pending removal",
+                maxRunDuration, lastRunBacklog);
+        }
+    }
+
+    private boolean isTimeBudgetExhausted(final Instant startTime) {
+        return maxRunDuration != null && !maxRunDuration.isZero() && !maxRunDuration.isNegative()
+            && !Instant.now().isBefore(startTime.plus(maxRunDuration));
     }
 
     /**
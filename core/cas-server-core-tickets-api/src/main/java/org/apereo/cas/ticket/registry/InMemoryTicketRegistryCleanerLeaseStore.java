@@ -0,0 +1,46 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.registry.support.TicketRegistryCleanerLeaseStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This is {@link InMemoryTicketRegistryCleanerLeaseStore}, which keeps
+ * leases in memory and is only suitable for single-node deployments.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+public class InMemoryTicketRegistryCleanerLeaseStore implements TicketRegistryCleanerLeaseStore {
+    private final Map<Integer, Lease> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean acquire(final int shard, final String owner, final Duration leaseDuration) {
+        val now = Instant.now();
+        val lease = leases.compute(shard, (k, current) -> {
+            if (current == null || current.owner.equals(owner) || !now.isBefore(current.expiration)) {
+                return new Lease(owner, now.plus(leaseDuration));
+            }
+            return current;
+        });
+        return lease.owner.equals(owner);
+    }
+
+    @Override
+    public void release(final int shard, final String owner) {
+        leases.computeIfPresent(shard, (k, current) -> current.owner.equals(owner) ? null : current);
+    }
+
+    @RequiredArgsConstructor
+    private static class Lease {
+        private final String owner;
+
+        private final Instant expiration;
+    }
+}
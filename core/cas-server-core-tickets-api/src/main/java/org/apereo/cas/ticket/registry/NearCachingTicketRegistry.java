@@ -0,0 +1,343 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.DigestUtils;
+import org.apereo.cas.util.serialization.SerializationUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link NearCachingTicketRegistry}.
+ * Decorates a (typically distributed) ticket registry with a bounded, short-lived
+ * local cache of serialized ticket-granting tickets, which are read many times during
+ * a single sign-on flow. Other tickets, such as service and proxy tickets, are always
+ * read through to the underlying registry so that their one-time-use semantics remain intact.
+ * Updates and removals are broadcast to other nodes via a {@link TicketCacheInvalidationPublisher},
+ * and the cache expiration bounds how long a node may observe a stale ticket
+ * should an invalidation notice be missed.
+ * Cached tickets are keyed by a digest of the ticket id, which is also what is published.
+ * Each read deserializes its own copy of the cached ticket, so that concurrent requests
+ * never share, and mutate, the same ticket instance.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+@Getter
+public class NearCachingTicketRegistry implements TicketRegistry {
+    /**
+     * Cache key published to signal that all cached tickets should be invalidated.
+     */
+    public static final String INVALIDATE_ALL = "*";
+
+    private final TicketRegistry delegate;
+
+    private final Cache<String, byte[]> cache;
+
+    private final TicketCacheInvalidationPublisher invalidationPublisher;
+
+    public NearCachingTicketRegistry(final TicketRegistry delegate, final long maximumSize,
+                                     final Duration timeToLive,
+                                     final TicketCacheInvalidationPublisher invalidationPublisher) {
+        this.delegate = delegate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive)
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public void addTicket(final Ticket ticket) {
+        delegate.addTicket(ticket);
+        if (isCacheable(ticket)) {
+            cacheTicket(getCacheKey(ticket.getId()), ticket);
+        }
+    }
+
+    @Override
+    public <T extends Ticket> T getTicket(final String ticketId, final @NonNull Class<T> clazz) {
+        val ticket = getTicket(ticketId);
+        if (ticket == null) {
+            return null;
+        }
+        if (!clazz.isAssignableFrom(ticket.getClass())) {
+            throw new ClassCastException("Ticket [" + ticket.getId() + " is of type " + ticket.getClass() + " when we were expecting " + clazz);
+        }
+        return clazz.cast(ticket);
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId) {
+        if (StringUtils.isBlank(ticketId)) {
+            return delegate.getTicket(ticketId);
+        }
+        val cacheKey = getCacheKey(ticketId);
+        val cached = getCachedTicket(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        val ticket = delegate.getTicket(ticketId);
+        if (isCacheable(ticket)) {
+            cacheTicket(cacheKey, ticket);
+        }
+        return ticket;
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId, final Predicate<Ticket> predicate) {
+        if (StringUtils.isBlank(ticketId)) {
+            return delegate.getTicket(ticketId, predicate);
+        }
+        val cacheKey = getCacheKey(ticketId);
+        val cached = getCachedTicket(cacheKey);
+        if (cached != null) {
+            return predicate.test(cached) ? cached : null;
+        }
+        val ticket = delegate.getTicket(ticketId, predicate);
+        if (isCacheable(ticket)) {
+            cacheTicket(cacheKey, ticket);
+        }
+        return ticket;
+    }
+
+    @Override
+    public int deleteTicket(final String ticketId) {
+        if (StringUtils.isBlank(ticketId)) {
+            return delegate.deleteTicket(ticketId);
+        }
+        val cacheKeys = invalidateTicket(ticketId);
+        val result = delegate.deleteTicket(ticketId);
+        invalidate(cacheKeys);
+        return result;
+    }
+
+    @Override
+    public int deleteTicket(final Ticket ticket) {
+        val cacheKeys = invalidateTicket(ticket.getId());
+        val result = delegate.deleteTicket(ticket);
+        invalidate(cacheKeys);
+        return result;
+    }
+
+    @Override
+    public long deleteAll() {
+        cache.invalidateAll();
+        invalidationPublisher.publish(INVALIDATE_ALL);
+        return delegate.deleteAll();
+    }
+
+    @Override
+    public Collection<? extends Ticket> getTickets() {
+        return delegate.getTickets();
+    }
+
+    @Override
+    public Stream<? extends Ticket> getTickets(final Predicate<Ticket> predicate) {
+        return delegate.getTickets(predicate);
+    }
+
+    @Override
+    public Stream<? extends Ticket> getTicketsStream() {
+        return delegate.getTicketsStream();
+    }
+
+    @Override
+    public Stream<? extends Ticket> getTicketsStream(final Collection<String> ticketPrefixes) {
+        return delegate.getTicketsStream(ticketPrefixes);
+    }
+
+    @Override
+    public Ticket updateTicket(final Ticket ticket) {
+        val result = delegate.updateTicket(ticket);
+        val cacheKey = getCacheKey(ticket.getId());
+        if (isCacheable(ticket)) {
+            cacheTicket(cacheKey, ticket);
+        }
+        invalidationPublisher.publish(cacheKey);
+        return result;
+    }
+
+    @Override
+    public void addAndUpdate(final Collection<? extends Ticket> ticketsToAdd, final Collection<? extends Ticket> ticketsToUpdate) {
+        delegate.addAndUpdate(ticketsToAdd, ticketsToUpdate);
+        ticketsToUpdate.forEach(ticket -> {
+            val cacheKey = getCacheKey(ticket.getId());
+            if (isCacheable(ticket)) {
+                cacheTicket(cacheKey, ticket);
+            }
+            invalidationPublisher.publish(cacheKey);
+        });
+        ticketsToAdd
+            .stream()
+            .filter(NearCachingTicketRegistry::isCacheable)
+            .forEach(ticket -> cacheTicket(getCacheKey(ticket.getId()), ticket));
+    }
+
+    @Override
+    public boolean consumeTicket(final Ticket ticket) {
+        val cacheKeys = invalidateTicket(ticket.getId());
+        val result = delegate.consumeTicket(ticket);
+        invalidate(cacheKeys);
+        return result;
+    }
+
+    @Override
+    public long sessionCount() {
+        return delegate.sessionCount();
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return delegate.serviceTicketCount();
+    }
+
+    @Override
+    public long countSessionsFor(final String principalId) {
+        return delegate.countSessionsFor(principalId);
+    }
+
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        return delegate.getSessionsFor(principalId);
+    }
+
+    @Override
+    public Stream<? extends Ticket> getExpiredTickets() {
+        return delegate.getExpiredTickets();
+    }
+
+    @Override
+    public Stream<? extends Ticket> getExpiredTickets(final int shardCount, final Collection<Integer> shards) {
+        return delegate.getExpiredTickets(shardCount, shards);
+    }
+
+    @Override
+    public int getShard(final String ticketId, final int shardCount) {
+        return delegate.getShard(ticketId, shardCount);
+    }
+
+    @Override
+    public long purgeExpiredTickets() {
+        return delegate.purgeExpiredTickets();
+    }
+
+    @Override
+    public long getExpiredTicketsBacklog() {
+        return delegate.getExpiredTicketsBacklog();
+    }
+
+    @Override
+    public Duration getExpiredTicketsLag() {
+        return delegate.getExpiredTicketsLag();
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Invalidate the cached ticket for the given cache key,
+     * typically upon receiving an invalidation notice from another node.
+     *
+     * @param cacheKey the cache key, or {@link #INVALIDATE_ALL}
+     */
+    public void invalidate(final String cacheKey) {
+        if (INVALIDATE_ALL.equals(cacheKey)) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(cacheKey);
+        }
+    }
+
+    /**
+     * Gets cache statistics, such as the hit ratio, to help size the cache.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats getCacheStatistics() {
+        return cache.stats();
+    }
+
+    private Ticket getCachedTicket(final String cacheKey) {
+        val cached = decodeTicket(cache.getIfPresent(cacheKey));
+        if (cached != null && cached.isExpired()) {
+            LOGGER.trace("Cached ticket [{}] has expired and is read through to the underlying registry", cached.getId());
+            cache.invalidate(cacheKey);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Invalidate the ticket locally and on other nodes, along with the
+     * proxy-granting tickets of a cached ticket-granting ticket, which the
+     * underlying registry removes together with their parent.
+     *
+     * @return the invalidated cache keys
+     */
+    private List<String> invalidateTicket(final String ticketId) {
+        val cacheKeys = new ArrayList<String>();
+        invalidateTicket(ticketId, cacheKeys);
+        return cacheKeys;
+    }
+
+    private void invalidateTicket(final String ticketId, final List<String> cacheKeys) {
+        val cacheKey = getCacheKey(ticketId);
+        val cached = decodeTicket(cache.getIfPresent(cacheKey));
+        if (cached instanceof TicketGrantingTicket) {
+            ((TicketGrantingTicket) cached).getProxyGrantingTickets().keySet().forEach(id -> invalidateTicket(id, cacheKeys));
+        }
+        cache.invalidate(cacheKey);
+        invalidationPublisher.publish(cacheKey);
+        cacheKeys.add(cacheKey);
+    }
+
+    /**
+     * Invalidate the cache keys again once the underlying registry has removed the tickets,
+     * so that a copy that was read through and cached by a concurrent request,
+     * here or on another node, while the removal was in progress is not served afterwards.
+     */
+    private void invalidate(final List<String> cacheKeys) {
+        cache.invalidateAll(cacheKeys);
+        cacheKeys.forEach(invalidationPublisher::publish);
+    }
+
+    private void cacheTicket(final String cacheKey, final Ticket ticket) {
+        cache.put(cacheKey, SerializationUtils.serialize(ticket));
+    }
+
+    private static Ticket decodeTicket(final byte[] cached) {
+        return cached == null ? null : SerializationUtils.deserialize(cached, Ticket.class);
+    }
+
+    private static String getCacheKey(final String ticketId) {
+        return DigestUtils.sha512(ticketId);
+    }
+
+    private static boolean isCacheable(final Ticket ticket) {
+        return ticket instanceof TicketGrantingTicket;
+    }
+}
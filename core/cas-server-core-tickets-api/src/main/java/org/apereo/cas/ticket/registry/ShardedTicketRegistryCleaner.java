@@ -0,0 +1,189 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.registry.support.TicketRegistryCleanerLeaseStore;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link ShardedTicketRegistryCleaner}.
+ * Splits the ticket keyspace into a fixed number of shards, as determined by {@link TicketRegistry#getShard(String, int)},
+ * and only cleans expired tickets that belong to shards that are leased by this node
+ * from a {@link TicketRegistryCleanerLeaseStore}. Expired tickets are requested from the registry for the leased shards only,
+ * so that registries that are able to can skip tickets of other shards without reading them.
+ * Each node leases shards starting at a different offset, up to a maximum, and continues
+ * where it left off on the next run, so that the cleanup work is spread across the cluster instead of
+ * being done by a single lock holder. Leases are renewed between batches and are released at the end of each run;
+ * leases of nodes that fail during cleanup expire and are picked up by other nodes.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+@Getter
+public class ShardedTicketRegistryCleaner extends DefaultTicketRegistryCleaner {
+    private static final long serialVersionUID = 3921768210367457301L;
+
+    private final transient TicketRegistryCleanerLeaseStore leaseStore;
+
+    private final String nodeId;
+
+    private final int shardCount;
+
+    private final Duration leaseDuration;
+
+    /**
+     * Maximum number of shards leased by this node in a single run.
+     * A zero or negative value allows the node to lease all available shards.
+     */
+    @Setter
+    private int maxLeasedShards;
+
+    /**
+     * Statistics for shards that were leased by this node, keyed by shard.
+     */
+    private final transient Map<Integer, ShardStatistics> shardStatistics = new ConcurrentSkipListMap<>();
+
+    @Getter(AccessLevel.NONE)
+    private final transient Set<Integer> leasedShards = ConcurrentHashMap.newKeySet();
+
+    @Getter(AccessLevel.NONE)
+    private transient volatile Instant lastRenewal = Instant.EPOCH;
+
+    @Getter(AccessLevel.NONE)
+    private transient int nextOffset;
+
+    public ShardedTicketRegistryCleaner(final LogoutManager logoutManager, final TicketRegistry ticketRegistry,
+                                        final TicketRegistryCleanerLeaseStore leaseStore, final String nodeId,
+                                        final int shardCount, final Duration leaseDuration) {
+        super(new NoOpLockingStrategy(), logoutManager, ticketRegistry);
+        this.leaseStore = leaseStore;
+        this.nodeId = nodeId;
+        this.shardCount = Math.max(1, shardCount);
+        this.leaseDuration = leaseDuration;
+        this.nextOffset = Math.floorMod(nodeId.hashCode(), this.shardCount);
+    }
+
+    @Override
+    protected int cleanInternal() {
+        acquireLeases();
+        if (leasedShards.isEmpty()) {
+            LOGGER.debug("No ticket registry shards could be leased by [{}]; other nodes are cleaning tickets", nodeId);
+            return 0;
+        }
+        try {
+            LOGGER.debug("[{}] leased ticket registry shards [{}] for cleanup", nodeId, leasedShards);
+            return super.cleanInternal();
+        } finally {
+            releaseLeases();
+        }
+    }
+
+    @Override
+    protected Stream<? extends Ticket> getExpiredTickets() {
+        return getTicketRegistry().getExpiredTickets(shardCount, leasedShards)
+            .filter(ticket -> leasedShards.contains(getTicketRegistry().getShard(ticket.getId(), shardCount)));
+    }
+
+    @Override
+    protected boolean afterBatchCleaned(final List<Ticket> batch) {
+        batch.forEach(ticket -> {
+            val statistics = shardStatistics.get(getTicketRegistry().getShard(ticket.getId(), shardCount));
+            if (statistics != null) {
+                statistics.lastRunTicketsRemoved.incrementAndGet();
+                statistics.totalTicketsRemoved.incrementAndGet();
+            }
+        });
+        if (!Instant.now().isBefore(lastRenewal.plus(leaseDuration.dividedBy(2)))) {
+            renewLeases();
+        }
+        return !leasedShards.isEmpty();
+    }
+
+    private void acquireLeases() {
+        leasedShards.clear();
+        val offset = nextOffset;
+        for (var i = 0; i < shardCount && (maxLeasedShards <= 0 || leasedShards.size() < maxLeasedShards); i++) {
+            val shard = (offset + i) % shardCount;
+            nextOffset = (shard + 1) % shardCount;
+            if (leaseStore.acquire(shard, nodeId, leaseDuration)) {
+                leasedShards.add(shard);
+                val statistics = shardStatistics.computeIfAbsent(shard, ShardStatistics::new);
+                statistics.lastLeasedAt = Instant.now();
+                statistics.lastRunTicketsRemoved.set(0);
+            }
+        }
+        lastRenewal = Instant.now();
+    }
+
+    private void renewLeases() {
+        leasedShards.removeIf(shard -> {
+            val renewed = leaseStore.acquire(shard, nodeId, leaseDuration);
+            if (!renewed) {
+                LOGGER.warn("[{}] lost the lease on ticket registry shard [{}]", nodeId, shard);
+            }
+            return !renewed;
+        });
+        lastRenewal = Instant.now();
+    }
+
+    private void releaseLeases() {
+        leasedShards.forEach(shard -> {
+            leaseStore.release(shard, nodeId);
+            LOGGER.trace("[{}] removed [{}] expired ticket(s) from shard [{}]", nodeId,
+                shardStatistics.get(shard).getLastRunTicketsRemoved(), shard);
+        });
+        leasedShards.clear();
+    }
+
+    /**
+     * Cleanup progress of a single shard, as observed by this node.
+     */
+    @Getter
+    public static class ShardStatistics {
+        private final int shard;
+
+        private final AtomicLong lastRunTicketsRemoved = new AtomicLong();
+
+        private final AtomicLong totalTicketsRemoved = new AtomicLong();
+
+        private volatile Instant lastLeasedAt;
+
+        ShardStatistics(final int shard) {
+            this.shard = shard;
+        }
+
+        /**
+         * Number of expired tickets removed from the shard by the last run that leased it.
+         *
+         * @return the count
+         */
+        public long getLastRunTicketsRemoved() {
+            return lastRunTicketsRemoved.get();
+        }
+
+        /**
+         * Number of expired tickets removed from the shard by this node.
+         *
+         * @return the count
+         */
+        public long getTotalTicketsRemoved() {
+            return totalTicketsRemoved.get();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.apereo.cas.ticket.registry;
+
+/**
+ * This is {@link TicketCacheInvalidationPublisher}.
+ * Broadcasts invalidation notices for tickets that are cached locally
+ * by {@link NearCachingTicketRegistry} instances on other nodes.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@FunctionalInterface
+public interface TicketCacheInvalidationPublisher {
+
+    /**
+     * No op publisher, relying on cache expiration alone.
+     *
+     * @return the publisher
+     */
+    static TicketCacheInvalidationPublisher noOp() {
+        return cacheKey -> {
+        };
+    }
+
+    /**
+     * Publish an invalidation notice for the given cache key.
+     *
+     * @param cacheKey the cache key
+     */
+    void publish(String cacheKey);
+}
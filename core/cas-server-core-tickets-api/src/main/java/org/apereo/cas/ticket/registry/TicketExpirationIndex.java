@@ -0,0 +1,188 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketState;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link TicketExpirationIndex}.
+ * A time-bucketed index of ticket ids, keyed by the instant at which each ticket
+ * should next be checked for expiration. Buckets are one second wide and are kept
+ * sorted so that tickets whose deadline has passed can be located without scanning
+ * the entire registry. The index only tracks ticket ids; tickets are always re-checked
+ * for expiration by the registry before they are handed over to the cleaner,
+ * and tickets that turn out not to be expired yet are simply rescheduled.
+ * Buckets of a ticket are updated while holding the ticket's entry, so that concurrent
+ * updates of the same ticket cannot leave it in more than one bucket.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class TicketExpirationIndex {
+    /**
+     * Interval after which tickets whose expiration deadline
+     * cannot be determined from their expiration policy are checked again.
+     */
+    private static final Duration DEFAULT_RECHECK_INTERVAL = Duration.ofMinutes(1);
+
+    private final NavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Long> ticketBuckets = new ConcurrentHashMap<>();
+
+    /**
+     * Determine the instant at which the ticket should next be checked for expiration.
+     * The deadline is the earliest point in the future at which the ticket's expiration policy
+     * may consider the ticket expired, based on its time-to-live and time-to-idle settings
+     * relative to the ticket creation and last-used times. Tickets that are already expired
+     * are due immediately.
+     *
+     * @param ticket the ticket
+     * @param now    the current instant
+     * @return the deadline
+     */
+    public static Instant getExpirationDeadline(final Ticket ticket, final Instant now) {
+        val policy = ticket.getExpirationPolicy();
+        if (ticket.isExpired() || policy == null) {
+            return now;
+        }
+        val creationTime = ticket.getCreationTime().toInstant();
+        val lastTimeUsed = ticket instanceof TicketState && ((TicketState) ticket).getLastTimeUsed() != null
+            ? ((TicketState) ticket).getLastTimeUsed().toInstant()
+            : creationTime;
+        val timeToLive = ticket instanceof TicketState
+            ? policy.getTimeToLive((TicketState) ticket)
+            : policy.getTimeToLive();
+        val timeToIdle = policy.getTimeToIdle();
+
+        return Stream.of(
+            getDeadline(creationTime, timeToLive),
+            getDeadline(lastTimeUsed, timeToLive),
+            getDeadline(lastTimeUsed, timeToIdle))
+            .filter(Objects::nonNull)
+            .filter(deadline -> deadline.isAfter(now))
+            .min(Instant::compareTo)
+            .orElseGet(() -> now.plus(DEFAULT_RECHECK_INTERVAL));
+    }
+
+    /**
+     * Index or re-index the ticket based on its expiration deadline.
+     *
+     * @param ticket the ticket
+     * @param now    the current instant
+     */
+    public void index(final Ticket ticket, final Instant now) {
+        val bucket = getExpirationDeadline(ticket, now).getEpochSecond();
+        val ticketId = ticket.getId();
+        ticketBuckets.compute(ticketId, (id, previousBucket) -> {
+            if (previousBucket != null && previousBucket != bucket) {
+                removeFromBucket(previousBucket, id);
+            }
+            buckets.compute(bucket, (k, ticketIds) -> {
+                val results = ticketIds == null ? ConcurrentHashMap.<String>newKeySet() : ticketIds;
+                results.add(id);
+                return results;
+            });
+            return bucket;
+        });
+        LOGGER.trace("Indexed ticket [{}] for expiration at [{}]", ticketId, Instant.ofEpochSecond(bucket));
+    }
+
+    /**
+     * Remove the ticket from the index.
+     *
+     * @param ticketId the ticket id
+     */
+    public void remove(final String ticketId) {
+        ticketBuckets.computeIfPresent(ticketId, (id, bucket) -> {
+            removeFromBucket(bucket, id);
+            return null;
+        });
+    }
+
+    /**
+     * Remove all tickets from the index.
+     */
+    public void clear() {
+        buckets.clear();
+        ticketBuckets.clear();
+    }
+
+    /**
+     * Gets the ids of tickets whose expiration deadline has passed,
+     * in order of their deadline. The returned stream is lazy and weakly consistent,
+     * so tickets can be removed or re-indexed while the stream is consumed.
+     *
+     * @param now the current instant
+     * @return the ticket ids
+     */
+    public Stream<String> getDueTicketIds(final Instant now) {
+        return buckets.headMap(now.getEpochSecond(), true)
+            .values()
+            .stream()
+            .flatMap(Set::stream);
+    }
+
+    /**
+     * Count the tickets whose expiration deadline has passed.
+     *
+     * @param now the current instant
+     * @return the backlog size
+     */
+    public long getBacklog(final Instant now) {
+        return buckets.headMap(now.getEpochSecond(), true)
+            .values()
+            .stream()
+            .mapToLong(Set::size)
+            .sum();
+    }
+
+    /**
+     * Gets the time elapsed since the oldest pending expiration deadline.
+     *
+     * @param now the current instant
+     * @return the lag
+     */
+    public Duration getLag(final Instant now) {
+        val oldest = buckets.firstEntry();
+        if (oldest == null || oldest.getKey() > now.getEpochSecond()) {
+            return Duration.ZERO;
+        }
+        return Duration.between(Instant.ofEpochSecond(oldest.getKey()), now);
+    }
+
+    /**
+     * Number of tickets tracked by the index.
+     *
+     * @return the size
+     */
+    public int size() {
+        return ticketBuckets.size();
+    }
+
+    private void removeFromBucket(final Long bucket, final String ticketId) {
+        buckets.computeIfPresent(bucket, (k, ticketIds) -> {
+            ticketIds.remove(ticketId);
+            return ticketIds.isEmpty() ? null : ticketIds;
+        });
+    }
+
+    private static Instant getDeadline(final Instant start, final Long seconds) {
+        if (seconds == null || seconds <= 0) {
+            return null;
+        }
+        return start.plusSeconds(Math.min(seconds, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,242 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.crypto.CipherExecutor;
+import org.apereo.cas.util.serialization.SerializationUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This is {@link TicketGrantingTicketStateEncoder}.
+ * Encodes ticket-granting tickets as two separately encrypted records: the authentication,
+ * which rarely changes over the lifetime of the ticket, and the remaining mutable state
+ * of the ticket (usage counters, services, proxy-granting tickets, etc) in which the authentication
+ * is replaced by a reference. The encrypted authentication is remembered for each
+ * decoded or encoded authentication instance, so that subsequent updates to the same ticket,
+ * such as granting service tickets, only serialize and encrypt the mutable state.
+ * Cached records are only reused if the authentication has not changed since,
+ * as determined by its hash code.
+ * <p>
+ * Registries that are able to store the two records separately may detach the authentication from
+ * the encoded ticket, and only write the authentication again when it changes; the ticket is then
+ * stored as a record of its state alone, which is attached to the authentication again before decoding.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class TicketGrantingTicketStateEncoder {
+    private static final byte[] MAGIC = {0, 'C', 'A', 'S', 'T', 'G', 'T', 1};
+
+    private static final byte[] DETACHED_MAGIC = {0, 'C', 'A', 'S', 'T', 'G', 'T', 2};
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final Cache<Authentication, EncodedAuthentication> encodedAuthentications;
+
+    public TicketGrantingTicketStateEncoder() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public TicketGrantingTicketStateEncoder(final long maximumSize) {
+        this.encodedAuthentications = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    /**
+     * Determine whether the encoded ticket was produced by this encoder.
+     *
+     * @param encodedTicket the encoded ticket
+     * @return true/false
+     */
+    public static boolean isEncodedState(final byte[] encodedTicket) {
+        return encodedTicket != null && encodedTicket.length > MAGIC.length
+            && Arrays.equals(MAGIC, Arrays.copyOf(encodedTicket, MAGIC.length));
+    }
+
+    /**
+     * Determine whether the record holds the state of a ticket whose authentication was detached.
+     *
+     * @param record the record
+     * @return true/false
+     */
+    public static boolean isDetachedState(final byte[] record) {
+        return record != null && record.length > DETACHED_MAGIC.length
+            && Arrays.equals(DETACHED_MAGIC, Arrays.copyOf(record, DETACHED_MAGIC.length));
+    }
+
+    /**
+     * Gets the encoded authentication of the encoded ticket.
+     *
+     * @param encodedTicket the encoded ticket
+     * @return the encoded authentication
+     */
+    public static byte[] getEncodedAuthentication(final byte[] encodedTicket) {
+        val buffer = ByteBuffer.wrap(encodedTicket, MAGIC.length, encodedTicket.length - MAGIC.length);
+        val encodedAuthentication = new byte[buffer.getInt()];
+        buffer.get(encodedAuthentication);
+        return encodedAuthentication;
+    }
+
+    /**
+     * Detach the authentication from the encoded ticket.
+     *
+     * @param encodedTicket the encoded ticket
+     * @return the record of the ticket state, without the authentication
+     */
+    public static byte[] detachAuthentication(final byte[] encodedTicket) {
+        val buffer = ByteBuffer.wrap(encodedTicket, MAGIC.length, encodedTicket.length - MAGIC.length);
+        val stateOffset = MAGIC.length + Integer.BYTES + buffer.getInt();
+        val stateLength = encodedTicket.length - stateOffset;
+        return ByteBuffer.allocate(DETACHED_MAGIC.length + stateLength)
+            .put(DETACHED_MAGIC)
+            .put(encodedTicket, stateOffset, stateLength)
+            .array();
+    }
+
+    /**
+     * Attach the authentication to the record of the ticket state.
+     *
+     * @param detachedState         the record of the ticket state, without the authentication
+     * @param encodedAuthentication the encoded authentication
+     * @return the encoded ticket
+     */
+    public static byte[] attachAuthentication(final byte[] detachedState, final byte[] encodedAuthentication) {
+        val stateLength = detachedState.length - DETACHED_MAGIC.length;
+        return ByteBuffer.allocate(MAGIC.length + Integer.BYTES + encodedAuthentication.length + stateLength)
+            .put(MAGIC)
+            .putInt(encodedAuthentication.length)
+            .put(encodedAuthentication)
+            .put(detachedState, DETACHED_MAGIC.length, stateLength)
+            .array();
+    }
+
+    /**
+     * Encode the ticket.
+     *
+     * @param ticket the ticket
+     * @param cipher the cipher
+     * @return the encoded ticket
+     */
+    @SneakyThrows
+    public byte[] encode(final TicketGrantingTicket ticket, final CipherExecutor cipher) {
+        val authentication = ticket.getAuthentication();
+        val encodedAuthentication = getEncodedAuthentication(authentication, cipher);
+
+        val state = new ByteArrayOutputStream();
+        try (val out = new AuthenticationReplacingOutputStream(state, authentication)) {
+            out.writeObject(ticket);
+        }
+        val encodedState = (byte[]) cipher.encode(state.toByteArray());
+
+        val result = new ByteArrayOutputStream(MAGIC.length + Integer.BYTES
+            + encodedAuthentication.length + encodedState.length);
+        try (val out = new DataOutputStream(result)) {
+            out.write(MAGIC);
+            out.writeInt(encodedAuthentication.length);
+            out.write(encodedAuthentication);
+            out.write(encodedState);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Decode the ticket.
+     *
+     * @param encodedTicket the encoded ticket
+     * @param cipher        the cipher
+     * @return the ticket
+     */
+    @SneakyThrows
+    public TicketGrantingTicket decode(final byte[] encodedTicket, final CipherExecutor cipher) {
+        try (val in = new DataInputStream(new ByteArrayInputStream(encodedTicket))) {
+            in.skipBytes(MAGIC.length);
+            val encodedAuthentication = new byte[in.readInt()];
+            in.readFully(encodedAuthentication);
+            val encodedState = in.readAllBytes();
+
+            val authentication = SerializationUtils.decodeAndDeserializeObject(encodedAuthentication, cipher, Authentication.class);
+            encodedAuthentications.put(authentication, new EncodedAuthentication(authentication.hashCode(), encodedAuthentication));
+
+            val state = (byte[]) cipher.decode(encodedState);
+            try (val stateIn = new AuthenticationResolvingInputStream(new ByteArrayInputStream(state), authentication)) {
+                return (TicketGrantingTicket) stateIn.readObject();
+            }
+        }
+    }
+
+    private byte[] getEncodedAuthentication(final Authentication authentication, final CipherExecutor cipher) {
+        val hashCode = authentication.hashCode();
+        val cached = encodedAuthentications.getIfPresent(authentication);
+        if (cached != null && cached.getHashCode() == hashCode) {
+            LOGGER.trace("Reusing encoded authentication for [{}]", authentication.getPrincipal());
+            return cached.getEncoded();
+        }
+        val encoded = SerializationUtils.serializeAndEncodeObject(cipher, authentication);
+        encodedAuthentications.put(authentication, new EncodedAuthentication(hashCode, encoded));
+        return encoded;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static class EncodedAuthentication {
+        private final int hashCode;
+
+        private final byte[] encoded;
+    }
+
+    private enum AuthenticationReference {
+        INSTANCE
+    }
+
+    private static class AuthenticationReplacingOutputStream extends ObjectOutputStream {
+        private final Authentication authentication;
+
+        AuthenticationReplacingOutputStream(final OutputStream out, final Authentication authentication) throws IOException {
+            super(out);
+            this.authentication = authentication;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) {
+            return obj == authentication ? AuthenticationReference.INSTANCE : obj;
+        }
+    }
+
+    private static class AuthenticationResolvingInputStream extends ObjectInputStream {
+        private final Authentication authentication;
+
+        AuthenticationResolvingInputStream(final InputStream in, final Authentication authentication) throws IOException {
+            super(in);
+            this.authentication = authentication;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(final Object obj) {
+            return obj == AuthenticationReference.INSTANCE ? authentication : obj;
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.ticket.InvalidTicketException;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.util.LoggingUtils;
+import org.apereo.cas.util.serialization.AbstractJacksonBackedStringSerializer;
+import org.apereo.cas.util.serialization.StringSerializer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This is {@link CompactBinaryTicketSerializationManager}.
+ * Serializes tickets into a compact, versioned binary encoding of the token stream
+ * that the registered Jackson-backed ticket serializers would otherwise produce as JSON,
+ * so that ticket schemas and type information remain defined by the existing serializers
+ * and {@link TicketSerializationExecutionPlan}. Field names and short string values
+ * are interned and written once per ticket, integers and timestamps are written as
+ * variable-length integers, and larger payloads may be compressed.
+ * The binary payload is Base64-encoded to satisfy the {@link TicketSerializationManager} contract.
+ * Content that is not recognized as binary is treated as JSON and handed over
+ * to a {@link DefaultTicketStringSerializationManager}, which allows tickets stored
+ * previously as JSON to be read. Tickets whose serializers are not backed by Jackson
+ * are serialized as JSON.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class CompactBinaryTicketSerializationManager implements TicketSerializationManager {
+    private static final byte MAGIC = (byte) 0xCA;
+
+    private static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int COMPRESSION_THRESHOLD = 512;
+
+    private static final int MAX_INTERNED_STRING_LENGTH = 256;
+
+    private static final int TOKEN_START_OBJECT = 1;
+
+    private static final int TOKEN_END_OBJECT = 2;
+
+    private static final int TOKEN_START_ARRAY = 3;
+
+    private static final int TOKEN_END_ARRAY = 4;
+
+    private static final int TOKEN_NAME = 5;
+
+    private static final int TOKEN_NAME_REF = 6;
+
+    private static final int TOKEN_STRING = 7;
+
+    private static final int TOKEN_STRING_REF = 8;
+
+    private static final int TOKEN_INTEGER = 9;
+
+    private static final int TOKEN_DOUBLE = 10;
+
+    private static final int TOKEN_BIG_INTEGER = 11;
+
+    private static final int TOKEN_BIG_DECIMAL = 12;
+
+    private static final int TOKEN_TRUE = 13;
+
+    private static final int TOKEN_FALSE = 14;
+
+    private static final int TOKEN_NULL = 15;
+
+    private static final int TOKEN_BINARY = 16;
+
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+
+    private static final int VARINT_CONTINUATION_BIT = 0x80;
+
+    private static final int VARINT_PAYLOAD_BITS = 7;
+
+    private static final int LONG_SIGN_SHIFT = 63;
+
+    private final TicketSerializationExecutionPlan ticketSerializationExecutionPlan;
+
+    private final boolean compressionEnabled;
+
+    private final TicketSerializationManager jsonSerializationManager;
+
+    private final Map<Class, ObjectMapper> objectMappers = new ConcurrentHashMap<>();
+
+    public CompactBinaryTicketSerializationManager(final TicketSerializationExecutionPlan ticketSerializationExecutionPlan,
+                                                   final boolean compressionEnabled) {
+        this.ticketSerializationExecutionPlan = ticketSerializationExecutionPlan;
+        this.compressionEnabled = compressionEnabled;
+        this.jsonSerializationManager = new DefaultTicketStringSerializationManager(ticketSerializationExecutionPlan);
+    }
+
+    @Override
+    public String serializeTicket(final Ticket ticket) {
+        val serializer = ticketSerializationExecutionPlan.getTicketSerializer(ticket);
+        if (serializer == null) {
+            throw new IllegalArgumentException("Unable to find ticket serializer for " + ticket.getId());
+        }
+        val mapper = getObjectMapper(serializer);
+        if (mapper == null) {
+            LOGGER.trace("Ticket serializer [{}] is not backed by Jackson; serializing ticket as JSON", serializer.getClass().getSimpleName());
+            return jsonSerializationManager.serializeTicket(ticket);
+        }
+        try {
+            val buffer = new TokenBuffer(mapper, false);
+            mapper.writeValue(buffer, ticket);
+            val payload = new ByteArrayOutputStream();
+            try (val parser = buffer.asParser()) {
+                new TokenWriter(new DataOutputStream(payload)).write(parser);
+            }
+            return Base64.getEncoder().encodeToString(encodePayload(payload.toByteArray()));
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to serialize ticket [{}] in binary form; serializing ticket as JSON", ticket.getId());
+            LoggingUtils.error(LOGGER, e);
+            return jsonSerializationManager.serializeTicket(ticket);
+        }
+    }
+
+    @Override
+    @SneakyThrows
+    public Ticket deserializeTicket(final String ticketContent, final String type) {
+        if (StringUtils.isBlank(type)) {
+            throw new InvalidTicketException("Invalid ticket type [blank] specified");
+        }
+        val serializer = ticketSerializationExecutionPlan.getTicketSerializer(type);
+        if (serializer == null) {
+            throw new IllegalArgumentException("Unable to find ticket deserializer for " + type);
+        }
+        val clazz = Class.forName(type);
+        return deserializeTicket(ticketContent, (Class) clazz);
+    }
+
+    @Override
+    public <T extends Ticket> T deserializeTicket(final String ticketContent, final Class<T> clazz) {
+        val content = decodeBinaryContent(ticketContent);
+        if (content == null) {
+            LOGGER.trace("Ticket content is not recognized as binary; reading ticket as JSON");
+            return jsonSerializationManager.deserializeTicket(ticketContent, clazz);
+        }
+        val serializer = ticketSerializationExecutionPlan.getTicketSerializer(clazz);
+        if (serializer == null) {
+            throw new IllegalArgumentException("Unable to find ticket deserializer for " + clazz.getSimpleName());
+        }
+        val mapper = getObjectMapper(serializer);
+        if (mapper == null) {
+            throw new IllegalArgumentException("Ticket deserializer for " + clazz.getSimpleName() + " cannot read binary content");
+        }
+        val ticket = readTicket(mapper, content, serializer.getTypeToSerialize());
+        if (ticket == null) {
+            throw new InvalidTicketException(clazz.getName());
+        }
+        if (!clazz.isAssignableFrom(ticket.getClass())) {
+            throw new ClassCastException("Ticket [" + ticket.getId()
+                + " is of type " + ticket.getClass()
+                + " when we were expecting " + clazz);
+        }
+        return (T) ticket;
+    }
+
+    /**
+     * Gets the object mapper used to produce the binary token stream for the serializer.
+     * The mapper is a copy of the serializer's own mapper, configured to write dates as
+     * epoch milliseconds so they can be encoded as variable-length integers.
+     *
+     * @param serializer the serializer
+     * @return the object mapper, or null if the serializer is not backed by Jackson
+     */
+    private ObjectMapper getObjectMapper(final StringSerializer<Ticket> serializer) {
+        if (!(serializer instanceof AbstractJacksonBackedStringSerializer)) {
+            return null;
+        }
+        return objectMappers.computeIfAbsent(serializer.getClass(), k ->
+            ((AbstractJacksonBackedStringSerializer) serializer).getObjectMapper()
+                .copy()
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS));
+    }
+
+    private static Ticket readTicket(final ObjectMapper mapper, final byte[] content, final Class<? extends Ticket> type) {
+        try {
+            val flags = content[2];
+            val payload = new ByteArrayInputStream(content, HEADER_LENGTH, content.length - HEADER_LENGTH);
+            val input = (flags & FLAG_COMPRESSED) == FLAG_COMPRESSED ? new InflaterInputStream(payload) : payload;
+            val buffer = new TokenReader(new DataInputStream(input)).read(mapper);
+            try (val parser = buffer.asParser()) {
+                return mapper.readValue(parser, type);
+            }
+        } catch (final Exception e) {
+            LOGGER.error("Cannot read binary ticket content to deserialize into type [{}]: [{}]", type, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+        return null;
+    }
+
+    private byte[] encodePayload(final byte[] payload) throws IOException {
+        val compress = compressionEnabled && payload.length >= COMPRESSION_THRESHOLD;
+        val output = new ByteArrayOutputStream(payload.length + HEADER_LENGTH);
+        output.write(MAGIC);
+        output.write(VERSION);
+        output.write(compress ? FLAG_COMPRESSED : 0);
+        if (compress) {
+            try (val deflater = new DeflaterOutputStream(output)) {
+                deflater.write(payload);
+            }
+        } else {
+            output.write(payload);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] decodeBinaryContent(final String ticketContent) {
+        if (StringUtils.isBlank(ticketContent)) {
+            return null;
+        }
+        val content = decodeBase64(ticketContent);
+        if (content == null || content.length < HEADER_LENGTH || content[0] != MAGIC) {
+            return null;
+        }
+        if (content[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary ticket format version " + content[1]);
+        }
+        return content;
+    }
+
+    private static byte[] decodeBase64(final String ticketContent) {
+        try {
+            return Base64.getDecoder().decode(ticketContent);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.trace("Unable to decode ticket content as binary: [{}]", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes a Jackson token stream using the binary encoding.
+     */
+    @RequiredArgsConstructor
+    private static class TokenWriter {
+        private final DataOutputStream output;
+
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        void write(final JsonParser parser) throws IOException {
+            var token = parser.nextToken();
+            while (token != null) {
+                switch (token) {
+                    case START_OBJECT:
+                        output.writeByte(TOKEN_START_OBJECT);
+                        break;
+                    case END_OBJECT:
+                        output.writeByte(TOKEN_END_OBJECT);
+                        break;
+                    case START_ARRAY:
+                        output.writeByte(TOKEN_START_ARRAY);
+                        break;
+                    case END_ARRAY:
+                        output.writeByte(TOKEN_END_ARRAY);
+                        break;
+                    case FIELD_NAME:
+                        writeString(TOKEN_NAME, TOKEN_NAME_REF, parser.getCurrentName());
+                        break;
+                    case VALUE_STRING:
+                        writeString(TOKEN_STRING, TOKEN_STRING_REF, parser.getText());
+                        break;
+                    case VALUE_NUMBER_INT:
+                        if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                            output.writeByte(TOKEN_BIG_INTEGER);
+                            writeText(parser.getText());
+                        } else {
+                            output.writeByte(TOKEN_INTEGER);
+                            val value = parser.getLongValue();
+                            writeVarLong((value << 1) ^ (value >> LONG_SIGN_SHIFT));
+                        }
+                        break;
+                    case VALUE_NUMBER_FLOAT:
+                        if (parser.getNumberType() == JsonParser.NumberType.BIG_DECIMAL) {
+                            output.writeByte(TOKEN_BIG_DECIMAL);
+                            writeText(parser.getDecimalValue().toString());
+                        } else {
+                            output.writeByte(TOKEN_DOUBLE);
+                            output.writeDouble(parser.getDoubleValue());
+                        }
+                        break;
+                    case VALUE_TRUE:
+                        output.writeByte(TOKEN_TRUE);
+                        break;
+                    case VALUE_FALSE:
+                        output.writeByte(TOKEN_FALSE);
+                        break;
+                    case VALUE_NULL:
+                        output.writeByte(TOKEN_NULL);
+                        break;
+                    case VALUE_EMBEDDED_OBJECT:
+                        writeEmbeddedObject(parser.getEmbeddedObject());
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported token " + token);
+                }
+                token = parser.nextToken();
+            }
+            output.flush();
+        }
+
+        private void writeEmbeddedObject(final Object value) throws IOException {
+            if (value == null) {
+                output.writeByte(TOKEN_NULL);
+            } else if (value instanceof byte[]) {
+                val bytes = (byte[]) value;
+                output.writeByte(TOKEN_BINARY);
+                writeVarLong(bytes.length);
+                output.write(bytes);
+            } else {
+                throw new IllegalArgumentException("Unsupported embedded value of type " + value.getClass());
+            }
+        }
+
+        private void writeString(final int literalToken, final int referenceToken, final String value) throws IOException {
+            val index = strings.get(value);
+            if (index != null) {
+                output.writeByte(referenceToken);
+                writeVarLong(index);
+                return;
+            }
+            output.writeByte(literalToken);
+            writeText(value);
+            if (value.length() <= MAX_INTERNED_STRING_LENGTH) {
+                strings.put(value, strings.size());
+            }
+        }
+
+        private void writeText(final String value) throws IOException {
+            val bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            output.write(bytes);
+        }
+
+        private void writeVarLong(final long value) throws IOException {
+            var remaining = value;
+            while ((remaining & ~VARINT_PAYLOAD_MASK) != 0) {
+                output.writeByte((int) (remaining & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION_BIT);
+                remaining >>>= VARINT_PAYLOAD_BITS;
+            }
+            output.writeByte((int) remaining);
+        }
+    }
+
+    /**
+     * Reads the binary encoding back into a Jackson token stream.
+     */
+    @RequiredArgsConstructor
+    private static class TokenReader {
+        private final DataInputStream input;
+
+        private final List<String> strings = new ArrayList<>();
+
+        TokenBuffer read(final ObjectMapper mapper) throws IOException {
+            val buffer = new TokenBuffer(mapper, false);
+            var token = input.read();
+            while (token >= 0) {
+                switch (token) {
+                    case TOKEN_START_OBJECT:
+                        buffer.writeStartObject();
+                        break;
+                    case TOKEN_END_OBJECT:
+                        buffer.writeEndObject();
+                        break;
+                    case TOKEN_START_ARRAY:
+                        buffer.writeStartArray();
+                        break;
+                    case TOKEN_END_ARRAY:
+                        buffer.writeEndArray();
+                        break;
+                    case TOKEN_NAME:
+                        buffer.writeFieldName(readString());
+                        break;
+                    case TOKEN_NAME_REF:
+                        buffer.writeFieldName(strings.get((int) readVarLong()));
+                        break;
+                    case TOKEN_STRING:
+                        buffer.writeString(readString());
+                        break;
+                    case TOKEN_STRING_REF:
+                        buffer.writeString(strings.get((int) readVarLong()));
+                        break;
+                    case TOKEN_INTEGER:
+                        val encoded = readVarLong();
+                        val value = (encoded >>> 1) ^ -(encoded & 1);
+                        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                            buffer.writeNumber((int) value);
+                        } else {
+                            buffer.writeNumber(value);
+                        }
+                        break;
+                    case TOKEN_DOUBLE:
+                        buffer.writeNumber(input.readDouble());
+                        break;
+                    case TOKEN_BIG_INTEGER:
+                        buffer.writeNumber(new BigInteger(readText()));
+                        break;
+                    case TOKEN_BIG_DECIMAL:
+                        buffer.writeNumber(new BigDecimal(readText()));
+                        break;
+                    case TOKEN_TRUE:
+                        buffer.writeBoolean(true);
+                        break;
+                    case TOKEN_FALSE:
+                        buffer.writeBoolean(false);
+                        break;
+                    case TOKEN_NULL:
+                        buffer.writeNull();
+                        break;
+                    case TOKEN_BINARY:
+                        val bytes = new byte[(int) readVarLong()];
+                        input.readFully(bytes);
+                        buffer.writeBinary(bytes);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown token " + token);
+                }
+                token = input.read();
+            }
+            return buffer;
+        }
+
+        private String readString() throws IOException {
+            val value = readText();
+            if (value.length() <= MAX_INTERNED_STRING_LENGTH) {
+                strings.add(value);
+            }
+            return value;
+        }
+
+        private String readText() throws IOException {
+            val bytes = new byte[(int) readVarLong()];
+            input.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private long readVarLong() throws IOException {
+            var value = 0L;
+            var shift = 0;
+            var current = input.readUnsignedByte();
+            while ((current & VARINT_CONTINUATION_BIT) != 0) {
+                value |= (long) (current & VARINT_PAYLOAD_MASK) << shift;
+                shift += VARINT_PAYLOAD_BITS;
+                current = input.readUnsignedByte();
+            }
+            return value | (long) current << shift;
+        }
+    }
+}
@@ -57,13 +57,15 @@ public class CoreTicketUtils {
 
         if (enabled || forceIfBlankKeys) {
             LOGGER.debug("Ticket registry encryption/signing is enabled for [{}]", registryName);
-            return new DefaultTicketCipherExecutor(
+            val cipher = new DefaultTicketCipherExecutor(
                 registry.getEncryption().getKey(),
                 registry.getSigning().getKey(),
                 registry.getAlg(),
                 registry.getSigning().getKeySize(),
                 registry.getEncryption().getKeySize(),
                 registryName);
+            cipher.setAuthenticatedEncryption(registry.isAuthenticatedEncryption());
+            return cipher;
         }
         LOGGER.info("Ticket registry encryption/signing is turned off. This MAY NOT be safe in a clustered production environment. "
             + "Consider using other choices to handle encryption, signing and verification of "
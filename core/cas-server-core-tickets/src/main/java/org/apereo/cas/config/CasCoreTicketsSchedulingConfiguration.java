@@ -1,17 +1,24 @@
 package org.apereo.cas.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryCleanerShardingProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.InMemoryTicketRegistryCleanerLeaseStore;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.ShardedTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.ticket.registry.support.TicketRegistryCleanerLeaseStore;
+import org.apereo.cas.util.InetAddressUtils;
 import org.apereo.cas.util.LoggingUtils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -27,6 +34,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import java.util.UUID;
+
 /**
  * This is {@link CasCoreTicketsSchedulingConfiguration}.
  *
@@ -41,6 +50,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @AutoConfigureAfter(CasCoreTicketsConfiguration.class)
 @Slf4j
 public class CasCoreTicketsSchedulingConfiguration {
+    private static final String DEFAULT_NODE_ID = InetAddressUtils.getCasServerHostName() + '-' + UUID.randomUUID();
 
     @Autowired
     @Qualifier("lockingStrategy")
@@ -54,6 +64,10 @@ public class CasCoreTicketsSchedulingConfiguration {
     @Qualifier("ticketRegistry")
     private ObjectProvider<TicketRegistry> ticketRegistry;
 
+    @Autowired
+    @Qualifier("ticketRegistryCleanerLeaseStore")
+    private ObjectProvider<TicketRegistryCleanerLeaseStore> ticketRegistryCleanerLeaseStore;
+
     @Autowired
     private CasConfigurationProperties casProperties;
 
@@ -61,11 +75,16 @@ public class CasCoreTicketsSchedulingConfiguration {
     @Bean
     @RefreshScope
     public TicketRegistryCleaner ticketRegistryCleaner() {
-        val isCleanerEnabled = casProperties.getTicket().getRegistry().getCleaner().getSchedule().isEnabled();
-        if (isCleanerEnabled) {
+        val cleaner = casProperties.getTicket().getRegistry().getCleaner();
+        if (cleaner.getSchedule().isEnabled()) {
             LOGGER.debug("Ticket registry cleaner is enabled.");
-            return new DefaultTicketRegistryCleaner(lockingStrategy.getObject(),
-                logoutManager.getObject(), ticketRegistry.getObject());
+            val sharding = cleaner.getSharding();
+            val registryCleaner = sharding.isEnabled()
+                ? newShardedTicketRegistryCleaner(sharding)
+                : new DefaultTicketRegistryCleaner(lockingStrategy.getObject(), logoutManager.getObject(), ticketRegistry.getObject());
+            registryCleaner.setBatchSize(cleaner.getBatchSize());
+            registryCleaner.setMaxRunDuration(Beans.newDuration(cleaner.getMaxRunDuration()));
+            return registryCleaner;
         }
         LOGGER.debug("Ticket registry cleaner is not enabled. "
             + "Expired tickets are not forcefully cleaned by CAS. It is up to the ticket registry itself to "
@@ -73,6 +92,12 @@ public class CasCoreTicketsSchedulingConfiguration {
         return NoOpTicketRegistryCleaner.getInstance();
     }
 
+    @ConditionalOnMissingBean(name = "ticketRegistryCleanerLeaseStore")
+    @Bean
+    public TicketRegistryCleanerLeaseStore ticketRegistryCleanerLeaseStore() {
+        return new InMemoryTicketRegistryCleanerLeaseStore();
+    }
+
     @ConditionalOnMissingBean(name = "ticketRegistryCleanerScheduler")
     @ConditionalOnProperty(prefix = "cas.ticket.registry.cleaner.schedule", name = "enabled", havingValue = "true", matchIfMissing = true)
     @Bean
@@ -83,6 +108,19 @@ public class CasCoreTicketsSchedulingConfiguration {
         return new TicketRegistryCleanerScheduler(ticketRegistryCleaner);
     }
 
+    private DefaultTicketRegistryCleaner newShardedTicketRegistryCleaner(final TicketRegistryCleanerShardingProperties sharding) {
+        val nodeId = StringUtils.defaultIfBlank(sharding.getNodeId(), DEFAULT_NODE_ID);
+        val shardCount = Math.max(1, sharding.getShardCount());
+        val maxLeasedShards = sharding.getMaxLeasedShards() > 0
+            ? sharding.getMaxLeasedShards()
+            : (int) Math.ceil((double) shardCount / Math.max(1, sharding.getExpectedNodeCount()));
+        LOGGER.debug("Ticket registry cleaner leases up to [{}] of [{}] shard(s) as [{}]", maxLeasedShards, shardCount, nodeId);
+        val registryCleaner = new ShardedTicketRegistryCleaner(logoutManager.getObject(), ticketRegistry.getObject(),
+            ticketRegistryCleanerLeaseStore.getObject(), nodeId, shardCount,
+            Beans.newDuration(sharding.getLeaseDuration()));
+        registryCleaner.setMaxLeasedShards(maxLeasedShards);
+        return registryCleaner;
+    }
 
     /**
      * The Ticket registry cleaner scheduler. Because the cleaner itself is marked
@@ -1,6 +1,8 @@
 package org.apereo.cas.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistrySerializationProperties;
+import org.apereo.cas.ticket.serialization.CompactBinaryTicketSerializationManager;
 import org.apereo.cas.ticket.serialization.DefaultTicketSerializationExecutionPlan;
 import org.apereo.cas.ticket.serialization.DefaultTicketStringSerializationManager;
 import org.apereo.cas.ticket.serialization.TicketSerializationExecutionPlan;
@@ -33,6 +35,9 @@ public class CasCoreTicketsSerializationConfiguration {
     @Autowired
     private ConfigurableApplicationContext applicationContext;
 
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
     @Bean
     @ConditionalOnMissingBean(name = "ticketSerializationExecutionPlan")
     public TicketSerializationExecutionPlan ticketSerializationExecutionPlan() {
@@ -47,6 +52,10 @@ public class CasCoreTicketsSerializationConfiguration {
     @Bean
     @ConditionalOnMissingBean(name = "ticketSerializationManager")
     public TicketSerializationManager ticketSerializationManager() {
+        val serialization = casProperties.getTicket().getRegistry().getSerialization();
+        if (serialization.getFormat() == TicketRegistrySerializationProperties.TicketSerializationFormats.BINARY) {
+            return new CompactBinaryTicketSerializationManager(ticketSerializationExecutionPlan(), serialization.isCompressionEnabled());
+        }
         return new DefaultTicketStringSerializationManager(ticketSerializationExecutionPlan());
     }
 
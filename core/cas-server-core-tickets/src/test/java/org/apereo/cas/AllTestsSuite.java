@@ -33,6 +33,11 @@ import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleanerTests;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistrySupportTests;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryTests;
 import org.apereo.cas.ticket.registry.DistributedTicketRegistryTests;
+import org.apereo.cas.ticket.registry.NearCachingTicketRegistryTests;
+import org.apereo.cas.ticket.registry.ShardedTicketRegistryCleanerTests;
+import org.apereo.cas.ticket.registry.TicketExpirationIndexTests;
+import org.apereo.cas.ticket.registry.TicketGrantingTicketStateEncoderTests;
+import org.apereo.cas.ticket.serialization.CompactBinaryTicketSerializationManagerTests;
 import org.apereo.cas.ticket.serialization.DefaultTicketStringSerializationManagerTests;
 import org.apereo.cas.util.DefaultUniqueTicketIdGeneratorTests;
 import org.apereo.cas.util.GroovyUniqueTicketIdGeneratorTests;
@@ -56,6 +61,7 @@ import org.junit.runner.RunWith;
     ServiceTicketImplTests.class,
     TicketGrantingTicketExpirationPolicyBuilderTests.class,
     DefaultTicketStringSerializationManagerTests.class,
+    CompactBinaryTicketSerializationManagerTests.class,
     TicketGrantingTicketImplTests.class,
     UnrecognizableServiceForServiceTicketValidationExceptionTests.class,
     MultiTimeUseOrTimeoutExpirationPolicyTests.class,
@@ -83,6 +89,10 @@ import org.junit.runner.RunWith;
     HardTimeoutExpirationPolicyTests.class,
     NeverExpiresExpirationPolicyTests.class,
     DefaultTicketRegistryCleanerTests.class,
+    TicketExpirationIndexTests.class,
+    NearCachingTicketRegistryTests.class,
+    TicketGrantingTicketStateEncoderTests.class,
+    ShardedTicketRegistryCleanerTests.class,
     TicketSerializersTests.class,
     InternalTicketValidatorTests.class,
     Cas20ProxyHandlerTests.class,
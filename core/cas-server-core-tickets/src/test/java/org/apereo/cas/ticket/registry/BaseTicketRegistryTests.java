@@ -66,7 +66,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -185,6 +187,24 @@ public abstract class BaseTicketRegistryTests {
     }
 
 
+    @RepeatedTest(2)
+    public void verifyGetSessionsPerUser() {
+        assumeTrue(isIterableRegistry());
+        val id = UUID.randomUUID().toString();
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(id),
+            NeverExpiresExpirationPolicy.INSTANCE));
+        try (val sessions = ticketRegistry.getSessionsFor(id.toUpperCase())) {
+            assertEquals(List.of(ticketGrantingTicketId), sessions.map(Ticket::getId).collect(Collectors.toList()));
+        }
+        assertEquals(1, ticketRegistry.countSessionsFor(id));
+        ticketRegistry.deleteTicket(ticketGrantingTicketId);
+        assertEquals(0, ticketRegistry.countSessionsFor(id));
+        try (val sessions = ticketRegistry.getSessionsFor(id)) {
+            assertEquals(0, sessions.count());
+        }
+    }
+
     @RepeatedTest(2)
     public void verifyGetExistingTicketWithImproperClass() {
         ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId,
@@ -236,6 +256,26 @@ public abstract class BaseTicketRegistryTests {
         assertEquals(Collections.singleton("ST1"), tgt.getServices().keySet());
     }
 
+    @RepeatedTest(2)
+    public void verifyAddAndUpdateTogether() {
+        TicketGrantingTicket tgt = new TicketGrantingTicketImpl(
+            ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(),
+            NeverExpiresExpirationPolicy.INSTANCE);
+        ticketRegistry.addTicket(tgt);
+        tgt = ticketRegistry.getTicket(tgt.getId(), TicketGrantingTicket.class);
+
+        val st = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService("TGT_BATCH_TEST"),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        ticketRegistry.addAndUpdate(List.of(st), List.of(tgt));
+
+        tgt = ticketRegistry.getTicket(tgt.getId(), TicketGrantingTicket.class);
+        assertNotNull(tgt, () -> "Ticket is null. useEncryption[" + useEncryption + ']');
+        assertEquals(Collections.singleton(serviceTicketId), tgt.getServices().keySet());
+        assertNotNull(ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class),
+            () -> "Service ticket is null. useEncryption[" + useEncryption + ']');
+    }
+
     @RepeatedTest(2)
     public void verifyDeleteAllExistingTickets() {
         assumeTrue(isIterableRegistry());
@@ -423,6 +463,22 @@ public abstract class BaseTicketRegistryTests {
         assertNull(tgt);
     }
 
+    @RepeatedTest(2)
+    public void verifyGetExpiredTickets() {
+        assumeTrue(isIterableRegistry());
+        val authn = CoreAuthenticationTestUtils.getAuthentication();
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId, authn, new AlwaysExpiresExpirationPolicy()));
+        val activeTicketId = ticketGrantingTicketId + "-active";
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(activeTicketId, authn, NeverExpiresExpirationPolicy.INSTANCE));
+        try (val expired = ticketRegistry.getExpiredTickets()) {
+            val ids = expired.map(Ticket::getId).collect(Collectors.toList());
+            assertTrue(ids.contains(ticketGrantingTicketId));
+            assertFalse(ids.contains(activeTicketId));
+        }
+        assertNotNull(ticketRegistry.getExpiredTicketsLag());
+        ticketRegistry.deleteTicket(activeTicketId);
+    }
+
     @RepeatedTest(2)
     @Transactional
     public void verifyDeleteTicketWithPGT() {
@@ -14,6 +14,10 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.function.Executable;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -53,6 +57,30 @@ public class CachingTicketRegistryTests extends BaseTicketRegistryTests {
         assertNull(registry.getTicket(ticket.getId()));
     }
 
+    @RepeatedTest(1)
+    public void verifyEvictedTicketsRemovedFromIndexes() throws Exception {
+        val latch = new CountDownLatch(1);
+        val logoutManager = mock(LogoutManager.class);
+        when(logoutManager.performLogout(any())).thenAnswer(invocation -> {
+            latch.countDown();
+            return new ArrayList<>();
+        });
+        val registry = new CachingTicketRegistry(CipherExecutor.noOp(), logoutManager);
+        val ticket = new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-12347", RegisteredServiceTestUtils.getAuthentication(),
+            new HardTimeoutExpirationPolicy(1));
+        registry.addTicket(ticket);
+        val deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        var evicted = false;
+        while (!evicted && System.currentTimeMillis() < deadline) {
+            registry.getStorage().cleanUp();
+            evicted = latch.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(evicted);
+        assertNull(registry.getTicket(ticket.getId()));
+        assertEquals(0, registry.getExpiredTicketsBacklog());
+        assertEquals(0, registry.countSessionsFor(ticket.getAuthentication().getPrincipal().getId()));
+    }
+
     @RepeatedTest(1)
     public void verifyExpirationExplicit() throws Exception {
         val registry = new CachingTicketRegistry(CipherExecutor.noOp(), mock(LogoutManager.class));
@@ -5,10 +5,14 @@ import org.apereo.cas.mock.MockTicketGrantingTicket;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
 
 import lombok.val;
+import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Duration;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -35,6 +39,46 @@ public class DefaultTicketRegistryCleanerTests {
         assertEquals(ticketRegistry.sessionCount(), 0);
     }
 
+    @Test
+    public void verifyCleanInBatches() {
+        val logoutManager = mock(LogoutManager.class);
+        val ticketRegistry = new DefaultTicketRegistry();
+        IntStream.range(0, 25).forEach(i -> {
+            val ticket = new MockTicketGrantingTicket(RandomStringUtils.randomAlphabetic(8));
+            ticket.markTicketExpired();
+            ticketRegistry.addTicket(ticket);
+        });
+        val active = new MockTicketGrantingTicket("casuser");
+        ticketRegistry.addTicket(active);
+        assertEquals(25, ticketRegistry.getExpiredTicketsBacklog());
+
+        val c = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(), logoutManager, ticketRegistry);
+        c.setBatchSize(10);
+        assertEquals(25, c.clean());
+        assertEquals(25, c.getLastRunTicketsRemoved());
+        assertEquals(0, c.getLastRunBacklog());
+        assertEquals(Duration.ZERO, c.getLastRunLag());
+        assertEquals(1, ticketRegistry.sessionCount());
+        assertNotNull(ticketRegistry.getTicket(active.getId()));
+    }
+
+    @Test
+    public void verifyTimeBudgetExhausted() {
+        val logoutManager = mock(LogoutManager.class);
+        val ticketRegistry = new DefaultTicketRegistry();
+        IntStream.range(0, 10).forEach(i -> {
+            val ticket = new MockTicketGrantingTicket(RandomStringUtils.randomAlphabetic(8));
+            ticket.markTicketExpired();
+            ticketRegistry.addTicket(ticket);
+        });
+        val c = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(), logoutManager, ticketRegistry);
+        c.setBatchSize(1);
+        c.setMaxRunDuration(Duration.ofNanos(1));
+        assertTrue(c.clean() < 10);
+        assertEquals(10, c.getLastRunTicketsRemoved() + c.getLastRunBacklog());
+        assertEquals(c.getLastRunBacklog(), ticketRegistry.sessionCount());
+    }
+
     @Test
     public void verifyNoLock() {
         val logoutManager = mock(LogoutManager.class);
@@ -49,7 +93,7 @@ public class DefaultTicketRegistryCleanerTests {
     public void verifyCleanFail() {
         val logoutManager = mock(LogoutManager.class);
         val ticketRegistry = mock(TicketRegistry.class);
-        when(ticketRegistry.getTicketsStream()).thenThrow(IllegalArgumentException.class);
+        when(ticketRegistry.getExpiredTickets()).thenThrow(IllegalArgumentException.class);
         val c = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(), logoutManager, ticketRegistry);
         assertEquals(c.clean(), 0);
     }
@@ -1,6 +1,12 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
 import org.apereo.cas.util.cipher.DefaultTicketCipherExecutor;
 import org.apereo.cas.util.crypto.CipherExecutor;
 
@@ -48,4 +54,37 @@ public class DefaultTicketRegistryTests extends BaseTicketRegistryTests {
         assertNull(reg.encodeTicket(null));
         assertNotNull(reg.decodeTicket(mock(Ticket.class)));
     }
+
+    @RepeatedTest(1)
+    public void verifyServiceTicketConsumedOnce() {
+        val registry = new DefaultTicketRegistry(new ConcurrentHashMap<>(10, 10, 5), CipherExecutor.noOp());
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        val st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new MultiTimeUseOrTimeoutExpirationPolicy(1, 60), false, true);
+        registry.addTicket(st);
+
+        val first = registry.getTicket(st.getId(), ServiceTicket.class);
+        val second = registry.getTicket(st.getId(), ServiceTicket.class);
+        assertTrue(registry.consumeTicket(first));
+        assertFalse(registry.consumeTicket(second));
+        assertNull(registry.getTicket(st.getId()));
+    }
+
+    @RepeatedTest(1)
+    public void verifyMultiUseServiceTicketConsumed() {
+        val registry = new DefaultTicketRegistry(new ConcurrentHashMap<>(10, 10, 5), CipherExecutor.noOp());
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        val st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new MultiTimeUseOrTimeoutExpirationPolicy(2, 60), false, true);
+        registry.addTicket(st);
+
+        assertTrue(registry.consumeTicket(registry.getTicket(st.getId(), ServiceTicket.class)));
+        assertNotNull(registry.getTicket(st.getId()));
+        assertTrue(registry.consumeTicket(registry.getTicket(st.getId(), ServiceTicket.class)));
+        assertNull(registry.getTicket(st.getId()));
+    }
 }
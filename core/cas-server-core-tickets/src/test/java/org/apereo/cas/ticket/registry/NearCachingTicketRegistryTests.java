@@ -0,0 +1,145 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.DigestUtils;
+import org.apereo.cas.util.crypto.CipherExecutor;
+
+import lombok.val;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link NearCachingTicketRegistryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Tickets")
+public class NearCachingTicketRegistryTests {
+    private final List<String> published = new ArrayList<>();
+
+    private DefaultTicketRegistry delegate;
+
+    private NearCachingTicketRegistry registry;
+
+    @BeforeEach
+    public void initialize() {
+        published.clear();
+        delegate = new DefaultTicketRegistry(new ConcurrentHashMap<>(10, 10, 5), CipherExecutor.noOp());
+        registry = new NearCachingTicketRegistry(delegate, 100, Duration.ofSeconds(5), published::add);
+    }
+
+    @Test
+    public void verifyTicketGrantingTicketsAreCached() {
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        val first = registry.getTicket(tgt.getId(), TicketGrantingTicket.class);
+        for (var i = 0; i < 4; i++) {
+            val cached = registry.getTicket(tgt.getId(), TicketGrantingTicket.class);
+            assertEquals(tgt, cached);
+            assertNotSame(tgt, cached);
+            assertNotSame(first, cached);
+        }
+        assertEquals(5, registry.getCacheHitCount());
+        assertEquals(0, registry.getCacheMissCount());
+        assertEquals(1.0, registry.getCacheStatistics().hitRate());
+        assertNull(registry.getTicket("TGT-unknown"));
+    }
+
+    @Test
+    public void verifyCachedTicketsAreNotShared() {
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        val ticket = registry.getTicket(tgt.getId(), TicketGrantingTicket.class);
+        ticket.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        assertEquals(1, ticket.getServices().size());
+        assertTrue(registry.getTicket(tgt.getId(), TicketGrantingTicket.class).getServices().isEmpty());
+
+        registry.updateTicket(ticket);
+        assertEquals(1, registry.getTicket(tgt.getId(), TicketGrantingTicket.class).getServices().size());
+    }
+
+    @Test
+    public void verifyServiceTicketsAreReadThrough() {
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        val st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.addTicket(st);
+        registry.updateTicket(tgt);
+        assertNotNull(registry.getTicket(st.getId()));
+        assertNull(registry.getCache().getIfPresent(DigestUtils.sha512(st.getId())));
+        delegate.deleteTicket(st.getId());
+        assertNull(registry.getTicket(st.getId()));
+    }
+
+    @Test
+    public void verifyUpdatesAndRemovalsArePublished() {
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        registry.updateTicket(tgt);
+        val cacheKey = DigestUtils.sha512(tgt.getId());
+        assertTrue(published.contains(cacheKey));
+
+        published.clear();
+        assertEquals(1, registry.deleteTicket(tgt.getId()));
+        assertTrue(published.contains(cacheKey));
+        assertNull(registry.getTicket(tgt.getId()));
+
+        registry.deleteAll();
+        assertTrue(published.contains(NearCachingTicketRegistry.INVALIDATE_ALL));
+    }
+
+    @Test
+    public void verifyTicketReadDuringRemovalIsNotCached() {
+        val removing = new DefaultTicketRegistry(new ConcurrentHashMap<>(10, 10, 5), CipherExecutor.noOp()) {
+            @Override
+            public int deleteTicket(final String ticketId) {
+                assertNotNull(registry.getTicket(ticketId));
+                return super.deleteTicket(ticketId);
+            }
+        };
+        registry = new NearCachingTicketRegistry(removing, 100, Duration.ofSeconds(5), published::add);
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        assertEquals(1, registry.deleteTicket(tgt.getId()));
+        assertEquals(0, registry.getCache().estimatedSize());
+        assertNull(registry.getTicket(tgt.getId()));
+    }
+
+    @Test
+    public void verifyRemoteInvalidation() {
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        delegate.deleteTicket(tgt.getId());
+        assertNotNull(registry.getTicket(tgt.getId()));
+
+        registry.invalidate(DigestUtils.sha512(tgt.getId()));
+        assertNull(registry.getTicket(tgt.getId()));
+
+        registry.addTicket(tgt);
+        delegate.deleteAll();
+        registry.invalidate(NearCachingTicketRegistry.INVALIDATE_ALL);
+        assertEquals(0, registry.getCache().estimatedSize());
+        assertNull(registry.getTicket(tgt.getId()));
+    }
+}
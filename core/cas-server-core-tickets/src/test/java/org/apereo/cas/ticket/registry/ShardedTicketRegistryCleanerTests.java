@@ -0,0 +1,102 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.mock.MockTicketGrantingTicket;
+
+import lombok.val;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link ShardedTicketRegistryCleanerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Tickets")
+@SpringBootTest(classes = BaseTicketRegistryTests.SharedTestConfiguration.class)
+public class ShardedTicketRegistryCleanerTests {
+    private static final int SHARD_COUNT = 4;
+
+    private static TicketRegistry getTicketRegistry(final int expiredTickets) {
+        val ticketRegistry = new DefaultTicketRegistry();
+        IntStream.range(0, expiredTickets).forEach(i -> {
+            val ticket = new MockTicketGrantingTicket(RandomStringUtils.randomAlphabetic(8));
+            ticket.markTicketExpired();
+            ticketRegistry.addTicket(ticket);
+        });
+        return ticketRegistry;
+    }
+
+    @Test
+    public void verifyAllShardsCleaned() {
+        val ticketRegistry = getTicketRegistry(40);
+        val leaseStore = new InMemoryTicketRegistryCleanerLeaseStore();
+        val cleaner = new ShardedTicketRegistryCleaner(mock(LogoutManager.class), ticketRegistry,
+            leaseStore, "node-1", SHARD_COUNT, Duration.ofMinutes(1));
+        cleaner.setBatchSize(5);
+        assertEquals(40, cleaner.clean());
+        assertEquals(0, ticketRegistry.sessionCount());
+        assertEquals(SHARD_COUNT, cleaner.getShardStatistics().size());
+        assertEquals(40, cleaner.getShardStatistics().values()
+            .stream()
+            .mapToLong(ShardedTicketRegistryCleaner.ShardStatistics::getTotalTicketsRemoved)
+            .sum());
+        IntStream.range(0, SHARD_COUNT).forEach(shard -> assertTrue(leaseStore.acquire(shard, "node-2", Duration.ofMinutes(1))));
+    }
+
+    @Test
+    public void verifyShardsSplitAcrossNodes() {
+        val ticketRegistry = getTicketRegistry(40);
+        val leaseStore = new InMemoryTicketRegistryCleanerLeaseStore();
+        assertTrue(leaseStore.acquire(0, "node-2", Duration.ofMinutes(1)));
+        assertTrue(leaseStore.acquire(1, "node-2", Duration.ofMinutes(1)));
+
+        val cleaner = new ShardedTicketRegistryCleaner(mock(LogoutManager.class), ticketRegistry,
+            leaseStore, "node-1", SHARD_COUNT, Duration.ofMinutes(1));
+        val removed = cleaner.clean();
+        assertTrue(removed < 40);
+        assertFalse(cleaner.getShardStatistics().containsKey(0));
+        assertFalse(cleaner.getShardStatistics().containsKey(1));
+        ticketRegistry.getTickets().forEach(ticket -> {
+            val shard = ticketRegistry.getShard(ticket.getId(), SHARD_COUNT);
+            assertTrue(shard == 0 || shard == 1);
+        });
+
+        leaseStore.release(0, "node-2");
+        leaseStore.release(1, "node-2");
+        assertEquals(40 - removed, cleaner.clean());
+        assertEquals(0, ticketRegistry.sessionCount());
+    }
+
+    @Test
+    public void verifyMaxLeasedShards() {
+        val ticketRegistry = getTicketRegistry(40);
+        val cleaner = new ShardedTicketRegistryCleaner(mock(LogoutManager.class), ticketRegistry,
+            new InMemoryTicketRegistryCleanerLeaseStore(), "node-1", SHARD_COUNT, Duration.ofMinutes(1));
+        cleaner.setMaxLeasedShards(1);
+        cleaner.clean();
+        assertEquals(1, cleaner.getShardStatistics().size());
+        IntStream.range(1, SHARD_COUNT).forEach(run -> cleaner.clean());
+        assertEquals(SHARD_COUNT, cleaner.getShardStatistics().size());
+        assertEquals(0, ticketRegistry.sessionCount());
+    }
+
+    @Test
+    public void verifyExpiredLeases() {
+        val leaseStore = new InMemoryTicketRegistryCleanerLeaseStore();
+        assertTrue(leaseStore.acquire(0, "node-1", Duration.ZERO));
+        assertTrue(leaseStore.acquire(0, "node-2", Duration.ofMinutes(1)));
+        assertFalse(leaseStore.acquire(0, "node-1", Duration.ofMinutes(1)));
+        leaseStore.release(0, "node-1");
+        assertTrue(leaseStore.acquire(0, "node-2", Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,75 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.expiration.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.expiration.TicketGrantingTicketExpirationPolicy;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link TicketExpirationIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Tickets")
+public class TicketExpirationIndexTests {
+
+    @Test
+    public void verifyDeadline() {
+        val authn = CoreAuthenticationTestUtils.getAuthentication();
+        val now = Instant.now();
+
+        val expired = new TicketGrantingTicketImpl("TGT-1", authn, new AlwaysExpiresExpirationPolicy());
+        assertEquals(now, TicketExpirationIndex.getExpirationDeadline(expired, now));
+
+        val hardTimeout = new TicketGrantingTicketImpl("TGT-2", authn, new HardTimeoutExpirationPolicy(60));
+        val creationTime = hardTimeout.getCreationTime().toInstant();
+        assertEquals(creationTime.plusSeconds(60), TicketExpirationIndex.getExpirationDeadline(hardTimeout, now));
+
+        val idle = new TicketGrantingTicketImpl("TGT-3", authn, new TicketGrantingTicketExpirationPolicy(3600, 30));
+        assertEquals(idle.getLastTimeUsed().toInstant().plusSeconds(30), TicketExpirationIndex.getExpirationDeadline(idle, now));
+
+        val never = new TicketGrantingTicketImpl("TGT-4", authn, NeverExpiresExpirationPolicy.INSTANCE);
+        assertTrue(TicketExpirationIndex.getExpirationDeadline(never, now).isAfter(now));
+    }
+
+    @Test
+    public void verifyDueTickets() {
+        val authn = CoreAuthenticationTestUtils.getAuthentication();
+        val index = new TicketExpirationIndex();
+        val now = Instant.now();
+        index.index(new TicketGrantingTicketImpl("TGT-1", authn, new AlwaysExpiresExpirationPolicy()), now);
+        index.index(new TicketGrantingTicketImpl("TGT-2", authn, new HardTimeoutExpirationPolicy(60)), now);
+        index.index(new TicketGrantingTicketImpl("TGT-3", authn, new AlwaysExpiresExpirationPolicy()), now);
+        assertEquals(3, index.size());
+        assertEquals(2, index.getBacklog(now));
+        assertEquals(Duration.ZERO, index.getLag(now.minusSeconds(1)));
+
+        val later = now.plusSeconds(10);
+        assertTrue(index.getLag(later).compareTo(Duration.ofSeconds(9)) >= 0);
+        val due = index.getDueTicketIds(later).collect(Collectors.toList());
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of("TGT-1", "TGT-3")));
+
+        index.remove("TGT-1");
+        assertEquals(1, index.getBacklog(later));
+        assertEquals(2, index.getBacklog(now.plusSeconds(120)));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(Duration.ZERO, index.getLag(later));
+    }
+}
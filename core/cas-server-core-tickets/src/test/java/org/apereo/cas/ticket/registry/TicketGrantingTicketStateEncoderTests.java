@@ -0,0 +1,113 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.CoreTicketUtils;
+import org.apereo.cas.util.crypto.CipherExecutor;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link TicketGrantingTicketStateEncoderTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Tickets")
+public class TicketGrantingTicketStateEncoderTests {
+    private static final int HEADER_LENGTH = 8;
+
+    private final CipherExecutor cipher = CoreTicketUtils.newTicketRegistryCipherExecutor(
+        new EncryptionRandomizedSigningJwtCryptographyProperties(), "[tests]");
+
+    private static byte[] getEncodedAuthentication(final byte[] encoded) {
+        val length = ByteBuffer.wrap(encoded, HEADER_LENGTH, Integer.BYTES).getInt();
+        val start = HEADER_LENGTH + Integer.BYTES;
+        return Arrays.copyOfRange(encoded, start, start + length);
+    }
+
+    @Test
+    public void verifyEncodeAndDecode() {
+        val encoder = new TicketGrantingTicketStateEncoder();
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+
+        val encoded = encoder.encode(tgt, cipher);
+        assertTrue(TicketGrantingTicketStateEncoder.isEncodedState(encoded));
+        assertFalse(TicketGrantingTicketStateEncoder.isEncodedState(new byte[]{1, 2, 3}));
+
+        val decoded = encoder.decode(encoded, cipher);
+        assertEquals(tgt.getId(), decoded.getId());
+        assertEquals(tgt.getAuthentication(), decoded.getAuthentication());
+        assertEquals(tgt.getServices().keySet(), decoded.getServices().keySet());
+        assertEquals(tgt.getCountOfUses(), decoded.getCountOfUses());
+    }
+
+    @Test
+    public void verifyAuthenticationIsEncodedOnce() {
+        val encoder = new TicketGrantingTicketStateEncoder();
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        val decoded = encoder.decode(encoder.encode(tgt, cipher), cipher);
+
+        val first = encoder.encode(decoded, cipher);
+        decoded.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        val second = encoder.encode(decoded, cipher);
+        assertArrayEquals(getEncodedAuthentication(first), getEncodedAuthentication(second));
+        assertEquals(1, encoder.decode(second, cipher).getServices().size());
+
+        decoded.getAuthentication().addAttribute("mfa", "true");
+        val third = encoder.encode(decoded, cipher);
+        assertFalse(Arrays.equals(getEncodedAuthentication(second), getEncodedAuthentication(third)));
+        assertTrue(encoder.decode(third, cipher).getAuthentication().getAttributes().containsKey("mfa"));
+    }
+
+    @Test
+    public void verifyDetachedAuthentication() {
+        val encoder = new TicketGrantingTicketStateEncoder();
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        val encoded = encoder.encode(tgt, cipher);
+        val encodedAuthentication = TicketGrantingTicketStateEncoder.getEncodedAuthentication(encoded);
+        assertArrayEquals(getEncodedAuthentication(encoded), encodedAuthentication);
+
+        val detached = TicketGrantingTicketStateEncoder.detachAuthentication(encoded);
+        assertTrue(TicketGrantingTicketStateEncoder.isDetachedState(detached));
+        assertFalse(TicketGrantingTicketStateEncoder.isEncodedState(detached));
+        assertFalse(TicketGrantingTicketStateEncoder.isDetachedState(encoded));
+        assertArrayEquals(encoded, TicketGrantingTicketStateEncoder.attachAuthentication(detached, encodedAuthentication));
+    }
+
+    @Test
+    public void verifyRegistryDecodesTickets() {
+        val registry = new DefaultTicketRegistry(new ConcurrentHashMap<>(), cipher);
+        registry.setTicketGrantingTicketStateEncodingEnabled(true);
+        val tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        val st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.addTicket(st);
+        registry.updateTicket(tgt);
+        assertEquals(1, registry.getTicket(tgt.getId(), TicketGrantingTicketImpl.class).getServices().size());
+        assertNotNull(registry.getTicket(st.getId()));
+
+        registry.setTicketGrantingTicketStateEncodingEnabled(false);
+        registry.updateTicket(tgt);
+        assertEquals(tgt.getId(), registry.getTicket(tgt.getId()).getId());
+    }
+}
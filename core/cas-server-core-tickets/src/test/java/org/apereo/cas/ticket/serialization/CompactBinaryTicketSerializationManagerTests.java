@@ -0,0 +1,122 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.config.CasCoreHttpConfiguration;
+import org.apereo.cas.config.CasCoreNotificationsConfiguration;
+import org.apereo.cas.config.CasCoreServicesConfiguration;
+import org.apereo.cas.config.CasCoreTicketCatalogConfiguration;
+import org.apereo.cas.config.CasCoreTicketIdGeneratorsConfiguration;
+import org.apereo.cas.config.CasCoreTicketsConfiguration;
+import org.apereo.cas.config.CasCoreTicketsSerializationConfiguration;
+import org.apereo.cas.config.CasCoreUtilConfiguration;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.InvalidTicketException;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.ServiceTicketFactory;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketFactory;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketFactory;
+
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link CompactBinaryTicketSerializationManagerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@SpringBootTest(classes = {
+    RefreshAutoConfiguration.class,
+    CasCoreHttpConfiguration.class,
+    CasCoreTicketsConfiguration.class,
+    CasCoreServicesConfiguration.class,
+    CasCoreTicketCatalogConfiguration.class,
+    CasCoreTicketsSerializationConfiguration.class,
+    CasCoreTicketIdGeneratorsConfiguration.class,
+    CasCoreNotificationsConfiguration.class,
+    CasCoreUtilConfiguration.class
+}, properties = "cas.ticket.registry.serialization.format=BINARY")
+@Tag("Tickets")
+public class CompactBinaryTicketSerializationManagerTests {
+    @Autowired
+    @Qualifier("ticketSerializationManager")
+    private TicketSerializationManager ticketSerializationManager;
+
+    @Autowired
+    @Qualifier("ticketSerializationExecutionPlan")
+    private TicketSerializationExecutionPlan ticketSerializationExecutionPlan;
+
+    @Autowired
+    @Qualifier("defaultTicketFactory")
+    private TicketFactory defaultTicketFactory;
+
+    @Test
+    public void verifyOperation() {
+        assertTrue(ticketSerializationManager instanceof CompactBinaryTicketSerializationManager);
+        val ticket = getTicketGrantingTicket();
+        val result = ticketSerializationManager.serializeTicket(ticket);
+        assertNotNull(result);
+        val json = new DefaultTicketStringSerializationManager(ticketSerializationExecutionPlan).serializeTicket(ticket);
+        assertTrue(result.length() < json.length());
+
+        val deserializedTicket = ticketSerializationManager.deserializeTicket(result, TicketGrantingTicket.class);
+        assertEquals(ticket, deserializedTicket);
+        assertEquals(ticket.getAuthentication().getPrincipal(), deserializedTicket.getAuthentication().getPrincipal());
+        assertEquals(ticket.getServices().size(), deserializedTicket.getServices().size());
+        val drift = Duration.between(ticket.getCreationTime(), deserializedTicket.getCreationTime()).abs();
+        assertTrue(drift.toMillis() < 1);
+    }
+
+    @Test
+    public void verifyServiceTicket() {
+        val tgt = getTicketGrantingTicket();
+        val factory = (ServiceTicketFactory) this.defaultTicketFactory.get(ServiceTicket.class);
+        val ticket = factory.create(tgt, RegisteredServiceTestUtils.getService(), true, ServiceTicket.class);
+        val result = ticketSerializationManager.serializeTicket(ticket);
+        val deserializedTicket = ticketSerializationManager.deserializeTicket(result, ticket.getClass().getName());
+        assertEquals(ticket, deserializedTicket);
+        assertEquals(ticket.getService(), ((ServiceTicket) deserializedTicket).getService());
+    }
+
+    @Test
+    public void verifyUncompressed() {
+        val manager = new CompactBinaryTicketSerializationManager(ticketSerializationExecutionPlan, false);
+        val ticket = getTicketGrantingTicket();
+        val result = manager.serializeTicket(ticket);
+        assertEquals(ticket, manager.deserializeTicket(result, TicketGrantingTicket.class));
+        assertEquals(ticket, ticketSerializationManager.deserializeTicket(result, TicketGrantingTicket.class));
+    }
+
+    @Test
+    public void verifyLegacyJson() {
+        val ticket = getTicketGrantingTicket();
+        val json = new DefaultTicketStringSerializationManager(ticketSerializationExecutionPlan).serializeTicket(ticket);
+        assertEquals(ticket, ticketSerializationManager.deserializeTicket(json, TicketGrantingTicket.class));
+    }
+
+    @Test
+    public void verifyBadClass() {
+        assertThrows(IllegalArgumentException.class, () -> ticketSerializationManager.serializeTicket(mock(Ticket.class)));
+        assertThrows(InvalidTicketException.class, () -> ticketSerializationManager.deserializeTicket(StringUtils.EMPTY, StringUtils.EMPTY));
+        assertThrows(IllegalArgumentException.class, () -> ticketSerializationManager.deserializeTicket(StringUtils.EMPTY, "something"));
+        assertThrows(IllegalArgumentException.class, () -> ticketSerializationManager.deserializeTicket(StringUtils.EMPTY, mock(Ticket.class).getClass()));
+    }
+
+    private TicketGrantingTicket getTicketGrantingTicket() {
+        val factory = (TicketGrantingTicketFactory) this.defaultTicketFactory.get(TicketGrantingTicket.class);
+        return factory.create(RegisteredServiceTestUtils.getAuthentication(),
+            RegisteredServiceTestUtils.getService(), TicketGrantingTicket.class);
+    }
+}
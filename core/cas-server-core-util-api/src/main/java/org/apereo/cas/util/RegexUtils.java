@@ -1,9 +1,13 @@
 package org.apereo.cas.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Collection;
 import java.util.regex.Matcher;
@@ -13,6 +17,9 @@ import java.util.stream.Collectors;
 
 /**
  * Utility class to assist with regex operations.
+ * Compiled patterns are shared by all callers through a bounded cache,
+ * keyed by the pattern and its flags, so that patterns evaluated repeatedly
+ * for every request or attribute value are only compiled once.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -26,6 +33,13 @@ public class RegexUtils {
      */
     public static final Pattern MATCH_NOTHING_PATTERN = Pattern.compile("a^");
 
+    private static final int PATTERN_CACHE_SIZE = 10_000;
+
+    private static final Cache<Pair<String, Integer>, Pattern> PATTERN_CACHE = Caffeine.newBuilder()
+        .maximumSize(PATTERN_CACHE_SIZE)
+        .recordStats()
+        .build();
+
     /**
      * Check to see if the specified pattern is a valid regular expression.
      *
@@ -83,12 +97,23 @@ public class RegexUtils {
             LOGGER.warn("Pattern cannot be null/blank");
             return MATCH_NOTHING_PATTERN;
         }
-        try {
-            return Pattern.compile(pattern, flags);
-        } catch (final PatternSyntaxException exception) {
-            LOGGER.debug("Pattern [{}] is not a valid regex.", pattern);
-            return MATCH_NOTHING_PATTERN;
-        }
+        return PATTERN_CACHE.get(Pair.of(pattern, flags), key -> {
+            try {
+                return Pattern.compile(key.getKey(), key.getValue());
+            } catch (final PatternSyntaxException exception) {
+                LOGGER.debug("Pattern [{}] is not a valid regex.", key.getKey());
+                return MATCH_NOTHING_PATTERN;
+            }
+        });
+    }
+
+    /**
+     * Gets statistics for the cache of compiled patterns.
+     *
+     * @return the cache statistics
+     */
+    public static CacheStats getPatternCacheStatistics() {
+        return PATTERN_CACHE.stats();
     }
 
     /**
@@ -103,6 +128,18 @@ public class RegexUtils {
         return pattern.matcher(string).matches();
     }
 
+    /**
+     * Matches the entire string against the pattern, in a case-sensitive manner.
+     * This is equivalent to {@link String#matches(String)}, using a cached compiled pattern.
+     *
+     * @param pattern the pattern
+     * @param string  the string
+     * @return true/false
+     */
+    public static boolean matches(final String pattern, final String string) {
+        return createPattern(pattern, 0).matcher(string).matches();
+    }
+
     /**
      * Matches boolean.
      *
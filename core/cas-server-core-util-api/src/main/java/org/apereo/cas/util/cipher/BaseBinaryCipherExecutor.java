@@ -1,6 +1,7 @@
 package org.apereo.cas.util.cipher;
 
 import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.RandomUtils;
 import org.apereo.cas.util.crypto.DecryptionException;
 import org.apereo.cas.util.gen.Base64RandomStringGenerator;
 
@@ -15,9 +16,11 @@ import org.jose4j.jwk.JsonWebKey;
 import org.jose4j.jwk.OctJwkGenerator;
 
 import javax.crypto.Cipher;
-import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
 
 /**
  * This is {@link BaseBinaryCipherExecutor}.
@@ -25,6 +28,12 @@ import java.nio.charset.StandardCharsets;
  * A implementation that is based on algorithms
  * provided by the default platform's JCE. By default AES encryption is
  * used.
+ * <p>
+ * Values are encrypted using AES-GCM with a random IV per value, which authenticates
+ * the encrypted value without a separate signature. The result is wrapped in a versioned envelope
+ * that carries the IV. Values that were produced by earlier versions, encrypted with a fixed IV
+ * and then signed, are recognized by the absence of the envelope and can always be decoded.
+ * {@link Cipher} instances are reused by each thread instead of being looked up for every operation.
  *
  * @author Misagh Moayyed
  * @since 4.2
@@ -35,9 +44,19 @@ import java.nio.charset.StandardCharsets;
 public abstract class BaseBinaryCipherExecutor extends AbstractCipherExecutor<byte[], byte[]> {
     private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
 
-    private static final int IV_SPEC_LENGTH = 16;
+    private static final int LEGACY_IV_LENGTH = 16;
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private static final byte[] ENVELOPE_HEADER = {0, 'C', 'A', 'S', 'G', 'C', 'M', 2};
 
-    private static final IvParameterSpec IV_SPEC = new IvParameterSpec(new byte[IV_SPEC_LENGTH]);
+    private static final GCMParameterSpec LEGACY_PARAMETER_SPEC = new GCMParameterSpec(TAG_LENGTH_BITS, new byte[LEGACY_IV_LENGTH]);
+
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(BaseBinaryCipherExecutor::newCipher);
+
+    private static final SecureRandom RANDOM = RandomUtils.getNativeInstance();
 
     /**
      * Name of the cipher/component whose keys are generated here.
@@ -53,6 +72,13 @@ public abstract class BaseBinaryCipherExecutor extends AbstractCipherExecutor<by
 
     private byte[] encryptionSecretKey;
 
+    /**
+     * Whether values should be encrypted with a random IV in an authenticated envelope.
+     * If false, values are produced in the legacy format, encrypted with a fixed IV and then signed,
+     * which allows nodes that are not yet upgraded to read them.
+     */
+    private boolean authenticatedEncryption = true;
+
     protected BaseBinaryCipherExecutor(final String encryptionSecretKey, final String signingSecretKey,
                                        final int signingKeySize, final int encryptionKeySize,
                                        final String cipherName) {
@@ -65,18 +91,37 @@ public abstract class BaseBinaryCipherExecutor extends AbstractCipherExecutor<by
     @Override
     @SneakyThrows
     public byte[] encode(final byte[] value, final Object[] parameters) {
-        val aesCipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        aesCipher.init(Cipher.ENCRYPT_MODE, this.encryptionKey, IV_SPEC);
-        val result = aesCipher.doFinal(value);
-        return sign(result);
+        if (!authenticatedEncryption) {
+            val aesCipher = newCipher();
+            aesCipher.init(Cipher.ENCRYPT_MODE, this.encryptionKey, LEGACY_PARAMETER_SPEC);
+            return sign(aesCipher.doFinal(value));
+        }
+        val iv = new byte[IV_LENGTH];
+        RANDOM.nextBytes(iv);
+        val aesCipher = CIPHER.get();
+        aesCipher.init(Cipher.ENCRYPT_MODE, this.encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        aesCipher.updateAAD(ENVELOPE_HEADER);
+        val offset = ENVELOPE_HEADER.length + IV_LENGTH;
+        val result = new byte[offset + aesCipher.getOutputSize(value.length)];
+        System.arraycopy(ENVELOPE_HEADER, 0, result, 0, ENVELOPE_HEADER.length);
+        System.arraycopy(iv, 0, result, ENVELOPE_HEADER.length, IV_LENGTH);
+        aesCipher.doFinal(value, 0, value.length, result, offset);
+        return result;
     }
 
     @Override
     public byte[] decode(final byte[] value, final Object[] parameters) {
         try {
+            val aesCipher = CIPHER.get();
+            if (isAuthenticatedEnvelope(value)) {
+                aesCipher.init(Cipher.DECRYPT_MODE, this.encryptionKey,
+                    new GCMParameterSpec(TAG_LENGTH_BITS, value, ENVELOPE_HEADER.length, IV_LENGTH));
+                aesCipher.updateAAD(ENVELOPE_HEADER);
+                val offset = ENVELOPE_HEADER.length + IV_LENGTH;
+                return aesCipher.doFinal(value, offset, value.length - offset);
+            }
             val verifiedValue = verifySignature(value);
-            val aesCipher = Cipher.getInstance(CIPHER_ALGORITHM);
-            aesCipher.init(Cipher.DECRYPT_MODE, this.encryptionKey, IV_SPEC);
+            aesCipher.init(Cipher.DECRYPT_MODE, this.encryptionKey, LEGACY_PARAMETER_SPEC);
             return aesCipher.doFinal(verifiedValue);
         } catch (final Exception e) {
             if (LOGGER.isTraceEnabled()) {
@@ -145,4 +190,14 @@ public abstract class BaseBinaryCipherExecutor extends AbstractCipherExecutor<by
      * @return the signing key setting
      */
     protected abstract String getSigningKeySetting();
+
+    private static boolean isAuthenticatedEnvelope(final byte[] value) {
+        return value.length > ENVELOPE_HEADER.length + IV_LENGTH
+            && Arrays.equals(ENVELOPE_HEADER, 0, ENVELOPE_HEADER.length, value, 0, ENVELOPE_HEADER.length);
+    }
+
+    @SneakyThrows
+    private static Cipher newCipher() {
+        return Cipher.getInstance(CIPHER_ALGORITHM);
+    }
 }
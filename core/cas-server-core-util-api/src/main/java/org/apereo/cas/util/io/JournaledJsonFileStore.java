@@ -0,0 +1,520 @@
+package org.apereo.cas.util.io;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link JournaledJsonFileStore}.
+ * Embedded store for records that are kept in a JSON file. Records are held in memory, keyed
+ * by the record key, and every change is appended to a journal file next to the JSON file,
+ * rather than rewriting the JSON file. The journal is forced to disk in batches, once per sync interval,
+ * and is periodically compacted in the background by writing all records into the JSON file as a snapshot.
+ * Compaction sets the journal aside and copies the records while holding the lock, and writes the snapshot
+ * without it, so that changes are not blocked while the snapshot is written; the journal that was set aside
+ * is removed once the snapshot is in place.
+ * The JSON file is read and written by the owner of the store, so that its format remains unchanged
+ * and existing files are loaded as the initial snapshot. Journal entries, including those of a journal
+ * that was set aside by a compaction that did not complete, are replayed on top of the snapshot when the store is opened.
+ * Records are treated as immutable values, since snapshots are written outside the lock: changes must replace
+ * a record via {@link #put(String, Object)} or {@link #compute(String, BiFunction)} rather than modify it.
+ * Records may optionally be indexed by a secondary key, such as the owner of the record, so that
+ * records can be looked up by that key without examining all records.
+ *
+ * @param <V> the record type
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class JournaledJsonFileStore<V> implements AutoCloseable {
+    /**
+     * Extension appended to the JSON file name to locate the journal file.
+     */
+    public static final String JOURNAL_FILE_EXTENSION = ".journal";
+
+    /**
+     * Extension appended to the journal file name to locate the journal that is being compacted.
+     */
+    public static final String COMPACTED_JOURNAL_FILE_EXTENSION = ".compacting";
+
+    /**
+     * Default interval at which journal entries are forced to disk.
+     */
+    public static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofSeconds(1);
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1_000;
+
+    private static final String OPERATION_PUT = "PUT";
+
+    private static final String OPERATION_REMOVE = "REMOVE";
+
+    private static final String OPERATION_CLEAR = "CLEAR";
+
+    private final Map<String, V> records = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> index = new ConcurrentHashMap<>();
+
+    private final Function<V, String> indexKeyFunction;
+
+    private final File snapshotFile;
+
+    @Getter
+    private final File journalFile;
+
+    private final File compactedJournalFile;
+
+    private final Object compactionLock = new Object();
+
+    private final ObjectMapper mapper;
+
+    private final JavaType valueType;
+
+    private final SnapshotWriter<V> snapshotWriter;
+
+    private final Duration syncInterval;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Number of journal entries, in addition to the number of records,
+     * after which the journal is compacted into a snapshot.
+     */
+    @Setter
+    private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    private long journalEntries;
+
+    private boolean unsynced;
+
+    private FileChannel journal;
+
+    public JournaledJsonFileStore(final File snapshotFile, final ObjectMapper mapper, final JavaType valueType,
+                                  final SnapshotReader<V> snapshotReader, final SnapshotWriter<V> snapshotWriter) {
+        this(snapshotFile, mapper, valueType, snapshotReader, snapshotWriter, DEFAULT_SYNC_INTERVAL);
+    }
+
+    public JournaledJsonFileStore(final File snapshotFile, final ObjectMapper mapper, final JavaType valueType,
+                                  final SnapshotReader<V> snapshotReader, final SnapshotWriter<V> snapshotWriter,
+                                  final Duration syncInterval) {
+        this(snapshotFile, mapper, valueType, snapshotReader, snapshotWriter, syncInterval, null);
+    }
+
+    public JournaledJsonFileStore(final File snapshotFile, final ObjectMapper mapper, final JavaType valueType,
+                                  final SnapshotReader<V> snapshotReader, final SnapshotWriter<V> snapshotWriter,
+                                  final Duration syncInterval, final Function<V, String> indexKeyFunction) {
+        this.indexKeyFunction = indexKeyFunction;
+        this.snapshotFile = snapshotFile;
+        this.journalFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + JOURNAL_FILE_EXTENSION);
+        this.compactedJournalFile = new File(journalFile.getParentFile(), journalFile.getName() + COMPACTED_JOURNAL_FILE_EXTENSION);
+        this.mapper = mapper;
+        this.valueType = valueType;
+        this.snapshotWriter = snapshotWriter;
+        this.syncInterval = syncInterval;
+
+        open(snapshotReader);
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            val thread = new Thread(runnable, "JournaledJsonFileStore-" + snapshotFile.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        val interval = Math.max(1, syncInterval.toMillis());
+        this.executor.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets a copy of the records.
+     *
+     * @return the records
+     */
+    public Map<String, V> getRecords() {
+        return new HashMap<>(records);
+    }
+
+    /**
+     * Stream the records without copying them. The stream reflects changes
+     * that are made while it is consumed, much like a concurrent map view.
+     *
+     * @return the records
+     */
+    public Stream<V> values() {
+        return records.values().stream();
+    }
+
+    /**
+     * Gets the records that are indexed under the given secondary key.
+     *
+     * @param indexKey the index key
+     * @return the records, or empty if the store is not indexed
+     */
+    public List<V> getIndexed(final String indexKey) {
+        val keys = index.get(indexKey);
+        if (keys == null) {
+            return List.of();
+        }
+        return keys.stream()
+            .map(records::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the number of records.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Get a record by its key.
+     *
+     * @param key the key
+     * @return the record, or null
+     */
+    public V get(final String key) {
+        return records.get(key);
+    }
+
+    /**
+     * Store a record.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public synchronized void put(final String key, final V value) {
+        putRecord(key, value);
+        append(OPERATION_PUT, key, value);
+    }
+
+    /**
+     * Compute a new record from the current record, while holding the lock,
+     * so that concurrent read-modify-write changes of the same record are not lost.
+     * The function must build a new record rather than modify the current one.
+     *
+     * @param key      the key
+     * @param function the function that receives the key and the current record, or null,
+     *                 and returns the new record, or null to remove the record
+     * @return the new record, or null
+     */
+    public synchronized V compute(final String key, final BiFunction<String, V, V> function) {
+        val current = records.get(key);
+        val updated = function.apply(key, current);
+        if (updated != null) {
+            putRecord(key, updated);
+            append(OPERATION_PUT, key, updated);
+        } else if (current != null) {
+            removeRecord(key);
+            append(OPERATION_REMOVE, key, null);
+        }
+        return updated;
+    }
+
+    /**
+     * Remove a record.
+     *
+     * @param key the key
+     * @return the removed record, or null
+     */
+    public synchronized V remove(final String key) {
+        val removed = removeRecord(key);
+        if (removed != null) {
+            append(OPERATION_REMOVE, key, null);
+        }
+        return removed;
+    }
+
+    /**
+     * Remove a number of records.
+     *
+     * @param keys the keys
+     */
+    public synchronized void removeAll(final Collection<String> keys) {
+        keys.stream()
+            .filter(key -> removeRecord(key) != null)
+            .forEach(key -> append(OPERATION_REMOVE, key, null));
+    }
+
+    /**
+     * Remove all records.
+     */
+    public synchronized void clear() {
+        clearRecords();
+        append(OPERATION_CLEAR, null, null);
+    }
+
+    /**
+     * Gets the number of journal entries since the last compaction.
+     *
+     * @return the number of journal entries
+     */
+    public synchronized long getJournalEntries() {
+        return journalEntries;
+    }
+
+    /**
+     * Force journal entries that are not yet synchronized to disk.
+     */
+    @SneakyThrows
+    public synchronized void sync() {
+        if (unsynced && journal != null) {
+            journal.force(false);
+            unsynced = false;
+        }
+    }
+
+    /**
+     * Write all records into the JSON file as a snapshot, and discard the journal.
+     * The journal is set aside and the records are copied while holding the lock; the snapshot is then
+     * written to a temporary file without holding the lock and moved over the JSON file,
+     * so that the JSON file is never left incomplete. Changes made in the meantime go to a new journal.
+     * Should the store stop before the journal that was set aside is removed, replaying it and the new journal
+     * over either snapshot yields the same records.
+     */
+    @SneakyThrows
+    public void compact() {
+        synchronized (compactionLock) {
+            val snapshot = setJournalAside();
+            if (snapshot == null) {
+                return;
+            }
+            val tempFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+            snapshotWriter.write(tempFile, snapshot);
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(compactedJournalFile.toPath());
+            LOGGER.debug("Compacted journal into [{}] record(s) at [{}]", snapshot.size(), snapshotFile);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if (getJournalEntries() > 0) {
+            compact();
+        }
+        closeJournal();
+    }
+
+    private void maintain() {
+        try {
+            sync();
+            if (isCompactionDue()) {
+                compact();
+            }
+        } catch (final Exception e) {
+            LOGGER.error("Unable to maintain journal [{}]: [{}]", journalFile, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+    }
+
+    private synchronized boolean isCompactionDue() {
+        return journalEntries > 0 && journalEntries >= Math.max(compactionThreshold, records.size());
+    }
+
+    /**
+     * Set the journal aside and start a new one, and copy the records that the journal has led to.
+     * If a journal that was set aside by an earlier compaction is still present, the journal is appended to it.
+     *
+     * @return the records, or null if the store is closed
+     */
+    @SneakyThrows
+    private synchronized Map<String, V> setJournalAside() {
+        if (journal == null) {
+            return null;
+        }
+        journal.force(false);
+        if (compactedJournalFile.exists()) {
+            Files.write(compactedJournalFile.toPath(), Files.readAllBytes(journalFile.toPath()), StandardOpenOption.APPEND);
+            journal.truncate(0);
+            journal.force(true);
+        } else {
+            journal.close();
+            Files.move(journalFile.toPath(), compactedJournalFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            journal = openJournal();
+        }
+        LOGGER.trace("Set aside [{}] journal entries of [{}] for compaction", journalEntries, journalFile);
+        journalEntries = 0;
+        unsynced = false;
+        return new HashMap<>(records);
+    }
+
+    @SneakyThrows
+    private synchronized void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    private void putRecord(final String key, final V value) {
+        val previous = records.put(key, value);
+        unindexRecord(key, previous);
+        indexRecord(key, value);
+    }
+
+    private V removeRecord(final String key) {
+        val removed = records.remove(key);
+        unindexRecord(key, removed);
+        return removed;
+    }
+
+    private void clearRecords() {
+        records.clear();
+        index.clear();
+    }
+
+    private void indexRecord(final String key, final V value) {
+        val indexKey = getIndexKey(value);
+        if (indexKey != null) {
+            index.computeIfAbsent(indexKey, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unindexRecord(final String key, final V value) {
+        val indexKey = getIndexKey(value);
+        if (indexKey != null) {
+            index.computeIfPresent(indexKey, (k, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private String getIndexKey(final V value) {
+        return indexKeyFunction != null && value != null ? indexKeyFunction.apply(value) : null;
+    }
+
+    @SneakyThrows
+    private void append(final String operation, final String key, final V value) {
+        val entry = new StringBuilder()
+            .append('[').append(mapper.writeValueAsString(operation))
+            .append(',').append(mapper.writeValueAsString(key))
+            .append(',').append(value == null ? "null" : mapper.writerFor(valueType).writeValueAsString(value))
+            .append("]\n")
+            .toString();
+        val buffer = ByteBuffer.wrap(entry.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journalEntries++;
+        unsynced = true;
+        if (syncInterval.isZero()) {
+            sync();
+        }
+    }
+
+    @SneakyThrows
+    private void open(final SnapshotReader<V> snapshotReader) {
+        if (snapshotFile.exists() && snapshotFile.length() > 0) {
+            val snapshot = snapshotReader.read(snapshotFile);
+            if (snapshot != null) {
+                snapshot.forEach((key, value) -> {
+                    if (key != null && value != null) {
+                        putRecord(key, value);
+                    }
+                });
+            }
+            LOGGER.debug("Loaded [{}] record(s) from [{}]", records.size(), snapshotFile);
+        }
+        if (compactedJournalFile.exists()) {
+            replay(compactedJournalFile);
+        }
+        if (journalFile.exists()) {
+            replay(journalFile);
+        }
+        this.journal = openJournal();
+    }
+
+    private FileChannel openJournal() throws Exception {
+        return FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @SneakyThrows
+    private void replay(final File file) {
+        val lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        for (val line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                val entry = mapper.readTree(line);
+                val operation = entry.get(0).asText();
+                val key = entry.get(1).asText();
+                if (OPERATION_PUT.equals(operation)) {
+                    putRecord(key, mapper.readerFor(valueType).readValue(entry.get(2)));
+                } else if (OPERATION_REMOVE.equals(operation)) {
+                    removeRecord(key);
+                } else if (OPERATION_CLEAR.equals(operation)) {
+                    clearRecords();
+                }
+                journalEntries++;
+            } catch (final Exception e) {
+                LOGGER.warn("Skipping incomplete journal entry in [{}]: [{}]", file, e.getMessage());
+            }
+        }
+        LOGGER.debug("Replayed [{}] journal entries from [{}]", journalEntries, file);
+    }
+
+    /**
+     * Reads records from the JSON file.
+     *
+     * @param <V> the record type
+     */
+    @FunctionalInterface
+    public interface SnapshotReader<V> {
+        /**
+         * Read records, keyed by the record key.
+         *
+         * @param file the file
+         * @return the records
+         * @throws Exception the exception
+         */
+        Map<String, V> read(File file) throws Exception;
+    }
+
+    /**
+     * Writes records into the JSON file.
+     *
+     * @param <V> the record type
+     */
+    @FunctionalInterface
+    public interface SnapshotWriter<V> {
+        /**
+         * Write records.
+         *
+         * @param file    the file
+         * @param records the records, keyed by the record key
+         * @throws Exception the exception
+         */
+        void write(File file, Map<String, V> records) throws Exception;
+    }
+}
@@ -15,6 +15,7 @@ import org.apereo.cas.util.crypto.PublicKeyFactoryBeanTests;
 import org.apereo.cas.util.function.FunctionUtilsTests;
 import org.apereo.cas.util.http.SimpleHttpClientFactoryBeanTests;
 import org.apereo.cas.util.io.FileWatcherServiceTests;
+import org.apereo.cas.util.io.JournaledJsonFileStoreTests;
 import org.apereo.cas.util.io.PathWatcherServiceTests;
 import org.apereo.cas.util.io.TemporaryFileSystemResourceTests;
 import org.apereo.cas.util.scripting.GroovyScriptResourceCacheManagerTests;
@@ -68,6 +69,7 @@ import org.junit.runner.RunWith;
     HttpRequestUtilsTests.class,
     WatchableGroovyScriptResourceTests.class,
     TemporaryFileSystemResourceTests.class,
+    JournaledJsonFileStoreTests.class,
     PathWatcherServiceTests.class,
     FileWatcherServiceTests.class,
     RegexPrincipalNameTransformerTests.class,
@@ -0,0 +1,158 @@
+package org.apereo.cas.util.io;
+
+import org.apereo.cas.util.serialization.JacksonObjectMapperFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link JournaledJsonFileStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("FileSystem")
+public class JournaledJsonFileStoreTests {
+    private static final ObjectMapper MAPPER = JacksonObjectMapperFactory.builder()
+        .defaultTypingEnabled(false).build().toObjectMapper();
+
+    private static JournaledJsonFileStore<String> openStore(final File file) {
+        return new JournaledJsonFileStore<>(file, MAPPER, MAPPER.getTypeFactory().constructType(String.class),
+            snapshot -> MAPPER.readValue(snapshot, new TypeReference<Map<String, String>>() {
+            }),
+            (snapshot, records) -> MAPPER.writerWithDefaultPrettyPrinter().writeValue(snapshot, records),
+            Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void verifyIndexedRecords() throws Exception {
+        val file = new File(FileUtils.getTempDirectory(), UUID.randomUUID().toString() + ".json");
+        val store = new JournaledJsonFileStore<String>(file, MAPPER, MAPPER.getTypeFactory().constructType(String.class),
+            snapshot -> MAPPER.readValue(snapshot, new TypeReference<Map<String, String>>() {
+            }),
+            (snapshot, records) -> MAPPER.writerWithDefaultPrettyPrinter().writeValue(snapshot, records),
+            Duration.ofMinutes(1), value -> value.substring(0, 1));
+        store.put("key1", "a1");
+        store.put("key2", "a2");
+        store.put("key3", "b1");
+        assertEquals(Set.of("a1", "a2"), Set.copyOf(store.getIndexed("a")));
+        store.put("key2", "b2");
+        store.remove("key3");
+        assertEquals(List.of("a1"), store.getIndexed("a"));
+        assertEquals(List.of("b2"), store.getIndexed("b"));
+        store.close();
+
+        try (val replayed = new JournaledJsonFileStore<String>(file, MAPPER, MAPPER.getTypeFactory().constructType(String.class),
+            snapshot -> MAPPER.readValue(snapshot, new TypeReference<Map<String, String>>() {
+            }),
+            (snapshot, records) -> MAPPER.writerWithDefaultPrettyPrinter().writeValue(snapshot, records),
+            Duration.ofMinutes(1), value -> value.substring(0, 1))) {
+            assertEquals(List.of("b2"), replayed.getIndexed("b"));
+            replayed.clear();
+            assertTrue(replayed.getIndexed("a").isEmpty());
+        }
+    }
+
+    @Test
+    public void verifyCompute() throws Exception {
+        val file = new File(FileUtils.getTempDirectory(), UUID.randomUUID().toString() + ".json");
+        try (val store = openStore(file)) {
+            val threads = IntStream.range(0, 8)
+                .mapToObj(i -> new Thread(() -> IntStream.range(0, 100)
+                    .forEach(j -> store.compute("counter", (key, value) -> String.valueOf(value == null ? 1 : Integer.parseInt(value) + 1)))))
+                .collect(Collectors.toList());
+            threads.forEach(Thread::start);
+            for (val thread : threads) {
+                thread.join();
+            }
+            assertEquals("800", store.get("counter"));
+            assertNull(store.compute("counter", (key, value) -> null));
+            assertEquals(0, store.size());
+            assertEquals(0, store.values().count());
+        }
+    }
+
+    @Test
+    public void verifySnapshotImported() throws Exception {
+        val file = new File(FileUtils.getTempDirectory(), UUID.randomUUID().toString() + ".json");
+        FileUtils.writeStringToFile(file, "{\"casuser\": \"value\"}", StandardCharsets.UTF_8);
+        try (val store = openStore(file)) {
+            assertEquals("value", store.get("casuser"));
+            assertEquals(0, store.getJournalEntries());
+        }
+    }
+
+    @Test
+    public void verifyJournalReplayed() throws Exception {
+        val file = new File(FileUtils.getTempDirectory(), UUID.randomUUID().toString() + ".json");
+        val store = openStore(file);
+        store.put("user1", "value1");
+        store.put("user2", "value2");
+        store.put("user1", "value3");
+        store.remove("user2");
+        store.sync();
+        assertFalse(file.exists());
+        assertEquals(4, FileUtils.readLines(store.getJournalFile(), StandardCharsets.UTF_8).size());
+
+        val replayed = openStore(file);
+        assertEquals(Map.of("user1", "value3"), replayed.getRecords());
+        replayed.close();
+        store.close();
+    }
+
+    @Test
+    public void verifyCompaction() throws Exception {
+        val file = new File(FileUtils.getTempDirectory(), UUID.randomUUID().toString() + ".json");
+        try (val store = openStore(file)) {
+            store.put("user1", "value1");
+            store.put("user2", "value2");
+            store.removeAll(List.of("user2", "unknown"));
+            store.compact();
+            assertEquals(0, store.getJournalEntries());
+            assertEquals(0, store.getJournalFile().length());
+            assertTrue(file.exists());
+        }
+        try (val store = openStore(file)) {
+            assertEquals(Map.of("user1", "value1"), store.getRecords());
+            store.clear();
+        }
+        try (val store = openStore(file)) {
+            assertTrue(store.getRecords().isEmpty());
+        }
+    }
+
+    @Test
+    public void verifyJournalSetAsideReplayed() throws Exception {
+        val file = new File(FileUtils.getTempDirectory(), UUID.randomUUID().toString() + ".json");
+        FileUtils.writeStringToFile(file, "{\"user1\": \"value1\"}", StandardCharsets.UTF_8);
+        val compactedJournal = new File(file.getParentFile(), file.getName()
+            + JournaledJsonFileStore.JOURNAL_FILE_EXTENSION + JournaledJsonFileStore.COMPACTED_JOURNAL_FILE_EXTENSION);
+        FileUtils.writeStringToFile(compactedJournal, "[\"PUT\",\"user2\",\"value2\"]\n", StandardCharsets.UTF_8);
+        try (val store = openStore(file)) {
+            assertEquals(Map.of("user1", "value1", "user2", "value2"), store.getRecords());
+            store.put("user3", "value3");
+            store.compact();
+            assertFalse(compactedJournal.exists());
+            store.put("user4", "value4");
+        }
+        try (val store = openStore(file)) {
+            assertEquals(4, store.size());
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -36,4 +38,22 @@ public class RegexUtilsTests {
     public void verifyNullRegex() {
         assertFalse(RegexUtils.isValidRegex(null));
     }
+
+    @Test
+    public void verifyPatternsCached() {
+        val hits = RegexUtils.getPatternCacheStatistics().hitCount();
+        val pattern = RegexUtils.createPattern("^cas-\\d+$");
+        assertSame(pattern, RegexUtils.createPattern("^cas-\\d+$"));
+        assertNotSame(pattern, RegexUtils.createPattern("^cas-\\d+$", 0));
+        assertTrue(RegexUtils.getPatternCacheStatistics().hitCount() > hits);
+        assertEquals(Pattern.CASE_INSENSITIVE, pattern.flags());
+    }
+
+    @Test
+    public void verifyMatchesCaseSensitive() {
+        assertTrue(RegexUtils.matches("cas.+", "casuser"));
+        assertFalse(RegexUtils.matches("cas", "casuser"));
+        assertFalse(RegexUtils.matches("CAS.+", "casuser"));
+        assertFalse(RegexUtils.matches("***", "casuser"));
+    }
 }
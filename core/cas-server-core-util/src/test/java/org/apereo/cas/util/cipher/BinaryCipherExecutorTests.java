@@ -9,7 +9,8 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.util.Arrays;
 
 import static org.apereo.cas.util.junit.Assertions.assertThrowsWithRootCause;
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +25,13 @@ import static org.junit.jupiter.api.Assertions.*;
 public class BinaryCipherExecutorTests {
     private static final String TEST_VALUE = "ThisIsATestValueThatIsGoingToBeEncodedAndDecodedAgainAndAgain";
 
+    /**
+     * {@link #TEST_VALUE} as encoded by earlier versions, encrypted with a fixed IV and then signed.
+     */
+    private static final String LEGACY_ENCODED_VALUE = "eyJhbGciOiJIUzUxMiIsInR5cCI6IkpXVCJ9"
+        + ".V6D9EZ4Ox2rVbFb0v0kGytzopJgfmIOIC_KIGDLBbTubd4I9PUFmuiIKqLkSd-4c4Ko2vEZNblJBUqUQ0AQ-n7yPw8WgzMiYWAtIzt0"
+        + ".gQDp4_3XM1qh6zQJ3ThseZOHQobVJJalqPtK1d_LzwijrNLnkC20H2frVIGHse4wX-iaH9oNBa8LplugEOCjUA";
+
     @Test
     public void checkEncodingDecoding() {
         val cc = new TestBinaryCipherExecutor("MTIzNDU2Nzg5MDEyMzQ1Ng==",
@@ -39,7 +47,7 @@ public class BinaryCipherExecutorTests {
     public void checkEncodingDecodingBadKeys() {
         val cc = new TestBinaryCipherExecutor("0000", "1234", 512, 16) {
         };
-        assertThrows(InvalidAlgorithmParameterException.class,
+        assertThrows(InvalidKeyException.class,
             () -> cc.encode(TEST_VALUE.getBytes(StandardCharsets.UTF_8), ArrayUtils.EMPTY_OBJECT_ARRAY));
     }
 
@@ -62,6 +70,35 @@ public class BinaryCipherExecutorTests {
         assertEquals(TEST_VALUE, new String(decoded, StandardCharsets.UTF_8));
     }
 
+    @Test
+    public void checkAuthenticatedEncryption() {
+        val cc = new TestBinaryCipherExecutor("MTIzNDU2Nzg5MDEyMzQ1Ng==",
+            "szxK-5_eJjs-aUj-64MpUZ-GPPzGLhYPLGl0wrYjYNVAGva2P0lLe6UGKGM7k8dWxsOVGutZWgvmY3l5oVPO3w",
+            512,
+            16);
+        val value = TEST_VALUE.getBytes(StandardCharsets.UTF_8);
+        val first = cc.encode(value, ArrayUtils.EMPTY_OBJECT_ARRAY);
+        val second = cc.encode(value, ArrayUtils.EMPTY_OBJECT_ARRAY);
+        assertFalse(Arrays.equals(first, second));
+        assertEquals(TEST_VALUE, new String(cc.decode(second, ArrayUtils.EMPTY_OBJECT_ARRAY), StandardCharsets.UTF_8));
+
+        first[first.length - 1] ^= 1;
+        assertThrows(DecryptionException.class, () -> cc.decode(first, ArrayUtils.EMPTY_OBJECT_ARRAY));
+    }
+
+    @Test
+    public void checkLegacyFormatDecoding() {
+        val cc = new TestBinaryCipherExecutor("MTIzNDU2Nzg5MDEyMzQ1Ng==",
+            "szxK-5_eJjs-aUj-64MpUZ-GPPzGLhYPLGl0wrYjYNVAGva2P0lLe6UGKGM7k8dWxsOVGutZWgvmY3l5oVPO3w",
+            512,
+            16);
+        val bytes = LEGACY_ENCODED_VALUE.getBytes(StandardCharsets.UTF_8);
+        assertEquals(TEST_VALUE, new String(cc.decode(bytes, ArrayUtils.EMPTY_OBJECT_ARRAY), StandardCharsets.UTF_8));
+
+        cc.setAuthenticatedEncryption(false);
+        assertArrayEquals(bytes, cc.encode(TEST_VALUE.getBytes(StandardCharsets.UTF_8), ArrayUtils.EMPTY_OBJECT_ARRAY));
+    }
+
     private static class TestBinaryCipherExecutor extends BaseBinaryCipherExecutor {
         TestBinaryCipherExecutor(final String encKey, final String signingKey, final int sKey, final int eKey) {
             super(encKey, signingKey, sKey, eKey, "Test");
@@ -1,9 +1,10 @@
 package org.apereo.cas.web.flow.executor;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.util.Assert;
 import org.springframework.webflow.core.collection.MutableAttributeMap;
@@ -17,22 +18,34 @@ import org.springframework.webflow.execution.repository.FlowExecutionRepository;
 import org.springframework.webflow.execution.repository.FlowExecutionRepositoryException;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 
 /**
  * Stores all flow execution state in {@link ClientFlowExecutionKey}, which effectively stores execution state on the
  * client in a form parameter when a view is rendered. The details of encoding flow state into a byte stream is handled
  * by a {@link Transcoder} component.
+ * <p>
+ * Encoded state that exceeds the maximum size allowed for the client is kept by a {@link ClientFlowExecutionStateStore}
+ * on the server instead, and the key only carries an encoded reference to the stored state.
+ * The handles of all states stored for a flow are tracked in its conversation scope,
+ * so that they can be removed from the store once the flow ends.
  *
  * @author Marvin S. Addison
  * @see ClientFlowExecutionKey
  * @see Transcoder
  * @since 6.1
  */
+@Slf4j
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class ClientFlowExecutionRepository implements FlowExecutionRepository, FlowExecutionKeyFactory {
 
+    /**
+     * Conversation scope attribute that holds the handles of the states stored for the flow.
+     */
+    public static final String ATTRIBUTE_NAME_STORED_STATE_HANDLES = "clientFlowExecutionStoredStateHandles";
+
     /**
      * Client flow storage has not backing store independent from the flow key, so no locking is required.
      */
@@ -52,6 +65,25 @@ public class ClientFlowExecutionRepository implements FlowExecutionRepository, F
 
     private Transcoder transcoder;
 
+    private ClientFlowExecutionStateStore stateStore;
+
+    /**
+     * Maximum size of the encoded state, in bytes, that is sent to the client.
+     * Larger state is kept by the state store, if one is defined. Zero or negative values disable the limit.
+     */
+    private long maxStateSize;
+
+    @Getter
+    private ClientFlowExecutionStateStatistics statistics = new ClientFlowExecutionStateStatistics();
+
+    public ClientFlowExecutionRepository(final FlowExecutionFactory flowExecutionFactory,
+                                         final FlowDefinitionLocator flowDefinitionLocator,
+                                         final Transcoder transcoder) {
+        this.flowExecutionFactory = flowExecutionFactory;
+        this.flowDefinitionLocator = flowDefinitionLocator;
+        this.transcoder = transcoder;
+    }
+
     @Override
     public FlowExecutionKey parseFlowExecutionKey(final String encodedKey) throws FlowExecutionRepositoryException {
         return ClientFlowExecutionKey.parse(encodedKey);
@@ -74,7 +106,11 @@ public class ClientFlowExecutionRepository implements FlowExecutionRepository, F
         }
         try {
             val encoded = ((ClientFlowExecutionKey) key).getData();
-            val state = (SerializedFlowExecutionState) this.transcoder.decode(encoded);
+            val decoded = this.transcoder.decode(encoded);
+            val state = (SerializedFlowExecutionState) retrieve(decoded);
+            if (decoded instanceof StoredFlowExecutionStateReference) {
+                addStoredStateHandle(state.getConversationScope(), ((StoredFlowExecutionStateReference) decoded).getHandle());
+            }
             val flow = flowDefinitionLocator.getFlowDefinition(state.getFlowId());
             return flowExecutionFactory.restoreFlowExecution(
                 state.getExecution(), flow, key, state.getConversationScope(), this.flowDefinitionLocator);
@@ -88,18 +124,59 @@ public class ClientFlowExecutionRepository implements FlowExecutionRepository, F
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void removeFlowExecution(final FlowExecution flowExecution) throws FlowExecutionRepositoryException {
+        if (stateStore != null) {
+            val handles = (Collection<String>) flowExecution.getConversationScope().get(ATTRIBUTE_NAME_STORED_STATE_HANDLES);
+            if (handles != null) {
+                LOGGER.debug("Flow execution has ended; removing [{}] stored flow execution state(s)", handles.size());
+                handles.forEach(stateStore::remove);
+            }
+        }
     }
 
     @Override
     public FlowExecutionKey getKey(final FlowExecution execution) {
         try {
-            return new ClientFlowExecutionKey(this.transcoder.encode(new SerializedFlowExecutionState(execution)));
+            val encoded = this.transcoder.encode(new SerializedFlowExecutionState(execution));
+            if (stateStore != null && maxStateSize > 0 && encoded.length > maxStateSize) {
+                val handle = stateStore.store(encoded);
+                LOGGER.debug("Flow execution state of [{}] bytes exceeds [{}] bytes and is stored under [{}]",
+                    encoded.length, maxStateSize, handle);
+                addStoredStateHandle(execution.getConversationScope(), handle);
+                statistics.record(encoded.length, true);
+                return new ClientFlowExecutionKey(this.transcoder.encode(new StoredFlowExecutionStateReference(handle)));
+            }
+            statistics.record(encoded.length, false);
+            return new ClientFlowExecutionKey(encoded);
         } catch (final Exception e) {
             throw new ClientFlowExecutionRepositoryException("Error encoding flow execution", e);
         }
     }
 
+    private Object retrieve(final Object decoded) throws Exception {
+        if (decoded instanceof StoredFlowExecutionStateReference) {
+            val handle = ((StoredFlowExecutionStateReference) decoded).getHandle();
+            Assert.notNull(stateStore, "ClientFlowExecutionStateStore cannot be null");
+            val state = stateStore.retrieve(handle);
+            if (state == null) {
+                throw new ClientFlowExecutionRepositoryException("Flow execution state stored under " + handle + " is not available");
+            }
+            return this.transcoder.decode(state);
+        }
+        return decoded;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addStoredStateHandle(final MutableAttributeMap conversationScope, final String handle) {
+        var handles = (Collection<String>) conversationScope.get(ATTRIBUTE_NAME_STORED_STATE_HANDLES);
+        if (handles == null) {
+            handles = new LinkedHashSet<>();
+            conversationScope.put(ATTRIBUTE_NAME_STORED_STATE_HANDLES, handles);
+        }
+        handles.add(handle);
+    }
+
     @Override
     public void updateFlowExecutionSnapshot(final FlowExecution execution) {
     }
@@ -128,4 +205,12 @@ public class ClientFlowExecutionRepository implements FlowExecutionRepository, F
             this.conversationScope = execution.getConversationScope();
         }
     }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class StoredFlowExecutionStateReference implements Serializable {
+        private static final long serialVersionUID = 3140236402178923561L;
+
+        private final String handle;
+    }
 }
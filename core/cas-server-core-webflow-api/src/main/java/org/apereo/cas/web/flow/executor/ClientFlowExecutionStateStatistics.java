@@ -0,0 +1,58 @@
+package org.apereo.cas.web.flow.executor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * This is {@link ClientFlowExecutionStateStatistics}.
+ * Statistics of the encoded flow execution state produced by {@link ClientFlowExecutionRepository}.
+ * The size of each encoded state is handed to the registered observers, such as a distribution
+ * summary that is published by the metrics module.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+public class ClientFlowExecutionStateStatistics {
+    private final LongAdder states = new LongAdder();
+
+    private final LongAdder storedStates = new LongAdder();
+
+    private final List<LongConsumer> sizeObservers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Number of flow execution states that were encoded.
+     *
+     * @return the count
+     */
+    public long getStates() {
+        return states.sum();
+    }
+
+    /**
+     * Number of flow execution states that were too large for the client and were stored on the server.
+     *
+     * @return the count
+     */
+    public long getStoredStates() {
+        return storedStates.sum();
+    }
+
+    /**
+     * Register an observer that receives the size of each encoded state, in bytes.
+     *
+     * @param observer the observer
+     */
+    public void addSizeObserver(final LongConsumer observer) {
+        sizeObservers.add(observer);
+    }
+
+    void record(final long size, final boolean stored) {
+        states.increment();
+        if (stored) {
+            storedStates.increment();
+        }
+        sizeObservers.forEach(observer -> observer.accept(size));
+    }
+}
@@ -0,0 +1,36 @@
+package org.apereo.cas.web.flow.executor;
+
+/**
+ * This is {@link ClientFlowExecutionStateStore}.
+ * Keeps encoded flow execution state on the server when it is too large to be sent
+ * to the client, so that the client only has to carry a short handle to the state.
+ * State is removed when the flow that produced it ends.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+public interface ClientFlowExecutionStateStore {
+
+    /**
+     * Store the encoded flow execution state.
+     *
+     * @param state the encoded state
+     * @return the handle by which the state can be retrieved
+     */
+    String store(byte[] state);
+
+    /**
+     * Retrieve the encoded flow execution state.
+     *
+     * @param handle the handle
+     * @return the encoded state, or null if the state is no longer available
+     */
+    byte[] retrieve(String handle);
+
+    /**
+     * Remove the encoded flow execution state, once the flow has ended.
+     *
+     * @param handle the handle
+     */
+    void remove(String handle);
+}
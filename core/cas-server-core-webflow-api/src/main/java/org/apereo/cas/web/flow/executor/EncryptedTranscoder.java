@@ -16,6 +16,10 @@ import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -25,6 +29,9 @@ import java.util.zip.GZIPOutputStream;
  * {@link CipherBean}.
  * <p>
  * Optional gzip compression of the serialized byte stream before encryption is supported and enabled by default.
+ * Objects are serialized compactly: equal strings are written once and referenced thereafter, and values
+ * that are not serializable, such as beans that end up in flow scopes, are dropped rather than failing
+ * the serialization of the entire object graph.
  *
  * @author Marvin S. Addison
  * @author Misagh Moayyed
@@ -54,8 +61,8 @@ public class EncryptedTranscoder implements Transcoder {
         }
         val outBuffer = new ByteArrayOutputStream();
         try (val out = this.compression
-            ? new ObjectOutputStream(new GZIPOutputStream(outBuffer))
-            : new ObjectOutputStream(outBuffer)) {
+            ? new CompactingObjectOutputStream(new GZIPOutputStream(outBuffer))
+            : new CompactingObjectOutputStream(outBuffer)) {
 
             writeObjectToOutputStream(o, out);
         } catch (final NotSerializableException e) {
@@ -131,4 +138,30 @@ public class EncryptedTranscoder implements Transcoder {
             throw new IOException("Decryption error", e);
         }
     }
+
+    /**
+     * Object output stream that writes equal strings only once, and drops values that are not serializable.
+     */
+    private static class CompactingObjectOutputStream extends ObjectOutputStream {
+        private final Map<String, String> strings = new HashMap<>();
+
+        CompactingObjectOutputStream(final OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) {
+            if (obj instanceof String) {
+                val string = (String) obj;
+                val existing = strings.putIfAbsent(string, string);
+                return existing == null ? string : existing;
+            }
+            if (obj != null && !(obj instanceof Serializable)) {
+                LOGGER.debug("Dropping value of type [{}] that is not serializable", obj.getClass().getName());
+                return null;
+            }
+            return obj;
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package org.apereo.cas.web.flow.executor;
+
+import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.TicketFactory;
+import org.apereo.cas.ticket.TransientSessionTicket;
+import org.apereo.cas.ticket.TransientSessionTicketFactory;
+import org.apereo.cas.ticket.expiration.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.UUID;
+
+/**
+ * This is {@link TicketRegistryClientFlowExecutionStateStore}.
+ * Stores flow execution state as transient session tickets in the ticket registry,
+ * which allows the state to be shared between nodes. State is not removed once retrieved, so that
+ * the same key may be submitted again when navigating back in the browser; it is removed
+ * once the flow ends, and otherwise expires after the given time to live, regardless of
+ * the expiration policy of other transient session tickets.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TicketRegistryClientFlowExecutionStateStore implements ClientFlowExecutionStateStore {
+    private static final String PROPERTY_NAME_FLOW_EXECUTION_STATE = "flowExecutionState";
+
+    private final TicketRegistry ticketRegistry;
+
+    private final TicketFactory ticketFactory;
+
+    private final Duration timeToLive;
+
+    @Override
+    public String store(final byte[] state) {
+        val properties = new HashMap<String, Serializable>(2);
+        properties.put(PROPERTY_NAME_FLOW_EXECUTION_STATE, state);
+        properties.put(ExpirationPolicy.class.getName(), new HardTimeoutExpirationPolicy(timeToLive.getSeconds()));
+        val factory = (TransientSessionTicketFactory) ticketFactory.get(TransientSessionTicket.class);
+        val ticket = factory.create(UUID.randomUUID().toString(), properties);
+        ticketRegistry.addTicket(ticket);
+        LOGGER.trace("Stored flow execution state of [{}] bytes under [{}]", state.length, ticket.getId());
+        return ticket.getId();
+    }
+
+    @Override
+    public byte[] retrieve(final String handle) {
+        val ticket = ticketRegistry.getTicket(handle, TransientSessionTicket.class);
+        if (ticket == null || ticket.isExpired()) {
+            LOGGER.debug("Flow execution state stored under [{}] is not found or has expired", handle);
+            return null;
+        }
+        return ticket.get(PROPERTY_NAME_FLOW_EXECUTION_STATE, byte[].class);
+    }
+
+    @Override
+    public void remove(final String handle) {
+        LOGGER.trace("Removing flow execution state stored under [{}]", handle);
+        ticketRegistry.deleteTicket(handle);
+    }
+}
@@ -5,6 +5,7 @@ import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.util.crypto.CipherExecutor;
 
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.springframework.webflow.conversation.impl.SessionBindingConversationManager;
@@ -30,6 +31,12 @@ public class WebflowExecutorFactory {
     private final CipherExecutor webflowCipherExecutor;
     private final FlowExecutionListener[] executionListeners;
 
+    @Setter
+    private ClientFlowExecutionStateStore clientFlowExecutionStateStore;
+
+    @Setter
+    private ClientFlowExecutionStateStatistics clientFlowExecutionStateStatistics;
+
     /**
      * Build flow executor.
      *
@@ -64,6 +71,11 @@ public class WebflowExecutorFactory {
         val repository = new ClientFlowExecutionRepository();
         repository.setFlowDefinitionLocator(this.flowDefinitionRegistry);
         repository.setTranscoder(getWebflowStateTranscoder());
+        repository.setStateStore(this.clientFlowExecutionStateStore);
+        repository.setMaxStateSize(webflowProperties.getSession().getMaxClientStateSize());
+        if (this.clientFlowExecutionStateStatistics != null) {
+            repository.setStatistics(this.clientFlowExecutionStateStatistics);
+        }
 
         val factory = new FlowExecutionImplFactory();
         factory.setExecutionKeyFactory(repository);
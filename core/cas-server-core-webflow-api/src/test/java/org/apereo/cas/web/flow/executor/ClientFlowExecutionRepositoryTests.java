@@ -35,6 +35,10 @@ import org.springframework.webflow.expression.spel.WebFlowSpringELExpressionPars
 import org.springframework.webflow.test.CasMockViewFactoryCreator;
 import org.springframework.webflow.test.MockExternalContext;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -55,6 +59,14 @@ public class ClientFlowExecutionRepositoryTests {
     @Qualifier("flowExecutor")
     private FlowExecutor flowExecutor;
 
+    @Autowired
+    @Qualifier("flowRegistry")
+    private FlowDefinitionRegistry flowRegistry;
+
+    @Autowired
+    @Qualifier("transcoder")
+    private Transcoder transcoder;
+
     @Test
     public void verifyBadKey() {
         val factory = new ClientFlowExecutionRepository(mock(FlowExecutionFactory.class), mock(FlowDefinitionLocator.class), mock(Transcoder.class));
@@ -86,6 +98,53 @@ public class ClientFlowExecutionRepositoryTests {
         assertEquals("lasagnaDinner", resumeResult.getOutcome().getId());
     }
 
+    @Test
+    public void verifyOversizedStateStoredOnServer() {
+        val states = new HashMap<String, byte[]>();
+        val store = new ClientFlowExecutionStateStore() {
+            @Override
+            public String store(final byte[] state) {
+                val handle = UUID.randomUUID().toString();
+                states.put(handle, state);
+                return handle;
+            }
+
+            @Override
+            public byte[] retrieve(final String handle) {
+                return states.get(handle);
+            }
+
+            @Override
+            public void remove(final String handle) {
+                states.remove(handle);
+            }
+        };
+        val factory = new FlowExecutionImplFactory();
+        val repository = new ClientFlowExecutionRepository(factory, flowRegistry, transcoder);
+        repository.setStateStore(store);
+        repository.setMaxStateSize(1);
+        val sizes = new ArrayList<Long>();
+        repository.getStatistics().addSizeObserver(sizes::add);
+        factory.setExecutionKeyFactory(repository);
+        val executor = new FlowExecutorImpl(flowRegistry, factory, repository);
+
+        val launchResult = executor.launchExecution("test-flow", new LocalAttributeMap<>(), new MockExternalContext());
+        assertEquals(1, states.size());
+        assertEquals(1, repository.getStatistics().getStoredStates());
+        assertEquals(1, sizes.size());
+        assertTrue(sizes.get(0) > 1);
+
+        val context = new MockExternalContext();
+        context.setEventId("submit");
+        context.getRequestMap().put("vegan", "0");
+        val resumeResult = executor.resumeExecution(launchResult.getPausedKey(), context);
+        assertEquals("lasagnaDinner", resumeResult.getOutcome().getId());
+
+        assertTrue(states.isEmpty());
+        assertThrows(ClientFlowExecutionRepositoryException.class,
+            () -> repository.getFlowExecution(repository.parseFlowExecutionKey(launchResult.getPausedKey())));
+    }
+
     @TestConfiguration("WebflowTestConfiguration")
     @Lazy(false)
     public static class WebflowTestConfiguration {
@@ -19,6 +19,9 @@ import org.springframework.aop.framework.ProxyFactoryBean;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -91,6 +94,20 @@ public class EncryptedTranscoderTests {
         assertNull(encoder.encode(new Object()));
     }
 
+    @Test
+    public void verifyCompactEncoding() throws Exception {
+        val transcoder = (EncryptedTranscoder) getParameters().findFirst().orElseThrow().get()[0];
+        val values = new ArrayList<Object>();
+        IntStream.range(0, 100).forEach(i -> values.add(new String("repeated-value")));
+        val compact = transcoder.encode(values);
+        values.add(new Object());
+        val decoded = (List<?>) transcoder.decode(transcoder.encode(values));
+        assertEquals(101, decoded.size());
+        assertEquals("repeated-value", decoded.get(0));
+        assertNull(decoded.get(100));
+        assertTrue(compact.length < values.size() * "repeated-value".length());
+    }
+
     @Test
     public void verifyBadDecoding() {
         val encoder = new EncryptedTranscoder(mock(CipherBean.class));
@@ -1,7 +1,10 @@
 package org.apereo.cas.web.flow.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.throttle.AuthenticationThrottlingExecutionPlan;
+import org.apereo.cas.ticket.TicketFactory;
+import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.crypto.CipherExecutor;
 import org.apereo.cas.web.flow.CasDefaultFlowUrlHandler;
@@ -15,6 +18,9 @@ import org.apereo.cas.web.flow.configurer.DefaultLogoutWebflowConfigurer;
 import org.apereo.cas.web.flow.configurer.DynamicFlowModelBuilder;
 import org.apereo.cas.web.flow.configurer.GroovyWebflowConfigurer;
 import org.apereo.cas.web.flow.configurer.plan.DefaultCasWebflowExecutionPlan;
+import org.apereo.cas.web.flow.executor.ClientFlowExecutionStateStatistics;
+import org.apereo.cas.web.flow.executor.ClientFlowExecutionStateStore;
+import org.apereo.cas.web.flow.executor.TicketRegistryClientFlowExecutionStateStore;
 import org.apereo.cas.web.flow.executor.WebflowExecutorFactory;
 import org.apereo.cas.web.support.CasLocaleChangeInterceptor;
 
@@ -97,6 +103,14 @@ public class CasWebflowContextConfiguration {
     @Qualifier("themeChangeInterceptor")
     private ObjectProvider<ThemeChangeInterceptor> themeChangeInterceptor;
 
+    @Autowired
+    @Qualifier("ticketRegistry")
+    private ObjectProvider<TicketRegistry> ticketRegistry;
+
+    @Autowired
+    @Qualifier("defaultTicketFactory")
+    private ObjectProvider<TicketFactory> ticketFactory;
+
     @Bean
     @Lazy(false)
     public ExpressionParser expressionParser() {
@@ -234,6 +248,10 @@ public class CasWebflowContextConfiguration {
     public FlowExecutor logoutFlowExecutor() {
         val factory = new WebflowExecutorFactory(casProperties.getWebflow(),
             logoutFlowRegistry(), this.webflowCipherExecutor.getObject(), FLOW_EXECUTION_LISTENERS);
+        if (casProperties.getWebflow().getSession().getMaxClientStateSize() > 0) {
+            factory.setClientFlowExecutionStateStore(webflowClientFlowExecutionStateStore());
+        }
+        factory.setClientFlowExecutionStateStatistics(webflowClientFlowExecutionStateStatistics());
         return factory.build();
     }
 
@@ -244,10 +262,27 @@ public class CasWebflowContextConfiguration {
         val factory = new WebflowExecutorFactory(casProperties.getWebflow(),
             loginFlowRegistry(), this.webflowCipherExecutor.getObject(),
             FLOW_EXECUTION_LISTENERS);
-
+        if (casProperties.getWebflow().getSession().getMaxClientStateSize() > 0) {
+            factory.setClientFlowExecutionStateStore(webflowClientFlowExecutionStateStore());
+        }
+        factory.setClientFlowExecutionStateStatistics(webflowClientFlowExecutionStateStatistics());
         return factory.build();
     }
 
+    @ConditionalOnMissingBean(name = "webflowClientFlowExecutionStateStore")
+    @Bean
+    @RefreshScope
+    public ClientFlowExecutionStateStore webflowClientFlowExecutionStateStore() {
+        return new TicketRegistryClientFlowExecutionStateStore(ticketRegistry.getObject(), ticketFactory.getObject(),
+            Beans.newDuration(casProperties.getWebflow().getSession().getStoredClientStateTimeToLive()));
+    }
+
+    @ConditionalOnMissingBean(name = "webflowClientFlowExecutionStateStatistics")
+    @Bean
+    public ClientFlowExecutionStateStatistics webflowClientFlowExecutionStateStatistics() {
+        return new ClientFlowExecutionStateStatistics();
+    }
+
     @ConditionalOnMissingBean(name = "defaultWebflowConfigurer")
     @Bean
     @Order(0)
@@ -13,6 +13,9 @@ import org.apereo.cas.authentication.principal.DefaultServiceMatchingStrategy;
 import org.apereo.cas.authentication.principal.PrincipalFactory;
 import org.apereo.cas.authentication.principal.ServiceMatchingStrategy;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.services.DefaultRegisteredServiceAttributeReleaseCache;
+import org.apereo.cas.services.RegisteredServiceAttributeReleaseCache;
 import org.apereo.cas.services.ServiceContext;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.ticket.TicketFactory;
@@ -110,7 +113,7 @@ public class CasCoreConfiguration {
     @ConditionalOnMissingBean(name = "centralAuthenticationService")
     public CentralAuthenticationService centralAuthenticationService(
         @Qualifier("authenticationServiceSelectionPlan") final AuthenticationServiceSelectionPlan authenticationServiceSelectionPlan) {
-        return new DefaultCentralAuthenticationService(applicationContext,
+        val cas = new DefaultCentralAuthenticationService(applicationContext,
             ticketRegistry.getObject(),
             servicesManager.getObject(),
             ticketFactory.getObject(),
@@ -120,5 +123,18 @@ public class CasCoreConfiguration {
             cipherExecutor.getObject(),
             registeredServiceAccessStrategyEnforcer.getObject(),
             serviceMatchingStrategy());
+        cas.setAttributeReleaseCache(registeredServiceAttributeReleaseCache());
+        return cas;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "registeredServiceAttributeReleaseCache")
+    public RegisteredServiceAttributeReleaseCache registeredServiceAttributeReleaseCache() {
+        val cache = casProperties.getTicket().getSt().getAttributeReleaseCache();
+        if (cache.isEnabled()) {
+            return new DefaultRegisteredServiceAttributeReleaseCache(cache.getMaximumSize(),
+                Beans.newDuration(cache.getExpireAfterWrite()));
+        }
+        return RegisteredServiceAttributeReleaseCache.noOp();
     }
 }
@@ -0,0 +1,149 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketDestroyedEvent;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * This is {@link DefaultRegisteredServiceAttributeReleaseCache}.
+ * Keeps released attributes in a bounded local cache, keyed by the root ticket-granting ticket,
+ * the registered service and the service. The versions of the registered service definition
+ * and of the authentication, as determined by their hash codes, are part of the key so that changes
+ * to the definition, its release policy or the authenticated principal are picked up immediately.
+ * Cached keys are also indexed by ticket-granting ticket, so that attributes cached for a ticket
+ * can be discarded without scanning the cache. Callers receive their own copy of the cached attributes.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class DefaultRegisteredServiceAttributeReleaseCache implements RegisteredServiceAttributeReleaseCache {
+    private final Map<String, Set<ReleasedAttributesKey>> keysByTicketGrantingTicket = new ConcurrentHashMap<>();
+
+    private final Cache<ReleasedAttributesKey, Map<String, List<Object>>> cache;
+
+    public DefaultRegisteredServiceAttributeReleaseCache(final long maximumSize, final Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .executor(Runnable::run)
+            .removalListener((ReleasedAttributesKey key, Map<String, List<Object>> value, RemovalCause cause) -> unindex(key))
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public Map<String, List<Object>> getAttributes(final String ticketGrantingTicketId, final Authentication authentication,
+                                                   final Service service, final RegisteredService registeredService,
+                                                   final Supplier<Map<String, List<Object>>> releasePolicy) {
+        val key = new ReleasedAttributesKey(ticketGrantingTicketId, getAuthenticationVersion(authentication),
+            registeredService.getId(), registeredService.hashCode(), service.getId());
+        val attributes = cache.get(key, k -> {
+            LOGGER.trace("Evaluating attribute release policy for [{}]", k);
+            index(k);
+            return copy(releasePolicy.get());
+        });
+        return copy(attributes);
+    }
+
+    @Override
+    public void invalidate(final String ticketGrantingTicketId) {
+        val keys = keysByTicketGrantingTicket.remove(ticketGrantingTicketId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Discard attributes cached for destroyed ticket-granting tickets.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleTicketGrantingTicketDestroyedEvent(final CasTicketGrantingTicketDestroyedEvent event) {
+        LOGGER.trace("Discarding released attributes cached for [{}]", event.getId());
+        invalidate(event.getId());
+    }
+
+    /**
+     * Gets cache statistics.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats getCacheStatistics() {
+        return cache.stats();
+    }
+
+    private static int getAuthenticationVersion(final Authentication authentication) {
+        if (authentication == null) {
+            return 0;
+        }
+        return Objects.hash(authentication, authentication.getPrincipal().getAttributes());
+    }
+
+    private void index(final ReleasedAttributesKey key) {
+        keysByTicketGrantingTicket.compute(key.ticketGrantingTicketId, (id, keys) -> {
+            val result = keys == null ? ConcurrentHashMap.<ReleasedAttributesKey>newKeySet() : keys;
+            result.add(key);
+            return result;
+        });
+    }
+
+    private void unindex(final ReleasedAttributesKey key) {
+        if (key != null) {
+            keysByTicketGrantingTicket.computeIfPresent(key.ticketGrantingTicketId, (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static Map<String, List<Object>> copy(final Map<String, List<Object>> attributes) {
+        val result = new HashMap<String, List<Object>>();
+        if (attributes != null) {
+            attributes.forEach((name, values) -> result.put(name, values == null ? null : new ArrayList<>(values)));
+        }
+        return result;
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    private static class ReleasedAttributesKey {
+        private final String ticketGrantingTicketId;
+
+        private final int authenticationVersion;
+
+        private final long registeredServiceId;
+
+        private final int registeredServiceVersion;
+
+        private final String serviceId;
+    }
+}
@@ -0,0 +1,59 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.principal.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * This is {@link RegisteredServiceAttributeReleaseCache}.
+ * Remembers the attributes calculated by the attribute release policy of a registered service
+ * for a ticket-granting ticket, so that repeated service ticket validations for the same
+ * single sign-on session and service do not have to evaluate the release policy again.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@FunctionalInterface
+public interface RegisteredServiceAttributeReleaseCache {
+
+    /**
+     * Cache that does not remember anything and always evaluates the release policy.
+     *
+     * @return the cache
+     */
+    static RegisteredServiceAttributeReleaseCache noOp() {
+        return (ticketGrantingTicketId, authentication, service, registeredService, releasePolicy) -> releasePolicy.get();
+    }
+
+    /**
+     * Get the released attributes for the ticket-granting ticket and service,
+     * evaluating the release policy if the attributes are not cached.
+     *
+     * @param ticketGrantingTicketId the root ticket-granting ticket id
+     * @param authentication         the authentication the attributes are released for
+     * @param service                the service
+     * @param registeredService      the registered service
+     * @param releasePolicy          the release policy evaluation
+     * @return the released attributes
+     */
+    Map<String, List<Object>> getAttributes(String ticketGrantingTicketId, Authentication authentication, Service service,
+                                            RegisteredService registeredService,
+                                            Supplier<Map<String, List<Object>>> releasePolicy);
+
+    /**
+     * Discard all attributes cached for the ticket-granting ticket.
+     *
+     * @param ticketGrantingTicketId the root ticket-granting ticket id
+     */
+    default void invalidate(final String ticketGrantingTicketId) {
+    }
+
+    /**
+     * Discard all cached attributes.
+     */
+    default void invalidate() {
+    }
+}
@@ -1,6 +1,7 @@
 package org.apereo.cas;
 
 import org.apereo.cas.authentication.principal.cache.CachingPrincipalAttributesRepositoryTests;
+import org.apereo.cas.services.DefaultRegisteredServiceAttributeReleaseCacheTests;
 
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.platform.suite.api.SelectClasses;
@@ -18,7 +19,8 @@ import org.junit.runner.RunWith;
     DefaultCentralAuthenticationServiceMockitoTests.class,
     DefaultCasAttributeEncoderTests.class,
     DefaultPrincipalAttributesRepositoryTests.class,
-    CachingPrincipalAttributesRepositoryTests.class
+    CachingPrincipalAttributesRepositoryTests.class,
+    DefaultRegisteredServiceAttributeReleaseCacheTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllCoreTestsSuite {
@@ -248,6 +248,16 @@ public class DefaultCentralAuthenticationServiceTests extends AbstractCentralAut
         assertNotNull(getCentralAuthenticationService().validateServiceTicket(serviceTicket.getId(), getService()));
     }
 
+    @Test
+    public void verifyValidateServiceTicketOnlyOnce() {
+        val ctx = CoreAuthenticationTestUtils.getAuthenticationResult(getAuthenticationSystemSupport());
+        val ticketGrantingTicket = getCentralAuthenticationService().createTicketGrantingTicket(ctx);
+        val serviceTicket = getCentralAuthenticationService().grantServiceTicket(ticketGrantingTicket.getId(), getService(), ctx);
+        assertNotNull(getCentralAuthenticationService().validateServiceTicket(serviceTicket.getId(), getService()));
+        assertThrows(InvalidTicketException.class,
+            () -> getCentralAuthenticationService().validateServiceTicket(serviceTicket.getId(), getService()));
+    }
+
     @Test
     public void verifyValidateServiceTicketFailsTicket() {
         val ctx = CoreAuthenticationTestUtils.getAuthenticationResult(getAuthenticationSystemSupport());
@@ -0,0 +1,125 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketDestroyedEvent;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link DefaultRegisteredServiceAttributeReleaseCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Attributes")
+public class DefaultRegisteredServiceAttributeReleaseCacheTests {
+    private static final Authentication AUTHENTICATION = RegisteredServiceTestUtils.getAuthentication();
+
+    @Test
+    public void verifyAttributesReusedPerTicketAndService() {
+        val cache = new DefaultRegisteredServiceAttributeReleaseCache(100, Duration.ofMinutes(1));
+        val service = RegisteredServiceTestUtils.getService();
+        val registeredService = RegisteredServiceTestUtils.getRegisteredService(service.getId());
+        val count = new AtomicInteger();
+        val releasePolicy = getReleasePolicy(count);
+
+        val attributes = cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, releasePolicy);
+        assertEquals(List.of("casuser"), attributes.get("uid"));
+        attributes.get("uid").add("changed");
+        assertEquals(List.of("casuser"), cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, releasePolicy).get("uid"));
+        assertEquals(1, count.get());
+        assertEquals(1, cache.getCacheStatistics().hitCount());
+
+        cache.getAttributes("TGT-2", AUTHENTICATION, service, registeredService, releasePolicy);
+        assertEquals(2, count.get());
+        cache.getAttributes("TGT-1", AUTHENTICATION, RegisteredServiceTestUtils.getService2(), registeredService, releasePolicy);
+        assertEquals(3, count.get());
+    }
+
+    @Test
+    public void verifyServiceDefinitionChangeInvalidates() {
+        val cache = new DefaultRegisteredServiceAttributeReleaseCache(100, Duration.ofMinutes(1));
+        val service = RegisteredServiceTestUtils.getService();
+        val registeredService = RegisteredServiceTestUtils.getRegisteredService(service.getId());
+        val count = new AtomicInteger();
+        val releasePolicy = getReleasePolicy(count);
+
+        cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, releasePolicy);
+        registeredService.setAttributeReleasePolicy(new ReturnAllAttributeReleasePolicy());
+        cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, releasePolicy);
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void verifyAuthenticationChangeInvalidates() {
+        val cache = new DefaultRegisteredServiceAttributeReleaseCache(100, Duration.ofMinutes(1));
+        val service = RegisteredServiceTestUtils.getService();
+        val registeredService = RegisteredServiceTestUtils.getRegisteredService(service.getId());
+        val count = new AtomicInteger();
+        val releasePolicy = getReleasePolicy(count);
+
+        cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, releasePolicy);
+        val principal = RegisteredServiceTestUtils.getPrincipal("casuser", Map.of("uid", List.of("casuser2")));
+        cache.getAttributes("TGT-1", RegisteredServiceTestUtils.getAuthentication(principal), service, registeredService, releasePolicy);
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void verifyTicketGrantingTicketDestroyedInvalidates() {
+        val cache = new DefaultRegisteredServiceAttributeReleaseCache(100, Duration.ofMinutes(1));
+        val service = RegisteredServiceTestUtils.getService();
+        val registeredService = RegisteredServiceTestUtils.getRegisteredService(service.getId());
+        val count = new AtomicInteger();
+        val releasePolicy = getReleasePolicy(count);
+
+        cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, releasePolicy);
+        cache.getAttributes("TGT-2", AUTHENTICATION, service, registeredService, releasePolicy);
+
+        val ticket = mock(TicketGrantingTicket.class);
+        when(ticket.getId()).thenReturn("TGT-1");
+        cache.handleTicketGrantingTicketDestroyedEvent(new CasTicketGrantingTicketDestroyedEvent(this, ticket));
+
+        cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, releasePolicy);
+        cache.getAttributes("TGT-2", AUTHENTICATION, service, registeredService, releasePolicy);
+        assertEquals(3, count.get());
+
+        cache.invalidate("TGT-1");
+        cache.invalidate("TGT-3");
+        cache.getAttributes("TGT-2", AUTHENTICATION, service, registeredService, releasePolicy);
+        assertEquals(3, count.get());
+        cache.invalidate();
+        cache.getAttributes("TGT-2", AUTHENTICATION, service, registeredService, releasePolicy);
+        assertEquals(4, count.get());
+    }
+
+    @Test
+    public void verifyNoOpAlwaysEvaluates() {
+        val cache = RegisteredServiceAttributeReleaseCache.noOp();
+        val service = RegisteredServiceTestUtils.getService();
+        val registeredService = RegisteredServiceTestUtils.getRegisteredService(service.getId());
+        val count = new AtomicInteger();
+        cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, getReleasePolicy(count));
+        cache.getAttributes("TGT-1", AUTHENTICATION, service, registeredService, getReleasePolicy(count));
+        assertEquals(2, count.get());
+    }
+
+    private static Supplier<Map<String, List<Object>>> getReleasePolicy(final AtomicInteger count) {
+        return () -> {
+            count.incrementAndGet();
+            return Map.of("uid", new ArrayList<>(List.of("casuser")));
+        };
+    }
+}
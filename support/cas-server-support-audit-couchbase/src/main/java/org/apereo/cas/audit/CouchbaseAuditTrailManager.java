@@ -14,9 +14,12 @@ import org.apereo.inspektr.audit.AuditActionContext;
 
 import java.io.StringWriter;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -52,6 +55,19 @@ public class CouchbaseAuditTrailManager extends AbstractAuditTrailManager {
         }
     }
 
+    @SneakyThrows
+    @Override
+    protected void saveAuditRecords(final Collection<AuditActionContext> audits) {
+        val documents = new LinkedHashMap<String, Object>(audits.size());
+        for (val audit : audits) {
+            try (val stringWriter = new StringWriter()) {
+                this.serializer.to(stringWriter, audit);
+                documents.put(UUID.randomUUID().toString(), JsonObject.fromJson(stringWriter.toString()));
+            }
+        }
+        this.couchbase.bucketUpsertDefaultCollection(documents);
+    }
+
     @Override
     @SuppressWarnings("JavaUtilDate")
     public Set<? extends AuditActionContext> getAuditRecordsSince(final LocalDate localDate) {
@@ -15,6 +15,7 @@ import org.apereo.inspektr.audit.AuditActionContext;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeDefinition;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.ComparisonOperator;
 import software.amazon.awssdk.services.dynamodb.model.Condition;
 import software.amazon.awssdk.services.dynamodb.model.CreateTableRequest;
@@ -24,14 +25,20 @@ import software.amazon.awssdk.services.dynamodb.model.KeySchemaElement;
 import software.amazon.awssdk.services.dynamodb.model.KeyType;
 import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughput;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScalarAttributeType;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -47,6 +54,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @SuppressWarnings("JavaUtilDate")
 public class DynamoDbAuditTrailManagerFacilitator {
+    /**
+     * Maximum number of items that may be submitted in a single batch write request.
+     */
+    private static final int MAX_BATCH_WRITE_ITEMS = 25;
+
+    private static final int MAX_BATCH_WRITE_ATTEMPTS = 5;
+
     private final AuditDynamoDbProperties dynamoDbProperties;
 
     private final DynamoDbClient amazonDynamoDBClient;
@@ -103,6 +117,26 @@ public class DynamoDbAuditTrailManagerFacilitator {
         LOGGER.debug("Record added with result [{}]", putItemResult);
     }
 
+    /**
+     * Save the records using batch write requests.
+     * Records that share the same principal replace one another,
+     * and so only the last record for each principal is written.
+     *
+     * @param records the records
+     */
+    public void save(final Collection<AuditActionContext> records) {
+        val items = new LinkedHashMap<String, Map<String, AttributeValue>>(records.size());
+        records.forEach(record -> items.put(record.getPrincipal(), buildTableAttributeValuesMap(record)));
+        val requests = items.values()
+            .stream()
+            .map(item -> WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build())
+            .collect(Collectors.toList());
+        for (var i = 0; i < requests.size(); i += MAX_BATCH_WRITE_ITEMS) {
+            val batch = requests.subList(i, Math.min(requests.size(), i + MAX_BATCH_WRITE_ITEMS));
+            submitBatchWriteRequest(new ArrayList<>(batch));
+        }
+    }
+
     /**
      * Remove all.
      */
@@ -144,6 +178,20 @@ public class DynamoDbAuditTrailManagerFacilitator {
         return values;
     }
 
+    private void submitBatchWriteRequest(final List<WriteRequest> writeRequests) {
+        var unprocessed = Map.of(dynamoDbProperties.getTableName(), writeRequests);
+        var attempts = 0;
+        while (!unprocessed.isEmpty() && attempts < MAX_BATCH_WRITE_ATTEMPTS) {
+            val request = BatchWriteItemRequest.builder().requestItems(unprocessed).build();
+            LOGGER.debug("Submitting batch write request for [{}] record(s)", writeRequests.size());
+            unprocessed = amazonDynamoDBClient.batchWriteItem(request).unprocessedItems();
+            attempts++;
+        }
+        if (!unprocessed.isEmpty()) {
+            LOGGER.warn("Unable to save [{}] audit record(s) after [{}] attempts", unprocessed.values().stream().mapToInt(List::size).sum(), attempts);
+        }
+    }
+
     private Set<AuditActionContext> getRecordsByKeys(final Map<String, AttributeValue> keys,
                                                      final ComparisonOperator operator) {
         try {
@@ -11,6 +11,8 @@ import org.apereo.inspektr.audit.AuditActionContext;
 import org.springframework.data.redis.core.RedisTemplate;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -62,6 +64,14 @@ public class RedisAuditTrailManager extends AbstractAuditTrailManager {
         this.redisTemplate.boundValueOps(redisKey).set(audit);
     }
 
+    @Override
+    protected void saveAuditRecords(final Collection<AuditActionContext> audits) {
+        val records = new LinkedHashMap<String, AuditActionContext>(audits.size());
+        audits.forEach(audit -> records.put(getAuditRedisKey(audit), audit));
+        LOGGER.trace("Saving [{}] audit records", records.size());
+        this.redisTemplate.opsForValue().multiSet(records);
+    }
+
     private Set<String> getAuditRedisKeys() {
         return this.redisTemplate.keys(getPatternAuditRedisKey());
     }
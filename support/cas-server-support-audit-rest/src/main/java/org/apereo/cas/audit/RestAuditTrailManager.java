@@ -22,8 +22,10 @@ import org.springframework.http.MediaType;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link RestAuditTrailManager}.
@@ -47,9 +49,34 @@ public class RestAuditTrailManager extends AbstractAuditTrailManager {
 
     @Override
     public void saveAuditRecord(final AuditActionContext audit) {
+        postAuditRecords(serializer.toString(audit));
+    }
+
+    /**
+     * Save a batch of audit records. If batching is enabled, records are posted
+     * to the REST endpoint together as a JSON array, and the batch fails unless the endpoint accepts it.
+     * Otherwise, each record is posted on its own as a JSON object.
+     *
+     * @param audits the audit records
+     */
+    @Override
+    public void saveAuditRecords(final Collection<AuditActionContext> audits) {
+        if (!properties.isBatched()) {
+            super.saveAuditRecords(audits);
+            return;
+        }
+        val auditJson = audits
+            .stream()
+            .map(serializer::toString)
+            .collect(Collectors.joining(",", "[", "]"));
+        if (!postAuditRecords(auditJson)) {
+            throw new IllegalStateException("Unable to post " + audits.size() + " audit record(s) to " + properties.getUrl());
+        }
+    }
+
+    private boolean postAuditRecords(final String auditJson) {
         HttpResponse response = null;
         try {
-            val auditJson = serializer.toString(audit);
             val headers = CollectionUtils.<String, Object>wrap("Content-Type", MediaType.APPLICATION_JSON_VALUE);
             headers.putAll(properties.getHeaders());
             
@@ -63,6 +90,8 @@ public class RestAuditTrailManager extends AbstractAuditTrailManager {
                 .headers(headers)
                 .build();
             response = HttpUtils.execute(exec);
+            return response != null && response.getStatusLine().getStatusCode() >= HttpStatus.SC_OK
+                && response.getStatusLine().getStatusCode() < HttpStatus.SC_MULTIPLE_CHOICES;
         } finally {
             HttpUtils.close(response);
         }
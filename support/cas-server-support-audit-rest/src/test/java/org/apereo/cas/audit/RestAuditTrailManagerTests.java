@@ -1,6 +1,7 @@
 package org.apereo.cas.audit;
 
 import org.apereo.cas.config.CasSupportRestAuditConfiguration;
+import org.apereo.cas.configuration.model.core.audit.AuditRestProperties;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.MockWebServer;
 import org.apereo.cas.util.serialization.JacksonObjectMapperFactory;
@@ -24,6 +25,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,6 +64,26 @@ public class RestAuditTrailManagerTests {
         }
     }
 
+    @Test
+    public void verifyBatchedRecords() {
+        val properties = new AuditRestProperties().setBatched(true);
+        properties.setUrl("http://localhost:9296");
+        val manager = new RestAuditTrailManager(properties);
+        val audits = List.of(
+            new AuditActionContext("casuser", "resource", "action", "CAS", new Date(), "1.2.3.4", "1.2.3.4"),
+            new AuditActionContext("casuser2", "resource", "action", "CAS", new Date(), "1.2.3.4", "1.2.3.4"));
+        try (val webServer = new MockWebServer(9296,
+            new ByteArrayResource(ArrayUtils.EMPTY_BYTE_ARRAY), HttpStatus.OK)) {
+            webServer.start();
+            assertDoesNotThrow(() -> manager.saveAuditRecords(audits));
+        }
+        try (val webServer = new MockWebServer(9296,
+            new ByteArrayResource(ArrayUtils.EMPTY_BYTE_ARRAY), HttpStatus.BAD_REQUEST)) {
+            webServer.start();
+            assertThrows(IllegalStateException.class, () -> manager.saveAuditRecords(audits));
+        }
+    }
+
     @Test
     public void verifyGet() throws Exception {
         val audit = new AuditActionContext("casuser", "resource", "action",
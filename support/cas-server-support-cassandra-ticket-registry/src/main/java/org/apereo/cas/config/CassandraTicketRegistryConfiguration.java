@@ -52,6 +52,8 @@ public class CassandraTicketRegistryConfiguration {
         val registry = new CassandraTicketRegistry(ticketCatalog, sessionFactory,
             cassandra, ticketSerializationManager.getObject());
         registry.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(cassandra.getCrypto(), "cassandra"));
+        registry.setTicketGrantingTicketStateEncodingEnabled(
+            casProperties.getTicket().getRegistry().getSerialization().isSeparateTicketGrantingTicketAuthentication());
         return registry;
     }
 
@@ -1,6 +1,7 @@
 package org.apereo.cas.consent;
 
 import org.apereo.cas.util.ResourceUtils;
+import org.apereo.cas.util.io.JournaledJsonFileStore;
 import org.apereo.cas.util.serialization.JacksonObjectMapperFactory;
 
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -8,20 +9,29 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.val;
 import org.hjson.JsonValue;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.Resource;
 
+import java.io.File;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link JsonConsentRepository}.
+ * Consent decisions are kept in memory, and changes are appended to a journal
+ * that is periodically compacted into the JSON resource.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
-public class JsonConsentRepository extends BaseConsentRepository {
+public class JsonConsentRepository extends BaseConsentRepository implements DisposableBean {
     private static final long serialVersionUID = -402728417464783825L;
 
     private static final ObjectMapper MAPPER = JacksonObjectMapperFactory.builder()
@@ -29,48 +39,89 @@ public class JsonConsentRepository extends BaseConsentRepository {
 
     private final transient Resource jsonResource;
 
+    private transient JournaledJsonFileStore<ConsentDecision> store;
+
     public JsonConsentRepository(final Resource jsonResource) {
         this.jsonResource = jsonResource;
-        setConsentDecisions(readDecisionsFromJsonResource());
+        if (ResourceUtils.isFile(jsonResource)) {
+            this.store = openStore();
+            setConsentDecisions(new LinkedHashSet<>(store.getRecords().values()));
+        } else {
+            setConsentDecisions(readDecisionsFromJsonResource());
+        }
     }
 
     @Override
     public ConsentDecision storeConsentDecision(final ConsentDecision decision) {
         val result = super.storeConsentDecision(decision);
-        writeAccountToJsonResource();
+        getStore().put(String.valueOf(result.getId()), result);
         return result;
     }
 
     @Override
     public boolean deleteConsentDecision(final long decisionId, final String principal) {
         val result = super.deleteConsentDecision(decisionId, principal);
-        writeAccountToJsonResource();
+        if (result) {
+            getStore().remove(String.valueOf(decisionId));
+        }
         return result;
     }
 
     @Override
     public boolean deleteConsentDecisions(final String principal) {
+        val keys = getConsentDecisions()
+            .stream()
+            .filter(decision -> decision.getPrincipal().equalsIgnoreCase(principal))
+            .map(decision -> String.valueOf(decision.getId()))
+            .collect(Collectors.toList());
         val result = super.deleteConsentDecisions(principal);
-        writeAccountToJsonResource();
+        getStore().removeAll(keys);
         return result;
     }
 
+    @Override
+    public synchronized void destroy() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private synchronized JournaledJsonFileStore<ConsentDecision> getStore() {
+        if (store == null) {
+            store = openStore();
+        }
+        return store;
+    }
+
+    @SneakyThrows
+    private JournaledJsonFileStore<ConsentDecision> openStore() {
+        return new JournaledJsonFileStore<>(jsonResource.getFile(), MAPPER,
+            MAPPER.getTypeFactory().constructType(ConsentDecision.class),
+            JsonConsentRepository::readDecisionsFromFile,
+            (file, records) -> MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, records.values()));
+    }
+
     @SneakyThrows
     private Set<ConsentDecision> readDecisionsFromJsonResource() {
         if (ResourceUtils.doesResourceExist(jsonResource)) {
             try (val reader = new InputStreamReader(jsonResource.getInputStream(), StandardCharsets.UTF_8)) {
-                final TypeReference<Set<ConsentDecision>> personList = new TypeReference<>() {
-                };
-                return MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
+                return readDecisions(reader);
             }
         }
         return new LinkedHashSet<>(0);
     }
 
-    @SneakyThrows
-    private boolean writeAccountToJsonResource() {
-        MAPPER.writerWithDefaultPrettyPrinter().writeValue(this.jsonResource.getFile(), getConsentDecisions());
-        readDecisionsFromJsonResource();
-        return true;
+    private static Map<String, ConsentDecision> readDecisionsFromFile(final File file) throws Exception {
+        try (val reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return readDecisions(reader)
+                .stream()
+                .collect(Collectors.toMap(decision -> String.valueOf(decision.getId()), Function.identity(), (d1, d2) -> d2));
+        }
+    }
+
+    private static Set<ConsentDecision> readDecisions(final Reader reader) throws Exception {
+        final TypeReference<Set<ConsentDecision>> personList = new TypeReference<>() {
+        };
+        return MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
     }
 }
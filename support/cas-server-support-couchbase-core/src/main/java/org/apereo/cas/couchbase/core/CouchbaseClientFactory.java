@@ -28,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import reactor.core.publisher.Flux;
 
 import java.time.Duration;
 import java.util.List;
@@ -304,6 +305,21 @@ public class CouchbaseClientFactory {
         return bucket.defaultCollection().upsert(id, document, options);
     }
 
+    /**
+     * Upsert the given documents into the default collection of the bucket,
+     * submitting all mutations concurrently.
+     *
+     * @param documents the documents, keyed by their id
+     * @return the mutation results
+     */
+    public List<MutationResult> bucketUpsertDefaultCollection(final Map<String, Object> documents) {
+        val collection = this.cluster.bucket(properties.getBucket()).reactive().defaultCollection();
+        return Flux.fromIterable(documents.entrySet())
+            .flatMap(entry -> collection.upsert(entry.getKey(), entry.getValue()))
+            .collectList()
+            .block();
+    }
+
     /**
      * Bucket remove from default collection.
      *
@@ -43,6 +43,8 @@ public class CouchbaseTicketRegistryConfiguration {
         val couchbase = casProperties.getTicket().getRegistry().getCouchbase();
         val c = new CouchbaseTicketRegistry(ticketRegistryCouchbaseClientFactory());
         c.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(couchbase.getCrypto(), "couchbase"));
+        c.setTicketGrantingTicketStateEncodingEnabled(
+            casProperties.getTicket().getRegistry().getSerialization().isSeparateTicketGrantingTicketAuthentication());
         return c;
     }
 
@@ -60,6 +60,8 @@ public class CouchDbTicketRegistryConfiguration {
         val couchDb = casProperties.getTicket().getRegistry().getCouchDb();
         val c = new CouchDbTicketRegistry(ticketRegistryCouchDbRepository(), couchDb.getRetries());
         c.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(couchDb.getCrypto(), "couch-db"));
+        c.setTicketGrantingTicketStateEncodingEnabled(
+            casProperties.getTicket().getRegistry().getSerialization().isSeparateTicketGrantingTicketAuthentication());
         return c;
     }
 
@@ -35,4 +35,21 @@ public interface AuthenticationRequestRiskCalculator {
     AuthenticationRiskScore calculate(Authentication authentication,
                                       RegisteredService service,
                                       HttpServletRequest request);
+
+    /**
+     * Calculate authentication risk score against the risk profile of the principal,
+     * which is retrieved once and shared by all calculators.
+     *
+     * @param authentication the authentication
+     * @param service        the service
+     * @param request        the request
+     * @param profile        the risk profile of the principal
+     * @return the authentication risk score
+     */
+    default AuthenticationRiskScore calculate(final Authentication authentication,
+                                              final RegisteredService service,
+                                              final HttpServletRequest request,
+                                              final AuthenticationRiskProfile profile) {
+        return calculate(authentication, service, request);
+    }
 }
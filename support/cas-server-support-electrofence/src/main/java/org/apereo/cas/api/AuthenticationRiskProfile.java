@@ -0,0 +1,189 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.util.DateTimeUtils;
+
+import lombok.ToString;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.chrono.ChronoZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * This is {@link AuthenticationRiskProfile}.
+ * Compact aggregate of the authentication history of a principal, that is made up of
+ * the number of authentication events per client IP address, user agent, geolocation and hour of the day.
+ * Counts are kept per day, so that days that fall out of the recent history can be dropped
+ * without having to examine the authentication events again.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@ToString(of = "days")
+public class AuthenticationRiskProfile implements Serializable {
+    private static final long serialVersionUID = -6160393812764098512L;
+
+    private static final int HOURS_IN_DAY = 24;
+
+    private final TreeMap<LocalDate, DailyCounts> days = new TreeMap<>();
+
+    /**
+     * Build a risk profile from authentication events.
+     *
+     * @param events the events
+     * @return the risk profile
+     */
+    public static AuthenticationRiskProfile from(final Collection<? extends CasEvent> events) {
+        val profile = new AuthenticationRiskProfile();
+        events.forEach(profile::record);
+        return profile;
+    }
+
+    /**
+     * Record an authentication event.
+     *
+     * @param event the event
+     */
+    public void record(final CasEvent event) {
+        val dt = DateTimeUtils.convertToZonedDateTime(event.getCreationTime());
+        val creationTime = ZonedDateTime.ofInstant(ChronoZonedDateTime.from(dt).toInstant(), ZoneOffset.UTC);
+        record(creationTime, event.getClientIpAddress(), event.getAgent(), event.getGeoLocation());
+    }
+
+    /**
+     * Record an authentication event.
+     *
+     * @param creationTime    the creation time of the event
+     * @param clientIpAddress the client ip address
+     * @param userAgent       the user agent
+     * @param geoLocation     the geo location
+     */
+    public synchronized void record(final ZonedDateTime creationTime, final String clientIpAddress,
+                                    final String userAgent, final GeoLocationRequest geoLocation) {
+        val utc = creationTime.withZoneSameInstant(ZoneOffset.UTC);
+        val counts = days.computeIfAbsent(utc.toLocalDate(), k -> new DailyCounts());
+        counts.total++;
+        counts.hours[utc.getHour()]++;
+        if (StringUtils.isNotBlank(clientIpAddress)) {
+            counts.clientIpAddresses.merge(clientIpAddress.toLowerCase(), 1L, Long::sum);
+        }
+        if (StringUtils.isNotBlank(userAgent)) {
+            counts.userAgents.merge(userAgent.toLowerCase(), 1L, Long::sum);
+        }
+        if (geoLocation != null) {
+            counts.geoLocations.merge(getGeoLocationKey(geoLocation), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Drop the counts of days before the given date.
+     *
+     * @param oldestDate the oldest date to keep
+     */
+    public synchronized void expireBefore(final LocalDate oldestDate) {
+        days.headMap(oldestDate).clear();
+    }
+
+    public boolean isEmpty() {
+        return getTotalCount() == 0;
+    }
+
+    public long getTotalCount() {
+        return sum(counts -> counts.total);
+    }
+
+    /**
+     * Count authentication events from the given client ip address.
+     *
+     * @param clientIpAddress the client ip address
+     * @return the count
+     */
+    public long countByClientIpAddress(final String clientIpAddress) {
+        if (StringUtils.isBlank(clientIpAddress)) {
+            return 0;
+        }
+        val key = clientIpAddress.toLowerCase();
+        return sum(counts -> counts.clientIpAddresses.getOrDefault(key, 0L));
+    }
+
+    /**
+     * Count authentication events from the given user agent.
+     *
+     * @param userAgent the user agent
+     * @return the count
+     */
+    public long countByUserAgent(final String userAgent) {
+        if (StringUtils.isBlank(userAgent)) {
+            return 0;
+        }
+        val key = userAgent.toLowerCase();
+        return sum(counts -> counts.userAgents.getOrDefault(key, 0L));
+    }
+
+    /**
+     * Count authentication events from the given geo location.
+     *
+     * @param geoLocation the geo location
+     * @return the count
+     */
+    public long countByGeoLocation(final GeoLocationRequest geoLocation) {
+        val key = getGeoLocationKey(geoLocation);
+        return sum(counts -> counts.geoLocations.getOrDefault(key, 0L));
+    }
+
+    /**
+     * Count authentication events that took place within the given hours of the day, in UTC.
+     * The window wraps around midnight when the first hour is after the last hour.
+     *
+     * @param fromHour the first hour, inclusive
+     * @param toHour   the last hour, inclusive
+     * @return the count
+     */
+    public long countByHourOfDay(final int fromHour, final int toHour) {
+        return sum(counts -> {
+            var count = 0L;
+            for (var hour = 0; hour < HOURS_IN_DAY; hour++) {
+                val inWindow = fromHour <= toHour
+                    ? hour >= fromHour && hour <= toHour
+                    : hour >= fromHour || hour <= toHour;
+                if (inWindow) {
+                    count += counts.hours[hour];
+                }
+            }
+            return count;
+        });
+    }
+
+    private synchronized long sum(final ToLongFunction<DailyCounts> function) {
+        return days.values().stream().mapToLong(function).sum();
+    }
+
+    private static String getGeoLocationKey(final GeoLocationRequest geoLocation) {
+        return geoLocation.getLatitude() + "," + geoLocation.getLongitude();
+    }
+
+    @ToString
+    private static class DailyCounts implements Serializable {
+        private static final long serialVersionUID = 3096134917372628810L;
+
+        private final long[] hours = new long[HOURS_IN_DAY];
+
+        private final Map<String, Long> clientIpAddresses = new HashMap<>();
+
+        private final Map<String, Long> userAgents = new HashMap<>();
+
+        private final Map<String, Long> geoLocations = new HashMap<>();
+
+        private long total;
+    }
+}
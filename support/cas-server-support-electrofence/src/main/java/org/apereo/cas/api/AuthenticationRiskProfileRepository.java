@@ -0,0 +1,20 @@
+package org.apereo.cas.api;
+
+/**
+ * This is {@link AuthenticationRiskProfileRepository}.
+ * Provides the risk profile of a principal, covering the recent authentication history.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@FunctionalInterface
+public interface AuthenticationRiskProfileRepository {
+
+    /**
+     * Gets the risk profile of the principal.
+     *
+     * @param principalId the principal id
+     * @return the risk profile
+     */
+    AuthenticationRiskProfile get(String principalId);
+}
@@ -5,11 +5,13 @@ import org.apereo.cas.api.AuthenticationRiskContingencyPlan;
 import org.apereo.cas.api.AuthenticationRiskEvaluator;
 import org.apereo.cas.api.AuthenticationRiskMitigator;
 import org.apereo.cas.api.AuthenticationRiskNotifier;
+import org.apereo.cas.api.AuthenticationRiskProfileRepository;
 import org.apereo.cas.audit.AuditActionResolvers;
 import org.apereo.cas.audit.AuditResourceResolvers;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlanConfigurer;
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationService;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.impl.calcs.DateTimeAuthenticationRequestRiskCalculator;
 import org.apereo.cas.impl.calcs.GeoLocationAuthenticationRequestRiskCalculator;
 import org.apereo.cas.impl.calcs.IpAddressAuthenticationRequestRiskCalculator;
@@ -21,6 +23,8 @@ import org.apereo.cas.impl.notify.AuthenticationRiskSmsNotifier;
 import org.apereo.cas.impl.plans.BaseAuthenticationRiskContingencyPlan;
 import org.apereo.cas.impl.plans.BlockAuthenticationContingencyPlan;
 import org.apereo.cas.impl.plans.MultifactorAuthenticationContingencyPlan;
+import org.apereo.cas.impl.profile.CachingAuthenticationRiskProfileRepository;
+import org.apereo.cas.impl.profile.CasEventAuthenticationRiskProfileRepository;
 import org.apereo.cas.notifications.CommunicationsManager;
 import org.apereo.cas.support.events.CasEventRepository;
 
@@ -41,6 +45,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.HashSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link ElectronicFenceConfiguration}.
@@ -147,6 +154,16 @@ public class ElectronicFenceConfiguration {
             casProperties, geoLocationService.getIfAvailable());
     }
 
+    @ConditionalOnMissingBean(name = "authenticationRiskProfileRepository")
+    @Bean
+    public AuthenticationRiskProfileRepository authenticationRiskProfileRepository() {
+        val repository = new CasEventAuthenticationRiskProfileRepository(casEventRepository.getObject(), casProperties);
+        if (casProperties.getAuthn().getAdaptive().getRisk().getProfile().isEnabled()) {
+            return new CachingAuthenticationRiskProfileRepository(repository, casProperties);
+        }
+        return repository;
+    }
+
     @ConditionalOnMissingBean(name = "authenticationRiskEvaluator")
     @Bean
     @RefreshScope
@@ -171,7 +188,13 @@ public class ElectronicFenceConfiguration {
             LOGGER.warn("No risk calculators are defined to examine authentication requests");
         }
 
-        return new DefaultAuthenticationRiskEvaluator(calculators);
+        val evaluation = risk.getEvaluation();
+        val poolSize = Math.max(1, evaluation.getPoolSize());
+        val executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, evaluation.getQueueCapacity())),
+            new ThreadPoolExecutor.AbortPolicy());
+        return new DefaultAuthenticationRiskEvaluator(calculators, authenticationRiskProfileRepository(),
+            executor, Beans.newDuration(evaluation.getTimeout()));
     }
 
     private void configureContingencyPlan(final BaseAuthenticationRiskContingencyPlan b) {
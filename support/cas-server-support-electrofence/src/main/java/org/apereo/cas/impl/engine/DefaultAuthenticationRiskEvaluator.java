@@ -2,6 +2,8 @@ package org.apereo.cas.impl.engine;
 
 import org.apereo.cas.api.AuthenticationRequestRiskCalculator;
 import org.apereo.cas.api.AuthenticationRiskEvaluator;
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.api.AuthenticationRiskProfileRepository;
 import org.apereo.cas.api.AuthenticationRiskScore;
 import org.apereo.cas.audit.AuditActionResolvers;
 import org.apereo.cas.audit.AuditResourceResolvers;
@@ -11,26 +13,51 @@ import org.apereo.cas.services.RegisteredService;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apereo.inspektr.audit.annotation.Audit;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.springframework.beans.factory.DisposableBean;
 
 import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * This is {@link DefaultAuthenticationRiskEvaluator}.
+ * The risk profile of the principal is retrieved once, if a profile repository is available,
+ * and calculators are then run concurrently on the given executor against the same profile,
+ * with the client info of the request. Calculators that do not respond within the timeout, which is
+ * measured from the time calculators are submitted, or that fail are treated as having found the highest risk.
+ * Calculators that cannot be accepted by a saturated executor run on the thread that handles the request.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
 @Getter
+@Slf4j
 @RequiredArgsConstructor
-public class DefaultAuthenticationRiskEvaluator implements AuthenticationRiskEvaluator {
+public class DefaultAuthenticationRiskEvaluator implements AuthenticationRiskEvaluator, DisposableBean {
     private final Set<AuthenticationRequestRiskCalculator> calculators;
 
+    private final AuthenticationRiskProfileRepository profileRepository;
+
+    private final ExecutorService executorService;
+
+    private final Duration timeout;
+
     @Audit(action = AuditableActions.EVALUATE_RISKY_AUTHENTICATION,
         actionResolverName = AuditActionResolvers.ADAPTIVE_RISKY_AUTHENTICATION_ACTION_RESOLVER,
         resourceResolverName = AuditResourceResolvers.ADAPTIVE_RISKY_AUTHENTICATION_RESOURCE_RESOLVER)
@@ -42,10 +69,78 @@ public class DefaultAuthenticationRiskEvaluator implements AuthenticationRiskEva
             return new AuthenticationRiskScore(AuthenticationRequestRiskCalculator.HIGHEST_RISK_SCORE);
         }
 
-        val scores = new ArrayList<AuthenticationRiskScore>(this.calculators.size());
-        this.calculators.forEach(r -> scores.add(r.calculate(authentication, service, request)));
-        val sum = scores.stream().map(AuthenticationRiskScore::getScore).reduce(BigDecimal.ZERO, BigDecimal::add);
+        val profile = profileRepository != null
+            ? profileRepository.get(authentication.getPrincipal().getId())
+            : null;
+        val clientInfo = ClientInfoHolder.getClientInfo();
+        val deadline = System.nanoTime() + timeout.toNanos();
+        val submitted = new ArrayList<Future<AuthenticationRiskScore>>(this.calculators.size());
+        this.calculators.forEach(calculator -> submitted.add(
+            submit(() -> calculate(calculator, authentication, service, request, profile, clientInfo))));
+
+        var sum = BigDecimal.ZERO;
+        for (val future : submitted) {
+            sum = sum.add(getScore(future, deadline).getScore());
+        }
         val score = sum.divide(BigDecimal.valueOf(this.calculators.size()), 2, RoundingMode.UP);
         return new AuthenticationRiskScore(score);
     }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Submit the calculation to the executor. A calculation that is rejected because the executor
+     * is saturated runs right away on the calling thread.
+     */
+    private Future<AuthenticationRiskScore> submit(final Callable<AuthenticationRiskScore> calculation) {
+        try {
+            return executorService.submit(calculation);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Risk calculator runs on the request thread since the executor cannot accept more calculations");
+            val task = new FutureTask<>(calculation);
+            task.run();
+            return task;
+        }
+    }
+
+    private AuthenticationRiskScore getScore(final Future<AuthenticationRiskScore> future, final long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            future.cancel(true);
+            LOGGER.warn("Risk calculator did not respond within [{}] and is treated as having found the highest risk", timeout);
+        } catch (final ExecutionException e) {
+            LOGGER.warn("Risk calculator failed and is treated as having found the highest risk: [{}]", e.getCause().getMessage());
+            LOGGER.debug(e.getCause().getMessage(), e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            LOGGER.warn("Interrupted while waiting for risk calculator; it is treated as having found the highest risk");
+        }
+        return new AuthenticationRiskScore(AuthenticationRequestRiskCalculator.HIGHEST_RISK_SCORE);
+    }
+
+    /**
+     * Run the calculator with the client info of the request,
+     * which is otherwise only available to the thread that handles the request.
+     */
+    private static AuthenticationRiskScore calculate(final AuthenticationRequestRiskCalculator calculator,
+                                                     final Authentication authentication,
+                                                     final RegisteredService service,
+                                                     final HttpServletRequest request,
+                                                     final AuthenticationRiskProfile profile,
+                                                     final ClientInfo clientInfo) {
+        val previousClientInfo = ClientInfoHolder.getClientInfo();
+        try {
+            ClientInfoHolder.setClientInfo(clientInfo);
+            return profile != null
+                ? calculator.calculate(authentication, service, request, profile)
+                : calculator.calculate(authentication, service, request);
+        } finally {
+            ClientInfoHolder.setClientInfo(previousClientInfo);
+        }
+    }
 }
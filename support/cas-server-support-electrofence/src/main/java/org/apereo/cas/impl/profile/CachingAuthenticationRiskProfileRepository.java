@@ -0,0 +1,82 @@
+package org.apereo.cas.impl.profile;
+
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.api.AuthenticationRiskProfileRepository;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.util.HttpRequestUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.springframework.context.event.EventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * This is {@link CachingAuthenticationRiskProfileRepository}.
+ * Keeps risk profiles in memory once they are built, and updates them incrementally
+ * as single sign-on sessions are created, so that the authentication history does not need
+ * to be examined again for every authentication request. Profiles are built again once they expire,
+ * in order to pick up sessions that are created by other nodes.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class CachingAuthenticationRiskProfileRepository implements AuthenticationRiskProfileRepository {
+    private final AuthenticationRiskProfileRepository delegate;
+
+    private final CasConfigurationProperties casProperties;
+
+    private final Cache<String, AuthenticationRiskProfile> profiles;
+
+    public CachingAuthenticationRiskProfileRepository(final AuthenticationRiskProfileRepository delegate,
+                                                      final CasConfigurationProperties casProperties) {
+        this.delegate = delegate;
+        this.casProperties = casProperties;
+        val profile = casProperties.getAuthn().getAdaptive().getRisk().getProfile();
+        this.profiles = Caffeine.newBuilder()
+            .maximumSize(profile.getMaximumSize())
+            .expireAfterWrite(Beans.newDuration(profile.getExpireAfterWrite()))
+            .build();
+    }
+
+    @Override
+    public AuthenticationRiskProfile get(final String principalId) {
+        val profile = profiles.get(principalId, delegate::get);
+        val days = casProperties.getAuthn().getAdaptive().getRisk().getDaysInRecentHistory();
+        profile.expireBefore(LocalDate.now(ZoneOffset.UTC).minusDays(days));
+        return profile;
+    }
+
+    /**
+     * Record the single sign-on session in the risk profile of the principal,
+     * if the profile is kept in memory already.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleCasTicketGrantingTicketCreatedEvent(final CasTicketGrantingTicketCreatedEvent event) {
+        val ticketGrantingTicket = event.getTicketGrantingTicket();
+        val principalId = ticketGrantingTicket.getAuthentication().getPrincipal().getId();
+        val profile = profiles.getIfPresent(principalId);
+        if (profile == null) {
+            LOGGER.trace("No risk profile is kept in memory for [{}]", principalId);
+            return;
+        }
+        val clientInfo = ClientInfoHolder.getClientInfo();
+        if (clientInfo != null) {
+            val location = HttpRequestUtils.getHttpServletRequestGeoLocation(clientInfo.getGeoLocation());
+            profile.record(ticketGrantingTicket.getCreationTime(), clientInfo.getClientIpAddress(),
+                clientInfo.getUserAgent(), location);
+        } else {
+            profile.record(ticketGrantingTicket.getCreationTime(), null, null, null);
+        }
+        LOGGER.debug("Updated risk profile for [{}] with single sign-on session [{}]", principalId, ticketGrantingTicket.getId());
+    }
+}
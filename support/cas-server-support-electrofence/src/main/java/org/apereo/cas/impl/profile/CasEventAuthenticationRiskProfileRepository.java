@@ -0,0 +1,42 @@
+package org.apereo.cas.impl.profile;
+
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.api.AuthenticationRiskProfileRepository;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * This is {@link CasEventAuthenticationRiskProfileRepository}.
+ * Builds the risk profile of a principal from the single sign-on sessions that are recorded
+ * in the CAS event repository, examining the authentication history once per request.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CasEventAuthenticationRiskProfileRepository implements AuthenticationRiskProfileRepository {
+    private final CasEventRepository casEventRepository;
+
+    private final CasConfigurationProperties casProperties;
+
+    @Override
+    public AuthenticationRiskProfile get(final String principalId) {
+        val type = CasTicketGrantingTicketCreatedEvent.class.getName();
+        LOGGER.debug("Retrieving events of type [{}] for [{}]", type, principalId);
+        val date = ZonedDateTime.now(ZoneOffset.UTC)
+            .minusDays(casProperties.getAuthn().getAdaptive().getRisk().getDaysInRecentHistory());
+        val events = casEventRepository.getEventsOfTypeForPrincipal(type, principalId, date);
+        val profile = AuthenticationRiskProfile.from(events);
+        LOGGER.trace("Built risk profile for [{}] from [{}] event(s)", principalId, events.size());
+        return profile;
+    }
+}
@@ -1,5 +1,6 @@
 package org.apereo.cas;
 
+import org.apereo.cas.api.AuthenticationRiskProfileTests;
 import org.apereo.cas.impl.calcs.DateTimeAuthenticationRequestRiskCalculatorTests;
 import org.apereo.cas.impl.calcs.GeoLocationAuthenticationRequestRiskCalculatorTests;
 import org.apereo.cas.impl.calcs.IpAddressAuthenticationRequestRiskCalculatorTests;
@@ -29,7 +30,8 @@ import org.junit.runner.RunWith;
     AuthenticationRiskEmailNotifierTests.class,
     MultifactorAuthenticationContingencyPlanTests.class,
     RiskAwareAuthenticationWebflowEventResolverTests.class,
-    AuthenticationRiskSmsNotifierTests.class
+    AuthenticationRiskSmsNotifierTests.class,
+    AuthenticationRiskProfileTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllTestsSuite {
@@ -0,0 +1,69 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link AuthenticationRiskProfileTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Simple")
+public class AuthenticationRiskProfileTests {
+
+    private static CasEvent getEvent(final ZonedDateTime creationTime, final String ip, final String agent) {
+        val event = new CasEvent();
+        event.setType(CasTicketGrantingTicketCreatedEvent.class.getName());
+        event.setPrincipalId("casuser");
+        event.setCreationTime(creationTime.toString());
+        event.putClientIpAddress(ip);
+        event.putAgent(agent);
+        event.putGeoLocation(new GeoLocationRequest(40.71, -74.005));
+        return event;
+    }
+
+    @Test
+    public void verifyCounts() {
+        val time = ZonedDateTime.of(2021, 1, 10, 23, 30, 0, 0, ZoneOffset.UTC);
+        val profile = AuthenticationRiskProfile.from(List.of(
+            getEvent(time, "107.181.69.221", "Firefox"),
+            getEvent(time.plusHours(2), "107.181.69.221", "Chrome"),
+            getEvent(time.plusHours(5), "85.90.227.224", "firefox")));
+
+        assertFalse(profile.isEmpty());
+        assertEquals(3, profile.getTotalCount());
+        assertEquals(2, profile.countByClientIpAddress("107.181.69.221"));
+        assertEquals(0, profile.countByClientIpAddress("127.0.0.1"));
+        assertEquals(2, profile.countByUserAgent("FIREFOX"));
+        assertEquals(3, profile.countByGeoLocation(new GeoLocationRequest(40.71, -74.005)));
+        assertEquals(0, profile.countByGeoLocation(new GeoLocationRequest(48.85, 2.35)));
+        assertEquals(2, profile.countByHourOfDay(22, 2));
+        assertEquals(1, profile.countByHourOfDay(3, 6));
+    }
+
+    @Test
+    public void verifyExpiredDaysDropped() {
+        val time = ZonedDateTime.of(2021, 1, 10, 12, 0, 0, 0, ZoneOffset.UTC);
+        val profile = new AuthenticationRiskProfile();
+        profile.record(time.minusDays(5), "107.181.69.221", "Firefox", null);
+        profile.record(time, "107.181.69.221", "Firefox", null);
+        assertEquals(2, profile.getTotalCount());
+        profile.expireBefore(LocalDate.of(2021, 1, 8));
+        assertEquals(1, profile.getTotalCount());
+        profile.expireBefore(LocalDate.of(2021, 1, 11));
+        assertTrue(profile.isEmpty());
+    }
+}
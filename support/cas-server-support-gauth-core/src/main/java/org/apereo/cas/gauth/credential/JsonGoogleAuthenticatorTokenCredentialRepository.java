@@ -3,36 +3,54 @@ package org.apereo.cas.gauth.credential;
 import org.apereo.cas.authentication.OneTimeTokenAccount;
 import org.apereo.cas.util.LoggingUtils;
 import org.apereo.cas.util.crypto.CipherExecutor;
+import org.apereo.cas.util.io.JournaledJsonFileStore;
 import org.apereo.cas.util.serialization.AbstractJacksonBackedStringSerializer;
+import org.apereo.cas.util.serialization.JacksonObjectMapperFactory;
 import org.apereo.cas.util.serialization.StringSerializer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.warrenstrange.googleauth.IGoogleAuthenticator;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.Resource;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
  * This is {@link JsonGoogleAuthenticatorTokenCredentialRepository}.
+ * Accounts are kept in memory, keyed by user name, and changes are appended
+ * to a journal that is periodically compacted into the JSON file.
+ * Stored accounts are never modified in place; changes replace the accounts of the user
+ * with new copies, atomically with respect to other changes.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
 @Getter
 @Slf4j
-public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogleAuthenticatorTokenCredentialRepository {
+public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogleAuthenticatorTokenCredentialRepository
+    implements DisposableBean {
+    private static final ObjectMapper MAPPER = JacksonObjectMapperFactory.builder()
+        .defaultTypingEnabled(false).build().toObjectMapper();
+
     private final Resource location;
 
     private final StringSerializer<Map<String, List<OneTimeTokenAccount>>> serializer = new OneTimeAccountSerializer();
 
+    @Getter(AccessLevel.NONE)
+    private JournaledJsonFileStore<List<OneTimeTokenAccount>> store;
+
     public JsonGoogleAuthenticatorTokenCredentialRepository(final Resource location, final IGoogleAuthenticator googleAuthenticator,
         final CipherExecutor<String, String> tokenCredentialCipher) {
         super(tokenCredentialCipher, googleAuthenticator);
@@ -41,13 +59,16 @@ public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogle
 
     @Override
     public OneTimeTokenAccount get(final long id) {
-        val accounts = readAccountsFromJsonRepository();
-        return accounts.values()
-            .stream()
-            .flatMap(List::stream)
-            .filter(ac -> ac.getId() == id)
-            .findFirst()
-            .orElse(null);
+        try {
+            return getStore().values()
+                .flatMap(List::stream)
+                .filter(ac -> ac.getId() == id)
+                .findFirst()
+                .orElse(null);
+        } catch (final Exception e) {
+            LoggingUtils.error(LOGGER, e);
+        }
+        return null;
     }
 
     @Override
@@ -58,22 +79,7 @@ public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogle
     @Override
     public Collection<? extends OneTimeTokenAccount> get(final String username) {
         try {
-            if (!location.getFile().exists()) {
-                LOGGER.warn("JSON account repository file [{}] is not found.", location.getFile());
-                return new ArrayList<>(0);
-            }
-
-            if (location.getFile().length() <= 0) {
-                LOGGER.warn("JSON account repository file location [{}] is empty.", location.getFile());
-                return new ArrayList<>(0);
-            }
-            val map = this.serializer.from(location.getFile());
-            if (map == null) {
-                LOGGER.debug("JSON account repository file [{}] is empty.", location.getFile());
-                return new ArrayList<>(0);
-            }
-
-            val account = map.get(username.trim().toLowerCase());
+            val account = getStore().get(username.trim().toLowerCase());
             if (account != null) {
                 return decode(account);
             }
@@ -86,8 +92,7 @@ public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogle
     @Override
     public Collection<? extends OneTimeTokenAccount> load() {
         try {
-            return readAccountsFromJsonRepository().values()
-                .stream().flatMap(List::stream).collect(Collectors.toList());
+            return getStore().values().flatMap(List::stream).collect(Collectors.toList());
         } catch (final Exception e) {
             LoggingUtils.error(LOGGER, e);
         }
@@ -98,14 +103,21 @@ public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogle
     public OneTimeTokenAccount save(final OneTimeTokenAccount account) {
         try {
             LOGGER.debug("Storing google authenticator account for [{}]", account.getUsername());
-            val accounts = readAccountsFromJsonRepository();
-            LOGGER.debug("Found [{}] account(s) and added google authenticator account for [{}]",
-                accounts.size(), account.getUsername());
+            val store = getStore();
+            val key = account.getUsername().trim().toLowerCase();
             val encoded = encode(account);
-            val records = accounts.getOrDefault(account.getUsername().trim().toLowerCase(), new ArrayList<>());
-            records.add(encoded);
-            accounts.put(account.getUsername().trim().toLowerCase(), records);
-            writeAccountsToJsonRepository(accounts);
+            val stored = encoded.clone();
+            stored.setScratchCodes(new ArrayList<>(encoded.getScratchCodes()));
+            store.compute(key, (k, existing) -> {
+                val records = new ArrayList<OneTimeTokenAccount>();
+                if (existing != null) {
+                    records.addAll(existing);
+                }
+                records.add(stored);
+                return records;
+            });
+            LOGGER.debug("Found [{}] account(s) and added google authenticator account for [{}]",
+                store.size(), account.getUsername());
             return encoded;
         } catch (final Exception e) {
             LoggingUtils.error(LOGGER, e);
@@ -116,21 +128,29 @@ public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogle
     @Override
     public OneTimeTokenAccount update(final OneTimeTokenAccount account) {
         try {
-            val accounts = readAccountsFromJsonRepository();
-            if (accounts.containsKey(account.getUsername().trim().toLowerCase())) {
-                val records = accounts.get(account.getUsername().trim().toLowerCase());
+            val key = account.getUsername().trim().toLowerCase();
+            val encoded = encode(account);
+            val updated = new AtomicBoolean();
+            getStore().compute(key, (k, records) -> {
+                if (records == null) {
+                    return null;
+                }
                 return records.stream()
-                    .filter(rec -> rec.getId() == account.getId())
-                    .findFirst()
                     .map(act -> {
-                        val encoded = encode(account);
-                        act.setSecretKey(encoded.getSecretKey());
-                        act.setScratchCodes(encoded.getScratchCodes());
-                        act.setValidationCode(encoded.getValidationCode());
-                        writeAccountsToJsonRepository(accounts);
-                        return encoded;
+                        if (act.getId() != account.getId()) {
+                            return act;
+                        }
+                        updated.set(true);
+                        val copy = act.clone();
+                        copy.setSecretKey(encoded.getSecretKey());
+                        copy.setScratchCodes(new ArrayList<>(encoded.getScratchCodes()));
+                        copy.setValidationCode(encoded.getValidationCode());
+                        return copy;
                     })
-                    .orElse(null);
+                    .collect(Collectors.toList());
+            });
+            if (updated.get()) {
+                return encoded;
             }
         } catch (final Exception e) {
             LoggingUtils.error(LOGGER, e);
@@ -140,15 +160,13 @@ public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogle
 
     @Override
     public void deleteAll() {
-        writeAccountsToJsonRepository(new HashMap<>(0));
+        getStore().clear();
     }
 
     @Override
     public void delete(final String username) {
         try {
-            val accounts = readAccountsFromJsonRepository();
-            accounts.remove(username.trim().toLowerCase());
-            writeAccountsToJsonRepository(accounts);
+            getStore().remove(username.trim().toLowerCase());
         } catch (final Exception e) {
             LoggingUtils.error(LOGGER, e);
         }
@@ -157,8 +175,7 @@ public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogle
     @Override
     public long count() {
         try {
-            val accounts = readAccountsFromJsonRepository();
-            return accounts.size();
+            return getStore().size();
         } catch (final Exception e) {
             LoggingUtils.error(LOGGER, e);
         }
@@ -168,35 +185,53 @@ public class JsonGoogleAuthenticatorTokenCredentialRepository extends BaseGoogle
     @Override
     public long count(final String username) {
         try {
-            val accounts = readAccountsFromJsonRepository();
-            return accounts.containsKey(username.trim().toLowerCase()) ? accounts.get(username.trim().toLowerCase()).size() : 0;
+            val accounts = getStore().get(username.trim().toLowerCase());
+            return accounts != null ? accounts.size() : 0;
         } catch (final Exception e) {
             LoggingUtils.error(LOGGER, e);
         }
         return 0;
     }
 
-    @SneakyThrows
-    private void writeAccountsToJsonRepository(final Map<String, List<OneTimeTokenAccount>> accounts) {
-        LOGGER.debug("Saving [{}] google authenticator accounts to JSON file at [{}]", accounts.size(), location.getFile());
-        this.serializer.to(location.getFile(), accounts);
+    @Override
+    public synchronized void destroy() {
+        if (store != null) {
+            store.close();
+        }
     }
 
+
+    /**
+     * Open the journaled store on top of the JSON file, unless already opened.
+     * The store is opened on first use, so that a JSON file that becomes available
+     * later on is picked up by the next operation.
+     *
+     * @return the store
+     */
     @SneakyThrows
-    private Map<String, List<OneTimeTokenAccount>> readAccountsFromJsonRepository() {
-        val file = location.getFile();
-        LOGGER.debug("Ensuring JSON repository file exists at [{}]", file);
-        val result = file.createNewFile();
-        if (result) {
-            LOGGER.debug("Created JSON repository file at [{}]", file);
+    private synchronized JournaledJsonFileStore<List<OneTimeTokenAccount>> getStore() {
+        if (store == null) {
+            val file = location.getFile();
+            LOGGER.debug("Opening JSON repository file at [{}]", file);
+            store = new JournaledJsonFileStore<>(file, MAPPER,
+                MAPPER.getTypeFactory().constructCollectionType(List.class, OneTimeTokenAccount.class),
+                this::readAccountsFromFile,
+                (snapshot, accounts) -> {
+                    LOGGER.debug("Saving [{}] google authenticator accounts to JSON file at [{}]", accounts.size(), snapshot);
+                    serializer.to(snapshot, accounts);
+                });
+            LOGGER.debug("Read [{}] accounts from JSON repository file at [{}]", store.size(), file);
         }
-        if (file.length() > 0) {
-            LOGGER.debug("Reading JSON repository file at [{}]", file);
-            val accounts = this.serializer.from(file);
-            LOGGER.debug("Read [{}] accounts from JSON repository file at [{}]", accounts.size(), file);
-            return accounts;
+        return store;
+    }
+
+    private Map<String, List<OneTimeTokenAccount>> readAccountsFromFile(final File file) {
+        val accounts = serializer.from(file);
+        if (accounts == null) {
+            LOGGER.debug("JSON account repository file [{}] is empty.", file);
+            return new HashMap<>(0);
         }
-        return new HashMap<>(0);
+        return accounts;
     }
 
     private static class OneTimeAccountSerializer extends AbstractJacksonBackedStringSerializer<Map<String, List<OneTimeTokenAccount>>> {
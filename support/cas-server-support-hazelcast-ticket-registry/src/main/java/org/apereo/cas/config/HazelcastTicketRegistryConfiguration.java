@@ -4,12 +4,17 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.hz.HazelcastConfigurationFactory;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.registry.HazelcastTicketHolder;
 import org.apereo.cas.ticket.registry.HazelcastTicketRegistry;
+import org.apereo.cas.ticket.registry.HazelcastTicketRegistryCleanerLeaseStore;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.support.TicketRegistryCleanerLeaseStore;
 import org.apereo.cas.util.CoreTicketUtils;
 
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import lombok.extern.slf4j.Slf4j;
@@ -53,6 +58,8 @@ public class HazelcastTicketRegistryConfiguration {
         val hazelcastInstance = casTicketRegistryHazelcastInstance();
         val r = new HazelcastTicketRegistry(hazelcastInstance, ticketCatalog.getObject(), hz.getPageSize());
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(hz.getCrypto(), "hazelcast"));
+        r.setTicketGrantingTicketStateEncodingEnabled(
+            casProperties.getTicket().getRegistry().getSerialization().isSeparateTicketGrantingTicketAuthentication());
         return r;
     }
 
@@ -67,11 +74,18 @@ public class HazelcastTicketRegistryConfiguration {
             .stream()
             .map(TicketDefinition::getProperties)
             .peek(p -> LOGGER.debug("Created Hazelcast map configuration for [{}]", p))
-            .map(p -> HazelcastConfigurationFactory.buildMapConfig(hz, p.getStorageName(), p.getStorageTimeout()))
+            .map(p -> HazelcastConfigurationFactory.buildMapConfig(hz, p.getStorageName(), p.getStorageTimeout())
+                .addIndexConfig(new IndexConfig(IndexType.HASH, HazelcastTicketHolder.FIELD_NAME_PRINCIPAL))
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, HazelcastTicketHolder.FIELD_NAME_EXPIRES_AT)))
             .forEach(m -> hazelcastInstance.getConfig().addMapConfig(m));
         return hazelcastInstance;
     }
 
+    @Bean
+    public TicketRegistryCleanerLeaseStore ticketRegistryCleanerLeaseStore() {
+        return new HazelcastTicketRegistryCleanerLeaseStore(casTicketRegistryHazelcastInstance());
+    }
+
     @Bean
     public TicketRegistryCleaner ticketRegistryCleaner() {
         return NoOpTicketRegistryCleaner.getInstance();
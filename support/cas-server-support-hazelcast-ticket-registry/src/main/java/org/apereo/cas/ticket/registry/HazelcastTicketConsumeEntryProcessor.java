@@ -0,0 +1,51 @@
+package org.apereo.cas.ticket.registry;
+
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.ExtendedMapEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link HazelcastTicketConsumeEntryProcessor}.
+ * Consumes a single use of a ticket on the member that owns the entry.
+ * The use is only consumed if the stored ticket has not been used since it was read
+ * by the caller; the entry is then replaced with the updated ticket,
+ * or removed if the ticket has no remaining uses. Tickets stored by previous versions
+ * without a holder carry no use count, and are consumed without that check.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@RequiredArgsConstructor
+public class HazelcastTicketConsumeEntryProcessor implements EntryProcessor<String, Object, Boolean> {
+    private static final long serialVersionUID = -3218436510293847561L;
+
+    private final int expectedCountOfUses;
+
+    private final HazelcastTicketHolder updatedTicket;
+
+    private final long timeToLive;
+
+    @Override
+    public Boolean process(final Map.Entry<String, Object> entry) {
+        val current = entry.getValue();
+        if (current == null) {
+            return Boolean.FALSE;
+        }
+        if (expectedCountOfUses >= 0 && current instanceof HazelcastTicketHolder
+            && ((HazelcastTicketHolder) current).getCountOfUses() != expectedCountOfUses) {
+            return Boolean.FALSE;
+        }
+        if (updatedTicket == null) {
+            entry.setValue(null);
+        } else if (entry instanceof ExtendedMapEntry) {
+            ((ExtendedMapEntry<String, Object>) entry).setValue(updatedTicket, timeToLive, TimeUnit.SECONDS);
+        } else {
+            entry.setValue(updatedTicket);
+        }
+        return Boolean.TRUE;
+    }
+}
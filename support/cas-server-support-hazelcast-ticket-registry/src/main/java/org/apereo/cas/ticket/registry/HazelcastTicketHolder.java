@@ -0,0 +1,46 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link HazelcastTicketHolder}.
+ * Wraps a ticket stored in a Hazelcast map, along with attributes that are extracted
+ * from the ticket when it is written so that they can be indexed and queried
+ * on the members that own the entries.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "ticket")
+public class HazelcastTicketHolder implements Serializable {
+
+    /**
+     * Attribute name to hold the principal id linked to ticket-granting tickets.
+     */
+    public static final String FIELD_NAME_PRINCIPAL = "principal";
+
+    /**
+     * Attribute name to hold the ticket expiration deadline, in milliseconds since the epoch.
+     */
+    public static final String FIELD_NAME_EXPIRES_AT = "expiresAt";
+
+    private static final long serialVersionUID = 2918374650193847562L;
+
+    private final String id;
+
+    private final String principal;
+
+    private final long expiresAt;
+
+    private final int countOfUses;
+
+    private final Ticket ticket;
+}
@@ -1,12 +1,17 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
 import org.apereo.cas.util.LoggingUtils;
 
+import com.hazelcast.aggregation.Aggregators;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,12 +19,17 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.DisposableBean;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Hazelcast-based implementation of a {@link TicketRegistry}.
@@ -27,6 +37,14 @@ import java.util.stream.Collectors;
  * which is an extension of the standard Java's {@code ConcurrentMap}.</p>
  * <p>The heavy lifting of distributed data partitioning, network cluster discovery and
  * join, data replication, etc. is done by Hazelcast's Map implementation.</p>
+ * <p>Related tickets that are added and updated together are written asynchronously,
+ * so that their round trips to the cluster overlap.</p>
+ * <p>Tickets are stored along with their principal, type and expiration deadline, which are extracted
+ * when the ticket is written. Counts and lookups by principal or expiration are evaluated on the members
+ * that own the entries, and service tickets are consumed atomically by an entry processor,
+ * so that registry-wide operations do not need to pull all tickets over to a single member.</p>
+ * <p>Tickets that were stored by previous versions without a holder are still read,
+ * and are rewritten along with their extracted attributes when they are fetched by id.</p>
  *
  * @author Dmitriy Kopylenko
  * @author Jonathan Johnson
@@ -49,24 +67,40 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
 
     @Override
     public void addTicket(final Ticket ticket) {
-        val ttl = ticket.getExpirationPolicy().getTimeToLive();
-        if (ttl < 0) {
-            throw new IllegalArgumentException("The expiration policy of ticket " + ticket.getId() + " is set to use a negative ttl");
-        }
+        val ttl = getTimeToLive(ticket);
 
         LOGGER.debug("Adding ticket [{}] with ttl [{}s]", ticket.getId(), ttl);
-        val encTicket = encodeTicket(ticket);
+        val holder = buildTicketHolder(ticket);
 
         val metadata = this.ticketCatalog.find(ticket);
         val ticketMap = getTicketMapInstanceByMetadata(metadata);
         if (ticketMap != null) {
-            ticketMap.set(encTicket.getId(), encTicket, ttl, TimeUnit.SECONDS);
-            LOGGER.debug("Added ticket [{}] with ttl [{}s]", encTicket.getId(), ttl);
+            ticketMap.set(holder.getId(), holder, ttl, TimeUnit.SECONDS);
+            LOGGER.debug("Added ticket [{}] with ttl [{}s]", holder.getId(), ttl);
         } else {
             LOGGER.warn("Unable to locate ticket map for ticket metadata [{}]", metadata);
         }
     }
 
+    @Override
+    public void addAndUpdate(final Collection<? extends Ticket> ticketsToAdd, final Collection<? extends Ticket> ticketsToUpdate) {
+        val writes = Stream.concat(ticketsToUpdate.stream(), ticketsToAdd.stream())
+            .map(ticket -> {
+                val ttl = getTimeToLive(ticket);
+                val holder = buildTicketHolder(ticket);
+                val metadata = this.ticketCatalog.find(ticket);
+                val ticketMap = getTicketMapInstanceByMetadata(metadata);
+                if (ticketMap == null) {
+                    LOGGER.warn("Unable to locate ticket map for ticket metadata [{}]", metadata);
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                LOGGER.debug("Writing ticket [{}] with ttl [{}s]", holder.getId(), ttl);
+                return ticketMap.setAsync(holder.getId(), holder, ttl, TimeUnit.SECONDS).toCompletableFuture();
+            })
+            .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(writes).join();
+    }
+
     @Override
     public Ticket getTicket(final String ticketId, final Predicate<Ticket> predicate) {
         val encTicketId = encodeTicketId(ticketId);
@@ -77,8 +111,8 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         if (metadata != null) {
             val map = getTicketMapInstanceByMetadata(metadata);
             if (map != null) {
-                val ticket = map.get(encTicketId);
-                val result = decodeTicket(ticket);
+                val holder = getTicketHolder(map, encTicketId, map.get(encTicketId));
+                val result = holder != null ? decodeTicket(holder.getTicket()) : null;
                 if (predicate.test(result)) {
                     return result;
                 }
@@ -125,10 +159,89 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
                 }
                 return new ArrayList<>(tickets).stream();
             })
-            .map(this::decodeTicket)
+            .map(this::decodeTicketValue)
+            .filter(Objects::nonNull)
             .collect(Collectors.toSet());
     }
 
+    @Override
+    public boolean consumeTicket(final Ticket ticket) {
+        val metadata = this.ticketCatalog.find(ticket);
+        val ticketMap = metadata != null ? getTicketMapInstanceByMetadata(metadata) : null;
+        if (ticketMap == null) {
+            return super.consumeTicket(ticket);
+        }
+        val countOfUses = ticket.getCountOfUses();
+        if (ticket instanceof TicketState) {
+            ((TicketState) ticket).update();
+        }
+        val expectedCountOfUses = ticket.getCountOfUses() != countOfUses ? countOfUses : -1;
+        val expired = ticket.isExpired();
+        val processor = new HazelcastTicketConsumeEntryProcessor(expectedCountOfUses,
+            expired ? null : buildTicketHolder(ticket), expired ? 0 : getTimeToLive(ticket));
+        val consumed = ticketMap.executeOnKey(encodeTicketId(ticket.getId()), processor);
+        LOGGER.debug("Ticket [{}] with [{}] use(s) [{}] consumed", ticket.getId(), ticket.getCountOfUses(),
+            Boolean.TRUE.equals(consumed) ? "is" : "was already");
+        return Boolean.TRUE.equals(consumed);
+    }
+
+    @Override
+    public long sessionCount() {
+        return countTickets(TicketGrantingTicket.class, null);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(ServiceTicket.class, null);
+    }
+
+    @Override
+    public long countSessionsFor(final String principalId) {
+        return countTickets(TicketGrantingTicket.class,
+            Predicates.equal(HazelcastTicketHolder.FIELD_NAME_PRINCIPAL, encodePrincipalId(principalId)));
+    }
+
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        val predicate = Predicates.<String, Object>equal(
+            HazelcastTicketHolder.FIELD_NAME_PRINCIPAL, encodePrincipalId(principalId));
+        return getTicketMaps(TicketGrantingTicket.class)
+            .flatMap(map -> map.values(predicate).stream())
+            .map(this::decodeTicketValue)
+            .filter(Objects::nonNull);
+    }
+
+    @Override
+    public Stream<? extends Ticket> getExpiredTickets() {
+        val predicate = Predicates.<String, Object>lessEqual(
+            HazelcastTicketHolder.FIELD_NAME_EXPIRES_AT, System.currentTimeMillis());
+        return getTicketMaps(Ticket.class)
+            .flatMap(map -> map.values(predicate).stream())
+            .map(this::decodeTicketValue)
+            .filter(Objects::nonNull)
+            .filter(Ticket::isExpired);
+    }
+
+    @Override
+    public long getExpiredTicketsBacklog() {
+        return countTickets(Ticket.class,
+            Predicates.lessEqual(HazelcastTicketHolder.FIELD_NAME_EXPIRES_AT, System.currentTimeMillis()));
+    }
+
+    @Override
+    public Duration getExpiredTicketsLag() {
+        val now = System.currentTimeMillis();
+        val predicate = Predicates.<String, Object>lessEqual(HazelcastTicketHolder.FIELD_NAME_EXPIRES_AT, now);
+        return getTicketMaps(Ticket.class)
+            .map(map -> map.aggregate(Aggregators.<Map.Entry<String, Object>>longMin(
+                HazelcastTicketHolder.FIELD_NAME_EXPIRES_AT), predicate))
+            .filter(Objects::nonNull)
+            .filter(oldest -> oldest <= now)
+            .min(Long::compare)
+            .map(oldest -> Duration.ofMillis(now - oldest))
+            .orElse(Duration.ZERO);
+    }
+
     /**
      * Make sure we shutdown HazelCast when the context is destroyed.
      */
@@ -151,15 +264,75 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         shutdown();
     }
 
-    private IMap<String, Ticket> getTicketMapInstanceByMetadata(final TicketDefinition metadata) {
+    private HazelcastTicketHolder buildTicketHolder(final Ticket ticket) {
+        val encTicket = encodeTicket(ticket);
+        val principal = encodePrincipalId(getPrincipalIdFrom(ticket));
+        val expiresAt = TicketExpirationIndex.getExpirationDeadline(ticket, Instant.now()).toEpochMilli();
+        return new HazelcastTicketHolder(encTicket.getId(), principal, expiresAt, ticket.getCountOfUses(), encTicket);
+    }
+
+    /**
+     * Gets the ticket holder from a stored value. Tickets stored by previous versions without a holder
+     * are decoded and replaced with a holder, unless they were changed in the meantime.
+     *
+     * @param map   the map
+     * @param key   the key
+     * @param value the stored value
+     * @return the ticket holder, or null
+     */
+    private HazelcastTicketHolder getTicketHolder(final IMap<String, Object> map, final String key, final Object value) {
+        if (value instanceof HazelcastTicketHolder) {
+            return (HazelcastTicketHolder) value;
+        }
+        if (value instanceof Ticket) {
+            val ticket = decodeTicket((Ticket) value);
+            if (ticket != null) {
+                LOGGER.debug("Rewriting ticket [{}] that was stored without a ticket holder", ticket.getId());
+                val holder = buildTicketHolder(ticket);
+                map.replace(key, value, holder);
+                return holder;
+            }
+        }
+        return null;
+    }
+
+    private Ticket decodeTicketValue(final Object value) {
+        if (value instanceof HazelcastTicketHolder) {
+            return decodeTicket(((HazelcastTicketHolder) value).getTicket());
+        }
+        if (value instanceof Ticket) {
+            return decodeTicket((Ticket) value);
+        }
+        return null;
+    }
+
+    private long countTickets(final Class<? extends Ticket> ticketType,
+                              final com.hazelcast.query.Predicate<String, Object> predicate) {
+        return getTicketMaps(ticketType)
+            .mapToLong(map -> predicate == null
+                ? map.aggregate(Aggregators.count())
+                : map.aggregate(Aggregators.count(), predicate))
+            .sum();
+    }
+
+    private Stream<IMap<String, Object>> getTicketMaps(final Class<? extends Ticket> ticketType) {
+        return this.ticketCatalog.find(ticketType)
+            .stream()
+            .map(metadata -> metadata.getProperties().getStorageName())
+            .distinct()
+            .map(this::getTicketMapInstance)
+            .filter(Objects::nonNull);
+    }
+
+    private IMap<String, Object> getTicketMapInstanceByMetadata(final TicketDefinition metadata) {
         val mapName = metadata.getProperties().getStorageName();
         LOGGER.debug("Locating map name [{}] for ticket definition [{}]", mapName, metadata);
         return getTicketMapInstance(mapName);
     }
 
-    private IMap<String, Ticket> getTicketMapInstance(@NonNull final String mapName) {
+    private IMap<String, Object> getTicketMapInstance(@NonNull final String mapName) {
         try {
-            val inst = hazelcastInstance.<String, Ticket>getMap(mapName);
+            val inst = hazelcastInstance.<String, Object>getMap(mapName);
             LOGGER.debug("Located Hazelcast map instance [{}]", mapName);
             return inst;
         } catch (final Exception e) {
@@ -167,4 +340,12 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         }
         return null;
     }
+
+    private static long getTimeToLive(final Ticket ticket) {
+        val ttl = ticket.getExpirationPolicy().getTimeToLive();
+        if (ttl < 0) {
+            throw new IllegalArgumentException("The expiration policy of ticket " + ticket.getId() + " is set to use a negative ttl");
+        }
+        return ttl;
+    }
 }
@@ -0,0 +1,54 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.registry.support.TicketRegistryCleanerLeaseStore;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link HazelcastTicketRegistryCleanerLeaseStore}.
+ * Keeps shard leases in a distributed map, where each entry holds the owner
+ * and expires with the lease. Entries are checked and updated under the map's key lock.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class HazelcastTicketRegistryCleanerLeaseStore implements TicketRegistryCleanerLeaseStore {
+    /**
+     * Name of the map that holds shard leases.
+     */
+    public static final String MAP_NAME = "cas-ticket-registry-cleaner-leases";
+
+    private final IMap<Integer, String> leases;
+
+    public HazelcastTicketRegistryCleanerLeaseStore(final HazelcastInstance hazelcastInstance) {
+        this.leases = hazelcastInstance.getMap(MAP_NAME);
+    }
+
+    @Override
+    public boolean acquire(final int shard, final String owner, final Duration leaseDuration) {
+        leases.lock(shard);
+        try {
+            val current = leases.get(shard);
+            if (current == null || owner.equals(current)) {
+                leases.put(shard, owner, leaseDuration.toMillis(), TimeUnit.MILLISECONDS);
+                return true;
+            }
+            LOGGER.trace("Shard [{}] is leased by [{}]", shard, current);
+            return false;
+        } finally {
+            leases.unlock(shard);
+        }
+    }
+
+    @Override
+    public void release(final int shard, final String owner) {
+        leases.remove(shard, owner);
+    }
+}
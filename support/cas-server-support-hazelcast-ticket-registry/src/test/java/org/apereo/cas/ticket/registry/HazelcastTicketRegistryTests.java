@@ -1,12 +1,17 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.config.HazelcastTicketRegistryConfiguration;
 import org.apereo.cas.config.HazelcastTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.mock.MockTicketGrantingTicket;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
 import org.apereo.cas.ticket.DefaultTicketDefinition;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.apereo.cas.ticket.expiration.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
 
 import com.hazelcast.core.HazelcastInstance;
 import lombok.Getter;
@@ -18,6 +23,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -39,6 +46,11 @@ public class HazelcastTicketRegistryTests extends BaseTicketRegistryTests {
     @Qualifier("ticketRegistry")
     private TicketRegistry newTicketRegistry;
 
+    @Autowired
+    @Qualifier("casTicketRegistryHazelcastInstance")
+    private HazelcastInstance hazelcastInstance;
+
+
     @RepeatedTest(1)
     public void verifyBadExpPolicyValue() {
         val instance = mock(HazelcastInstance.class);
@@ -77,4 +89,44 @@ public class HazelcastTicketRegistryTests extends BaseTicketRegistryTests {
         assertNull(registry.getTicket(ticket.getId()));
     }
 
+    @RepeatedTest(1)
+    public void verifyTicketStoredWithoutHolder() {
+        val tgt = new TicketGrantingTicketImpl("TGT-hz-legacy",
+            CoreAuthenticationTestUtils.getAuthentication("hzlegacy"), NeverExpiresExpirationPolicy.INSTANCE);
+        val catalog = mock(TicketCatalog.class);
+        val defn = new DefaultTicketDefinition(tgt.getClass(), tgt.getPrefix(), 0);
+        defn.getProperties().setStorageName("legacyTicketsCache");
+        when(catalog.find(anyString())).thenReturn(defn);
+        when(catalog.findAll()).thenReturn(List.of(defn));
+        val registry = new HazelcastTicketRegistry(hazelcastInstance, catalog, 0);
+
+        val map = hazelcastInstance.<String, Object>getMap("legacyTicketsCache");
+        map.set(tgt.getId(), tgt);
+        assertEquals(1, registry.getTickets().size());
+        assertEquals(tgt, registry.getTicket(tgt.getId()));
+        assertTrue(map.get(tgt.getId()) instanceof HazelcastTicketHolder);
+        assertEquals(1, registry.getTickets().size());
+        map.destroy();
+    }
+
+    @RepeatedTest(1)
+    public void verifyStaleTicketIsNotConsumed() {
+        val authentication = CoreAuthenticationTestUtils.getAuthentication("hzuser");
+        val tgt = new TicketGrantingTicketImpl("TGT-hz-consume", authentication, NeverExpiresExpirationPolicy.INSTANCE);
+        newTicketRegistry.addTicket(tgt);
+        val st = tgt.grantServiceTicket("ST-hz-consume", RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        newTicketRegistry.addTicket(st);
+        newTicketRegistry.updateTicket(tgt);
+
+        assertEquals(1, newTicketRegistry.countSessionsFor("HZUSER"));
+        assertEquals(1, newTicketRegistry.getSessionsFor("hzuser").count());
+
+        val first = newTicketRegistry.getTicket(st.getId(), ServiceTicket.class);
+        val stale = newTicketRegistry.getTicket(st.getId(), ServiceTicket.class);
+        assertTrue(newTicketRegistry.consumeTicket(first));
+        assertFalse(newTicketRegistry.consumeTicket(stale));
+        assertEquals(1, newTicketRegistry.getTicket(st.getId()).getCountOfUses());
+        newTicketRegistry.deleteTicket(tgt.getId());
+    }
 }
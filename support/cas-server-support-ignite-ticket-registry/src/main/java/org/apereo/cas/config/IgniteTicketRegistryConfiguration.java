@@ -107,6 +107,8 @@ public class IgniteTicketRegistryConfiguration {
         val igniteConfiguration = igniteConfiguration(ticketCatalog);
         val r = new IgniteTicketRegistry(ticketCatalog, igniteConfiguration, igniteProperties);
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(igniteProperties.getCrypto(), "ignite"));
+        r.setTicketGrantingTicketStateEncodingEnabled(
+            casProperties.getTicket().getRegistry().getSerialization().isSeparateTicketGrantingTicketAuthentication());
         r.initialize();
         return r;
     }
@@ -3,6 +3,7 @@ package org.apereo.cas.services;
 import org.apereo.cas.support.events.service.CasRegisteredServiceLoadedEvent;
 
 import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -11,11 +12,14 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of the ServiceRegistry based on JPA.
+ * Services record the time at which they were last saved, so that
+ * changes to service definitions can be loaded incrementally.
  *
  * @author Scott Battaglia
  * @author Dmitriy Kopylenko
@@ -24,6 +28,7 @@ import java.util.stream.Collectors;
 @EnableTransactionManagement(proxyTargetClass = true)
 @Transactional(transactionManager = "transactionManagerServiceReg")
 @ToString
+@Slf4j
 public class JpaServiceRegistry extends AbstractServiceRegistry {
     private static final String ENTITY_NAME = AbstractRegisteredService.class.getSimpleName();
 
@@ -68,10 +73,45 @@ public class JpaServiceRegistry extends AbstractServiceRegistry {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public ServiceRegistryChanges loadChangedSince(final long marker) {
+        val startTime = System.currentTimeMillis();
+        val idQuery = String.format("SELECT r.id FROM %s r", ENTITY_NAME);
+        val serviceIds = new HashSet<>(this.entityManager.createQuery(idQuery, Long.class).getResultList());
+
+        val sql = marker > 0
+            ? String.format("SELECT r FROM %s r WHERE r.lastModified >= :marker", ENTITY_NAME)
+            : String.format("SELECT r FROM %s r", ENTITY_NAME);
+        val query = this.entityManager.createQuery(sql, RegisteredService.class);
+        if (marker > 0) {
+            query.setParameter("marker", marker);
+        }
+        val changedServices = query.getResultList();
+        val lastModified = changedServices
+            .stream()
+            .filter(AbstractRegisteredService.class::isInstance)
+            .map(service -> ((AbstractRegisteredService) service).getLastModified())
+            .filter(Objects::nonNull)
+            .mapToLong(Long::longValue)
+            .max()
+            .orElse(marker > 0 ? marker : startTime);
+        LOGGER.debug("Loaded [{}] service(s) changed since [{}] out of [{}]", changedServices.size(), marker, serviceIds.size());
+        val services = changedServices
+            .stream()
+            .map(this::invokeServiceRegistryListenerPostLoad)
+            .filter(Objects::nonNull)
+            .peek(s -> publishEvent(new CasRegisteredServiceLoadedEvent(this, s)))
+            .collect(Collectors.toList());
+        return ServiceRegistryChanges.incremental(services, serviceIds, lastModified);
+    }
+
     @Override
     public RegisteredService save(final RegisteredService registeredService) {
         val isNew = registeredService.getId() == RegisteredService.INITIAL_IDENTIFIER_VALUE;
         invokeServiceRegistryListenerPreSave(registeredService);
+        if (registeredService instanceof AbstractRegisteredService) {
+            ((AbstractRegisteredService) registeredService).setLastModified(System.currentTimeMillis());
+        }
         val r = this.entityManager.merge(registeredService);
         if (!isNew) {
             this.entityManager.persist(r);
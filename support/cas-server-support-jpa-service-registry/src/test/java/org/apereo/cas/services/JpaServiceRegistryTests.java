@@ -11,8 +11,10 @@ import org.apereo.cas.support.saml.services.SamlRegisteredService;
 import org.apereo.cas.ws.idp.services.WSFederationRegisteredService;
 
 import lombok.Getter;
+import lombok.val;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -25,6 +27,8 @@ import org.springframework.test.annotation.DirtiesContext;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * Handles tests for {@link JpaServiceRegistry}
  *
@@ -51,6 +55,25 @@ public class JpaServiceRegistryTests extends AbstractServiceRegistryTests {
     @Qualifier("jpaServiceRegistry")
     protected ServiceRegistry newServiceRegistry;
 
+    @Test
+    public void verifyLoadChangedSince() {
+        val service = new RegexRegisteredService();
+        service.setName("changes");
+        service.setServiceId("https://changes.example.org");
+        val saved = newServiceRegistry.save(service);
+
+        val changes = newServiceRegistry.loadChangedSince(0);
+        assertFalse(changes.isComplete());
+        assertTrue(changes.getMarker() > 0);
+        assertTrue(changes.getServiceIds().contains(saved.getId()));
+        assertTrue(changes.getChangedServices().stream().anyMatch(r -> r.getId() == saved.getId()));
+
+        val noChanges = newServiceRegistry.loadChangedSince(changes.getMarker() + 1);
+        assertTrue(noChanges.getChangedServices().isEmpty());
+        assertTrue(noChanges.getServiceIds().contains(saved.getId()));
+        newServiceRegistry.delete(saved);
+    }
+
     @TestConfiguration("JpaServiceRegistryTestConfiguration")
     public static class JpaServiceRegistryTestConfiguration {
         @Bean
@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.AbstractTicket;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
@@ -7,13 +8,18 @@ import org.apereo.cas.ticket.TicketDefinition;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.util.LoggingUtils;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.hibernate.LockOptions;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
@@ -21,8 +27,14 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -30,6 +42,13 @@ import java.util.stream.Stream;
 /**
  * JPA implementation of a CAS {@link TicketRegistry}. This implementation of
  * ticket registry is suitable for HA environments.
+ * <p>
+ * Each ticket row records the earliest instant at which the ticket may expire,
+ * which is refreshed whenever the ticket is added or updated. Expired tickets are located
+ * by this expiration time rather than by loading every ticket, and are always verified
+ * to be expired before they are removed. Tickets that are not yet expired are rescheduled.
+ * Expired tickets that are purged in bulk are removed in batches, each in its own transaction,
+ * so that a large purge does not hold locks for its entire duration.
  *
  * @author Scott Battaglia
  * @author Marvin S. Addison
@@ -42,16 +61,37 @@ import java.util.stream.Stream;
 public class JpaTicketRegistry extends AbstractTicketRegistry {
     private static final int STREAM_BATCH_SIZE = 100;
 
+    private static final int DEFAULT_PURGE_BATCH_SIZE = 1_000;
+
     private final LockModeType lockType;
 
     private final TicketCatalog ticketCatalog;
 
+    /**
+     * Purge expired tickets that do not require single logout or cascading removals in bulk.
+     */
+    @Setter
+    private boolean purgeExpiredTickets;
+
+    /**
+     * Maximum number of expired tickets examined and removed in a single purge batch.
+     */
+    @Setter
+    private int purgeBatchSize = DEFAULT_PURGE_BATCH_SIZE;
+
+    /**
+     * Runs each purge batch in a new transaction.
+     */
+    @Setter
+    private TransactionOperations purgeTransactionTemplate = TransactionOperations.withoutTransaction();
+
     @PersistenceContext(unitName = "ticketEntityManagerFactory")
     private transient EntityManager entityManager;
 
     @Override
     public void addTicket(final Ticket ticket) {
         val encodeTicket = encodeTicket(ticket);
+        setExpirationTime(encodeTicket, ticket);
         this.entityManager.persist(encodeTicket);
         LOGGER.debug("Added ticket [{}] to registry.", encodeTicket);
     }
@@ -124,6 +164,7 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
     public Ticket updateTicket(final Ticket ticket) {
         LOGGER.trace("Updating ticket [{}]", ticket);
         val encodeTicket = this.encodeTicket(ticket);
+        setExpirationTime(encodeTicket, ticket);
         this.entityManager.merge(encodeTicket);
         LOGGER.debug("Updated ticket [{}].", encodeTicket);
         return encodeTicket;
@@ -162,6 +203,64 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
             .map(this::decodeTicket);
     }
 
+    /**
+     * Gets the tickets whose expiration time has passed, in order of their expiration time per ticket type.
+     * If bulk purging is enabled, expired tickets that do not require single logout or cascading
+     * removals are left to {@link #purgeExpiredTickets()}, and only the remaining tickets are handed over to the cleaner.
+     *
+     * @return the expired tickets
+     */
+    @Override
+    public Stream<? extends Ticket> getExpiredTickets() {
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        return getExpirationQueries(purgeExpiredTickets ? Boolean.TRUE : null)
+            .flatMap(query -> {
+                val expirationQuery = (org.hibernate.query.Query<Ticket>) entityManager.createQuery(
+                    query.getSelectStatement(), getTicketImplementationClass(query.getTicketDefinition()));
+                query.setParameters(expirationQuery, now);
+                expirationQuery.setFetchSize(STREAM_BATCH_SIZE);
+                expirationQuery.setLockOptions(LockOptions.NONE);
+                return expirationQuery.stream();
+            })
+            .map(this::decodeTicket)
+            .filter(Objects::nonNull)
+            .filter(ticket -> {
+                if (ticket.isExpired()) {
+                    return true;
+                }
+                rescheduleExpiration(ticket);
+                return false;
+            });
+    }
+
+    @Override
+    public long getExpiredTicketsBacklog() {
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        return getExpirationQueries(null)
+            .mapToLong(query -> {
+                val countQuery = entityManager.createQuery(query.getStatement("SELECT COUNT(t)", false));
+                query.setParameters(countQuery, now);
+                return countToLong(countQuery.getSingleResult());
+            })
+            .sum();
+    }
+
+    @Override
+    public Duration getExpiredTicketsLag() {
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        return getExpirationQueries(null)
+            .map(query -> {
+                val minQuery = entityManager.createQuery(query.getStatement("SELECT MIN(t.expiresAt)", false), ZonedDateTime.class);
+                query.setParameters(minQuery, now);
+                return minQuery.getSingleResult();
+            })
+            .filter(Objects::nonNull)
+            .min(ZonedDateTime::compareTo)
+            .map(oldest -> Duration.between(oldest, now))
+            .filter(lag -> !lag.isNegative())
+            .orElse(Duration.ZERO);
+    }
+
     @Override
     public long sessionCount() {
         if (isCipherExecutorEnabled()) {
@@ -175,6 +274,55 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return countToLong(query.getSingleResult());
     }
 
+    @Override
+    public long countSessionsFor(final String principalId) {
+        if (isCipherExecutorEnabled()) {
+            return super.countSessionsFor(principalId);
+        }
+        val md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+        val sql = String.format("SELECT COUNT(t) FROM %s t WHERE t.principalId = :principal", getTicketEntityName(md));
+        val query = this.entityManager.createQuery(sql);
+        query.setParameter("principal", normalizePrincipalId(principalId));
+        try (val legacySessions = getLegacySessionsFor(principalId)) {
+            return countToLong(query.getSingleResult()) + legacySessions.count();
+        }
+    }
+
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        if (isCipherExecutorEnabled()) {
+            return super.getSessionsFor(principalId);
+        }
+        val md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+        val sql = String.format("SELECT t FROM %s t WHERE t.principalId = :principal", getTicketEntityName(md));
+        val query = (org.hibernate.query.Query<Ticket>) entityManager.createQuery(sql, getTicketImplementationClass(md));
+        query.setParameter("principal", normalizePrincipalId(principalId));
+        query.setFetchSize(STREAM_BATCH_SIZE);
+        query.setLockOptions(LockOptions.NONE);
+        return Stream.concat(query.stream().map(this::decodeTicket), getLegacySessionsFor(principalId));
+    }
+
+    /**
+     * Locate sessions of the principal among rows that were persisted
+     * before the principal id column was introduced and thus carry no principal id.
+     * Such rows are examined one by one, and are only found for as long as they have not expired
+     * or have not been updated since, at which point the principal id is recorded.
+     *
+     * @param principalId the principal id
+     * @return the sessions
+     */
+    private Stream<? extends Ticket> getLegacySessionsFor(final String principalId) {
+        val normalizedPrincipalId = normalizePrincipalId(principalId);
+        val md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+        val sql = String.format("SELECT t FROM %s t WHERE t.principalId IS NULL", getTicketEntityName(md));
+        val query = (org.hibernate.query.Query<Ticket>) entityManager.createQuery(sql, getTicketImplementationClass(md));
+        query.setFetchSize(STREAM_BATCH_SIZE);
+        query.setLockOptions(LockOptions.NONE);
+        return query.stream()
+            .map(this::decodeTicket)
+            .filter(ticket -> StringUtils.equals(normalizedPrincipalId, getPrincipalIdFrom(ticket)));
+    }
+
     @Override
     public long serviceTicketCount() {
         if (isCipherExecutorEnabled()) {
@@ -219,10 +367,147 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return totalCount != 0;
     }
 
+    /**
+     * Purge expired tickets that do not require single logout or cascading removals, if bulk purging is enabled.
+     * No transaction is held while purging; each batch runs in its own transaction instead.
+     *
+     * @return the number of purged tickets
+     */
+    @Override
+    @Transactional(transactionManager = "ticketTransactionManager", propagation = Propagation.NOT_SUPPORTED)
+    public long purgeExpiredTickets() {
+        if (!purgeExpiredTickets) {
+            return 0;
+        }
+        val purged = purgeExpiredTickets(ZonedDateTime.now(ZoneOffset.UTC));
+        LOGGER.debug("Purged [{}] expired ticket(s) from the registry", purged);
+        return purged;
+    }
+
+    /**
+     * Purge expired tickets that do not require single logout or cascading removals.
+     * Tickets are examined in batches in order of their expiration time; those that are indeed expired
+     * are removed with a single statement per batch, and the others are rescheduled.
+     * Each batch is committed on its own.
+     *
+     * @param now the current time
+     * @return the number of purged tickets
+     */
+    protected int purgeExpiredTickets(final ZonedDateTime now) {
+        return getExpirationQueries(Boolean.FALSE)
+            .mapToInt(query -> {
+                var purged = 0;
+                Pair<Integer, Integer> batch;
+                do {
+                    batch = purgeTransactionTemplate.execute(status -> purgeExpiredTicketsBatch(query, now));
+                    purged += Objects.requireNonNull(batch).getRight();
+                } while (batch.getLeft() >= purgeBatchSize);
+                return purged;
+            })
+            .sum();
+    }
+
+    /**
+     * Examine and purge a single batch of expired tickets.
+     *
+     * @return the number of tickets examined, and the number of tickets purged
+     */
+    private Pair<Integer, Integer> purgeExpiredTicketsBatch(final ExpirationQuery query, final ZonedDateTime now) {
+        val selectQuery = entityManager.createQuery(query.getSelectStatement(),
+            getTicketImplementationClass(query.getTicketDefinition()));
+        query.setParameters(selectQuery, now);
+        selectQuery.setMaxResults(purgeBatchSize);
+        val batch = selectQuery.getResultList();
+
+        val expiredTicketIds = new ArrayList<String>(batch.size());
+        batch.forEach(entity -> {
+            val ticket = decodeTicket(entity);
+            if (ticket == null || ticket.isExpired()) {
+                expiredTicketIds.add(entity.getId());
+            } else {
+                rescheduleExpiration(ticket);
+            }
+        });
+        var purged = 0;
+        if (!expiredTicketIds.isEmpty()) {
+            val sql = String.format("DELETE FROM %s t WHERE t.id IN :ids", query.getEntityName());
+            val deleteQuery = entityManager.createQuery(sql);
+            deleteQuery.setParameter("ids", expiredTicketIds);
+            purged = deleteQuery.executeUpdate();
+        }
+        LOGGER.trace("Purged [{}] of [{}] expired ticket(s) from [{}]", purged, batch.size(), query.getEntityName());
+        return Pair.of(batch.size(), purged);
+    }
+
+    private void rescheduleExpiration(final Ticket ticket) {
+        val expiresAt = getExpirationTime(ticket);
+        val entityName = getTicketEntityName(ticketCatalog.find(ticket));
+        val sql = String.format("UPDATE %s t SET t.expiresAt = :expiresAt WHERE t.id = :id", entityName);
+        val query = entityManager.createQuery(sql);
+        query.setParameter("expiresAt", expiresAt);
+        query.setParameter("id", encodeTicketId(ticket.getId()));
+        query.executeUpdate();
+        LOGGER.trace("Ticket [{}] is not expired yet and is rescheduled for [{}]", ticket.getId(), expiresAt);
+    }
+
+    /**
+     * Build the queries that locate tickets by their expiration time, one per ticket entity,
+     * or a single query if tickets are encoded. Tickets that were stored without an expiration time
+     * are included so they can be examined and rescheduled.
+     *
+     * @param cleanerRequired if defined, only include tickets that do, or do not, require the cleaner
+     * @return the queries
+     */
+    private Stream<ExpirationQuery> getExpirationQueries(final Boolean cleanerRequired) {
+        if (isCipherExecutorEnabled()) {
+            val prefixes = this.ticketCatalog.findAll()
+                .stream()
+                .filter(this::isCleanerRequired)
+                .map(TicketDefinition::getPrefix)
+                .collect(Collectors.toList());
+            val definition = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+            val entityName = getTicketEntityName(definition);
+            if (cleanerRequired == null) {
+                return Stream.of(new ExpirationQuery(definition, entityName, null, false));
+            }
+            return Stream.of(new ExpirationQuery(definition, entityName, prefixes, cleanerRequired));
+        }
+        val definitions = this.ticketCatalog.findAll();
+        return definitions
+            .stream()
+            .filter(defn -> definitions.stream().noneMatch(other -> other != defn
+                && other.getImplementationClass() != defn.getImplementationClass()
+                && other.getImplementationClass().isAssignableFrom(defn.getImplementationClass())))
+            .filter(defn -> cleanerRequired == null || cleanerRequired == definitions.stream()
+                .filter(other -> defn.getImplementationClass().isAssignableFrom(other.getImplementationClass()))
+                .anyMatch(this::isCleanerRequired))
+            .map(defn -> new ExpirationQuery(defn, getTicketEntityName(defn), null, false))
+            .collect(Collectors.toMap(ExpirationQuery::getEntityName, query -> query, (first, second) -> first))
+            .values()
+            .stream();
+    }
+
+    private boolean isCleanerRequired(final TicketDefinition definition) {
+        return TicketGrantingTicket.class.isAssignableFrom(definition.getImplementationClass())
+            || definition.getProperties().isCascadeRemovals();
+    }
+
     private static long countToLong(final Object result) {
         return ((Number) result).longValue();
     }
 
+    private static ZonedDateTime getExpirationTime(final Ticket ticket) {
+        return ZonedDateTime.ofInstant(TicketExpirationIndex.getExpirationDeadline(ticket, Instant.now()), ZoneOffset.UTC);
+    }
+
+    private static void setExpirationTime(final Ticket entity, final Ticket ticket) {
+        if (entity instanceof DefaultEncodedTicket) {
+            ((DefaultEncodedTicket) entity).setExpiresAt(getExpirationTime(ticket));
+        } else if (entity instanceof AbstractTicket) {
+            ((AbstractTicket) entity).setExpiresAt(getExpirationTime(ticket));
+        }
+    }
+
     /**
      * Delete ticket granting tickets.
      *
@@ -266,4 +551,44 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
     private String getTicketEntityName(final TicketDefinition tk) {
         return getTicketImplementationClass(tk).getSimpleName();
     }
+
+    /**
+     * Query that locates tickets of an entity by their expiration time,
+     * optionally restricted to, or excluding, a number of ticket prefixes.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    private static class ExpirationQuery {
+        private final TicketDefinition ticketDefinition;
+
+        private final String entityName;
+
+        private final List<String> prefixes;
+
+        private final boolean includePrefixes;
+
+        String getSelectStatement() {
+            return getStatement("SELECT t", true);
+        }
+
+        String getStatement(final String select, final boolean ordered) {
+            val sql = new StringBuilder(select)
+                .append(" FROM ").append(entityName)
+                .append(" t WHERE (t.expiresAt IS NULL OR t.expiresAt <= :now)");
+            if (prefixes != null) {
+                sql.append(includePrefixes ? " AND t.prefix IN :prefixes" : " AND t.prefix NOT IN :prefixes");
+            }
+            if (ordered) {
+                sql.append(" ORDER BY t.expiresAt");
+            }
+            return sql.toString();
+        }
+
+        void setParameters(final Query query, final ZonedDateTime now) {
+            query.setParameter("now", now);
+            if (prefixes != null) {
+                query.setParameter("prefixes", prefixes);
+            }
+        }
+    }
 }
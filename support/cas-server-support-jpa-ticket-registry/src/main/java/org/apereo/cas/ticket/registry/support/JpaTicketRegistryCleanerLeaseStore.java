@@ -0,0 +1,82 @@
+package org.apereo.cas.ticket.registry.support;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * This is {@link JpaTicketRegistryCleanerLeaseStore}.
+ * Keeps shard leases as rows in the locking table used by {@link JpaLockingStrategy},
+ * one row per shard. Each lease operation runs in its own transaction, so that
+ * leases are visible to other nodes while the cleaner is running.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Transactional(transactionManager = "ticketTransactionManager", propagation = Propagation.REQUIRES_NEW)
+@Slf4j
+@RequiredArgsConstructor
+public class JpaTicketRegistryCleanerLeaseStore implements TicketRegistryCleanerLeaseStore {
+    /**
+     * Transactional entity manager from Spring context.
+     */
+    @PersistenceContext(unitName = "ticketEntityManagerFactory")
+    protected EntityManager entityManager;
+
+    /**
+     * Application identifier prefix of the rows in the locking table.
+     */
+    private final String applicationId;
+
+    @Override
+    public boolean acquire(final int shard, final String owner, final Duration leaseDuration) {
+        val shardId = getShardApplicationId(shard);
+        try {
+            val now = ZonedDateTime.now(ZoneOffset.UTC);
+            var lock = entityManager.find(JpaLockingStrategy.Lock.class, shardId, LockModeType.OPTIMISTIC);
+            if (lock == null) {
+                lock = new JpaLockingStrategy.Lock();
+                lock.setApplicationId(shardId);
+                lock.setUniqueId(owner);
+                lock.setExpirationDate(now.plus(leaseDuration));
+                entityManager.persist(lock);
+                entityManager.flush();
+                return true;
+            }
+            val expiration = lock.getExpirationDate();
+            if (lock.getUniqueId() == null || owner.equals(lock.getUniqueId()) || expiration == null || now.isAfter(expiration)) {
+                lock.setUniqueId(owner);
+                lock.setExpirationDate(now.plus(leaseDuration));
+                entityManager.merge(lock);
+                entityManager.flush();
+                return true;
+            }
+        } catch (final Exception e) {
+            LOGGER.debug("[{}] could not lease [{}]", owner, shardId, e);
+        }
+        return false;
+    }
+
+    @Override
+    public void release(final int shard, final String owner) {
+        val lock = entityManager.find(JpaLockingStrategy.Lock.class, getShardApplicationId(shard), LockModeType.OPTIMISTIC);
+        if (lock != null && owner.equals(lock.getUniqueId())) {
+            lock.setUniqueId(null);
+            lock.setExpirationDate(null);
+            entityManager.merge(lock);
+        }
+    }
+
+    private String getShardApplicationId(final int shard) {
+        return applicationId + '-' + shard;
+    }
+}
@@ -157,4 +157,42 @@ public class JpaTicketRegistryCleanerTests {
         assertEquals(2, ticketRegistryCleaner.clean());
         assertTrue(ticketRegistry.getTickets().isEmpty());
     }
+
+    @Test
+    @Transactional(transactionManager = "ticketTransactionManager", propagation = Propagation.NOT_SUPPORTED)
+    public void verifyExpiredTicketsPurgedInBulk() {
+        val registry = (JpaTicketRegistry) ticketRegistry;
+        registry.setPurgeExpiredTickets(true);
+        try {
+            val tgtFactory = (TicketGrantingTicketFactory) ticketFactory.get(TicketGrantingTicket.class);
+            val tgt = tgtFactory.create(RegisteredServiceTestUtils.getAuthentication(),
+                RegisteredServiceTestUtils.getService(), TicketGrantingTicket.class);
+            ticketRegistry.addTicket(tgt);
+
+            val stFactory = (ServiceTicketFactory) ticketFactory.get(ServiceTicket.class);
+            val st = stFactory.create(tgt, RegisteredServiceTestUtils.getService(), true, ServiceTicket.class);
+            ticketRegistry.addTicket(st);
+
+            val transientFactory = (TransientSessionTicketFactory) ticketFactory.get(TransientSessionTicket.class);
+            val transientTicket = transientFactory.create(RegisteredServiceTestUtils.getService());
+            ticketRegistry.addTicket(transientTicket);
+
+            st.markTicketExpired();
+            tgt.markTicketExpired();
+            ticketRegistry.updateTicket(st);
+            ticketRegistry.updateTicket(tgt);
+
+            assertEquals(2, ticketRegistry.getExpiredTicketsBacklog());
+            assertFalse(ticketRegistry.getExpiredTicketsLag().isNegative());
+
+            assertEquals(2, ticketRegistryCleaner.clean());
+            assertEquals(0, ticketRegistry.sessionCount());
+            assertEquals(0, ticketRegistry.serviceTicketCount());
+            assertNotNull(ticketRegistry.getTicket(transientTicket.getId()));
+            assertEquals(0, ticketRegistry.getExpiredTicketsBacklog());
+        } finally {
+            registry.setPurgeExpiredTickets(false);
+            ticketRegistry.deleteAll();
+        }
+    }
 }
@@ -1,13 +1,38 @@
 package org.apereo.cas.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.logout.slo.DefaultSingleLogoutMessageDispatcher;
+import org.apereo.cas.logout.slo.SingleLogoutMessageDispatcher;
+import org.apereo.cas.persondir.ParallelAttributeRepositoryStatistics;
+import org.apereo.cas.persondir.ParallelMergingPersonAttributeDao;
+import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlIdPObjectEncrypter;
+import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlIdPObjectSigner;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.web.flow.executor.ClientFlowExecutionStateStatistics;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.val;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
 /**
  * This is {@link CasMetricsConfiguration} that attempts to create Spring-managed beans
  * backed by external configuration.
@@ -18,8 +43,257 @@ import org.springframework.context.annotation.Configuration;
 @Configuration(value = "casMetricsConfiguration", proxyBeanMethods = false)
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 public class CasMetricsConfiguration {
+
+    @Autowired
+    @Qualifier("ticketRegistry")
+    private ObjectProvider<TicketRegistry> ticketRegistry;
+
+    @Autowired
+    @Qualifier("webflowClientFlowExecutionStateStatistics")
+    private ObjectProvider<ClientFlowExecutionStateStatistics> webflowClientFlowExecutionStateStatistics;
+
+    @Autowired
+    @Qualifier("singleLogoutMessageDispatcher")
+    private ObjectProvider<SingleLogoutMessageDispatcher> singleLogoutMessageDispatcher;
+
     @Bean
     public TimedAspect timedAspect(final MeterRegistry registry) {
         return new TimedAspect(registry);
     }
+
+    /**
+     * Gauges for the number of expired tickets that are pending removal, and for how long
+     * the oldest of those has been expired, as reported by the ticket registry.
+     * Registries that cache tickets locally also report cache hits, misses and the hit ratio.
+     *
+     * @return the meter binder
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "ticketRegistryMeterBinder")
+    public MeterBinder ticketRegistryMeterBinder() {
+        return registry -> {
+            val tickets = ticketRegistry.getIfAvailable();
+            if (tickets == null) {
+                return;
+            }
+            Gauge.builder("cas.ticket.registry.expired.backlog", tickets, r -> {
+                val backlog = r.getExpiredTicketsBacklog();
+                return backlog == Integer.MIN_VALUE ? Double.NaN : backlog;
+            })
+                .description("Number of expired tickets pending removal")
+                .register(registry);
+            TimeGauge.builder("cas.ticket.registry.expired.lag", tickets, TimeUnit.MILLISECONDS,
+                r -> r.getExpiredTicketsLag().toMillis())
+                .description("Time elapsed since the oldest pending expiration deadline")
+                .register(registry);
+            if (tickets.getCacheHitCount() != Integer.MIN_VALUE) {
+                FunctionCounter.builder("cas.ticket.registry.cache.hits", tickets, TicketRegistry::getCacheHitCount)
+                    .description("Number of ticket reads served from the local cache")
+                    .register(registry);
+                FunctionCounter.builder("cas.ticket.registry.cache.misses", tickets, TicketRegistry::getCacheMissCount)
+                    .description("Number of ticket reads not found in the local cache")
+                    .register(registry);
+                Gauge.builder("cas.ticket.registry.cache.hit.ratio", tickets, r -> {
+                    val hits = r.getCacheHitCount();
+                    val requests = hits + r.getCacheMissCount();
+                    return requests == 0 ? 1.0D : (double) hits / requests;
+                })
+                    .description("Ratio of ticket reads served from the local cache")
+                    .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Distribution of the size of the flow execution state that is encoded for the client,
+     * along with the number of states that were too large and were stored on the server instead.
+     *
+     * @return the meter binder
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "webflowClientFlowExecutionStateMeterBinder")
+    public MeterBinder webflowClientFlowExecutionStateMeterBinder() {
+        return registry -> {
+            val statistics = webflowClientFlowExecutionStateStatistics.getIfAvailable();
+            if (statistics == null) {
+                return;
+            }
+            val sizes = DistributionSummary.builder("cas.webflow.client.state.size")
+                .description("Size of the flow execution state encoded for the client")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+            statistics.addSizeObserver(sizes::record);
+            FunctionCounter.builder("cas.webflow.client.state.stored", statistics, ClientFlowExecutionStateStatistics::getStoredStates)
+                .description("Number of flow execution states too large for the client and stored on the server")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Latency of back-channel logout delivery attempts, along with the number of messages
+     * dispatched, delivered, retried, failed, rejected and expired by the logout message dispatcher.
+     *
+     * @return the meter binder
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "singleLogoutMessageDispatcherMeterBinder")
+    public MeterBinder singleLogoutMessageDispatcherMeterBinder() {
+        return registry -> {
+            val dispatcher = singleLogoutMessageDispatcher.getIfAvailable();
+            if (!(dispatcher instanceof DefaultSingleLogoutMessageDispatcher)) {
+                return;
+            }
+            val statistics = ((DefaultSingleLogoutMessageDispatcher) dispatcher).getStatistics();
+            val latency = Timer.builder("cas.slo.dispatcher.latency")
+                .description("Latency of logout message delivery attempts")
+                .publishPercentileHistogram()
+                .register(registry);
+            statistics.addLatencyObserver(latency::record);
+            FunctionCounter.builder("cas.slo.dispatcher.messages", statistics,
+                DefaultSingleLogoutMessageDispatcher.SingleLogoutDispatchStatistics::getDispatched)
+                .description("Number of logout messages by outcome")
+                .tag("outcome", "dispatched")
+                .register(registry);
+            FunctionCounter.builder("cas.slo.dispatcher.messages", statistics,
+                DefaultSingleLogoutMessageDispatcher.SingleLogoutDispatchStatistics::getDelivered)
+                .description("Number of logout messages by outcome")
+                .tag("outcome", "delivered")
+                .register(registry);
+            FunctionCounter.builder("cas.slo.dispatcher.messages", statistics,
+                DefaultSingleLogoutMessageDispatcher.SingleLogoutDispatchStatistics::getRetried)
+                .description("Number of logout messages by outcome")
+                .tag("outcome", "retried")
+                .register(registry);
+            FunctionCounter.builder("cas.slo.dispatcher.messages", statistics,
+                DefaultSingleLogoutMessageDispatcher.SingleLogoutDispatchStatistics::getFailed)
+                .description("Number of logout messages by outcome")
+                .tag("outcome", "failed")
+                .register(registry);
+            FunctionCounter.builder("cas.slo.dispatcher.messages", statistics,
+                DefaultSingleLogoutMessageDispatcher.SingleLogoutDispatchStatistics::getRejected)
+                .description("Number of logout messages by outcome")
+                .tag("outcome", "rejected")
+                .register(registry);
+            FunctionCounter.builder("cas.slo.dispatcher.messages", statistics,
+                DefaultSingleLogoutMessageDispatcher.SingleLogoutDispatchStatistics::getExpired)
+                .description("Number of logout messages by outcome")
+                .tag("outcome", "expired")
+                .register(registry);
+            Gauge.builder("cas.slo.dispatcher.pending", statistics,
+                DefaultSingleLogoutMessageDispatcher.SingleLogoutDispatchStatistics::getPending)
+                .description("Number of logout messages waiting to be delivered")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Metrics of attribute repositories that are queried in parallel.
+     */
+    @ConditionalOnClass(value = ParallelAttributeRepositoryStatistics.class)
+    @Configuration(value = "casPersonDirectoryMetricsConfiguration", proxyBeanMethods = false)
+    public static class CasPersonDirectoryMetricsConfiguration {
+
+        @Autowired
+        @Qualifier("parallelAttributeRepositoryStatistics")
+        private ObjectProvider<ParallelAttributeRepositoryStatistics> parallelAttributeRepositoryStatistics;
+
+        /**
+         * Latency of queries to each attribute repository, along with the number of queries
+         * that completed, failed, timed out or for which the repository was skipped, tagged by repository.
+         *
+         * @return the meter binder
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "parallelAttributeRepositoryMeterBinder")
+        public MeterBinder parallelAttributeRepositoryMeterBinder() {
+            return registry -> {
+                val statistics = parallelAttributeRepositoryStatistics.getIfAvailable();
+                if (statistics == null) {
+                    return;
+                }
+                statistics.addObserver(repository -> {
+                    val latency = Timer.builder("cas.attribute.repository.latency")
+                        .description("Latency of attribute repository queries")
+                        .tag("repository", repository.getName())
+                        .publishPercentileHistogram()
+                        .register(registry);
+                    repository.addLatencyObserver(latency::record);
+                    FunctionCounter.builder("cas.attribute.repository.queries", repository,
+                        ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics::getQueries)
+                        .description("Number of attribute repository queries that completed, successfully or not")
+                        .tag("repository", repository.getName())
+                        .register(registry);
+                    FunctionCounter.builder("cas.attribute.repository.failures", repository,
+                        ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics::getFailures)
+                        .description("Number of attribute repository queries that failed")
+                        .tag("repository", repository.getName())
+                        .register(registry);
+                    FunctionCounter.builder("cas.attribute.repository.timeouts", repository,
+                        ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics::getTimeouts)
+                        .description("Number of attribute repository queries that did not complete in time")
+                        .tag("repository", repository.getName())
+                        .register(registry);
+                    FunctionCounter.builder("cas.attribute.repository.skipped", repository,
+                        ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics::getSkipped)
+                        .description("Number of queries for which the attribute repository was skipped")
+                        .tag("repository", repository.getName())
+                        .register(registry);
+                });
+            };
+        }
+    }
+
+    /**
+     * Metrics of the caches of signing and encryption parameters resolved by the SAML2 identity provider.
+     */
+    @ConditionalOnClass(value = SamlIdPObjectSigner.class)
+    @Configuration(value = "casSamlIdPMetricsConfiguration", proxyBeanMethods = false)
+    public static class CasSamlIdPMetricsConfiguration {
+
+        @Autowired
+        @Qualifier("samlObjectSigner")
+        private ObjectProvider<SamlIdPObjectSigner> samlObjectSigner;
+
+        @Autowired
+        @Qualifier("samlObjectEncrypter")
+        private ObjectProvider<SamlIdPObjectEncrypter> samlObjectEncrypter;
+
+        /**
+         * Hits, misses and evictions of the caches of signing and encryption parameters, tagged by cache.
+         *
+         * @return the meter binder
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "samlIdPSecurityParametersCacheMeterBinder")
+        public MeterBinder samlIdPSecurityParametersCacheMeterBinder() {
+            return registry -> {
+                val signer = samlObjectSigner.getIfAvailable();
+                if (signer != null) {
+                    bindCacheStatistics(registry, "signing", signer, SamlIdPObjectSigner::getSigningParametersCacheStatistics);
+                }
+                val encrypter = samlObjectEncrypter.getIfAvailable();
+                if (encrypter != null) {
+                    bindCacheStatistics(registry, "encryption", encrypter, SamlIdPObjectEncrypter::getEncryptionParametersCacheStatistics);
+                }
+            };
+        }
+
+        private static <T> void bindCacheStatistics(final MeterRegistry registry, final String cache, final T source,
+                                                    final Function<T, CacheStats> statistics) {
+            val tags = Tags.of("cache", cache);
+            FunctionCounter.builder("cas.saml.idp.security.parameters.cache.gets", source, s -> statistics.apply(s).hitCount())
+                .description("Number of lookups of resolved security parameters by result")
+                .tags(tags.and("result", "hit"))
+                .register(registry);
+            FunctionCounter.builder("cas.saml.idp.security.parameters.cache.gets", source, s -> statistics.apply(s).missCount())
+                .description("Number of lookups of resolved security parameters by result")
+                .tags(tags.and("result", "miss"))
+                .register(registry);
+            FunctionCounter.builder("cas.saml.idp.security.parameters.cache.evictions", source, s -> statistics.apply(s).evictionCount())
+                .description("Number of resolved security parameters evicted from the cache")
+                .tags(tags)
+                .register(registry);
+        }
+    }
 }
@@ -2,8 +2,13 @@ package org.apereo.cas;
 
 import org.apereo.cas.config.CasMetricsConfiguration;
 import org.apereo.cas.config.CasMetricsRepositoryConfiguration;
+import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
+import org.apereo.cas.ticket.registry.NearCachingTicketRegistry;
+import org.apereo.cas.ticket.registry.TicketCacheInvalidationPublisher;
+import org.apereo.cas.ticket.registry.TicketRegistry;
 
 import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +17,11 @@ import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfigu
 import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
 import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +36,7 @@ import static org.junit.jupiter.api.Assertions.*;
     SimpleMetricsExportAutoConfiguration.class,
     CasMetricsConfiguration.class,
     CasMetricsRepositoryConfiguration.class,
+    CasMetricsConfigurationTests.TicketRegistryTestConfiguration.class,
     RefreshAutoConfiguration.class,
     AopAutoConfiguration.class
 },
@@ -37,8 +47,29 @@ public class CasMetricsConfigurationTests {
     @Qualifier("timedAspect")
     private TimedAspect timedAspect;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     public void verifyOperation() {
         assertNotNull(timedAspect);
     }
+
+    @Test
+    public void verifyTicketRegistryGauges() {
+        assertEquals(0, meterRegistry.get("cas.ticket.registry.expired.backlog").gauge().value());
+        assertEquals(0, meterRegistry.get("cas.ticket.registry.expired.lag").timeGauge().value());
+        assertEquals(0, meterRegistry.get("cas.ticket.registry.cache.hits").functionCounter().count());
+        assertEquals(0, meterRegistry.get("cas.ticket.registry.cache.misses").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cas.ticket.registry.cache.hit.ratio").gauge().value());
+    }
+
+    @TestConfiguration
+    public static class TicketRegistryTestConfiguration {
+        @Bean
+        public TicketRegistry ticketRegistry() {
+            return new NearCachingTicketRegistry(new DefaultTicketRegistry(), 100,
+                Duration.ofMinutes(1), TicketCacheInvalidationPublisher.noOp());
+        }
+    }
 }
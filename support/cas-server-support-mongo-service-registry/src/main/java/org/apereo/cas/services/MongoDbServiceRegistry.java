@@ -11,6 +11,7 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -20,6 +21,8 @@ import java.util.stream.Collectors;
  * <p>The class will automatically create a default collection to use with services. The name
  * of the collection may be specified.
  * It also presents the ability to drop an existing collection and start afresh.
+ * Services record the time at which they were last saved, so that
+ * changes to service definitions can be loaded incrementally.
  *
  * @author Misagh Moayyed
  * @since 4.1
@@ -81,12 +84,41 @@ public class MongoDbServiceRegistry extends AbstractServiceRegistry {
             .collect(Collectors.toList());
     }
 
+    @Override
+    public ServiceRegistryChanges loadChangedSince(final long marker) {
+        val startTime = System.currentTimeMillis();
+        val serviceIds = new HashSet<>(this.mongoTemplate.findDistinct(new Query(), "_id", this.collectionName, Long.class));
+        val query = marker > 0
+            ? new Query(Criteria.where("lastModified").gte(marker))
+            : new Query();
+        val changedServices = this.mongoTemplate.find(query, RegisteredService.class, this.collectionName);
+        val lastModified = changedServices
+            .stream()
+            .filter(AbstractRegisteredService.class::isInstance)
+            .map(service -> ((AbstractRegisteredService) service).getLastModified())
+            .filter(Objects::nonNull)
+            .mapToLong(Long::longValue)
+            .max()
+            .orElse(marker > 0 ? marker : startTime);
+        LOGGER.debug("Loaded [{}] service(s) changed since [{}] out of [{}]", changedServices.size(), marker, serviceIds.size());
+        val services = changedServices
+            .stream()
+            .map(this::invokeServiceRegistryListenerPostLoad)
+            .filter(Objects::nonNull)
+            .peek(s -> publishEvent(new CasRegisteredServiceLoadedEvent(this, s)))
+            .collect(Collectors.toList());
+        return ServiceRegistryChanges.incremental(services, serviceIds, lastModified);
+    }
+
     @Override
     public RegisteredService save(final RegisteredService svc) {
         if (svc.getId() == AbstractRegisteredService.INITIAL_IDENTIFIER_VALUE) {
             svc.setId(svc.hashCode());
         }
         invokeServiceRegistryListenerPreSave(svc);
+        if (svc instanceof AbstractRegisteredService) {
+            ((AbstractRegisteredService) svc).setLastModified(System.currentTimeMillis());
+        }
         this.mongoTemplate.save(svc, this.collectionName);
         LOGGER.debug("Saved registered service: [{}]", svc);
         return this.findServiceById(svc.getId());
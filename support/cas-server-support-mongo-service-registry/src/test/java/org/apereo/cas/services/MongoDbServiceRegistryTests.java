@@ -20,6 +20,9 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -55,6 +58,33 @@ public class MongoDbServiceRegistryTests extends AbstractServiceRegistryTests {
     @Qualifier("mongoDbServiceRegistry")
     private ServiceRegistry newServiceRegistry;
 
+    @Test
+    public void verifyLoadChangedSince() throws Exception {
+        val unchanged = newRegexService("unchanged");
+        val deleted = newRegexService("deleted");
+        val initial = newServiceRegistry.loadChangedSince(0);
+        assertFalse(initial.isComplete());
+        assertTrue(initial.getServiceIds().containsAll(List.of(unchanged.getId(), deleted.getId())));
+
+        while (System.currentTimeMillis() <= Math.max(unchanged.getLastModified(), deleted.getLastModified())) {
+            Thread.sleep(1);
+        }
+        val changed = newRegexService("changed");
+        newServiceRegistry.delete(deleted);
+        val changes = newServiceRegistry.loadChangedSince(changed.getLastModified());
+        assertTrue(changes.getServiceIds().containsAll(List.of(unchanged.getId(), changed.getId())));
+        assertFalse(changes.getServiceIds().contains(deleted.getId()));
+        assertEquals(List.of(changed.getId()),
+            changes.getChangedServices().stream().map(RegisteredService::getId).collect(Collectors.toList()));
+        assertTrue(changes.getMarker() >= changed.getLastModified());
+
+        val noChanges = newServiceRegistry.loadChangedSince(changes.getMarker() + 1);
+        assertTrue(noChanges.getChangedServices().isEmpty());
+        assertTrue(noChanges.getServiceIds().containsAll(List.of(unchanged.getId(), changed.getId())));
+        newServiceRegistry.delete(unchanged);
+        newServiceRegistry.delete(changed);
+    }
+
     @Test
     public void verifySamlServiceAttributeNames() {
         val service = new SamlRegisteredService();
@@ -71,4 +101,11 @@ public class MongoDbServiceRegistryTests extends AbstractServiceRegistryTests {
         assertFalse(newService.getAttributeFriendlyNames().isEmpty());
         assertFalse(newService.getAttributeNameFormats().isEmpty());
     }
+
+    private RegexRegisteredService newRegexService(final String name) {
+        val service = new RegexRegisteredService();
+        service.setName(name);
+        service.setServiceId("https://" + name + ".example.org");
+        return (RegexRegisteredService) newServiceRegistry.save(service);
+    }
 }
@@ -17,12 +17,9 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.hjson.JsonValue;
 import org.hjson.Stringify;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.TextCriteria;
-import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.util.StreamUtils;
 
@@ -30,6 +27,7 @@ import java.time.Instant;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -143,6 +141,9 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
             val collectionName = getTicketCollectionInstanceByMetadata(metadata);
             val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(holder.getTicketId()));
             val update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson());
+            if (StringUtils.isNotBlank(holder.getPrincipal())) {
+                update.set(TicketHolder.FIELD_NAME_PRINCIPAL, holder.getPrincipal());
+            }
             val result = this.mongoTemplate.updateFirst(query, update, collectionName);
             LOGGER.debug("Updated ticket [{}] with result [{}]", ticket, result);
             return result.getMatchedCount() > 0 ? ticket : null;
@@ -169,21 +170,28 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public long countSessionsFor(final String principalId) {
-        if (isCipherExecutorEnabled()) {
-            return super.countSessionsFor(principalId);
+        val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_PRINCIPAL).is(encodePrincipalId(principalId)));
+        val count = ticketCatalog.find(TicketGrantingTicket.class)
+            .stream()
+            .map(this::getTicketCollectionInstanceByMetadata)
+            .mapToLong(map -> mongoTemplate.count(query, map))
+            .sum();
+        try (val legacySessions = getLegacySessionsFor(principalId)) {
+            return count + legacySessions.count();
         }
+    }
 
-        val ticketDefinitions = ticketCatalog.find(TicketGrantingTicket.class);
-        return ticketDefinitions.stream()
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_PRINCIPAL).is(encodePrincipalId(principalId)));
+        val sessions = ticketCatalog.find(TicketGrantingTicket.class)
+            .stream()
             .map(this::getTicketCollectionInstanceByMetadata)
-            .mapToLong(map -> {
-                val criteria = TextCriteria.forDefaultLanguage().matchingAny(principalId);
-                val query = TextQuery.queryText(criteria)
-                    .sortByScore()
-                    .with(PageRequest.of(0, 10));
-                return mongoTemplate.count(query, map);
-            })
-            .sum();
+            .map(map -> mongoTemplate.stream(query, TicketHolder.class, map))
+            .flatMap(StreamUtils::createStreamFromIterator)
+            .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)))
+            .filter(Objects::nonNull);
+        return Stream.concat(sessions, getLegacySessionsFor(principalId));
     }
 
     @Override
@@ -203,6 +211,37 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return true;
     }
 
+    @Override
+    protected boolean deleteConsumedTicket(final String ticketIdToDelete) {
+        val ticketId = encodeTicketId(ticketIdToDelete);
+        val metadata = this.ticketCatalog.find(ticketIdToDelete);
+        val collectionName = getTicketCollectionInstanceByMetadata(metadata);
+        val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(ticketId));
+        return this.mongoTemplate.findAndRemove(query, TicketHolder.class, collectionName) != null;
+    }
+
+    /**
+     * Locate sessions of the principal among ticket documents that were stored
+     * before the principal field was introduced and thus carry no principal.
+     * Such documents are examined one by one, and are only found for as long as they have not expired
+     * or have not been updated since, at which point the principal field is recorded.
+     *
+     * @param principalId the principal id
+     * @return the sessions
+     */
+    private Stream<? extends Ticket> getLegacySessionsFor(final String principalId) {
+        val normalizedPrincipalId = normalizePrincipalId(principalId);
+        val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_PRINCIPAL).is(null));
+        return ticketCatalog.find(TicketGrantingTicket.class)
+            .stream()
+            .map(this::getTicketCollectionInstanceByMetadata)
+            .map(map -> mongoTemplate.stream(query, TicketHolder.class, map))
+            .flatMap(StreamUtils::createStreamFromIterator)
+            .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)))
+            .filter(Objects::nonNull)
+            .filter(ticket -> StringUtils.equals(normalizedPrincipalId, getPrincipalIdFrom(ticket)));
+    }
+
     private long countTicketsByTicketType(final Class<? extends Ticket> ticketType) {
         val ticketDefinitions = ticketCatalog.find(ticketType);
         return ticketDefinitions.stream()
@@ -215,9 +254,13 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         val encTicket = encodeTicket(ticket);
         val json = serializeTicketForMongoDocument(encTicket);
         if (StringUtils.isNotBlank(json)) {
-            LOGGER.trace("Serialized ticket into a JSON document as \n [{}]", JsonValue.readJSON(json).toString(Stringify.FORMATTED));
+            if (LOGGER.isTraceEnabled()) {
+                val document = json.trim().startsWith("{") ? JsonValue.readJSON(json).toString(Stringify.FORMATTED) : json;
+                LOGGER.trace("Serialized ticket into a document as \n [{}]", document);
+            }
             val expireAt = getExpireAt(ticket);
-            return new TicketHolder(json, encTicket.getId(), encTicket.getClass().getName(), expireAt);
+            val principal = encodePrincipalId(getPrincipalIdFrom(ticket));
+            return new TicketHolder(json, encTicket.getId(), encTicket.getClass().getName(), principal, expireAt);
         }
         throw new IllegalArgumentException("Ticket " + ticket.getId() + " cannot be serialized to JSON");
     }
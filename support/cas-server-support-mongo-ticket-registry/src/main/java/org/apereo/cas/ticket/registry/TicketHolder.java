@@ -43,6 +43,11 @@ public class TicketHolder implements Serializable {
      */
     public static final String FIELD_NAME_ID = "ticketId";
 
+    /**
+     * Field name to hold the principal id linked to ticket-granting tickets.
+     */
+    public static final String FIELD_NAME_PRINCIPAL = "principal";
+
     private static final long serialVersionUID = -4843440028617071224L;
 
     @JsonProperty
@@ -54,5 +59,8 @@ public class TicketHolder implements Serializable {
     @JsonProperty
     private final String type;
 
+    @JsonProperty
+    private final String principal;
+
     private final Date expireAt;
 }
@@ -58,7 +58,8 @@ public class MongoDbTicketRegistryFacilitator {
             .onField(TicketHolder.FIELD_NAME_TYPE)
             .onField(TicketHolder.FIELD_NAME_ID)
             .build();
-        MongoDbConnectionFactory.createOrUpdateIndexes(mongoTemplate, collection, List.of(expireIndex, columnsIndex));
+        val principalIndex = new Index().on(TicketHolder.FIELD_NAME_PRINCIPAL, Sort.Direction.ASC);
+        MongoDbConnectionFactory.createOrUpdateIndexes(mongoTemplate, collection, List.of(expireIndex, columnsIndex, principalIndex));
         return collection;
     }
 }
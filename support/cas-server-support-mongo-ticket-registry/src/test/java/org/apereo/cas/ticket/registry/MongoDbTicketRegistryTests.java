@@ -28,8 +28,11 @@ import org.apereo.cas.mock.MockTicketGrantingTicket;
 import org.apereo.cas.ticket.DefaultTicketDefinition;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.serialization.CompactBinaryTicketSerializationManager;
+import org.apereo.cas.ticket.serialization.TicketSerializationExecutionPlan;
 import org.apereo.cas.ticket.serialization.TicketSerializationManager;
 import org.apereo.cas.util.junit.EnabledIfPortOpen;
 
@@ -106,6 +109,14 @@ public class MongoDbTicketRegistryTests extends BaseTicketRegistryTests {
     @Qualifier("mongoDbTicketRegistryTemplate")
     private MongoTemplate mongoDbTicketRegistryTemplate;
 
+    @Autowired
+    @Qualifier("ticketCatalog")
+    private TicketCatalog ticketCatalog;
+
+    @Autowired
+    @Qualifier("ticketSerializationExecutionPlan")
+    private TicketSerializationExecutionPlan ticketSerializationExecutionPlan;
+
     @BeforeEach
     public void before() {
         newTicketRegistry.deleteAll();
@@ -119,6 +130,22 @@ public class MongoDbTicketRegistryTests extends BaseTicketRegistryTests {
         assertNull(result);
     }
 
+    @RepeatedTest(1)
+    public void verifyBinarySerialization() {
+        val mgr = new CompactBinaryTicketSerializationManager(ticketSerializationExecutionPlan, true);
+        val registry = new MongoDbTicketRegistry(ticketCatalog, mongoDbTicketRegistryTemplate, mgr);
+        val ticket = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(ticket);
+        val added = registry.getTicket(ticket.getId(), TicketGrantingTicket.class);
+        assertNotNull(added);
+        assertEquals(ticket, added);
+        assertEquals(ticket.getAuthentication().getPrincipal(), added.getAuthentication().getPrincipal());
+        assertNotNull(registry.updateTicket(added));
+        assertEquals(1, registry.deleteTicket(ticket.getId()));
+        assertNull(registry.getTicket(ticket.getId()));
+    }
+
     @RepeatedTest(1)
     public void verifyBadTicketInCatalog() {
         val ticket = new MockTicketGrantingTicket("casuser");
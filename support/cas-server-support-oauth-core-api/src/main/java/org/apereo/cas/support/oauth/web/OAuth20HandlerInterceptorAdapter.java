@@ -6,6 +6,7 @@ import org.apereo.cas.support.oauth.OAuth20ResponseTypes;
 import org.apereo.cas.support.oauth.util.OAuth20Utils;
 import org.apereo.cas.support.oauth.validator.authorization.OAuth20AuthorizationRequestValidator;
 import org.apereo.cas.support.oauth.web.response.accesstoken.ext.AccessTokenGrantRequestExtractor;
+import org.apereo.cas.util.RegexUtils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -19,8 +20,6 @@ import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Pattern;
-
 
 /**
  * This is {@link OAuth20HandlerInterceptorAdapter}.
@@ -184,7 +183,7 @@ public class OAuth20HandlerInterceptorAdapter implements AsyncHandlerInterceptor
      * @return true/false
      */
     protected boolean doesUriMatchPattern(final String requestPath, final String patternUrl) {
-        val pattern = Pattern.compile('/' + patternUrl + "(/)*$");
+        val pattern = RegexUtils.createPattern('/' + patternUrl + "(/)*$", 0);
         return pattern.matcher(requestPath).find();
     }
 
@@ -10,9 +10,12 @@ import org.apereo.cas.authentication.principal.PrincipalResolver;
 import org.apereo.cas.authentication.principal.resolvers.InternalGroovyScriptDao;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.authentication.JdbcPrincipalAttributesProperties;
+import org.apereo.cas.configuration.model.core.authentication.PrincipalAttributesCoreProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.JpaBeans;
 import org.apereo.cas.persondir.DefaultPersonDirectoryAttributeRepositoryPlan;
+import org.apereo.cas.persondir.ParallelAttributeRepositoryStatistics;
+import org.apereo.cas.persondir.ParallelMergingPersonAttributeDao;
 import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlan;
 import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlanConfigurer;
 import org.apereo.cas.util.CollectionUtils;
@@ -44,6 +47,7 @@ import org.apereo.services.persondir.support.jdbc.AbstractJdbcPersonAttributeDao
 import org.apereo.services.persondir.support.jdbc.MultiRowJdbcPersonAttributeDao;
 import org.apereo.services.persondir.support.jdbc.SingleRowJdbcPersonAttributeDao;
 import org.apereo.services.persondir.support.ldap.LdaptivePersonAttributeDao;
+import org.apereo.services.persondir.support.merger.IAttributeMerger;
 import org.apereo.services.persondir.util.CaseCanonicalizationMode;
 import org.jooq.lambda.Unchecked;
 import org.ldaptive.handler.LdapEntryHandler;
@@ -69,6 +73,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -189,21 +195,24 @@ public class CasPersonDirectoryConfiguration {
         return impl;
     }
 
+    @Bean
+    @ConditionalOnMissingBean(name = "parallelAttributeRepositoryStatistics")
+    public ParallelAttributeRepositoryStatistics parallelAttributeRepositoryStatistics() {
+        return new ParallelAttributeRepositoryStatistics();
+    }
+
     @Bean
     @ConditionalOnMissingBean(name = "aggregatingAttributeRepository")
     @RefreshScope
     public IPersonAttributeDao aggregatingAttributeRepository() {
-        val aggregate = getAggregateAttributeRepository();
-
         val properties = casProperties.getAuthn().getAttributeRepository();
         val attributeMerger = CoreAuthenticationUtils.getAttributeMerger(properties.getCore().getMerger());
         LOGGER.trace("Configured merging strategy for attribute sources is [{}]", attributeMerger);
-        aggregate.setMerger(attributeMerger);
-
         val list = personDirectoryAttributeRepositoryPlan().getAttributeRepositories();
-        aggregate.setPersonAttributeDaos(list);
 
-        aggregate.setRequireAll(properties.getCore().isRequireAllRepositorySources());
+        val aggregate = properties.getCore().getAggregation() == PrincipalAttributesCoreProperties.AggregationStrategyTypes.PARALLEL
+            ? getParallelAttributeRepository(list, attributeMerger)
+            : getSequentialAttributeRepository(list, attributeMerger);
         if (list.isEmpty()) {
             LOGGER.debug("No attribute repository sources are available/defined to merge together.");
         } else {
@@ -216,6 +225,33 @@ public class CasPersonDirectoryConfiguration {
         return aggregate;
     }
 
+    private IPersonAttributeDao getParallelAttributeRepository(final List<IPersonAttributeDao> list,
+                                                               final IAttributeMerger attributeMerger) {
+        val properties = casProperties.getAuthn().getAttributeRepository().getCore();
+        val parallel = properties.getParallel();
+        val poolSize = Math.max(1, parallel.getPoolSize());
+        val executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, parallel.getQueueCapacity())),
+            new ThreadPoolExecutor.AbortPolicy());
+        val dao = new ParallelMergingPersonAttributeDao(list, attributeMerger, executor,
+            Beans.newDuration(parallel.getTimeout()), parallelAttributeRepositoryStatistics());
+        dao.setRequireAll(properties.isRequireAllRepositorySources());
+        dao.setReturnPartialResults(parallel.isReturnPartialResults());
+        dao.setFailureThreshold(parallel.getFailureThreshold());
+        dao.setSkipDuration(Beans.newDuration(parallel.getSkipDuration()));
+        return dao;
+    }
+
+    private IPersonAttributeDao getSequentialAttributeRepository(final List<IPersonAttributeDao> list,
+                                                                 final IAttributeMerger attributeMerger) {
+        val properties = casProperties.getAuthn().getAttributeRepository();
+        val aggregate = getAggregateAttributeRepository();
+        aggregate.setMerger(attributeMerger);
+        aggregate.setPersonAttributeDaos(list);
+        aggregate.setRequireAll(properties.getCore().isRequireAllRepositorySources());
+        return aggregate;
+    }
+
     private AbstractAggregatingDefaultQueryPersonAttributeDao getAggregateAttributeRepository() {
         val properties = casProperties.getAuthn().getAttributeRepository();
         switch (properties.getCore().getAggregation()) {
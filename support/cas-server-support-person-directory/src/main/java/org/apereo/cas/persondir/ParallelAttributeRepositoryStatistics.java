@@ -0,0 +1,52 @@
+package org.apereo.cas.persondir;
+
+import lombok.val;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link ParallelAttributeRepositoryStatistics}.
+ * Holds the statistics of attribute repositories queried by {@link ParallelMergingPersonAttributeDao},
+ * keyed by the repository id. Statistics are kept apart from the DAO so that they survive the DAO
+ * being rebuilt when the configuration is refreshed. Observers are handed the statistics of every
+ * repository, including repositories that are only added later, such as to publish them as metrics.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+public class ParallelAttributeRepositoryStatistics {
+    private final Map<String, ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final List<Consumer<ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics>> observers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register an observer that is handed the statistics of each attribute repository.
+     *
+     * @param observer the observer
+     */
+    public synchronized void addObserver(final Consumer<ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics> observer) {
+        observers.add(observer);
+        statistics.values().forEach(observer);
+    }
+
+    /**
+     * Gets the statistics of the attribute repository, which are created if not yet present.
+     *
+     * @param name the repository id
+     * @return the statistics
+     */
+    synchronized ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics getStatistics(final String name) {
+        var result = statistics.get(name);
+        if (result == null) {
+            val created = new ParallelMergingPersonAttributeDao.AttributeRepositoryStatistics(name);
+            statistics.put(name, created);
+            observers.forEach(observer -> observer.accept(created));
+            result = created;
+        }
+        return result;
+    }
+}
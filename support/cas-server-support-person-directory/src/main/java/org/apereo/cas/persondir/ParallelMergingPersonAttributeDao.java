@@ -0,0 +1,431 @@
+package org.apereo.cas.persondir;
+
+import org.apereo.cas.authentication.CoreAuthenticationUtils;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributeDaoFilter;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.BasePersonAttributeDao;
+import org.apereo.services.persondir.support.CaseInsensitiveNamedPersonImpl;
+import org.apereo.services.persondir.support.merger.IAttributeMerger;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link ParallelMergingPersonAttributeDao}.
+ * Queries all attribute repositories that are chosen by the query filter concurrently on the given executor and merges
+ * the results in the order of the repositories, using the configured {@link IAttributeMerger}.
+ * Each repository must respond within the timeout, which is measured from the time the query
+ * is submitted, so that the overall latency is bounded by the slowest repository that responds in time
+ * rather than the sum of all repositories. Repositories that fail or time out repeatedly are skipped
+ * for a period of time, and repositories whose queries cannot be accepted by a saturated executor
+ * are skipped for that query. Latency, failures and timeouts are tracked per repository,
+ * in the given {@link ParallelAttributeRepositoryStatistics}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+@Getter
+@Setter
+public class ParallelMergingPersonAttributeDao extends BasePersonAttributeDao implements DisposableBean {
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final List<AttributeRepositorySource> sources;
+
+    @Setter(AccessLevel.NONE)
+    private final IAttributeMerger merger;
+
+    @Setter(AccessLevel.NONE)
+    private final ExecutorService executorService;
+
+    @Setter(AccessLevel.NONE)
+    private final Duration timeout;
+
+    /**
+     * Merge results of repositories that did respond, if one or more repositories
+     * fail, time out or are skipped; otherwise the query fails altogether.
+     */
+    private boolean returnPartialResults = true;
+
+    /**
+     * Require all repositories to produce results; otherwise, no results are returned.
+     */
+    private boolean requireAll;
+
+    /**
+     * Number of consecutive failures after which a repository is skipped.
+     */
+    private int failureThreshold;
+
+    /**
+     * How long a repository is skipped for once it has reached the failure threshold.
+     */
+    private Duration skipDuration = Duration.ZERO;
+
+    public ParallelMergingPersonAttributeDao(final List<IPersonAttributeDao> personAttributeDaos,
+                                             final IAttributeMerger merger,
+                                             final ExecutorService executorService,
+                                             final Duration timeout) {
+        this(personAttributeDaos, merger, executorService, timeout, new ParallelAttributeRepositoryStatistics());
+    }
+
+    public ParallelMergingPersonAttributeDao(final List<IPersonAttributeDao> personAttributeDaos,
+                                             final IAttributeMerger merger,
+                                             final ExecutorService executorService,
+                                             final Duration timeout,
+                                             final ParallelAttributeRepositoryStatistics statistics) {
+        this.sources = personAttributeDaos.stream()
+            .map(dao -> new AttributeRepositorySource(dao, statistics))
+            .collect(Collectors.toList());
+        this.merger = merger;
+        this.executorService = executorService;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public IPersonAttributes getPerson(final String uid, final IPersonAttributeDaoFilter filter) {
+        val results = execute(filter, dao -> dao.getPerson(uid, filter));
+        if (results == null) {
+            return null;
+        }
+        Map<String, List<Object>> attributes = null;
+        for (val person : results) {
+            attributes = attributes == null
+                ? new LinkedHashMap<>(person.getAttributes())
+                : CoreAuthenticationUtils.mergeAttributes(attributes, person.getAttributes(), merger);
+        }
+        return attributes == null ? null : new CaseInsensitiveNamedPersonImpl(uid, attributes);
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeople(final Map<String, Object> query, final IPersonAttributeDaoFilter filter) {
+        return mergeResults(execute(filter, dao -> dao.getPeople(query, filter)));
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query,
+                                                                     final IPersonAttributeDaoFilter filter) {
+        return mergeResults(execute(filter, dao -> dao.getPeopleWithMultivaluedAttributes(query, filter)));
+    }
+
+    @Override
+    public Set<String> getPossibleUserAttributeNames(final IPersonAttributeDaoFilter filter) {
+        Set<String> names = new LinkedHashSet<>(0);
+        for (val source : getChosenSources(filter)) {
+            val sourceNames = source.getPersonAttributeDao().getPossibleUserAttributeNames(filter);
+            if (sourceNames == null) {
+                return null;
+            }
+            names = merger.mergePossibleUserAttributeNames(names, sourceNames);
+        }
+        return names;
+    }
+
+    @Override
+    public Set<String> getAvailableQueryAttributes(final IPersonAttributeDaoFilter filter) {
+        Set<String> names = new LinkedHashSet<>(0);
+        for (val source : getChosenSources(filter)) {
+            val sourceNames = source.getPersonAttributeDao().getAvailableQueryAttributes(filter);
+            if (sourceNames == null) {
+                return null;
+            }
+            names = merger.mergeAvailableQueryAttributes(names, sourceNames);
+        }
+        return names;
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Statistics collected for each attribute repository, keyed by the repository id.
+     *
+     * @return the statistics
+     */
+    public Map<String, AttributeRepositoryStatistics> getStatistics() {
+        val statistics = new LinkedHashMap<String, AttributeRepositoryStatistics>(sources.size());
+        sources.forEach(source -> statistics.putIfAbsent(source.getName(), source.getStatistics()));
+        return statistics;
+    }
+
+    private Set<IPersonAttributes> mergeResults(final List<Set<IPersonAttributes>> results) {
+        if (results == null) {
+            return null;
+        }
+        Set<IPersonAttributes> people = null;
+        for (val result : results) {
+            people = people == null ? new LinkedHashSet<>(result) : merger.mergeResults(people, result);
+        }
+        return people;
+    }
+
+    /**
+     * Gets the repositories that are chosen by the filter, in the order of repositories.
+     *
+     * @param filter the filter
+     * @return the chosen repositories
+     */
+    private List<AttributeRepositorySource> getChosenSources(final IPersonAttributeDaoFilter filter) {
+        if (filter == null) {
+            return sources;
+        }
+        return sources.stream()
+            .filter(source -> {
+                val chosen = filter.choosePersonAttributeDao(source.getPersonAttributeDao());
+                if (!chosen) {
+                    LOGGER.trace("Attribute repository [{}] is not chosen by the filter", source.getName());
+                }
+                return chosen;
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Submit the query to all repositories that are chosen by the filter and are not skipped,
+     * and collect the results of repositories that respond in time, in the order of repositories.
+     * Repositories that produce no results are left out.
+     *
+     * @return the results, or null if all repositories were required to produce results and did not
+     */
+    private <T> List<T> execute(final IPersonAttributeDaoFilter filter, final Function<IPersonAttributeDao, T> query) {
+        val chosenSources = getChosenSources(filter);
+        val deadline = System.nanoTime() + timeout.toNanos();
+        val submitted = new ArrayList<Future<T>>(chosenSources.size());
+        for (val source : chosenSources) {
+            if (source.isSkipped()) {
+                LOGGER.debug("Skipping attribute repository [{}] after repeated failures", source.getName());
+                source.getStatistics().skipped.increment();
+                submitted.add(null);
+            } else {
+                submitted.add(submit(source, query));
+            }
+        }
+
+        val results = new ArrayList<T>(chosenSources.size());
+        var complete = true;
+        for (var i = 0; i < chosenSources.size(); i++) {
+            val source = chosenSources.get(i);
+            val future = submitted.get(i);
+            if (future == null) {
+                complete = false;
+                continue;
+            }
+            try {
+                val result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                source.recordSuccess();
+                if (isEmpty(result)) {
+                    LOGGER.trace("Attribute repository [{}] produced no results", source.getName());
+                    if (requireAll) {
+                        complete = false;
+                    }
+                } else {
+                    results.add(result);
+                }
+            } catch (final TimeoutException e) {
+                future.cancel(true);
+                LOGGER.warn("Attribute repository [{}] did not respond within [{}]", source.getName(), timeout);
+                source.getStatistics().timeouts.increment();
+                source.recordFailure();
+                complete = false;
+            } catch (final ExecutionException e) {
+                LOGGER.warn("Attribute repository [{}] failed to produce results: [{}]", source.getName(), e.getCause().getMessage());
+                LOGGER.debug(e.getCause().getMessage(), e.getCause());
+                source.getStatistics().failures.increment();
+                source.recordFailure();
+                complete = false;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                submitted.stream().filter(Objects::nonNull).forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Interrupted while fetching attributes from attribute repositories", e);
+            }
+        }
+
+        if (!complete) {
+            if (requireAll) {
+                LOGGER.debug("Not all attribute repositories produced results; no results are returned");
+                return null;
+            }
+            if (!returnPartialResults) {
+                throw new IllegalStateException("Unable to fetch attributes from all attribute repositories");
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Submit the query to the executor. A query that is rejected because the executor
+     * is saturated is not run at all, and the repository is counted as skipped for this query.
+     *
+     * @return the future, or null if the query was rejected
+     */
+    private <T> Future<T> submit(final AttributeRepositorySource source, final Function<IPersonAttributeDao, T> query) {
+        try {
+            return executorService.submit(() -> source.query(query));
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Attribute repository [{}] is skipped since the executor cannot accept more queries", source.getName());
+            source.getStatistics().skipped.increment();
+            return null;
+        }
+    }
+
+    private static boolean isEmpty(final Object result) {
+        return result == null || result instanceof Set && ((Set<?>) result).isEmpty();
+    }
+
+    /**
+     * Attribute repository queried by this DAO, along with its failure tracking and statistics.
+     */
+    @Getter
+    private class AttributeRepositorySource {
+        private final IPersonAttributeDao personAttributeDao;
+
+        private final String name;
+
+        private final AttributeRepositoryStatistics statistics;
+
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        private volatile long skipUntil;
+
+        AttributeRepositorySource(final IPersonAttributeDao personAttributeDao,
+                                  final ParallelAttributeRepositoryStatistics repositoryStatistics) {
+            this.personAttributeDao = personAttributeDao;
+            this.name = Arrays.toString(personAttributeDao.getId());
+            this.statistics = repositoryStatistics.getStatistics(name);
+        }
+
+        <T> T query(final Function<IPersonAttributeDao, T> query) {
+            val start = System.nanoTime();
+            try {
+                return query.apply(personAttributeDao);
+            } finally {
+                statistics.record(System.nanoTime() - start);
+            }
+        }
+
+        boolean isSkipped() {
+            return skipUntil - System.nanoTime() > 0;
+        }
+
+        void recordSuccess() {
+            consecutiveFailures.set(0);
+        }
+
+        void recordFailure() {
+            val failures = consecutiveFailures.incrementAndGet();
+            if (failureThreshold > 0 && failures >= failureThreshold) {
+                LOGGER.warn("Attribute repository [{}] failed [{}] consecutive time(s) and will be skipped for [{}]",
+                    name, failures, skipDuration);
+                skipUntil = System.nanoTime() + skipDuration.toNanos();
+            }
+        }
+    }
+
+    /**
+     * Failure statistics of a single attribute repository.
+     * The latency of each query is handed to the registered observers,
+     * such as a timer that is published by the metrics module.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    public static class AttributeRepositoryStatistics {
+        private final String name;
+
+        @Getter(AccessLevel.NONE)
+        private final LongAdder queries = new LongAdder();
+
+        @Getter(AccessLevel.NONE)
+        private final LongAdder failures = new LongAdder();
+
+        @Getter(AccessLevel.NONE)
+        private final LongAdder timeouts = new LongAdder();
+
+        @Getter(AccessLevel.NONE)
+        private final LongAdder skipped = new LongAdder();
+
+        @Getter(AccessLevel.NONE)
+        private final List<Consumer<Duration>> latencyObservers = new CopyOnWriteArrayList<>();
+
+        /**
+         * Number of queries that completed, successfully or not.
+         *
+         * @return the count
+         */
+        public long getQueries() {
+            return queries.sum();
+        }
+
+        /**
+         * Number of queries that failed.
+         *
+         * @return the count
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Number of queries that did not complete in time.
+         *
+         * @return the count
+         */
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        /**
+         * Number of queries for which the repository was skipped, after repeated failures
+         * or because the executor could not accept the query.
+         *
+         * @return the count
+         */
+        public long getSkipped() {
+            return skipped.sum();
+        }
+
+        /**
+         * Register an observer that receives the latency of each query.
+         *
+         * @param observer the observer
+         */
+        public void addLatencyObserver(final Consumer<Duration> observer) {
+            latencyObservers.add(observer);
+        }
+
+        void record(final long latencyNanos) {
+            queries.increment();
+            val latency = Duration.ofNanos(latencyNanos);
+            latencyObservers.forEach(observer -> observer.accept(latency));
+        }
+    }
+}
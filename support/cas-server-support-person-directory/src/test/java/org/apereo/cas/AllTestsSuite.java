@@ -30,7 +30,8 @@ import org.junit.runner.RunWith;
     CasPersonDirectoryConfigurationMergeAggregationTests.class,
     CasPersonDirectoryConfigurationCascadeAggregationTests.class,
     DefaultAttributeDefinitionStoreTests.class,
-    JdbcSingleRowAttributeRepositoryPostgresTests.class
+    JdbcSingleRowAttributeRepositoryPostgresTests.class,
+    ParallelMergingPersonAttributeDaoTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllTestsSuite {
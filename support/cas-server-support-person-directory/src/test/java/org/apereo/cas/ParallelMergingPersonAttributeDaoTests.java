@@ -0,0 +1,185 @@
+package org.apereo.cas;
+
+import org.apereo.cas.persondir.ParallelAttributeRepositoryStatistics;
+import org.apereo.cas.persondir.ParallelMergingPersonAttributeDao;
+import org.apereo.cas.util.CollectionUtils;
+
+import lombok.val;
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributeDaoFilter;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.CaseInsensitiveNamedPersonImpl;
+import org.apereo.services.persondir.support.merger.MultivaluedAttributeMerger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link ParallelMergingPersonAttributeDaoTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Attributes")
+public class ParallelMergingPersonAttributeDaoTests {
+    private static final Map<String, Object> QUERY = Map.of("username", "casuser");
+
+    private ParallelMergingPersonAttributeDao dao;
+
+    @AfterEach
+    public void shutdown() {
+        if (dao != null) {
+            dao.destroy();
+        }
+    }
+
+    @Test
+    public void verifyRepositoriesQueriedConcurrently() {
+        dao = new ParallelMergingPersonAttributeDao(
+            List.of(getAttributeRepository("first", 500, "cn", "cas"), getAttributeRepository("second", 500, "mail", "cas@example.org")),
+            new MultivaluedAttributeMerger(), Executors.newFixedThreadPool(2), Duration.ofSeconds(5));
+        val latencies = new CopyOnWriteArrayList<Duration>();
+        dao.getStatistics().get("[first]").addLatencyObserver(latencies::add);
+
+        val start = System.currentTimeMillis();
+        val person = getSinglePerson(dao.getPeople(QUERY, IPersonAttributeDaoFilter.alwaysChoose()));
+        assertTrue(System.currentTimeMillis() - start < 950);
+        assertEquals("cas", person.getAttributeValue("cn"));
+        assertEquals("cas@example.org", person.getAttributeValue("mail"));
+
+        val statistics = dao.getStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(1, statistics.get("[first]").getQueries());
+        assertEquals(1, latencies.size());
+        assertTrue(latencies.get(0).toMillis() >= 500);
+    }
+
+    @Test
+    public void verifySlowRepositoryIgnored() {
+        dao = new ParallelMergingPersonAttributeDao(
+            List.of(getAttributeRepository("fast", 0, "cn", "cas"), getAttributeRepository("slow", 5_000, "mail", "cas@example.org")),
+            new MultivaluedAttributeMerger(), Executors.newFixedThreadPool(2), Duration.ofMillis(250));
+
+        val person = getSinglePerson(dao.getPeople(QUERY, IPersonAttributeDaoFilter.alwaysChoose()));
+        assertEquals("cas", person.getAttributeValue("cn"));
+        assertNull(person.getAttributeValue("mail"));
+        assertEquals(1, dao.getStatistics().get("[slow]").getTimeouts());
+
+        dao.setReturnPartialResults(false);
+        assertThrows(IllegalStateException.class, () -> dao.getPeople(QUERY, IPersonAttributeDaoFilter.alwaysChoose()));
+
+        dao.setReturnPartialResults(true);
+        dao.setRequireAll(true);
+        assertNull(dao.getPeople(QUERY, IPersonAttributeDaoFilter.alwaysChoose()));
+    }
+
+    @Test
+    public void verifyFailingRepositorySkipped() {
+        val failing = mock(IPersonAttributeDao.class);
+        when(failing.getId()).thenReturn(new String[]{"failing"});
+        when(failing.getPeople(anyMap(), any())).thenThrow(new IllegalArgumentException("Unavailable"));
+
+        dao = new ParallelMergingPersonAttributeDao(List.of(getAttributeRepository("working", 0, "cn", "cas"), failing),
+            new MultivaluedAttributeMerger(), Executors.newFixedThreadPool(2), Duration.ofSeconds(5));
+        dao.setFailureThreshold(1);
+        dao.setSkipDuration(Duration.ofMinutes(1));
+
+        for (var i = 0; i < 2; i++) {
+            val person = getSinglePerson(dao.getPeople(QUERY, IPersonAttributeDaoFilter.alwaysChoose()));
+            assertEquals("cas", person.getAttributeValue("cn"));
+        }
+        verify(failing, times(1)).getPeople(anyMap(), any());
+        val statistics = dao.getStatistics().get("[failing]");
+        assertEquals(1, statistics.getFailures());
+        assertEquals(1, statistics.getSkipped());
+    }
+
+    @Test
+    public void verifyRejectedRepositorySkipped() {
+        val executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        dao = new ParallelMergingPersonAttributeDao(
+            List.of(getAttributeRepository("running", 250, "cn", "cas"),
+                getAttributeRepository("queued", 0, "mail", "cas@example.org"),
+                getAttributeRepository("rejected", 0, "phone", "123456")),
+            new MultivaluedAttributeMerger(), executor, Duration.ofSeconds(5));
+
+        val person = getSinglePerson(dao.getPeople(QUERY, IPersonAttributeDaoFilter.alwaysChoose()));
+        assertEquals("cas", person.getAttributeValue("cn"));
+        assertEquals("cas@example.org", person.getAttributeValue("mail"));
+        assertNull(person.getAttributeValue("phone"));
+        assertEquals(1, dao.getStatistics().get("[rejected]").getSkipped());
+        assertEquals(0, dao.getStatistics().get("[rejected]").getQueries());
+    }
+
+    @Test
+    public void verifyFilteredRepositoryNotQueried() {
+        val chosen = getAttributeRepository("chosen", 0, "cn", "cas");
+        val filtered = getAttributeRepository("filtered", 0, "mail", "cas@example.org");
+        when(filtered.getPossibleUserAttributeNames(any())).thenReturn(Set.of("mail"));
+        when(chosen.getPossibleUserAttributeNames(any())).thenReturn(Set.of("cn"));
+        dao = new ParallelMergingPersonAttributeDao(List.of(chosen, filtered),
+            new MultivaluedAttributeMerger(), Executors.newFixedThreadPool(2), Duration.ofSeconds(5));
+        dao.setRequireAll(true);
+
+        final IPersonAttributeDaoFilter filter = repository -> Arrays.asList(repository.getId()).contains("chosen");
+        val person = getSinglePerson(dao.getPeople(QUERY, filter));
+        assertEquals("cas", person.getAttributeValue("cn"));
+        assertNull(person.getAttributeValue("mail"));
+        verify(filtered, never()).getPeople(anyMap(), any());
+        assertEquals(0, dao.getStatistics().get("[filtered]").getQueries());
+        assertEquals(Set.of("cn"), dao.getPossibleUserAttributeNames(filter));
+        verify(filtered, never()).getPossibleUserAttributeNames(any());
+    }
+
+    @Test
+    public void verifyStatisticsSharedAcrossInstances() {
+        val statistics = new ParallelAttributeRepositoryStatistics();
+        val observed = new CopyOnWriteArrayList<String>();
+        statistics.addObserver(repository -> observed.add(repository.getName()));
+        val first = new ParallelMergingPersonAttributeDao(List.of(getAttributeRepository("shared", 0, "cn", "cas")),
+            new MultivaluedAttributeMerger(), Executors.newFixedThreadPool(1), Duration.ofSeconds(5), statistics);
+        try {
+            assertNotNull(getSinglePerson(first.getPeople(QUERY, IPersonAttributeDaoFilter.alwaysChoose())));
+        } finally {
+            first.destroy();
+        }
+        dao = new ParallelMergingPersonAttributeDao(List.of(getAttributeRepository("shared", 0, "cn", "cas")),
+            new MultivaluedAttributeMerger(), Executors.newFixedThreadPool(1), Duration.ofSeconds(5), statistics);
+        assertNotNull(getSinglePerson(dao.getPeople(QUERY, IPersonAttributeDaoFilter.alwaysChoose())));
+        assertEquals(2, dao.getStatistics().get("[shared]").getQueries());
+        assertEquals(List.of("[shared]"), observed);
+    }
+
+    private static IPersonAttributeDao getAttributeRepository(final String id, final long delay,
+                                                              final String name, final Object value) {
+        val repository = mock(IPersonAttributeDao.class);
+        when(repository.getId()).thenReturn(new String[]{id});
+        when(repository.getPeople(anyMap(), any())).thenAnswer(args -> {
+            Thread.sleep(delay);
+            return Set.of(new CaseInsensitiveNamedPersonImpl("casuser", Map.of(name, CollectionUtils.wrapList(value))));
+        });
+        return repository;
+    }
+
+    private static IPersonAttributes getSinglePerson(final Set<IPersonAttributes> people) {
+        assertNotNull(people);
+        assertEquals(1, people.size());
+        return people.iterator().next();
+    }
+}
@@ -1,10 +1,15 @@
 package org.apereo.cas.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.redis.core.RedisObjectFactory;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.registry.NearCachingTicketRegistry;
+import org.apereo.cas.ticket.registry.RedisTicketCacheInvalidationPublisher;
 import org.apereo.cas.ticket.registry.RedisTicketRegistry;
+import org.apereo.cas.ticket.registry.RedisTicketRegistryCleanerLeaseStore;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.support.TicketRegistryCleanerLeaseStore;
 import org.apereo.cas.util.CoreTicketUtils;
 
 import lombok.val;
@@ -17,6 +22,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * This is {@link RedisTicketRegistryConfiguration}.
@@ -53,6 +61,40 @@ public class RedisTicketRegistryConfiguration {
         val redis = casProperties.getTicket().getRegistry().getRedis();
         val r = new RedisTicketRegistry(ticketRedisTemplate());
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(redis.getCrypto(), "redis"));
+        r.setTicketGrantingTicketStateEncodingEnabled(
+            casProperties.getTicket().getRegistry().getSerialization().isSeparateTicketGrantingTicketAuthentication());
+        r.setScanCount(redis.getScanCount());
+        r.setBatchSize(redis.getBatchSize());
+
+        val nearCache = casProperties.getTicket().getRegistry().getNearCache();
+        if (nearCache.isEnabled()) {
+            val publisher = redisTicketCacheInvalidationPublisher();
+            val registry = new NearCachingTicketRegistry(r, nearCache.getMaximumSize(),
+                Beans.newDuration(nearCache.getTimeToLive()), publisher);
+            publisher.setListener(registry::invalidate);
+            return registry;
+        }
         return r;
     }
+
+    @Bean
+    public TicketRegistryCleanerLeaseStore ticketRegistryCleanerLeaseStore() {
+        return new RedisTicketRegistryCleanerLeaseStore(new StringRedisTemplate(redisTicketConnectionFactory()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "redisTicketCacheInvalidationPublisher")
+    public RedisTicketCacheInvalidationPublisher redisTicketCacheInvalidationPublisher() {
+        return new RedisTicketCacheInvalidationPublisher(ticketRedisTemplate());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cas.ticket.registry.near-cache", name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer redisTicketCacheInvalidationListenerContainer() {
+        val container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisTicketConnectionFactory());
+        container.addMessageListener(redisTicketCacheInvalidationPublisher(),
+            new ChannelTopic(RedisTicketCacheInvalidationPublisher.CHANNEL));
+        return container;
+    }
 }
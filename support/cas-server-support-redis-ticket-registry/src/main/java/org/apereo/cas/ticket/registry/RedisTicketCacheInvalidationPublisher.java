@@ -0,0 +1,64 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link RedisTicketCacheInvalidationPublisher}.
+ * Broadcasts ticket cache invalidation notices over a redis pub/sub channel,
+ * and hands over notices published by other nodes to the registered listener.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisTicketCacheInvalidationPublisher implements TicketCacheInvalidationPublisher, MessageListener {
+    /**
+     * Redis channel used to broadcast invalidation notices.
+     */
+    public static final String CHANNEL = "CAS_TICKET_CACHE_INVALIDATION";
+
+    private static final char SEPARATOR = ':';
+
+    private final RedisTemplate<String, Ticket> client;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Setter
+    private Consumer<String> listener = cacheKey -> {
+    };
+
+    @Override
+    public void publish(final String cacheKey) {
+        val message = (nodeId + SEPARATOR + cacheKey).getBytes(StandardCharsets.UTF_8);
+        val channel = CHANNEL.getBytes(StandardCharsets.UTF_8);
+        client.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+    }
+
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+        val body = new String(message.getBody(), StandardCharsets.UTF_8);
+        val origin = StringUtils.substringBefore(body, String.valueOf(SEPARATOR));
+        if (!nodeId.equals(origin)) {
+            val cacheKey = StringUtils.substringAfter(body, String.valueOf(SEPARATOR));
+            LOGGER.trace("Invalidating cached ticket [{}] per notice from [{}]", cacheKey, origin);
+            listener.accept(cacheKey);
+        }
+    }
+}
@@ -1,63 +1,156 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.EncodedTicket;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.util.DigestUtils;
 import org.apereo.cas.util.LoggingUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
  * Key-value ticket registry implementation that stores tickets in redis keyed on the ticket ID.
+ * Ticket keys are always namespaced by the ticket type prefix, even when ticket ids are encoded,
+ * and are tracked in a sorted set per ticket type, scored by the time at which redis expires the key,
+ * so that tickets of a given type are counted without scanning keys or decoding ticket values.
+ * Bulk reads and deletes use incremental {@code SCAN} operations and operate on batches of keys
+ * using {@code MGET} and {@code UNLINK}; reads of tickets of given types only scan the keys
+ * of those types, so that other tickets are neither fetched nor decoded. Related tickets that are added
+ * and updated together are written in a single pipeline, as are the keys removed when a ticket is deleted.
+ * Encoded tickets that were stored before keys were namespaced are still found, and are moved
+ * to the namespaced key when updated.
+ * Ticket-granting tickets whose authentication is encoded separately are stored as two keys,
+ * so that the authentication is only written again when it changes rather than on every update.
  *
  * @author serv
  * @since 5.1.0
  */
 @Slf4j
+@Setter
 @RequiredArgsConstructor
 public class RedisTicketRegistry extends AbstractTicketRegistry {
     private static final String CAS_TICKET_PREFIX = "CAS_TICKET:";
 
+    private static final String CAS_PRINCIPAL_PREFIX = "CAS_PRINCIPAL:";
+
+    private static final String CAS_EXPIRATION_INDEX = "CAS_EXPIRATION_INDEX";
+
+    private static final String CAS_TICKET_TYPE_INDEX_PREFIX = "CAS_TICKET_TYPE_INDEX:";
+
+    private static final String CAS_AUTHENTICATION_PREFIX = "CAS_AUTHENTICATION:";
+
+    private static final String AUTHENTICATION_DIGEST_ALGORITHM = "SHA-256";
+
+    private static final long STORED_AUTHENTICATIONS_MAXIMUM_SIZE = 10_000;
+
+    private static final char TICKET_PREFIX_SEPARATOR = '-';
+
     private final RedisTemplate<String, Ticket> client;
 
+    /**
+     * Digests of the authentications last written or read by this node, keyed by the ticket key.
+     */
+    private final Cache<String, String> storedAuthentications = Caffeine.newBuilder()
+        .maximumSize(STORED_AUTHENTICATIONS_MAXIMUM_SIZE)
+        .build();
+
+    /**
+     * Number of keys requested in each iteration of a {@code SCAN} operation.
+     */
+    private long scanCount = 500;
+
+    /**
+     * Maximum number of keys read or deleted in a single round trip.
+     */
+    private int batchSize = 500;
+
     @Override
-    @SuppressWarnings("java:S2583")
     public long deleteAll() {
-        val redisKeys = client.keys(getPatternTicketRedisKey());
-        val size = Objects.requireNonNull(redisKeys).size();
-        this.client.delete(redisKeys);
+        val size = unlinkKeys(getPatternTicketRedisKey());
+        unlinkKeys(CAS_PRINCIPAL_PREFIX + '*');
+        unlinkKeys(CAS_TICKET_TYPE_INDEX_PREFIX + '*');
+        unlinkKeys(CAS_AUTHENTICATION_PREFIX + '*');
+        storedAuthentications.invalidateAll();
+        this.client.delete(CAS_EXPIRATION_INDEX);
         return size;
     }
 
+    @Override
+    public long sessionCount() {
+        return countTicketsByType(TicketGrantingTicket.PREFIX)
+            + countTicketsByType(ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTicketsByType(ServiceTicket.PREFIX)
+            + countTicketsByType(ProxyTicket.PROXY_TICKET_PREFIX);
+    }
+
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
-        val redisKey = getTicketRedisKey(encodeTicketId(ticketId));
-        this.client.delete(redisKey);
+        deleteTicketKeys(ticketId, null);
         return true;
     }
 
+    @Override
+    protected boolean deleteSingleTicket(final Ticket ticket) {
+        deleteTicketKeys(ticket.getId(), getPrincipalIdFrom(ticket));
+        return true;
+    }
+
+    @Override
+    protected boolean deleteConsumedTicket(final String ticketId) {
+        return deleteTicketKeys(ticketId, null);
+    }
+
     @Override
     public void addTicket(final Ticket ticket) {
         try {
             LOGGER.debug("Adding ticket [{}]", ticket);
-            val redisKey = getTicketRedisKey(encodeTicketId(ticket.getId()));
+            val redisKey = getTicketRedisKey(ticket.getId());
             val encodeTicket = encodeTicket(ticket);
             val timeout = getTimeout(ticket);
-            this.client.boundValueOps(redisKey).set(encodeTicket, timeout, TimeUnit.SECONDS);
+            writeTicket(redisKey, encodeTicket, timeout);
+            indexTicketByPrincipal(ticket, redisKey, timeout);
+            indexTicketByExpiration(ticket, redisKey, Instant.now());
+            indexTicketByType(ticket.getId(), redisKey, timeout);
         } catch (final Exception e) {
+            invalidateStoredAuthentication(ticket);
             LOGGER.error("Failed to add [{}]", ticket);
             LoggingUtils.error(LOGGER, e);
         }
@@ -66,8 +159,15 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
     @Override
     public Ticket getTicket(final String ticketId, final Predicate<Ticket> predicate) {
         try {
-            val redisKey = getTicketRedisKey(encodeTicketId(ticketId));
-            val t = this.client.boundValueOps(redisKey).get();
+            var redisKey = getTicketRedisKey(ticketId);
+            var t = this.client.boundValueOps(redisKey).get();
+            if (t == null && isCipherExecutorEnabled()) {
+                redisKey = getLegacyTicketRedisKey(ticketId);
+                t = this.client.boundValueOps(redisKey).get();
+            }
+            if (t != null) {
+                t = attachAuthentications(List.of(redisKey), List.of(t)).get(0);
+            }
             if (t != null) {
                 val result = decodeTicket(t);
                 if (predicate.test(result)) {
@@ -93,38 +193,225 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public Stream<? extends Ticket> getTicketsStream() {
-        return getKeysStream()
-            .map(redisKey -> {
-                val ticket = this.client.boundValueOps(redisKey).get();
-                if (ticket == null) {
-                    this.client.delete(redisKey);
-                    return null;
-                }
-                return ticket;
+        return scanTickets(getPatternTicketRedisKey());
+    }
+
+    /**
+     * Gets the tickets of the given types by scanning only the keys namespaced by their ticket prefix.
+     * Encoded tickets that are still stored under keys that predate namespacing are
+     * only found once they are updated and moved to the namespaced key.
+     *
+     * @param ticketPrefixes the ticket prefixes
+     * @return the tickets stream
+     */
+    @Override
+    public Stream<? extends Ticket> getTicketsStream(final Collection<String> ticketPrefixes) {
+        return ticketPrefixes
+            .stream()
+            .distinct()
+            .flatMap(prefix -> scanTickets(CAS_TICKET_PREFIX + prefix + TICKET_PREFIX_SEPARATOR + '*'));
+    }
+
+    private Stream<? extends Ticket> scanTickets(final String pattern) {
+        return scanKeys(pattern)
+            .flatMap(redisKeys -> {
+                val tickets = client.opsForValue().multiGet(redisKeys);
+                return tickets == null ? Stream.empty() : attachAuthentications(redisKeys, tickets).stream();
             })
             .filter(Objects::nonNull)
             .map(this::decodeTicket)
             .filter(Objects::nonNull);
     }
 
+    @Override
+    public Stream<? extends Ticket> getSessionsFor(final String principalId) {
+        val principalKey = getPrincipalRedisKey(encodePrincipalId(principalId));
+        val members = client.execute((RedisCallback<Set<byte[]>>) connection -> connection.sMembers(serializeKey(principalKey)));
+        if (members == null || members.isEmpty()) {
+            return Stream.empty();
+        }
+        val redisKeys = members
+            .stream()
+            .map(member -> client.getStringSerializer().deserialize(member))
+            .collect(Collectors.toList());
+        val tickets = attachAuthentications(redisKeys, Objects.requireNonNull(client.opsForValue().multiGet(redisKeys)));
+        val results = new ArrayList<Ticket>(tickets.size());
+        for (var i = 0; i < redisKeys.size(); i++) {
+            val ticket = tickets.get(i);
+            val decoded = ticket == null ? null : decodeTicket(ticket);
+            if (decoded == null || decoded.isExpired()) {
+                val staleKey = redisKeys.get(i);
+                LOGGER.trace("Removing stale ticket key [{}] from principal index [{}]", staleKey, principalKey);
+                client.execute((RedisCallback<Long>) connection ->
+                    connection.sRem(serializeKey(principalKey), serializeKey(staleKey)));
+            } else {
+                results.add(decoded);
+            }
+        }
+        return results.stream();
+    }
+
+    @Override
+    public Stream<? extends Ticket> getExpiredTickets() {
+        return getExpiredTickets(redisKey -> true);
+    }
+
+    /**
+     * Gets the expired tickets that belong to the given shards. The shard of a ticket
+     * is based on its redis key, so that members of the expiration index that belong to other shards
+     * are skipped without fetching their tickets.
+     *
+     * @param shardCount the shard count
+     * @param shards     the shards
+     * @return the expired tickets
+     */
+    @Override
+    public Stream<? extends Ticket> getExpiredTickets(final int shardCount, final Collection<Integer> shards) {
+        return getExpiredTickets(redisKey -> shards.contains(Math.floorMod(redisKey.hashCode(), shardCount)));
+    }
+
+    /**
+     * Gets the expired tickets by reading the expiration index one page at a time, as the stream is consumed.
+     * Pages continue from the deadline of the last member that was read rather than from an offset,
+     * since expired tickets are typically removed from the index while the stream is consumed.
+     *
+     * @param redisKeyFilter the redis key filter
+     * @return the expired tickets
+     */
+    private Stream<? extends Ticket> getExpiredTickets(final Predicate<String> redisKeyFilter) {
+        val now = Instant.now();
+        val cursor = new ExpirationIndexCursor();
+        return Stream.generate(() -> getExpirationIndexPage(cursor, now))
+            .takeWhile(page -> !page.isEmpty())
+            .map(page -> page.stream().filter(redisKeyFilter).collect(Collectors.toList()))
+            .filter(redisKeys -> !redisKeys.isEmpty())
+            .flatMap(redisKeys -> getExpiredTickets(redisKeys, now).stream());
+    }
+
+    private List<String> getExpirationIndexPage(final ExpirationIndexCursor cursor, final Instant now) {
+        val size = Math.max(1, batchSize);
+        val range = cursor.score == null
+            ? RedisZSetCommands.Range.range().lte(now.toEpochMilli())
+            : RedisZSetCommands.Range.range().gte(cursor.score).lte(now.toEpochMilli());
+        val limit = RedisZSetCommands.Limit.limit().count(size + cursor.members.size());
+        val tuples = client.execute((RedisCallback<Set<RedisZSetCommands.Tuple>>) connection ->
+            connection.zRangeByScoreWithScores(serializeKey(CAS_EXPIRATION_INDEX), range, limit));
+        if (tuples == null) {
+            return new ArrayList<>(0);
+        }
+        val page = new ArrayList<String>(tuples.size());
+        tuples.forEach(tuple -> {
+            val redisKey = client.getStringSerializer().deserialize(tuple.getValue());
+            if (!cursor.members.contains(redisKey)) {
+                if (!tuple.getScore().equals(cursor.score)) {
+                    cursor.score = tuple.getScore();
+                    cursor.members.clear();
+                }
+                cursor.members.add(redisKey);
+                page.add(redisKey);
+            }
+        });
+        LOGGER.debug("Found [{}] ticket(s) in the expiration index whose deadline has passed", page.size());
+        return page;
+    }
+
+    private List<Ticket> getExpiredTickets(final List<String> redisKeys, final Instant now) {
+        val tickets = attachAuthentications(redisKeys, Objects.requireNonNull(client.opsForValue().multiGet(redisKeys)));
+        val results = new ArrayList<Ticket>(tickets.size());
+        val staleKeys = new ArrayList<String>();
+        for (var i = 0; i < redisKeys.size(); i++) {
+            val ticket = tickets.get(i);
+            val decoded = ticket == null ? null : decodeTicket(ticket);
+            if (decoded == null) {
+                staleKeys.add(redisKeys.get(i));
+            } else if (decoded.isExpired()) {
+                results.add(decoded);
+            } else {
+                LOGGER.trace("Ticket [{}] is not yet expired and shall be checked again later", decoded.getId());
+                indexTicketByExpiration(decoded, redisKeys.get(i), now);
+            }
+        }
+        removeTicketFromExpirationIndex(staleKeys);
+        return results;
+    }
+
+    @Override
+    public int getShard(final String ticketId, final int shardCount) {
+        return Math.floorMod(getTicketRedisKey(ticketId).hashCode(), shardCount);
+    }
+
+    @Override
+    public long getExpiredTicketsBacklog() {
+        val count = client.execute((RedisCallback<Long>) connection ->
+            connection.zCount(serializeKey(CAS_EXPIRATION_INDEX),
+                RedisZSetCommands.Range.range().lte(Instant.now().toEpochMilli())));
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public Duration getExpiredTicketsLag() {
+        val oldest = client.execute((RedisCallback<Set<RedisZSetCommands.Tuple>>) connection ->
+            connection.zRangeWithScores(serializeKey(CAS_EXPIRATION_INDEX), 0, 0));
+        if (oldest == null || oldest.isEmpty()) {
+            return Duration.ZERO;
+        }
+        val deadline = Instant.ofEpochMilli(oldest.iterator().next().getScore().longValue());
+        val now = Instant.now();
+        return deadline.isBefore(now) ? Duration.between(deadline, now) : Duration.ZERO;
+    }
+
     @Override
     public Ticket updateTicket(final Ticket ticket) {
         try {
             LOGGER.debug("Updating ticket [{}]", ticket);
             val encodeTicket = this.encodeTicket(ticket);
-            val redisKey = getTicketRedisKey(encodeTicketId(ticket.getId()));
+            val redisKey = getTicketRedisKey(ticket.getId());
             LOGGER.debug("Fetched redis key [{}] for ticket [{}]", redisKey, ticket);
 
             val timeout = getTimeout(ticket);
-            client.boundValueOps(redisKey).set(encodeTicket, timeout, TimeUnit.SECONDS);
+            writeTicket(redisKey, encodeTicket, timeout);
+            indexTicketByExpiration(ticket, redisKey, Instant.now());
+            indexTicketByType(ticket.getId(), redisKey, timeout);
+            if (isCipherExecutorEnabled()) {
+                client.delete(getLegacyTicketRedisKey(ticket.getId()));
+            }
             return encodeTicket;
         } catch (final Exception e) {
+            invalidateStoredAuthentication(ticket);
             LOGGER.error("Failed to update [{}]", ticket);
             LoggingUtils.error(LOGGER, e);
         }
         return null;
     }
 
+    @Override
+    public void addAndUpdate(final Collection<? extends Ticket> ticketsToAdd, final Collection<? extends Ticket> ticketsToUpdate) {
+        try {
+            val now = Instant.now();
+            val tickets = Stream.concat(ticketsToUpdate.stream(), ticketsToAdd.stream()).collect(Collectors.toList());
+            LOGGER.debug("Adding and updating tickets [{}]", tickets);
+            client.executePipelined((RedisCallback<Object>) connection -> {
+                tickets.forEach(ticket -> {
+                    val ticketKey = getTicketRedisKey(ticket.getId());
+                    val redisKey = serializeKey(ticketKey);
+                    val timeout = getTimeout(ticket);
+                    writeTicket(connection, ticketKey, encodeTicket(ticket), timeout);
+                    val deadline = TicketExpirationIndex.getExpirationDeadline(ticket, now);
+                    connection.zAdd(serializeKey(CAS_EXPIRATION_INDEX), deadline.toEpochMilli(), redisKey);
+                    connection.zAdd(serializeKey(getTicketTypeIndexKey(ticket.getId())),
+                        now.plusSeconds(timeout).toEpochMilli(), redisKey);
+                });
+                return null;
+            });
+            ticketsToAdd.forEach(ticket -> indexTicketByPrincipal(ticket, getTicketRedisKey(ticket.getId()), getTimeout(ticket)));
+        } catch (final Exception e) {
+            ticketsToAdd.forEach(this::invalidateStoredAuthentication);
+            ticketsToUpdate.forEach(this::invalidateStoredAuthentication);
+            LOGGER.error("Failed to add and update tickets [{}] and [{}]", ticketsToAdd, ticketsToUpdate);
+            LoggingUtils.error(LOGGER, e);
+        }
+    }
+
     /**
      * If not time out value is specified, expire the ticket immediately.
      *
@@ -141,8 +428,207 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return ttl;
     }
 
-    private static String getTicketRedisKey(final String ticketId) {
-        return CAS_TICKET_PREFIX + ticketId;
+    private void indexTicketByPrincipal(final Ticket ticket, final String redisKey, final long timeout) {
+        val principalId = getPrincipalIdFrom(ticket);
+        if (StringUtils.isNotBlank(principalId)) {
+            val principalKey = serializeKey(getPrincipalRedisKey(encodePrincipalId(principalId)));
+            client.execute((RedisCallback<Object>) connection -> {
+                connection.sAdd(principalKey, serializeKey(redisKey));
+                val currentTimeout = connection.ttl(principalKey);
+                if (currentTimeout == null || currentTimeout < timeout) {
+                    connection.expire(principalKey, timeout);
+                }
+                return null;
+            });
+        }
+    }
+
+    private void indexTicketByExpiration(final Ticket ticket, final String redisKey, final Instant now) {
+        val deadline = TicketExpirationIndex.getExpirationDeadline(ticket, now);
+        client.execute((RedisCallback<Boolean>) connection ->
+            connection.zAdd(serializeKey(CAS_EXPIRATION_INDEX), deadline.toEpochMilli(), serializeKey(redisKey)));
+    }
+
+    private void indexTicketByType(final String ticketId, final String redisKey, final long timeout) {
+        val expiresAt = Instant.now().plusSeconds(timeout).toEpochMilli();
+        client.execute((RedisCallback<Boolean>) connection ->
+            connection.zAdd(serializeKey(getTicketTypeIndexKey(ticketId)), expiresAt, serializeKey(redisKey)));
+    }
+
+    /**
+     * Count tickets of the given type whose keys have not yet been expired by redis.
+     * Entries of keys that have already expired are trimmed from the index along the way.
+     *
+     * @param ticketPrefix the ticket prefix
+     * @return the count
+     */
+    private long countTicketsByType(final String ticketPrefix) {
+        val indexKey = serializeKey(CAS_TICKET_TYPE_INDEX_PREFIX + ticketPrefix);
+        val now = Instant.now().toEpochMilli();
+        val count = client.execute((RedisCallback<Long>) connection -> {
+            connection.zRemRangeByScore(indexKey, RedisZSetCommands.Range.range().lte(now));
+            return connection.zCard(indexKey);
+        });
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Delete the keys of the ticket along with its entries in the registry indexes.
+     * The ticket is only removed from the principal index if the principal is known;
+     * otherwise, the entry is left to be pruned when sessions of the principal are read.
+     *
+     * @param ticketId    the ticket id
+     * @param principalId the principal id linked to the ticket, or null
+     * @return true if the ticket was removed by this operation
+     */
+    private boolean deleteTicketKeys(final String ticketId, final String principalId) {
+        val redisKey = getTicketRedisKey(ticketId);
+        val keys = new ArrayList<String>(2);
+        keys.add(redisKey);
+        if (isCipherExecutorEnabled()) {
+            keys.add(getLegacyTicketRedisKey(ticketId));
+        }
+        val members = keys.stream().map(this::serializeKey).toArray(byte[][]::new);
+        val authenticationStoredSeparately = isAuthenticationStoredSeparately(ticketId);
+        val results = client.executePipelined((RedisCallback<Object>) connection -> {
+            connection.del(members);
+            if (authenticationStoredSeparately) {
+                connection.del(serializeKey(getAuthenticationRedisKey(redisKey)));
+            }
+            connection.zRem(serializeKey(CAS_EXPIRATION_INDEX), members);
+            connection.zRem(serializeKey(getTicketTypeIndexKey(ticketId)), serializeKey(redisKey));
+            if (StringUtils.isNotBlank(principalId)) {
+                connection.sRem(serializeKey(getPrincipalRedisKey(encodePrincipalId(principalId))), serializeKey(redisKey));
+            }
+            return null;
+        });
+        if (authenticationStoredSeparately) {
+            storedAuthentications.invalidate(redisKey);
+        }
+        val deleted = results.isEmpty() ? null : (Long) results.get(0);
+        return deleted != null && deleted > 0;
+    }
+
+    /**
+     * Only ticket-granting tickets, including proxy-granting tickets, may have their authentication
+     * stored under its own key, and only when their state is encoded.
+     */
+    private boolean isAuthenticationStoredSeparately(final String ticketId) {
+        if (!ticketGrantingTicketStateEncodingEnabled) {
+            return false;
+        }
+        val prefix = getTicketPrefix(ticketId);
+        return TicketGrantingTicket.PREFIX.equals(prefix) || ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX.equals(prefix);
+    }
+
+    private void writeTicket(final String redisKey, final Ticket encodedTicket, final long timeout) {
+        client.executePipelined((RedisCallback<Object>) connection -> {
+            writeTicket(connection, redisKey, encodedTicket, timeout);
+            return null;
+        });
+    }
+
+    /**
+     * Write the encoded ticket. The authentication of a ticket-granting ticket that is encoded separately
+     * is detached and stored under its own key, and is only written again if it differs from the authentication
+     * this node last wrote or read for the ticket; otherwise only the expiration of that key is extended.
+     *
+     * @param connection    the connection
+     * @param redisKey      the redis key
+     * @param encodedTicket the encoded ticket
+     * @param timeout       the timeout
+     */
+    private void writeTicket(final RedisConnection connection, final String redisKey,
+                             final Ticket encodedTicket, final long timeout) {
+        if (encodedTicket instanceof EncodedTicket
+            && TicketGrantingTicketStateEncoder.isEncodedState(((EncodedTicket) encodedTicket).getEncodedTicket())) {
+            val encodedState = ((EncodedTicket) encodedTicket).getEncodedTicket();
+            val encodedAuthentication = TicketGrantingTicketStateEncoder.getEncodedAuthentication(encodedState);
+            val authenticationKey = serializeKey(getAuthenticationRedisKey(redisKey));
+            val digest = DigestUtils.digest(AUTHENTICATION_DIGEST_ALGORITHM, encodedAuthentication);
+            if (digest.equals(storedAuthentications.getIfPresent(redisKey))) {
+                connection.expire(authenticationKey, timeout);
+            } else {
+                connection.setEx(authenticationKey, timeout, encodedAuthentication);
+                storedAuthentications.put(redisKey, digest);
+            }
+            val detachedTicket = new DefaultEncodedTicket(encodedTicket.getId(),
+                TicketGrantingTicketStateEncoder.detachAuthentication(encodedState), encodedTicket.getPrefix());
+            connection.setEx(serializeKey(redisKey), timeout, serializeValue(detachedTicket));
+        } else {
+            connection.setEx(serializeKey(redisKey), timeout, serializeValue(encodedTicket));
+        }
+    }
+
+    /**
+     * Attach the separately stored authentication to tickets whose authentication was detached.
+     * Tickets whose authentication can no longer be found are replaced with null.
+     *
+     * @param redisKeys the redis keys
+     * @param tickets   the tickets, in the order of the keys
+     * @return the tickets
+     */
+    private List<Ticket> attachAuthentications(final List<String> redisKeys, final List<Ticket> tickets) {
+        val detached = IntStream.range(0, tickets.size())
+            .filter(i -> tickets.get(i) instanceof EncodedTicket
+                && TicketGrantingTicketStateEncoder.isDetachedState(((EncodedTicket) tickets.get(i)).getEncodedTicket()))
+            .boxed()
+            .collect(Collectors.toList());
+        if (detached.isEmpty()) {
+            return tickets;
+        }
+        val authenticationKeys = detached
+            .stream()
+            .map(i -> serializeKey(getAuthenticationRedisKey(redisKeys.get(i))))
+            .toArray(byte[][]::new);
+        val authentications = client.execute((RedisCallback<List<byte[]>>) connection -> connection.mGet(authenticationKeys));
+        val results = new ArrayList<Ticket>(tickets);
+        for (var i = 0; i < detached.size(); i++) {
+            val index = detached.get(i);
+            val redisKey = redisKeys.get(index);
+            val encodedAuthentication = authentications == null ? null : authentications.get(i);
+            if (encodedAuthentication == null) {
+                LOGGER.warn("Authentication of ticket [{}] cannot be found", redisKey);
+                results.set(index, null);
+            } else {
+                val detachedTicket = tickets.get(index);
+                storedAuthentications.put(redisKey, DigestUtils.digest(AUTHENTICATION_DIGEST_ALGORITHM, encodedAuthentication));
+                val encodedState = TicketGrantingTicketStateEncoder.attachAuthentication(
+                    ((EncodedTicket) detachedTicket).getEncodedTicket(), encodedAuthentication);
+                results.set(index, new DefaultEncodedTicket(detachedTicket.getId(), encodedState, detachedTicket.getPrefix()));
+            }
+        }
+        return results;
+    }
+
+    private void invalidateStoredAuthentication(final Ticket ticket) {
+        if (ticket != null) {
+            storedAuthentications.invalidate(getTicketRedisKey(ticket.getId()));
+        }
+    }
+
+    private void removeTicketFromExpirationIndex(final List<String> redisKeys) {
+        if (!redisKeys.isEmpty()) {
+            val members = redisKeys.stream().map(this::serializeKey).toArray(byte[][]::new);
+            client.execute((RedisCallback<Long>) connection -> connection.zRem(serializeKey(CAS_EXPIRATION_INDEX), members));
+        }
+    }
+
+    private byte[] serializeKey(final String key) {
+        return client.getStringSerializer().serialize(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(final Ticket ticket) {
+        return ((RedisSerializer<Ticket>) client.getValueSerializer()).serialize(ticket);
+    }
+
+    private static String getPrincipalRedisKey(final String principalId) {
+        return CAS_PRINCIPAL_PREFIX + principalId;
+    }
+
+    private static String getAuthenticationRedisKey(final String redisKey) {
+        return CAS_AUTHENTICATION_PREFIX + redisKey;
     }
 
     private static String getPatternTicketRedisKey() {
@@ -150,19 +636,98 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
     }
 
     /**
-     * Get a stream of all CAS-related keys from Redis DB.
+     * Build the redis key for the ticket id. Encoded ticket ids
+     * are prefixed with the ticket type, as found in the original ticket id,
+     * to keep keys of the same ticket type under the same namespace.
+     *
+     * @param ticketId the ticket id
+     * @return the redis key
+     */
+    private String getTicketRedisKey(final String ticketId) {
+        val encodedTicketId = encodeTicketId(ticketId);
+        if (isCipherExecutorEnabled()) {
+            return CAS_TICKET_PREFIX + getTicketPrefix(ticketId) + TICKET_PREFIX_SEPARATOR + encodedTicketId;
+        }
+        return CAS_TICKET_PREFIX + encodedTicketId;
+    }
+
+    /**
+     * Build the redis key under which encoded tickets were stored
+     * before keys were namespaced by the ticket type.
      *
-     * @return stream of all CAS-related keys from Redis DB
+     * @param ticketId the ticket id
+     * @return the redis key
      */
-    private Stream<String> getKeysStream() {
-        val cursor = Objects.requireNonNull(client.getConnectionFactory()).getConnection()
-            .scan(ScanOptions.scanOptions().match(getPatternTicketRedisKey())
-                .build());
+    private String getLegacyTicketRedisKey(final String ticketId) {
+        return CAS_TICKET_PREFIX + encodeTicketId(ticketId);
+    }
+
+    private static String getTicketTypeIndexKey(final String ticketId) {
+        return CAS_TICKET_TYPE_INDEX_PREFIX + getTicketPrefix(ticketId);
+    }
+
+    private static String getTicketPrefix(final String ticketId) {
+        return StringUtils.substringBefore(ticketId, String.valueOf(TICKET_PREFIX_SEPARATOR));
+    }
+
+    private long unlinkKeys(final String pattern) {
+        try (val keys = scanKeys(pattern)) {
+            return keys
+                .mapToLong(redisKeys -> {
+                    val members = redisKeys.stream().map(this::serializeKey).toArray(byte[][]::new);
+                    val count = client.execute((RedisCallback<Long>) connection -> connection.unlink(members));
+                    return count == null ? 0 : count;
+                })
+                .sum();
+        }
+    }
+
+    /**
+     * Incrementally scan keys matching the given pattern, in batches.
+     * Keys are fetched from the server lazily as the stream is consumed;
+     * the stream must be closed to release the underlying connection.
+     * Since {@code SCAN} may return the same key more than once, duplicate keys are skipped within a batch;
+     * keys are not tracked across batches, so that memory does not grow with the keyspace, and
+     * consumers must tolerate the same key appearing in more than one batch.
+     *
+     * @param pattern the pattern
+     * @return stream of batches of keys
+     */
+    private Stream<List<String>> scanKeys(final String pattern) {
+        val connection = Objects.requireNonNull(client.getConnectionFactory()).getConnection();
+        val cursor = connection.scan(ScanOptions.scanOptions().match(pattern).count(scanCount).build());
+        val maxBatchSize = Math.max(1, batchSize);
+        val batches = new Iterator<List<String>>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public List<String> next() {
+                val batch = new LinkedHashSet<String>(maxBatchSize);
+                while (batch.size() < maxBatchSize && cursor.hasNext()) {
+                    batch.add((String) client.getKeySerializer().deserialize(cursor.next()));
+                }
+                return new ArrayList<>(batch);
+            }
+        };
         return StreamSupport
-            .stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
-            .map(key -> (String) client.getKeySerializer().deserialize(key))
-            .collect(Collectors.toSet())
-            .stream()
-        .onClose(() -> IOUtils.closeQuietly(cursor));
+            .stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false)
+            .filter(batch -> !batch.isEmpty())
+            .onClose(() -> {
+                IOUtils.closeQuietly(cursor);
+                connection.close();
+            });
+    }
+
+    /**
+     * Position of a paged read of the expiration index: the deadline of the last member that was read,
+     * along with the members read so far that share the same deadline.
+     */
+    private static class ExpirationIndexCursor {
+        private final Set<String> members = new HashSet<>();
+
+        private Double score;
     }
 }
@@ -0,0 +1,52 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.registry.support.TicketRegistryCleanerLeaseStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * This is {@link RedisTicketRegistryCleanerLeaseStore}.
+ * Keeps each shard lease as a Redis key that holds the owner and expires with the lease.
+ * Leases are acquired, renewed and released atomically via scripts that compare the current owner.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisTicketRegistryCleanerLeaseStore implements TicketRegistryCleanerLeaseStore {
+    private static final String LEASE_KEY_PREFIX = "CAS_TICKET_CLEANER_LEASE:";
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+        "local current = redis.call('GET', KEYS[1]) "
+            + "if (not current) or current == ARGV[1] then "
+            + "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end "
+            + "return 0", Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+            + "return 0", Long.class);
+
+    private final StringRedisTemplate client;
+
+    @Override
+    public boolean acquire(final int shard, final String owner, final Duration leaseDuration) {
+        val result = client.execute(ACQUIRE_SCRIPT, List.of(LEASE_KEY_PREFIX + shard),
+            owner, String.valueOf(leaseDuration.toMillis()));
+        LOGGER.trace("[{}] lease on shard [{}]: [{}]", owner, shard, result);
+        return result != null && result > 0;
+    }
+
+    @Override
+    public void release(final int shard, final String owner) {
+        client.execute(RELEASE_SCRIPT, List.of(LEASE_KEY_PREFIX + shard), owner);
+    }
+}
@@ -1,9 +1,14 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.CoreTicketUtils;
 import org.apereo.cas.util.crypto.CipherExecutor;
 import org.apereo.cas.util.junit.EnabledIfPortOpen;
 
@@ -11,8 +16,14 @@ import lombok.val;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -33,6 +44,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @EnabledIfPortOpen(port = 6379)
 @Tag("Redis")
 public class RedisServerTicketRegistryTests extends BaseRedisSentinelTicketRegistryTests {
+    @Autowired
+    private CasConfigurationProperties casProperties;
 
     @RepeatedTest(1)
     @Tag("TicketRegistryTestWithEncryption")
@@ -51,6 +64,101 @@ public class RedisServerTicketRegistryTests extends BaseRedisSentinelTicketRegis
         assertEquals(0, getNewTicketRegistry().getTicketsStream().count());
     }
 
+    @RepeatedTest(1)
+    public void verifyBulkOperationsInBatches() {
+        val registry = new RedisTicketRegistry(ticketRedisTemplate);
+        registry.setScanCount(3);
+        registry.setBatchSize(2);
+        registry.deleteAll();
+        val originalAuthn = CoreAuthenticationTestUtils.getAuthentication();
+        IntStream.range(0, 7).forEach(i -> registry.addTicket(new TicketGrantingTicketImpl(
+            TicketGrantingTicket.PREFIX + "-" + i + "-bulk", originalAuthn, NeverExpiresExpirationPolicy.INSTANCE)));
+        assertEquals(7, registry.sessionCount());
+        assertEquals(0, registry.serviceTicketCount());
+        assertEquals(7, registry.getTickets().size());
+        assertEquals(7, registry.deleteAll());
+        assertEquals(0, registry.sessionCount());
+        assertTrue(registry.getTickets().isEmpty());
+    }
+
+    @RepeatedTest(1)
+    public void verifyDeletedTicketRemovedFromPrincipalIndex() {
+        val registry = new RedisTicketRegistry(ticketRedisTemplate);
+        registry.deleteAll();
+        val authentication = CoreAuthenticationTestUtils.getAuthentication("casuser-principal-index");
+        val ticket = new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-principal-index",
+            authentication, NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(ticket);
+        val principalKey = "CAS_PRINCIPAL:casuser-principal-index";
+        assertEquals(1, ticketRedisTemplate.opsForSet().size(principalKey));
+        assertEquals(1, registry.deleteTicket(ticket));
+        assertEquals(0, ticketRedisTemplate.opsForSet().size(principalKey));
+        assertEquals(0, registry.countSessionsFor("casuser-principal-index"));
+    }
+
+    @RepeatedTest(1)
+    public void verifyTicketsByPrefix() {
+        val registry = new RedisTicketRegistry(ticketRedisTemplate);
+        registry.deleteAll();
+        val ticket = new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-by-prefix",
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(ticket);
+        val serviceTicket = ticket.grantServiceTicket(ServiceTicket.PREFIX + "-by-prefix", RegisteredServiceTestUtils.getService("PREFIX_TEST"),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.addTicket(serviceTicket);
+
+        try (val tickets = registry.getTicketsStream(List.of(ServiceTicket.PREFIX))) {
+            assertEquals(List.of(serviceTicket.getId()), tickets.map(Ticket::getId).collect(Collectors.toList()));
+        }
+        try (val tickets = registry.getTicketsStream(List.of(TicketGrantingTicket.PREFIX, ServiceTicket.PREFIX))) {
+            assertEquals(2, tickets.count());
+        }
+        assertEquals(2, registry.deleteAll());
+    }
+
+    @RepeatedTest(1)
+    public void verifyLegacyTicketKeys() {
+        val registry = new RedisTicketRegistry(ticketRedisTemplate);
+        registry.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(
+            casProperties.getTicket().getRegistry().getRedis().getCrypto(), "redis"));
+        val ticketId = TicketGrantingTicket.PREFIX + "-legacy-key";
+        val ticket = new TicketGrantingTicketImpl(ticketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        val legacyKey = "CAS_TICKET:" + registry.encodeTicketId(ticketId);
+        ticketRedisTemplate.boundValueOps(legacyKey).set(registry.encodeTicket(ticket));
+
+        assertNotNull(registry.getTicket(ticketId, TicketGrantingTicket.class));
+        assertEquals(1, registry.deleteTicket(ticketId));
+        assertNull(ticketRedisTemplate.boundValueOps(legacyKey).get());
+        assertNull(registry.getTicket(ticketId));
+    }
+
+    @RepeatedTest(1)
+    public void verifyDetachedAuthentication() {
+        val registry = new RedisTicketRegistry(ticketRedisTemplate);
+        registry.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(
+            casProperties.getTicket().getRegistry().getRedis().getCrypto(), "redis"));
+        registry.setTicketGrantingTicketStateEncodingEnabled(true);
+        val ticketId = TicketGrantingTicket.PREFIX + "-detached-authentication";
+        val ticket = new TicketGrantingTicketImpl(ticketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(ticket);
+        ticket.grantServiceTicket(ServiceTicket.PREFIX + "-detached", RegisteredServiceTestUtils.getService("DETACHED_TEST"),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.updateTicket(ticket);
+
+        val found = registry.getTicket(ticketId, TicketGrantingTicket.class);
+        assertNotNull(found);
+        assertEquals(ticket.getAuthentication(), found.getAuthentication());
+        assertEquals(1, found.getServices().size());
+        val authentications = ticketRedisTemplate.keys("CAS_AUTHENTICATION:*");
+        assertNotNull(authentications);
+        assertFalse(authentications.isEmpty());
+        assertEquals(1, registry.deleteTicket(ticketId));
+        assertNull(registry.getTicket(ticketId));
+        assertEquals(authentications.size() - 1, Objects.requireNonNull(ticketRedisTemplate.keys("CAS_AUTHENTICATION:*")).size());
+    }
+
     @RepeatedTest(1)
     public void verifyFailure() {
         val originalAuthn = CoreAuthenticationTestUtils.getAuthentication();
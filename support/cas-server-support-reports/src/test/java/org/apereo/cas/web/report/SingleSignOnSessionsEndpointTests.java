@@ -4,6 +4,7 @@ import org.apereo.cas.CentralAuthenticationService;
 import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.mock.MockTicketGrantingTicket;
+import org.apereo.cas.ticket.registry.TicketRegistry;
 
 import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
@@ -117,7 +118,7 @@ public class SingleSignOnSessionsEndpointTests extends AbstractCasEndpointTests
         when(cas.getTickets(any(Predicate.class))).thenReturn(List.of(new MockTicketGrantingTicket("casuser")));
         when(cas.deleteTicket(anyString())).thenThrow(new RuntimeException());
 
-        val results = new SingleSignOnSessionsEndpoint(cas, casProperties).destroySsoSessions(
+        val results = new SingleSignOnSessionsEndpoint(cas, mock(TicketRegistry.class), casProperties).destroySsoSessions(
             SingleSignOnSessionsEndpoint.SsoSessionReportOptions.DIRECT.getType(), null);
         assertFalse(results.isEmpty());
         assertTrue(results.containsKey("failedTicketGrantingTickets"));
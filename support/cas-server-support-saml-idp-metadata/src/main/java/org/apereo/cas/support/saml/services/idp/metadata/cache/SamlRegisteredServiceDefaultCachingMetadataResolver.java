@@ -3,15 +3,21 @@ package org.apereo.cas.support.saml.services.idp.metadata.cache;
 import org.apereo.cas.support.saml.SamlException;
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
-import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
+import org.apache.commons.lang3.StringUtils;
+import org.opensaml.core.criterion.EntityIdCriterion;
 import org.opensaml.core.criterion.SatisfyAnyCriterion;
+import org.opensaml.saml.criterion.EntityRoleCriterion;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
 import org.springframework.retry.RetryCallback;
 import org.springframework.retry.backoff.FixedBackOffPolicy;
 import org.springframework.retry.policy.SimpleRetryPolicy;
@@ -24,6 +30,12 @@ import java.util.Objects;
  * An adaptation of metadata resolver which handles the resolution of metadata resources
  * inside a cache. It basically is a fancy wrapper around a cache, and constructs the cache
  * semantics before processing the resolution of metadata for a SAML service.
+ * <p>
+ * Resolution does not block on a global monitor: cache hits are lock-free, and concurrent
+ * misses for the same metadata resource are coalesced into a single load while resolution for
+ * other services proceeds. Resolvers are refreshed in the background once they have been cached
+ * for the refresh interval, and the existing resolver continues to be served until the refresh completes.
+ * Validity checks of resolved entities are remembered per resolver and entity id for a short period.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -33,21 +45,44 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
 
     private static final int MAX_CACHE_SIZE = 10_000;
 
+    private static final long REFRESH_AHEAD_NUMERATOR = 3;
+
+    private static final long REFRESH_AHEAD_DENOMINATOR = 4;
+
+    private static final Duration VALIDITY_CACHE_EXPIRATION = Duration.ofMinutes(1);
+
     private final SamlRegisteredServiceMetadataResolverCacheLoader chainingMetadataResolverCacheLoader;
 
     private final LoadingCache<SamlRegisteredServiceCacheKey, MetadataResolver> cache;
 
+    private final Cache<String, ResolvedEntity> resolvedEntities;
+
+    public SamlRegisteredServiceDefaultCachingMetadataResolver(final Duration metadataCacheExpiration,
+                                                               final SamlRegisteredServiceMetadataResolverCacheLoader loader) {
+        this(metadataCacheExpiration,
+            metadataCacheExpiration.multipliedBy(REFRESH_AHEAD_NUMERATOR).dividedBy(REFRESH_AHEAD_DENOMINATOR),
+            VALIDITY_CACHE_EXPIRATION, loader);
+    }
+
     public SamlRegisteredServiceDefaultCachingMetadataResolver(final Duration metadataCacheExpiration,
+                                                               final Duration metadataCacheRefreshInterval,
+                                                               final Duration validityCacheExpiration,
                                                                final SamlRegisteredServiceMetadataResolverCacheLoader loader) {
         this.chainingMetadataResolverCacheLoader = loader;
-        this.cache = Caffeine.newBuilder()
+        val builder = Caffeine.newBuilder()
             .maximumSize(MAX_CACHE_SIZE)
-            .expireAfter(new SamlRegisteredServiceMetadataExpirationPolicy(metadataCacheExpiration))
-            .build(this.chainingMetadataResolverCacheLoader);
+            .expireAfter(new SamlRegisteredServiceMetadataExpirationPolicy(metadataCacheExpiration));
+        if (!metadataCacheRefreshInterval.isNegative() && !metadataCacheRefreshInterval.isZero()) {
+            builder.refreshAfterWrite(metadataCacheRefreshInterval);
+        }
+        this.cache = builder.build(this.chainingMetadataResolverCacheLoader);
+        this.resolvedEntities = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .expireAfterWrite(validityCacheExpiration)
+            .build();
     }
 
     @Override
-    @Synchronized
     public MetadataResolver resolve(final SamlRegisteredService service, final CriteriaSet criteriaSet) {
         LOGGER.debug("Resolving metadata for [{}] at [{}].", service.getName(), service.getMetadataLocation());
         val cacheKey = new SamlRegisteredServiceCacheKey(service, criteriaSet);
@@ -58,7 +93,7 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
         retryTemplate.setRetryPolicy(new SimpleRetryPolicy());
         return retryTemplate.execute((RetryCallback<MetadataResolver, SamlException>) retryContext -> {
             val resolver = locateAndCacheMetadataResolver(service, cacheKey);
-            if (!isMetadataResolverAcceptable(resolver, criteriaSet)) {
+            if (!isMetadataResolverAcceptable(cacheKey, resolver, criteriaSet)) {
                 invalidate(service, criteriaSet);
                 LOGGER.warn("SAML metadata resolver [{}] obtained from the cache is "
                         + "unable to produce/resolve valid metadata. Metadata resolver cache entry with key [{}] "
@@ -71,6 +106,34 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
         });
     }
 
+    /**
+     * Is metadata resolver resolvable, remembering the resolved entity
+     * for the resolver and the requested entity id.
+     *
+     * @param cacheKey         the cache key
+     * @param metadataResolver the metadata resolver
+     * @param criteriaSet      the criteria set
+     * @return true/false
+     */
+    protected boolean isMetadataResolverAcceptable(final SamlRegisteredServiceCacheKey cacheKey,
+                                                   final MetadataResolver metadataResolver,
+                                                   final CriteriaSet criteriaSet) {
+        if (criteriaSet.contains(SatisfyAnyCriterion.class) || !criteriaSet.contains(EntityIdCriterion.class)) {
+            return isMetadataResolverAcceptable(metadataResolver, criteriaSet);
+        }
+        val entityKey = buildResolvedEntityKey(cacheKey, criteriaSet);
+        val resolved = resolvedEntities.getIfPresent(entityKey);
+        if (resolved != null && resolved.getMetadataResolver() == metadataResolver) {
+            LOGGER.trace("Using previously resolved entity [{}] to check metadata validity", resolved.getEntityDescriptor().getEntityID());
+            return resolved.getEntityDescriptor().isValid();
+        }
+        val entity = resolveSingle(metadataResolver, criteriaSet);
+        if (entity instanceof EntityDescriptor) {
+            resolvedEntities.put(entityKey, new ResolvedEntity(metadataResolver, (EntityDescriptor) entity));
+        }
+        return entity != null && entity.isValid();
+    }
+
     /**
      * Is metadata resolver resolvable.
      *
@@ -107,6 +170,7 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
     public void invalidate() {
         LOGGER.trace("Invalidating cache, removing all metadata resolvers");
         this.cache.invalidateAll();
+        this.resolvedEntities.invalidateAll();
     }
 
     @Override
@@ -115,4 +179,25 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
         val k = new SamlRegisteredServiceCacheKey(service, criteriaSet);
         this.cache.invalidate(k);
     }
+
+    @SneakyThrows
+    private static EntityDescriptor resolveSingle(final MetadataResolver metadataResolver, final CriteriaSet criteriaSet) {
+        return metadataResolver.resolveSingle(criteriaSet);
+    }
+
+    private static String buildResolvedEntityKey(final SamlRegisteredServiceCacheKey cacheKey, final CriteriaSet criteriaSet) {
+        val entityId = criteriaSet.get(EntityIdCriterion.class).getEntityId();
+        val role = criteriaSet.contains(EntityRoleCriterion.class)
+            ? criteriaSet.get(EntityRoleCriterion.class).getRole().toString()
+            : StringUtils.EMPTY;
+        return cacheKey.getId() + '|' + entityId + '|' + role;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static class ResolvedEntity {
+        private final MetadataResolver metadataResolver;
+
+        private final EntityDescriptor entityDescriptor;
+    }
 }
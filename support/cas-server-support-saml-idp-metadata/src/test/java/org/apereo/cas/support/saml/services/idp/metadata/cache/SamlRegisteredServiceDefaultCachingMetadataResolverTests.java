@@ -12,11 +12,21 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.opensaml.core.criterion.EntityIdCriterion;
 import org.opensaml.saml.criterion.EntityRoleCriterion;
+import org.opensaml.saml.metadata.resolver.ChainingMetadataResolver;
+import org.opensaml.saml.saml2.metadata.EntityDescriptor;
 import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 /**
  * This is {@link SamlRegisteredServiceDefaultCachingMetadataResolverTests}.
@@ -67,4 +77,86 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolverTests extends Ba
         assertNotNull(resolver.resolve(service, criteriaSet));
         resolver.invalidate();
     }
+
+    @Test
+    public void verifyConcurrentResolutionLoadsOnce() throws Exception {
+        val criteriaSet = new CriteriaSet();
+        criteriaSet.add(new EntityIdCriterion("https://carmenwiki.osu.edu/shibboleth"));
+        criteriaSet.add(new EntityRoleCriterion(SPSSODescriptor.DEFAULT_ELEMENT_NAME));
+
+        val service = new SamlRegisteredService();
+        service.setName("Example");
+        service.setId(1000);
+        service.setServiceId(".+");
+        service.setMetadataLocation("classpath:sample-sp.xml");
+
+        val loads = new AtomicInteger();
+        val latch = new CountDownLatch(1);
+        val resolutionPlan = new DefaultSamlRegisteredServiceMetadataResolutionPlan();
+        resolutionPlan.registerMetadataResolver(
+            new ClasspathResourceMetadataResolver(casProperties.getAuthn().getSamlIdp(), openSamlConfigBean));
+        val cacheLoader = new SamlRegisteredServiceMetadataResolverCacheLoader(openSamlConfigBean, httpClient, resolutionPlan) {
+            @Override
+            public ChainingMetadataResolver load(final SamlRegisteredServiceCacheKey cacheKey) {
+                loads.incrementAndGet();
+                return super.load(cacheKey);
+            }
+        };
+        val resolver = new SamlRegisteredServiceDefaultCachingMetadataResolver(Duration.ofMinutes(5), cacheLoader);
+        val executor = Executors.newFixedThreadPool(8);
+        try {
+            val results = new ArrayList<Future<?>>();
+            for (var i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    latch.await();
+                    return resolver.resolve(service, criteriaSet);
+                }));
+            }
+            latch.countDown();
+            for (val result : results) {
+                assertNotNull(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        resolver.invalidate();
+    }
+
+    @Test
+    public void verifyValidityCheckIsRemembered() throws Exception {
+        val criteriaSet = new CriteriaSet();
+        criteriaSet.add(new EntityIdCriterion("https://example.org/sp"));
+        criteriaSet.add(new EntityRoleCriterion(SPSSODescriptor.DEFAULT_ELEMENT_NAME));
+
+        val service = new SamlRegisteredService();
+        service.setName("Example");
+        service.setId(1000);
+        service.setServiceId("https://example.org/sp");
+        service.setMetadataLocation("classpath:sample-sp.xml");
+
+        val entity = mock(EntityDescriptor.class);
+        when(entity.getEntityID()).thenReturn(service.getServiceId());
+        when(entity.isValid()).thenReturn(true);
+        val metadataResolver = mock(ChainingMetadataResolver.class);
+        when(metadataResolver.resolveSingle(any())).thenReturn(entity);
+
+        val cacheLoader = new SamlRegisteredServiceMetadataResolverCacheLoader(openSamlConfigBean, httpClient,
+            new DefaultSamlRegisteredServiceMetadataResolutionPlan()) {
+            @Override
+            public ChainingMetadataResolver load(final SamlRegisteredServiceCacheKey cacheKey) {
+                return metadataResolver;
+            }
+        };
+        val resolver = new SamlRegisteredServiceDefaultCachingMetadataResolver(Duration.ofMinutes(5), cacheLoader);
+        assertSame(metadataResolver, resolver.resolve(service, criteriaSet));
+        val invocations = mockingDetails(metadataResolver).getInvocations().size();
+        assertSame(metadataResolver, resolver.resolve(service, criteriaSet));
+        assertEquals(invocations, mockingDetails(metadataResolver).getInvocations().size());
+        verify(entity, times(2)).isValid();
+
+        resolver.invalidate();
+        assertSame(metadataResolver, resolver.resolve(service, criteriaSet));
+        assertTrue(mockingDetails(metadataResolver).getInvocations().size() > invocations);
+    }
 }
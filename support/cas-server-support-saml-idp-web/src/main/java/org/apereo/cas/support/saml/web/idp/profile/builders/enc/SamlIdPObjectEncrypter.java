@@ -10,6 +10,9 @@ import org.apereo.cas.support.saml.services.idp.metadata.SamlRegisteredServiceSe
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.EncodingUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +20,7 @@ import lombok.val;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
 import net.shibboleth.utilities.java.support.resolver.ResolverException;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.opensaml.core.criterion.EntityIdCriterion;
 import org.opensaml.saml.criterion.EntityRoleCriterion;
 import org.opensaml.saml.saml2.core.Assertion;
@@ -47,10 +51,14 @@ import org.opensaml.xmlsec.keyinfo.impl.provider.InlineX509DataProvider;
 import org.opensaml.xmlsec.keyinfo.impl.provider.KeyInfoReferenceProvider;
 import org.opensaml.xmlsec.keyinfo.impl.provider.RSAKeyValueProvider;
 
+import java.time.Duration;
 import java.util.ArrayList;
 
 /**
  * This is {@link SamlIdPObjectEncrypter}.
+ * Resolved key and data encryption parameters, including the key encryption credential
+ * of the service provider, are cached per service provider, role, metadata generation and type of SAML object,
+ * so that subsequent responses for the same service provider only need to perform the encryption.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -58,6 +66,16 @@ import java.util.ArrayList;
 @Slf4j
 @RequiredArgsConstructor
 public class SamlIdPObjectEncrypter {
+    private static final int MAX_CACHE_SIZE = 10_000;
+
+    private static final Duration CACHE_EXPIRATION = Duration.ofHours(1);
+
+    private final Cache<Pair<SamlIdPSecurityParametersCacheKey, Class<?>>,
+        Pair<KeyEncryptionParameters, DataEncryptionParameters>> encryptionParametersCache = Caffeine.newBuilder()
+        .maximumSize(MAX_CACHE_SIZE)
+        .expireAfterWrite(CACHE_EXPIRATION)
+        .recordStats()
+        .build();
 
     private final SamlIdPProperties samlIdPProperties;
 
@@ -131,6 +149,23 @@ public class SamlIdPObjectEncrypter {
         return null;
     }
 
+    /**
+     * Invalidate all cached encryption parameters.
+     */
+    public void invalidate() {
+        LOGGER.trace("Invalidating cached encryption parameters");
+        encryptionParametersCache.invalidateAll();
+    }
+
+    /**
+     * Gets statistics for the cache of encryption parameters.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats getEncryptionParametersCacheStatistics() {
+        return encryptionParametersCache.stats();
+    }
+
     /**
      * Build encrypter for saml object encrypter.
      *
@@ -144,6 +179,13 @@ public class SamlIdPObjectEncrypter {
         final SamlRegisteredService service,
         final SamlRegisteredServiceServiceProviderMetadataFacade adaptor) {
         val entityId = adaptor.getEntityId();
+        val cacheKey = Pair.<SamlIdPSecurityParametersCacheKey, Class<?>>of(
+            new SamlIdPSecurityParametersCacheKey(service, adaptor, null), samlObject.getClass());
+        val cached = encryptionParametersCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            LOGGER.trace("Using cached encryption parameters for [{}] based on service [{}]", entityId, service.getName());
+            return getEncrypter(samlObject, service, adaptor, cached.getLeft(), cached.getRight());
+        }
         LOGGER.trace("Calculating encryption security configuration for [{}] based on service [{}]", entityId, service.getName());
         val encryptionConfiguration = configureEncryptionSecurityConfiguration(service);
 
@@ -161,6 +203,9 @@ public class SamlIdPObjectEncrypter {
         if (dataEncParams != null) {
             LOGGER.trace("Data encryption algorithm for [{}] is [{}]", entityId, dataEncParams.getAlgorithm());
         }
+        if (keyEncParams != null && dataEncParams != null) {
+            encryptionParametersCache.put(cacheKey, Pair.of(keyEncParams, dataEncParams));
+        }
         LOGGER.trace("Building encrypter component for [{}]", entityId);
         return getEncrypter(samlObject, service, adaptor, keyEncParams, dataEncParams);
     }
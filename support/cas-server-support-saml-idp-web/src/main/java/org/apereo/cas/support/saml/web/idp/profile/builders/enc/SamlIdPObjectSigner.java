@@ -16,6 +16,9 @@ import org.apereo.cas.util.RegexUtils;
 import org.apereo.cas.util.crypto.CertUtils;
 import org.apereo.cas.util.crypto.PrivateKeyFactoryBean;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.google.common.collect.Sets;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -54,6 +57,7 @@ import org.opensaml.xmlsec.impl.BasicSignatureSigningConfiguration;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.security.PrivateKey;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Optional;
@@ -61,6 +65,9 @@ import java.util.regex.Pattern;
 
 /**
  * This is {@link SamlIdPObjectSigner}.
+ * Resolved signature signing parameters, including the signing credentials and private key,
+ * are cached per service provider, role and metadata generation, keyed by {@link SamlIdPSecurityParametersCacheKey},
+ * so that subsequent responses for the same service provider only need to compute the signature.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -68,6 +75,16 @@ import java.util.regex.Pattern;
 @Slf4j
 @RequiredArgsConstructor
 public class SamlIdPObjectSigner {
+    private static final int MAX_CACHE_SIZE = 10_000;
+
+    private static final Duration CACHE_EXPIRATION = Duration.ofHours(1);
+
+    private final Cache<SamlIdPSecurityParametersCacheKey, SignatureSigningParameters> signingParametersCache = Caffeine.newBuilder()
+        .maximumSize(MAX_CACHE_SIZE)
+        .expireAfterWrite(CACHE_EXPIRATION)
+        .recordStats()
+        .build();
+
     private final MetadataResolver casSamlIdPMetadataResolver;
 
     private final CasConfigurationProperties casProperties;
@@ -161,10 +178,32 @@ public class SamlIdPObjectSigner {
         final SamlRegisteredService service) {
         val secParametersContext = outboundContext.getSubcontext(SecurityParametersContext.class, true);
         val roleDesc = adaptor.getSsoDescriptor();
-        val signingParameters = buildSignatureSigningParameters(roleDesc, service);
+        val cacheKey = new SamlIdPSecurityParametersCacheKey(service, adaptor,
+            samlIdPMetadataLocator.fetch(Optional.of(service)));
+        val signingParameters = signingParametersCache.get(cacheKey, k -> {
+            LOGGER.trace("Building signature signing parameters for [{}]", k);
+            return buildSignatureSigningParameters(roleDesc, service);
+        });
         Objects.requireNonNull(secParametersContext).setSignatureSigningParameters(signingParameters);
     }
 
+    /**
+     * Invalidate all cached signature signing parameters.
+     */
+    public void invalidate() {
+        LOGGER.trace("Invalidating cached signature signing parameters");
+        signingParametersCache.invalidateAll();
+    }
+
+    /**
+     * Gets statistics for the cache of signature signing parameters.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats getSigningParametersCacheStatistics() {
+        return signingParametersCache.stats();
+    }
+
     /**
      * Prepare outbound context.
      *
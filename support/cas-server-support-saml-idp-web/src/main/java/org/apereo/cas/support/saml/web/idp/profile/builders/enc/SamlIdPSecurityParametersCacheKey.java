@@ -0,0 +1,71 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.support.saml.services.idp.metadata.SamlIdPMetadataDocument;
+import org.apereo.cas.support.saml.services.idp.metadata.SamlRegisteredServiceServiceProviderMetadataFacade;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+import org.opensaml.saml.metadata.resolver.RefreshableMetadataResolver;
+
+import javax.xml.namespace.QName;
+import java.util.Objects;
+
+/**
+ * This is {@link SamlIdPSecurityParametersCacheKey}.
+ * Identifies resolved signing or encryption parameters for a service provider.
+ * The key tracks the version of the registered service definition, the role of the service provider
+ * and the generations of service provider and identity provider metadata, so that cached parameters
+ * are no longer used once the service definition changes, service provider metadata is refreshed
+ * or identity provider keys are rotated. Metadata objects themselves are not retained by the key.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class SamlIdPSecurityParametersCacheKey {
+    private final long registeredServiceId;
+
+    private final int registeredServiceVersion;
+
+    private final String entityId;
+
+    private final QName role;
+
+    private final long serviceProviderMetadataVersion;
+
+    private final int identityProviderMetadataVersion;
+
+    public SamlIdPSecurityParametersCacheKey(final SamlRegisteredService registeredService,
+                                             final SamlRegisteredServiceServiceProviderMetadataFacade adaptor,
+                                             final SamlIdPMetadataDocument identityProviderMetadata) {
+        this.registeredServiceId = registeredService.getId();
+        this.registeredServiceVersion = registeredService.hashCode();
+        this.entityId = adaptor.getEntityId();
+        this.role = adaptor.getSsoDescriptor().getElementQName();
+        this.serviceProviderMetadataVersion = getServiceProviderMetadataVersion(adaptor);
+        this.identityProviderMetadataVersion = identityProviderMetadata != null
+            ? Objects.hash(identityProviderMetadata.getSigningCertificate(), identityProviderMetadata.getSigningKey(),
+            identityProviderMetadata.getEncryptionCertificate(), identityProviderMetadata.getEncryptionKey())
+            : 0;
+    }
+
+    /**
+     * The time metadata was last updated by the resolver, if it keeps track of it.
+     * Otherwise, the identity of the role descriptor, which is replaced when metadata is resolved again.
+     */
+    private static long getServiceProviderMetadataVersion(final SamlRegisteredServiceServiceProviderMetadataFacade adaptor) {
+        val resolver = adaptor.getMetadataResolver();
+        if (resolver instanceof RefreshableMetadataResolver) {
+            val lastUpdate = ((RefreshableMetadataResolver) resolver).getLastUpdate();
+            if (lastUpdate != null) {
+                return lastUpdate.toEpochMilli();
+            }
+        }
+        return System.identityHashCode(adaptor.getSsoDescriptor());
+    }
+}
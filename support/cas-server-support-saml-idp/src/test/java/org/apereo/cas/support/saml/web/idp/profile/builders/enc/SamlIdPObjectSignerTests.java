@@ -50,6 +50,34 @@ public class SamlIdPObjectSignerTests extends BaseSamlIdPConfigurationTests {
 
     }
 
+    @Test
+    public void verifySigningParametersCached() {
+        val samlRegisteredService = getSamlRegisteredServiceFor(true, true, false, "https://cassp.example.org");
+        samlRegisteredService.setId(1001);
+        samlRegisteredService.setName("ObjectSignerCacheTest");
+
+        val adaptor = SamlRegisteredServiceServiceProviderMetadataFacade
+            .get(samlRegisteredServiceCachingMetadataResolver, samlRegisteredService,
+                samlRegisteredService.getServiceId()).get();
+
+        samlIdPObjectSigner.invalidate();
+        val hits = samlIdPObjectSigner.getSigningParametersCacheStatistics().hitCount();
+        for (var i = 0; i < 2; i++) {
+            val authnRequest = getAuthnRequest(samlRegisteredService);
+            assertNotNull(samlIdPObjectSigner.encode(authnRequest, samlRegisteredService, adaptor,
+                new MockHttpServletResponse(), new MockHttpServletRequest(),
+                SAMLConstants.SAML2_POST_BINDING_URI, authnRequest));
+        }
+        assertEquals(hits + 1, samlIdPObjectSigner.getSigningParametersCacheStatistics().hitCount());
+
+        samlRegisteredService.setSigningCredentialFingerprint("4f095b7ce6a7f49112c334a488185d55278177f9");
+        val authnRequest = getAuthnRequest(samlRegisteredService);
+        assertNotNull(samlIdPObjectSigner.encode(authnRequest, samlRegisteredService, adaptor,
+            new MockHttpServletResponse(), new MockHttpServletRequest(),
+            SAMLConstants.SAML2_POST_BINDING_URI, authnRequest));
+        assertEquals(hits + 1, samlIdPObjectSigner.getSigningParametersCacheStatistics().hitCount());
+    }
+
     private AuthnRequest getAuthnRequest(final SamlRegisteredService samlRegisteredService) {
         var builder = (SAMLObjectBuilder) openSamlConfigBean.getBuilderFactory()
             .getBuilder(AuthnRequest.DEFAULT_ELEMENT_NAME);
@@ -4,17 +4,19 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import javax.servlet.http.HttpServletRequest;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of a {@link InMemoryThrottledSubmissionHandlerInterceptor} that keeps track of a mapping
  * of IP Addresses to number of failures to authenticate.
+ * Failures are tracked per key using token-bucket semantics: each failure adds a fixed
+ * emission interval (i.e. the failure range divided by the failure threshold) to the key,
+ * and a submission is throttled once the key has accumulated more failures than
+ * the threshold permits within the failure range.
  * This class relies on an external configuration to clean it up.
- * It ignores the threshold data in the parent class.
  *
  * @author Scott Battaglia
  * @since 3.0.0
@@ -23,54 +25,47 @@ import java.util.stream.Collectors;
 public abstract class AbstractInMemoryThrottledSubmissionHandlerInterceptorAdapter extends AbstractThrottledSubmissionHandlerInterceptorAdapter
     implements InMemoryThrottledSubmissionHandlerInterceptor {
 
-    private static final double SUBMISSION_RATE_DIVIDEND = 1000.0;
+    private final ThrottledSubmissionsStore submissionsStore;
 
-    private final ConcurrentMap<String, ZonedDateTime> ipMap;
+    private final long emissionInterval;
+
+    private final long burstTolerance;
 
     protected AbstractInMemoryThrottledSubmissionHandlerInterceptorAdapter(
         final ThrottledSubmissionHandlerConfigurationContext configurationContext,
-        final ConcurrentMap<String, ZonedDateTime> ipMap) {
+        final ThrottledSubmissionsStore submissionsStore) {
         super(configurationContext);
-        this.ipMap = ipMap;
+        this.submissionsStore = submissionsStore;
+        val threshold = Math.max(1, configurationContext.getFailureThreshold());
+        val range = TimeUnit.SECONDS.toMillis(Math.max(1, configurationContext.getFailureRangeInSeconds()));
+        this.emissionInterval = Math.max(1, range / threshold);
+        this.burstTolerance = configurationContext.getFailureThreshold() > 0 ? (threshold - 1) * emissionInterval : -1;
     }
 
     @Override
     public void recordSubmissionFailure(final HttpServletRequest request) {
         val key = constructKey(request);
         LOGGER.debug("Recording submission failure [{}]", key);
-        this.ipMap.put(key, ZonedDateTime.now(ZoneOffset.UTC));
+        submissionsStore.record(key, System.currentTimeMillis(), emissionInterval);
     }
 
     @Override
     public boolean exceedsThreshold(final HttpServletRequest request) {
-        val last = this.ipMap.get(constructKey(request));
-        return last != null && submissionRate(ZonedDateTime.now(ZoneOffset.UTC), last) > getThresholdRate();
+        val arrival = submissionsStore.get(constructKey(request));
+        return arrival > 0 && arrival - System.currentTimeMillis() > burstTolerance;
     }
 
     @Override
     public Collection getRecords() {
-        return ipMap.entrySet()
-            .stream()
-            .map(entry -> entry.getKey() + "<->" + entry.getValue())
-            .collect(Collectors.toList());
+        val records = new ArrayList<String>();
+        submissionsStore.forEach((key, arrival) -> records.add(key + "<->" + Instant.ofEpochMilli(arrival)));
+        return records;
     }
 
     @Override
     public void decrement() {
         LOGGER.info("Beginning audit cleanup...");
-        val now = ZonedDateTime.now(ZoneOffset.UTC);
-        this.ipMap.entrySet().removeIf(entry -> submissionRate(now, entry.getValue()) < getThresholdRate());
-        LOGGER.debug("Done decrementing count for throttler.");
-    }
-
-    /**
-     * Computes the instantaneous rate in between two given dates corresponding to two submissions.
-     *
-     * @param a First date.
-     * @param b Second date.
-     * @return Instantaneous submission rate in submissions/sec, e.g. {@code a - b}.
-     */
-    private static double submissionRate(final ZonedDateTime a, final ZonedDateTime b) {
-        return SUBMISSION_RATE_DIVIDEND / (a.toInstant().toEpochMilli() - b.toInstant().toEpochMilli());
+        submissionsStore.removeExpired(System.currentTimeMillis());
+        LOGGER.debug("Done decrementing count for throttler; [{}] record(s) remain", submissionsStore.size());
     }
 }
@@ -5,8 +5,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apereo.inspektr.common.web.ClientInfoHolder;
 
 import javax.servlet.http.HttpServletRequest;
-import java.time.ZonedDateTime;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * Attempts to throttle by both IP Address and username.  Protects against instances where there is a NAT, such as
@@ -19,8 +17,8 @@ public class InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptor
     extends AbstractInMemoryThrottledSubmissionHandlerInterceptorAdapter {
 
     public InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter(final ThrottledSubmissionHandlerConfigurationContext configurationContext,
-                                                                                      final ConcurrentMap<String, ZonedDateTime> ipMap) {
-        super(configurationContext, ipMap);
+                                                                                      final ThrottledSubmissionsStore submissionsStore) {
+        super(configurationContext, submissionsStore);
     }
 
     @Override
@@ -0,0 +1,115 @@
+package org.apereo.cas.web.support;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * This is {@link InMemoryThrottledSubmissionsStore}.
+ * A bounded {@link ThrottledSubmissionsStore} that keeps a single
+ * theoretical arrival time per key. Keys are spread across a fixed number of stripes,
+ * each of which holds at most its share of the configured capacity. Once a stripe is full,
+ * keys whose theoretical arrival time has passed are evicted first, followed by the keys
+ * that are closest to being relieved, so that the store cannot grow without bound
+ * between cleanup runs when it is flooded with distinct keys.
+ * Values are replaced atomically per key, and are only removed if they did not change
+ * in the meantime, so that failures recorded concurrently with cleanup or eviction are not lost.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Slf4j
+public class InMemoryThrottledSubmissionsStore implements ThrottledSubmissionsStore {
+    private static final int STRIPE_COUNT = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    private final int stripeCapacity;
+
+    public InMemoryThrottledSubmissionsStore(final int capacity) {
+        this.stripeCapacity = Math.max(1, (capacity + STRIPE_COUNT - 1) / STRIPE_COUNT);
+        for (var i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public long record(final String key, final long now, final long interval) {
+        val stripe = getStripe(key);
+        if (stripe.entries.size() >= stripeCapacity && !stripe.entries.containsKey(key)) {
+            evict(stripe, now);
+        }
+        return stripe.entries.compute(key, (k, current) -> Math.max(current == null ? 0 : current, now) + interval);
+    }
+
+    @Override
+    public long get(final String key) {
+        val value = getStripe(key).entries.get(key);
+        return value == null ? 0 : value;
+    }
+
+    @Override
+    public void removeExpired(final long now) {
+        for (val stripe : stripes) {
+            stripe.entries.values().removeIf(value -> value <= now);
+        }
+    }
+
+    @Override
+    public void forEach(final ObjLongConsumer<String> consumer) {
+        for (val stripe : stripes) {
+            stripe.entries.forEach(consumer::accept);
+        }
+    }
+
+    @Override
+    public long size() {
+        var size = 0L;
+        for (val stripe : stripes) {
+            size += stripe.entries.size();
+        }
+        return size;
+    }
+
+    private Stripe getStripe(final String key) {
+        val hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * Make room in a full stripe. Only one thread evicts from a stripe at a time;
+     * others proceed and may briefly overshoot the stripe capacity.
+     * Removing every key below the average theoretical arrival time frees a sizable
+     * portion of the stripe at once, so the cost of the scan is amortized over many insertions.
+     */
+    private void evict(final Stripe stripe, final long now) {
+        if (!stripe.evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            stripe.entries.values().removeIf(value -> value <= now);
+            val size = stripe.entries.size();
+            if (size >= stripeCapacity) {
+                var total = 0.0;
+                for (val value : stripe.entries.values()) {
+                    total += value - now;
+                }
+                val threshold = now + total / size;
+                stripe.entries.values().removeIf(value -> value <= threshold);
+                LOGGER.debug("Evicted [{}] throttling record(s) from a full stripe", size - stripe.entries.size());
+            }
+        } finally {
+            stripe.evicting.set(false);
+        }
+    }
+
+    private static class Stripe {
+        private final ConcurrentMap<String, Long> entries = new ConcurrentHashMap<>();
+
+        private final AtomicBoolean evicting = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,66 @@
+package org.apereo.cas.web.support;
+
+import lombok.val;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * This is {@link MapBackedThrottledSubmissionsStore}.
+ * A {@link ThrottledSubmissionsStore} backed by a {@link ConcurrentMap},
+ * typically one that is shared or distributed across nodes.
+ * Values are stored as epoch milliseconds. Maps that still hold values recorded
+ * by previous versions, which kept the time of the last failure as a {@link ZonedDateTime},
+ * are tolerated, and such values are treated as if the failures were relieved at that time.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+public class MapBackedThrottledSubmissionsStore implements ThrottledSubmissionsStore {
+    private final ConcurrentMap<String, Object> submissions;
+
+    @SuppressWarnings("unchecked")
+    public MapBackedThrottledSubmissionsStore(final ConcurrentMap<String, ?> submissions) {
+        this.submissions = (ConcurrentMap<String, Object>) submissions;
+    }
+
+    @Override
+    public long record(final String key, final long now, final long interval) {
+        val result = submissions.merge(key, now + interval, (current, ignored) -> Math.max(toEpochMillis(current), now) + interval);
+        return toEpochMillis(result);
+    }
+
+    @Override
+    public long get(final String key) {
+        return toEpochMillis(submissions.get(key));
+    }
+
+    @Override
+    public void removeExpired(final long now) {
+        submissions.entrySet()
+            .stream()
+            .filter(entry -> toEpochMillis(entry.getValue()) <= now)
+            .forEach(entry -> submissions.remove(entry.getKey(), entry.getValue()));
+    }
+
+    @Override
+    public void forEach(final ObjLongConsumer<String> consumer) {
+        submissions.forEach((key, value) -> consumer.accept(key, toEpochMillis(value)));
+    }
+
+    @Override
+    public long size() {
+        return submissions.size();
+    }
+
+    private static long toEpochMillis(final Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant().toEpochMilli();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,56 @@
+package org.apereo.cas.web.support;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * This is {@link ThrottledSubmissionsStore}.
+ * Tracks failed submissions per throttling key using token-bucket semantics.
+ * Each key is mapped to its theoretical arrival time, expressed in epoch milliseconds,
+ * which is the instant at which the key would be fully relieved of its recorded failures.
+ * Every recorded failure pushes this instant further into the future by a fixed interval,
+ * and keys whose theoretical arrival time has passed carry no state and may be removed.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+public interface ThrottledSubmissionsStore {
+
+    /**
+     * Record a failed submission for the given key.
+     *
+     * @param key      the key
+     * @param now      the current time in epoch milliseconds
+     * @param interval the interval, in milliseconds, that each failure adds to the key
+     * @return the updated theoretical arrival time of the key
+     */
+    long record(String key, long now, long interval);
+
+    /**
+     * Gets the theoretical arrival time of the key.
+     *
+     * @param key the key
+     * @return the theoretical arrival time in epoch milliseconds, or {@code 0} if the key is not tracked
+     */
+    long get(String key);
+
+    /**
+     * Remove keys whose theoretical arrival time has passed.
+     *
+     * @param now the current time in epoch milliseconds
+     */
+    void removeExpired(long now);
+
+    /**
+     * Iterate over all tracked keys and their theoretical arrival times.
+     *
+     * @param consumer the consumer
+     */
+    void forEach(ObjLongConsumer<String> consumer);
+
+    /**
+     * Number of keys tracked by this store.
+     *
+     * @return the size
+     */
+    long size();
+}
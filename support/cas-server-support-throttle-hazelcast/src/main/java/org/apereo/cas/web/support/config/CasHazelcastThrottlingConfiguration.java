@@ -3,6 +3,8 @@ package org.apereo.cas.web.support.config;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.hz.HazelcastConfigurationFactory;
+import org.apereo.cas.web.support.MapBackedThrottledSubmissionsStore;
+import org.apereo.cas.web.support.ThrottledSubmissionsStore;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
@@ -17,7 +19,8 @@ import org.springframework.context.annotation.Configuration;
 
 /**
  * Configures a Hazelcast IMap that is used by the InMemory throttling interceptors to store
- * failed login attempts.
+ * failed login attempts, keyed by the throttling key with the expiration of the recorded failures as the value.
+ * Values recorded by previous versions as the time of the last failure are still accepted.
  *
  * @author Travis Schmidt
  * @since 5.3.4
@@ -37,7 +40,7 @@ public class CasHazelcastThrottlingConfiguration {
     private ObjectProvider<HazelcastInstance> casTicketRegistryHazelcastInstance;
 
     @Bean
-    public IMap throttleSubmissionMap() {
+    public IMap<String, Object> throttleSubmissionMap() {
         val hz = casProperties.getAuthn().getThrottle().getHazelcast();
         val timeout = Beans.newDuration(casProperties.getAuthn().getThrottle().getSchedule().getRepeatInterval()).getSeconds();
         LOGGER.debug("Creating [{}] to record failed logins for throttling with timeout set to [{}]", MAP_KEY, timeout);
@@ -46,4 +49,10 @@ public class CasHazelcastThrottlingConfiguration {
         hazelcastInstance.getConfig().addMapConfig(ipMapConfig);
         return hazelcastInstance.getMap(MAP_KEY);
     }
+
+    @Bean
+    public ThrottledSubmissionsStore throttleSubmissionStore(
+        @Qualifier("throttleSubmissionMap") final IMap<String, Object> throttleSubmissionMap) {
+        return new MapBackedThrottledSubmissionsStore(throttleSubmissionMap);
+    }
 }
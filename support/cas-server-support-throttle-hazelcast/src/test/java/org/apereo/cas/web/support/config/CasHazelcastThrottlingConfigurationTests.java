@@ -9,8 +9,10 @@ import org.apereo.cas.config.CasCoreTicketsConfiguration;
 import org.apereo.cas.config.CasCoreUtilConfiguration;
 import org.apereo.cas.config.HazelcastTicketRegistryConfiguration;
 import org.apereo.cas.config.HazelcastTicketRegistryTicketCatalogConfiguration;
+import org.apereo.cas.web.support.ThrottledSubmissionsStore;
 
 import com.hazelcast.map.IMap;
+import lombok.val;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,9 +48,19 @@ public class CasHazelcastThrottlingConfigurationTests {
     @Qualifier("throttleSubmissionMap")
     private IMap throttleSubmissionMap;
 
+    @Autowired
+    @Qualifier("throttleSubmissionStore")
+    private ThrottledSubmissionsStore throttleSubmissionStore;
+
     @Test
     public void verifyOperation() {
         assertNotNull(throttleSubmissionMap);
-
+        val now = System.currentTimeMillis();
+        assertEquals(now + 1000, throttleSubmissionStore.record("1.2.3.4", now, 1000));
+        assertEquals(now + 2000, throttleSubmissionStore.record("1.2.3.4", now, 1000));
+        assertEquals(now + 2000, throttleSubmissionStore.get("1.2.3.4"));
+        assertTrue(throttleSubmissionMap.containsKey("1.2.3.4"));
+        throttleSubmissionStore.removeExpired(now + 2000);
+        assertEquals(0, throttleSubmissionStore.get("1.2.3.4"));
     }
 }
@@ -11,9 +11,11 @@ import org.apereo.cas.throttle.ThrottledRequestResponseHandler;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionCleaner;
+import org.apereo.cas.web.support.InMemoryThrottledSubmissionsStore;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerConfigurationContext;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerEndpoint;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerInterceptor;
+import org.apereo.cas.web.support.ThrottledSubmissionsStore;
 
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -30,10 +32,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 
-import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * This is {@link CasThrottlingConfiguration}.
@@ -70,10 +69,11 @@ public class CasThrottlingConfiguration {
     }
 
     @RefreshScope
-    @ConditionalOnMissingBean(name = "throttleSubmissionMap")
+    @ConditionalOnMissingBean(name = "throttleSubmissionStore")
     @Bean
-    public ConcurrentMap throttleSubmissionMap() {
-        return new ConcurrentHashMap<String, ZonedDateTime>();
+    public ThrottledSubmissionsStore throttleSubmissionStore() {
+        val throttle = casProperties.getAuthn().getThrottle();
+        return new InMemoryThrottledSubmissionsStore(throttle.getInMemoryCapacity());
     }
 
     @RefreshScope
@@ -100,10 +100,10 @@ public class CasThrottlingConfiguration {
 
         if (StringUtils.isNotBlank(throttle.getUsernameParameter())) {
             LOGGER.trace("Activating authentication throttling based on IP address and username...");
-            return new InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter(context, throttleSubmissionMap());
+            return new InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter(context, throttleSubmissionStore());
         }
         LOGGER.trace("Activating authentication throttling based on IP address...");
-        return new InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter(context, throttleSubmissionMap());
+        return new InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter(context, throttleSubmissionStore());
     }
 
     @Autowired
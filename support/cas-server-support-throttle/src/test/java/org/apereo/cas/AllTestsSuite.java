@@ -2,6 +2,7 @@ package org.apereo.cas;
 
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapterTests;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapterTests;
+import org.apereo.cas.web.support.InMemoryThrottledSubmissionsStoreTests;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerEndpointTests;
 
 import org.junit.platform.runner.JUnitPlatform;
@@ -17,6 +18,7 @@ import org.junit.runner.RunWith;
 @SelectClasses({
     InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapterTests.class,
     InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapterTests.class,
+    InMemoryThrottledSubmissionsStoreTests.class,
     ThrottledSubmissionHandlerEndpointTests.class
 })
 @RunWith(JUnitPlatform.class)
@@ -0,0 +1,99 @@
+package org.apereo.cas.web.support;
+
+import lombok.val;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link InMemoryThrottledSubmissionsStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.4.0
+ */
+@Tag("Simple")
+public class InMemoryThrottledSubmissionsStoreTests {
+
+    @Test
+    public void verifyRecordAccumulates() {
+        val store = new InMemoryThrottledSubmissionsStore(100);
+        val now = System.currentTimeMillis();
+        assertEquals(0, store.get("key"));
+        assertEquals(now + 500, store.record("key", now, 500));
+        assertEquals(now + 1000, store.record("key", now + 100, 500));
+        assertEquals(now + 1000, store.get("key"));
+        assertEquals(now + 3500, store.record("key", now + 3000, 500));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void verifyRemoveExpired() {
+        val store = new InMemoryThrottledSubmissionsStore(100);
+        val now = System.currentTimeMillis();
+        store.record("key1", now, 500);
+        store.record("key2", now, 5000);
+        store.removeExpired(now + 1000);
+        assertEquals(0, store.get("key1"));
+        assertEquals(now + 5000, store.get("key2"));
+        val records = new HashMap<String, Long>();
+        store.forEach(records::put);
+        assertEquals(1, records.size());
+        assertEquals(now + 5000, records.get("key2"));
+    }
+
+    @Test
+    public void verifyCapacityIsEnforced() {
+        val capacity = 1000;
+        val store = new InMemoryThrottledSubmissionsStore(capacity);
+        val now = System.currentTimeMillis();
+        IntStream.range(0, capacity * 20).forEach(i -> store.record("key" + i, now, 1000 + i));
+        assertTrue(store.size() <= capacity + 64);
+        assertTrue(store.get("key" + (capacity * 20 - 1)) > 0);
+    }
+
+    @Test
+    public void verifyEvictsExpiredFirst() {
+        val store = new InMemoryThrottledSubmissionsStore(1);
+        val now = System.currentTimeMillis();
+        IntStream.range(0, 100).forEach(i -> store.record("key" + i, now, 10));
+        store.record("new-key", now + 100, 10);
+        assertTrue(store.get("new-key") > 0);
+        assertTrue(store.size() <= 64);
+    }
+
+    @Test
+    public void verifyMapBackedStore() {
+        val map = new ConcurrentHashMap<String, Long>();
+        val store = new MapBackedThrottledSubmissionsStore(map);
+        val now = System.currentTimeMillis();
+        assertEquals(0, store.get("key"));
+        assertEquals(now + 500, store.record("key", now, 500));
+        assertEquals(now + 1000, store.record("key", now, 500));
+        assertEquals(now + 1000, map.get("key"));
+        store.removeExpired(now + 1000);
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void verifyMapBackedStoreWithLegacyValues() {
+        val map = new ConcurrentHashMap<String, Object>();
+        val lastFailure = ZonedDateTime.now(ZoneOffset.UTC);
+        map.put("key", lastFailure);
+        val store = new MapBackedThrottledSubmissionsStore(map);
+        val failedAt = lastFailure.toInstant().toEpochMilli();
+        assertEquals(failedAt, store.get("key"));
+        assertEquals(failedAt + 500, store.record("key", failedAt - 100, 500));
+        assertEquals(failedAt + 500, map.get("key"));
+
+        map.put("expired", lastFailure);
+        store.removeExpired(failedAt);
+        assertEquals(1, store.size());
+    }
+}
@@ -6,6 +6,7 @@ import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustR
 import org.apereo.cas.util.DateTimeUtils;
 import org.apereo.cas.util.ResourceUtils;
 import org.apereo.cas.util.crypto.CipherExecutor;
+import org.apereo.cas.util.io.JournaledJsonFileStore;
 import org.apereo.cas.util.serialization.JacksonObjectMapperFactory;
 
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -13,28 +14,39 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.StringUtils;
 import org.hjson.JsonValue;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.Resource;
 
+import java.io.File;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This is {@link JsonMultifactorAuthenticationTrustStorage}.
+ * Trusted records are kept in memory, indexed by principal, and changes are appended to a journal
+ * that is periodically compacted into the JSON resource.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
 @Slf4j
-public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage {
+public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage implements DisposableBean {
     private static final int MAP_SIZE = 8;
 
     private static final ObjectMapper MAPPER = JacksonObjectMapperFactory.builder()
@@ -44,6 +56,8 @@ public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
 
     private Map<String, MultifactorAuthenticationTrustRecord> storage;
 
+    private JournaledJsonFileStore<MultifactorAuthenticationTrustRecord> store;
+
     public JsonMultifactorAuthenticationTrustStorage(final TrustedDevicesMultifactorProperties properties,
                                                      final CipherExecutor<Serializable, String> cipherExecutor,
                                                      final Resource location,
@@ -55,44 +69,39 @@ public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
 
     @Override
     public void remove(final String key) {
-        storage.keySet().removeIf(k -> k.equalsIgnoreCase(key));
-        writeTrustedRecordsToResource();
+        val keys = getRecords()
+            .map(MultifactorAuthenticationTrustRecord::getRecordKey)
+            .filter(k -> k.equalsIgnoreCase(key))
+            .collect(Collectors.toList());
+        getStore().removeAll(keys);
     }
 
     @Override
     @SuppressWarnings("JavaUtilDate")
     public void remove(final ZonedDateTime expirationDate) {
-        val results = storage
-            .values()
-            .stream()
-            .filter(entry -> entry.getExpirationDate() != null)
-            .filter(entry -> {
-                val expDate = DateTimeUtils.dateOf(expirationDate);
-                return expDate.compareTo(entry.getExpirationDate()) >= 0;
-            })
+        val expDate = DateTimeUtils.dateOf(expirationDate);
+        val results = getRecords()
+            .filter(entry -> isExpired(entry, expDate))
             .sorted()
             .collect(Collectors.toCollection(LinkedHashSet::new));
 
         LOGGER.info("Found [{}] expired trusted-device records", results.size());
         if (!results.isEmpty()) {
-            results.forEach(entry -> storage.remove(entry.getRecordKey()));
+            getStore().removeAll(results.stream().map(MultifactorAuthenticationTrustRecord::getRecordKey).collect(Collectors.toList()));
             LOGGER.info("Invalidated and removed [{}] expired records", results.size());
-            writeTrustedRecordsToResource();
         }
     }
 
     @Override
     public Set<? extends MultifactorAuthenticationTrustRecord> getAll() {
         remove();
-        return new TreeSet<>(storage.values());
+        return getRecords().collect(Collectors.toCollection(TreeSet::new));
     }
 
     @Override
     public MultifactorAuthenticationTrustRecord get(final long id) {
         remove();
-        return storage
-            .values()
-            .stream()
+        return getRecords()
             .filter(entry -> entry.getId() == id)
             .sorted()
             .findFirst()
@@ -102,53 +111,98 @@ public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
     @Override
     public Set<? extends MultifactorAuthenticationTrustRecord> get(final ZonedDateTime onOrAfterDate) {
         remove();
-        return storage
-            .values()
-            .stream()
+        return getRecords()
             .filter(entry -> entry.getRecordDate().isEqual(onOrAfterDate) || entry.getRecordDate().isAfter(onOrAfterDate))
             .sorted()
             .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     @Override
+    @SuppressWarnings("JavaUtilDate")
     public Set<? extends MultifactorAuthenticationTrustRecord> get(final String principal) {
-        remove();
-        return storage
-            .values()
+        if (store == null) {
+            remove();
+            return getRecords()
+                .filter(entry -> entry.getPrincipal().equalsIgnoreCase(principal))
+                .sorted()
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+        val now = DateTimeUtils.dateOf(ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS));
+        val records = store.getIndexed(principal.toLowerCase());
+        val expired = records
             .stream()
-            .filter(entry -> entry.getPrincipal().equalsIgnoreCase(principal))
+            .filter(entry -> isExpired(entry, now))
+            .map(MultifactorAuthenticationTrustRecord::getRecordKey)
+            .collect(Collectors.toList());
+        if (!expired.isEmpty()) {
+            store.removeAll(expired);
+            LOGGER.debug("Invalidated and removed [{}] expired records for [{}]", expired.size(), principal);
+        }
+        return records
+            .stream()
+            .filter(entry -> !isExpired(entry, now))
             .sorted()
             .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
-
     @Override
     public MultifactorAuthenticationTrustRecord saveInternal(final MultifactorAuthenticationTrustRecord record) {
-        this.storage.put(record.getRecordKey(), record);
-        writeTrustedRecordsToResource();
+        getStore().put(record.getRecordKey(), record);
         return record;
     }
 
+    @Override
+    public synchronized void destroy() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
     @SneakyThrows
     private void readTrustedRecordsFromResource() {
         this.storage = new LinkedHashMap<>(MAP_SIZE);
-        if (ResourceUtils.doesResourceExist(location)) {
+        if (ResourceUtils.isFile(location)) {
+            getStore();
+        } else if (ResourceUtils.doesResourceExist(location)) {
             try (val reader = new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8)) {
-                val personList = new TypeReference<Map<String, MultifactorAuthenticationTrustRecord>>() {
-                };
-                this.storage = MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
+                this.storage = readTrustedRecords(reader);
             }
         }
     }
 
+    private synchronized Stream<MultifactorAuthenticationTrustRecord> getRecords() {
+        return store != null ? store.values() : storage.values().stream();
+    }
+
     @SneakyThrows
-    private void writeTrustedRecordsToResource() {
-        val file = this.location.getFile();
-        val res = file.createNewFile();
-        if (res) {
-            LOGGER.debug("Created JSON resource @ [{}]", this.location);
+    private synchronized JournaledJsonFileStore<MultifactorAuthenticationTrustRecord> getStore() {
+        if (store == null) {
+            val file = this.location.getFile();
+            store = new JournaledJsonFileStore<>(file, MAPPER,
+                MAPPER.getTypeFactory().constructType(MultifactorAuthenticationTrustRecord.class),
+                JsonMultifactorAuthenticationTrustStorage::readTrustedRecordsFromFile,
+                (snapshot, records) -> MAPPER.writerWithDefaultPrettyPrinter().writeValue(snapshot, records),
+                JournaledJsonFileStore.DEFAULT_SYNC_INTERVAL,
+                record -> StringUtils.lowerCase(record.getPrincipal()));
+            LOGGER.debug("Opened JSON resource @ [{}] with journal [{}]", this.location, store.getJournalFile());
         }
-        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, this.storage);
-        readTrustedRecordsFromResource();
+        return store;
+    }
+
+    @SuppressWarnings("JavaUtilDate")
+    private static boolean isExpired(final MultifactorAuthenticationTrustRecord record, final Date expirationDate) {
+        return record.getExpirationDate() != null && expirationDate.compareTo(record.getExpirationDate()) >= 0;
+    }
+
+    private static Map<String, MultifactorAuthenticationTrustRecord> readTrustedRecordsFromFile(final File file) throws Exception {
+        try (val reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return readTrustedRecords(reader);
+        }
+    }
+
+    private static Map<String, MultifactorAuthenticationTrustRecord> readTrustedRecords(final Reader reader) throws Exception {
+        val personList = new TypeReference<Map<String, MultifactorAuthenticationTrustRecord>>() {
+        };
+        return MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
     }
 }
@@ -1,6 +1,7 @@
 package org.apereo.cas.trusted.authentication.storage;
 
 import org.apereo.cas.trusted.AbstractMultifactorAuthenticationTrustStorageTests;
+import org.apereo.cas.util.io.JournaledJsonFileStore;
 
 import lombok.Getter;
 import lombok.SneakyThrows;
@@ -46,5 +47,9 @@ public class JsonMultifactorAuthenticationTrustStorageTests extends AbstractMult
         if (file.exists()) {
             FileUtils.deleteQuietly(file);
         }
+        val journal = new File(FileUtils.getTempDirectory(), "trusted-device.json" + JournaledJsonFileStore.JOURNAL_FILE_EXTENSION);
+        if (journal.exists()) {
+            FileUtils.deleteQuietly(journal);
+        }
     }
 }